@@ -22,74 +22,75 @@
 
 package org.zkoss.ganttz;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-
 import org.apache.commons.lang3.math.Fraction;
 import org.joda.time.DateTime;
+import org.joda.time.Days;
 import org.joda.time.Duration;
 import org.joda.time.LocalDate;
 import org.joda.time.ReadableDuration;
 import org.zkoss.ganttz.util.Interval;
 
+/**
+ * The conversions between days and pixels are done with integer arithmetic over the number of days of the interval,
+ * the result is the same as with the proportion of the interval.
+ */
 public class DatesMapperOnInterval implements IDatesMapper {
     private final int horizontalSize;
     private final Interval interval;
+    private final int days;
+    private final long intervalMillis;
     private long millisecondsPerPixel;
     private Fraction pixelsPerDay;
 
     public DatesMapperOnInterval(int horizontalSize, Interval interval) {
         this.horizontalSize = horizontalSize;
         this.interval = interval;
-        this.millisecondsPerPixel = interval.getLengthBetween().getMillis() / horizontalSize;
-        this.pixelsPerDay = Fraction.getFraction(horizontalSize, interval.getDaysBetween().getDays());
+        this.days = interval.getDaysBetween().getDays();
+        this.intervalMillis = interval.getLengthBetween().getMillis();
+        this.millisecondsPerPixel = intervalMillis / horizontalSize;
+        this.pixelsPerDay = Fraction.getFraction(horizontalSize, days);
     }
 
     @Override
     public LocalDate toDate(int pixels) {
-        int daysInto = Fraction.getFraction(pixels, 1).divideBy(pixelsPerDay).intValue();
+        int daysInto = (int) ((long) pixels * days / horizontalSize);
         return getInterval().getStart().plusDays(daysInto);
     }
 
     @Override
     public int toPixels(LocalDate date) {
-        return toPixels(getProportion(date));
+        return toPixels(daysFromStart(date), 0);
     }
 
-    private Fraction getProportion(LocalDate date) {
-        return getProportion(date.toDateTimeAtStartOfDay());
+    private int daysFromStart(LocalDate date) {
+        return Days.daysBetween(getInterval().getStart(), date).getDays();
     }
 
-    private Fraction getProportion(DateTime dateTime) {
-        return getInterval().getProportion(dateTime);
+    private int toPixels(DateTime dateTime) {
+        return toPixels(daysFromStart(dateTime.toLocalDate()), dateTime.getMillisOfDay());
     }
 
-    private int toPixels(Fraction proportion) {
-        try {
-            return proportion.multiplyBy(Fraction.getFraction(horizontalSize, 1)).intValue();
-        } catch (ArithmeticException e) {
-            double d = Math.log10(horizontalSize);
-            int scale = (int) d + 1;
-
-            BigDecimal quotient = new BigDecimal(proportion.getNumerator())
-                    .divide(new BigDecimal(proportion.getDenominator()), scale, RoundingMode.HALF_UP);
-
-            return quotient.multiply(new BigDecimal(horizontalSize)).intValue();
+    private int toPixels(int daysFromStart, long millisIntoDay) {
+        if ( millisIntoDay == 0 ) {
+            return (int) ((long) daysFromStart * horizontalSize / days);
         }
+
+        return (int) ((double) daysFromStart * horizontalSize / days
+                + (double) millisIntoDay * horizontalSize / intervalMillis);
     }
 
     @Override
     public int toPixels(ReadableDuration duration) {
         DateTime end = getInterval().getStart().toDateTimeAtStartOfDay().plus(duration);
 
-        return toPixels(getProportion(end));
+        return toPixels(end);
     }
 
     @Override
     public int toPixelsAbsolute(long milliseconds) {
         DateTime date = new DateTime(milliseconds);
 
-        return this.toPixels(getProportion(date));
+        return this.toPixels(date);
     }
 
     @Override
@@ -40,15 +40,15 @@ import org.zkoss.zk.ui.sys.ContentRenderer;
 import org.zkoss.zul.impl.XulElement;
 
 /**
+ * The components of the tasks joined are looked up in the {@link TaskList} when needed, as they only exist while the
+ * rows of the tasks are shown.
  *
  * @author Francisco Javier Moran Rúa <jmoran@igalia.com>
  * @author Lorenzo Tilve Álvaro <ltilve@igalia.com>
  */
 public class DependencyComponent extends XulElement implements AfterCompose {
 
-    private TaskComponent source;
-
-    private TaskComponent destination;
+    private final TaskList taskList;
 
     private DependencyType type;
 
@@ -62,16 +62,12 @@ public class DependencyComponent extends XulElement implements AfterCompose {
 
     private boolean violated = false;
 
-    public DependencyComponent(TaskComponent source, TaskComponent destination, Dependency dependency) {
+    public DependencyComponent(TaskList taskList, Dependency dependency) {
+        Validate.notNull(taskList);
         Validate.notNull(dependency);
-        Validate.notNull(source);
-        Validate.notNull(destination);
-        Validate.isTrue(source.getTask() == dependency.getSource());
-        Validate.isTrue(destination.getTask() == dependency.getDestination());
 
         this.type = dependency.getType();
-        this.source = source;
-        this.destination = destination;
+        this.taskList = taskList;
         this.dependency = dependency;
     }
 
@@ -99,8 +95,8 @@ public class DependencyComponent extends XulElement implements AfterCompose {
             }
         };
 
-        this.source.getTask().addFundamentalPropertiesChangeListener(listener);
-        this.destination.getTask().addFundamentalPropertiesChangeListener(listener);
+        this.dependency.getSource().addFundamentalPropertiesChangeListener(listener);
+        this.dependency.getDestination().addFundamentalPropertiesChangeListener(listener);
 
         violationListener = Constraint.onlyOnZKExecution(new IConstraintViolationListener<GanttDate>() {
 
@@ -127,59 +123,62 @@ public class DependencyComponent extends XulElement implements AfterCompose {
             return;
         }
 
-        this.source.getTask().removePropertyChangeListener(listener);
-        this.destination.getTask().removePropertyChangeListener(listener);
+        this.dependency.getSource().removePropertyChangeListener(listener);
+        this.dependency.getDestination().removePropertyChangeListener(listener);
         listenerAdded = false;
     }
 
     /**
-     * @return the idTaskOrig
+     * @return the idTaskOrig, null if the row of the source task is not shown
      */
     public String getIdTaskOrig() {
-        return source.getUuid();
-    }
-
-    public void setIdTaskOrig(String idTaskOrig) {
-        this.source = findTaskComponent(idTaskOrig);
-
-    }
-
-    private TaskComponent findTaskComponent(String idTaskOrig) {
-        return (TaskComponent) getFellow(idTaskOrig);
+        return uuidOf(getSource());
     }
 
     /**
-     * @return the idTaskEnd
+     * @return the idTaskEnd, null if the row of the destination task is not shown
      */
     public String getIdTaskEnd() {
-        return destination.getUuid();
+        return uuidOf(getDestination());
     }
 
-    public void setIdTaskEnd(String idTaskEnd) {
-        this.destination = findTaskComponent(idTaskEnd);
+    private static String uuidOf(TaskComponent taskComponent) {
+        return taskComponent == null ? null : taskComponent.getUuid();
     }
 
     public void zoomChanged() {
         redrawDependency();
     }
 
+    /**
+     * The redraw is sent by the {@link DependencyList} together with the other ones requested in the same event. If the
+     * dependency is not shown it is drawn when added to the page.
+     */
     public void redrawDependency() {
-        response("redrawDependency" + getId(), new AuInvoke(this, "draw"));
+        if ( getParent() instanceof DependencyList ) {
+            ((DependencyList) getParent()).redrawDependency(this);
+        }
     }
 
     public boolean contains(Task task) {
-        Task sourceTask = getSource().getTask();
-        Task destinationTask = getDestination().getTask();
+        Task sourceTask = dependency.getSource();
+        Task destinationTask = dependency.getDestination();
 
         return task.equals(sourceTask) || task.equals(destinationTask);
     }
 
+    /**
+     * @return the component of the source task, null if its row is not shown
+     */
     public TaskComponent getSource() {
-        return source;
+        return taskList.find(dependency.getSource());
     }
 
+    /**
+     * @return the component of the destination task, null if its row is not shown
+     */
     public TaskComponent getDestination() {
-        return destination;
+        return taskList.find(dependency.getDestination());
     }
 
     public Dependency getDependency() {
@@ -191,8 +190,8 @@ public class DependencyComponent extends XulElement implements AfterCompose {
     }
 
     public boolean hasSameSourceAndDestination(Dependency dependency) {
-        Task sourceTask = source.getTask();
-        Task destinationTask = destination.getTask();
+        Task sourceTask = this.dependency.getSource();
+        Task destinationTask = this.dependency.getDestination();
 
         return sourceTask.equals(dependency.getSource()) && destinationTask.equals(dependency.getDestination());
     }
@@ -206,7 +205,7 @@ public class DependencyComponent extends XulElement implements AfterCompose {
     }
 
     public boolean hasLimitingTasks() {
-        return (source.isLimiting() || destination.isLimiting());
+        return (dependency.getSource().isLimiting() || dependency.getDestination().isLimiting());
     }
 
     public PropertyChangeListener getVisibilityChangeListener() {
@@ -25,7 +25,14 @@ import static org.zkoss.ganttz.i18n.I18nHelper._;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
 
 import org.zkoss.ganttz.data.Dependency;
 import org.zkoss.ganttz.data.DependencyType;
@@ -37,14 +44,23 @@ import org.zkoss.ganttz.timetracker.zoom.ZoomLevel;
 import org.zkoss.ganttz.util.ComponentsFinder;
 import org.zkoss.ganttz.util.MenuBuilder;
 import org.zkoss.ganttz.util.MenuBuilder.ItemAction;
+import org.zkoss.zk.au.out.AuInvoke;
 import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Executions;
 import org.zkoss.zk.ui.event.Event;
+import org.zkoss.zk.ui.event.Events;
 import org.zkoss.zk.ui.ext.AfterCompose;
 import org.zkoss.zul.Menupopup;
 import org.zkoss.zul.Messagebox;
 import org.zkoss.zul.impl.XulElement;
 
 /**
+ * The redraws of the dependencies requested while processing an event are not sent one by one. They are accumulated
+ * and sent to the client in a single update when the event has been processed, so the arrows are drawn together.
+ * <p>
+ * The dependencies are indexed by the tasks they join, so the ones of a task shown, hidden or removed are found without
+ * going through all of them.
+ *
  * @author Francisco Javier Moran Rúa <jmoran@igalia.com>
  * @author Lorenzo Tilve Álvaro <ltilve@igalia.com>
  */
@@ -116,8 +132,18 @@ public class DependencyList extends XulElement implements AfterCompose {
         }
     }
 
+    private static final String ON_REDRAW_PENDING = "onRedrawPending";
+
     private transient IZoomLevelChangedListener listener;
 
+    private final Set<DependencyComponent> pendingRedraws = new LinkedHashSet<>();
+
+    private final Map<Task, List<DependencyComponent>> dependenciesByTask = new HashMap<>();
+
+    private boolean allPendingRedraw = false;
+
+    private boolean redrawPosted = false;
+
     private final FunctionalityExposedForExtensions<?> context;
 
     private Menupopup contextMenu;
@@ -126,6 +152,7 @@ public class DependencyList extends XulElement implements AfterCompose {
 
     public DependencyList(FunctionalityExposedForExtensions<?> context) {
         this.context = context;
+        addEventListener(ON_REDRAW_PENDING, event -> sendPendingRedraws());
     }
 
     private List<DependencyComponent> getDependencyComponents() {
@@ -134,15 +161,17 @@ public class DependencyList extends XulElement implements AfterCompose {
     }
 
     void addDependencyComponent(final DependencyComponent dependencyComponent) {
-        TaskComponent source = dependencyComponent.getSource();
-        TaskComponent destination = dependencyComponent.getDestination();
+        Task source = dependencyComponent.getDependency().getSource();
+        Task destination = dependencyComponent.getDependency().getDestination();
 
         DependencyVisibilityToggler visibilityToggler =
-                new DependencyVisibilityToggler(source.getTask(), destination.getTask(), dependencyComponent);
+                new DependencyVisibilityToggler(source, destination, dependencyComponent);
 
-        source.getTask().addVisibilityPropertiesChangeListener(visibilityToggler);
-        destination.getTask().addVisibilityPropertiesChangeListener(visibilityToggler);
+        source.addVisibilityPropertiesChangeListener(visibilityToggler);
+        destination.addVisibilityPropertiesChangeListener(visibilityToggler);
         dependencyComponent.setVisibilityChangeListener(visibilityToggler);
+        addTo(source, dependencyComponent);
+        addTo(destination, dependencyComponent);
 
         boolean dependencyMustBeVisible = visibilityToggler.dependencyMustBeVisible();
         visibilityToggler.toggleDependencyExistence(dependencyMustBeVisible);
@@ -179,9 +208,7 @@ public class DependencyList extends XulElement implements AfterCompose {
                     if ( !isInPage() ) {
                         return;
                     }
-                    for (DependencyComponent dependencyComponent : getDependencyComponents()) {
-                        dependencyComponent.zoomChanged();
-                    }
+                    redrawDependencies();
                 }
             };
 
@@ -247,44 +274,116 @@ public class DependencyList extends XulElement implements AfterCompose {
     }
 
     void redrawDependencies() {
-        redrawDependencyComponents(getDependencyComponents());
+        allPendingRedraw = true;
+        pendingRedraws.clear();
+        postRedraw();
     }
 
-    private void redrawDependencyComponents(List<DependencyComponent> dependencyComponents) {
-        for (DependencyComponent dependencyComponent : dependencyComponents) {
-            dependencyComponent.redrawDependency();
+    void redrawDependency(DependencyComponent dependencyComponent) {
+        if ( !allPendingRedraw ) {
+            pendingRedraws.add(dependencyComponent);
         }
+        postRedraw();
     }
 
-    void taskRemoved(Task task) {
-        for (DependencyComponent dependencyComponent : DependencyList.this.getDependencyComponents()) {
-            if ( dependencyComponent.contains(task) ) {
-                removeDependencyComponent(dependencyComponent);
+    private void postRedraw() {
+        if ( redrawPosted || getDesktop() == null || Executions.getCurrent() == null ) {
+            return;
+        }
+        redrawPosted = true;
+        Events.postEvent(ON_REDRAW_PENDING, this, null);
+    }
+
+    private void sendPendingRedraws() {
+        redrawPosted = false;
+
+        if ( allPendingRedraw ) {
+            allPendingRedraw = false;
+            response("redrawDependencies", new AuInvoke(this, "redrawAll"));
+
+            return;
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (DependencyComponent each : pendingRedraws) {
+            if ( each.getParent() == this ) {
+                ids.add(each.getUuid());
             }
         }
+        pendingRedraws.clear();
+
+        if ( !ids.isEmpty() ) {
+            response(null, new AuInvoke(this, "redraw", StringUtils.join(ids, ",")));
+        }
+    }
+
+    /**
+     * The dependencies of the task already shown could have been rendered while its row was not, so they are rendered
+     * again now that it has a component.
+     */
+    void taskShown(Task task) {
+        for (DependencyComponent dependencyComponent : dependenciesOf(task)) {
+            if ( dependencyComponent.getParent() == this ) {
+                dependencyComponent.invalidate();
+            }
+        }
+    }
+
+    void taskRemoved(Task task) {
+        for (DependencyComponent dependencyComponent : dependenciesOf(task)) {
+            removeDependencyComponent(dependencyComponent);
+        }
     }
 
     public void remove(Dependency dependency) {
-        for (DependencyComponent dependencyComponent : DependencyList.this.getDependencyComponents()) {
+        for (DependencyComponent dependencyComponent : dependenciesOf(dependency.getSource())) {
             if ( dependencyComponent.hasSameSourceAndDestination(dependency) ) {
                 removeDependencyComponent(dependencyComponent);
             }
         }
     }
 
+    private List<DependencyComponent> dependenciesOf(Task task) {
+        List<DependencyComponent> dependencies = dependenciesByTask.get(task);
+        return dependencies == null ? new ArrayList<>() : new ArrayList<>(dependencies);
+    }
+
+    private void addTo(Task task, DependencyComponent dependencyComponent) {
+        List<DependencyComponent> dependencies = dependenciesByTask.get(task);
+        if ( dependencies == null ) {
+            dependencies = new ArrayList<>();
+            dependenciesByTask.put(task, dependencies);
+        }
+        dependencies.add(dependencyComponent);
+    }
+
+    private void removeFrom(Task task, DependencyComponent dependencyComponent) {
+        List<DependencyComponent> dependencies = dependenciesByTask.get(task);
+        if ( dependencies == null ) {
+            return;
+        }
+        dependencies.remove(dependencyComponent);
+        if ( dependencies.isEmpty() ) {
+            dependenciesByTask.remove(task);
+        }
+    }
+
     private void removeDependencyComponent(DependencyComponent dependencyComponent) {
         // Remove the visibility listener attached to the tasks
-        TaskComponent source = dependencyComponent.getSource();
-        TaskComponent destination = dependencyComponent.getDestination();
+        Task source = dependencyComponent.getDependency().getSource();
+        Task destination = dependencyComponent.getDependency().getDestination();
         PropertyChangeListener listener = dependencyComponent.getVisibilityChangeListener();
 
-        source.getTask().removeVisibilityPropertiesChangeListener(listener);
-        destination.getTask().removeVisibilityPropertiesChangeListener(listener);
+        source.removeVisibilityPropertiesChangeListener(listener);
+        destination.removeVisibilityPropertiesChangeListener(listener);
+        removeFrom(source, dependencyComponent);
+        removeFrom(destination, dependencyComponent);
 
         // Remove other change listeners
         dependencyComponent.removeChangeListeners();
 
         // Remove the dependency itself
+        pendingRedraws.remove(dependencyComponent);
         this.removeChild(dependencyComponent);
     }
 }
@@ -27,8 +27,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.joda.time.LocalDate;
@@ -187,6 +189,12 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
 
     private final PlannerConfiguration<T> configuration;
 
+    /**
+     * Kept between calls, so the critical path is updated incrementally after
+     * each change in the diagram.
+     */
+    private CriticalPathCalculator<Task, Dependency> criticalPathCalculator;
+
     public FunctionalityExposedForExtensions(
             Planner planner, PlannerConfiguration<T> configuration, GanttZKDiagramGraph diagramGraph) {
 
@@ -422,17 +430,23 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
 
     @Override
     public void showCriticalPath() {
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
-        List<Task> criticalPath = criticalPathCalculator.calculateCriticalPath(diagramGraph);
+        Set<Task> criticalPath = new HashSet<>(calculateCriticalPath());
 
         for (Task task : diagramGraph.getTasks()) {
             task.setInCriticalPath(isInCriticalPath(criticalPath, task));
         }
     }
 
-    private boolean isInCriticalPath(List<Task> criticalPath, Task task) {
+    private List<Task> calculateCriticalPath() {
+        if ( criticalPathCalculator == null ) {
+            criticalPathCalculator =
+                    CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
+        }
+
+        return criticalPathCalculator.updateCriticalPath(diagramGraph);
+    }
+
+    private boolean isInCriticalPath(Set<Task> criticalPath, Task task) {
         if ( task.isContainer() ) {
             List<Task> allTaskLeafs = task.getAllTaskLeafs();
 
@@ -446,10 +460,7 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
     public List<T> getCriticalPath() {
         List<T> result = new ArrayList<>();
 
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
-        for (Task each : criticalPathCalculator.calculateCriticalPath(diagramGraph)) {
+        for (Task each : calculateCriticalPath()) {
             result.add(mapper.findAssociatedDomainObject(each));
         }
 
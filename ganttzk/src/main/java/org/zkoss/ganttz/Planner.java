@@ -976,16 +976,7 @@ public class Planner extends HtmlMacroComponent  {
 
     public TaskComponent getTaskComponentRelatedTo(Task task) {
         TaskList taskList = getTaskList();
-        if ( taskList != null ) {
-
-            for (TaskComponent each : taskList.getTaskComponents()) {
-
-                if ( each.getTask().equals(task) ) {
-                    return each;
-                }
-            }
-        }
-        return null;
+        return taskList != null ? taskList.find(task) : null;
     }
 
 }
@@ -25,7 +25,6 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.util.Date;
-import java.util.Map;
 import java.util.UUID;
 
 import org.apache.commons.lang3.Validate;
@@ -615,18 +614,17 @@ public class TaskComponent extends Div implements AfterCompose {
         return getPage() != null;
     }
 
-    void publishTaskComponents(Map<Task, TaskComponent> resultAccumulated) {
-        resultAccumulated.put(getTask(), this);
-        publishDescendants(resultAccumulated);
-    }
-
-    protected void publishDescendants(Map<Task, TaskComponent> resultAccumulated) {
-
-    }
-
+    /**
+     * Detaches the row and stops listening to the task, so the component can be discarded
+     */
     protected void remove() {
         this.getRow().detach();
         task.removeReloadListener(reloadResourcesTextRequested);
+        task.removePropertyChangeListener(propertiesListener);
+        task.removeAdvancesPropertyChangeListener(showingAdvancePropertyListener);
+        task.removeReportedHoursPropertyChangeListener(showingReportedHoursPropertyListener);
+        task.removeMoneyCostBarPropertyChangeListener(showingMoneyCostBarPropertyListener);
+        task.removeCriticalPathPropertyChangeListener(criticalPathPropertyListener);
     }
 
     public boolean isTopLevel() {
@@ -0,0 +1,104 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.zkoss.ganttz.data.Task;
+
+/**
+ * Components of the tasks shown by a {@link TaskList}, indexed by task.
+ * <p>
+ * The component of a task is created when it is shown and released when it is hidden or removed, so the tasks inside
+ * collapsed containers or filtered out don't keep components.
+ *
+ * @param <C> type of the components
+ */
+class TaskComponentsIndex<C> {
+
+    interface IComponentsLifecycle<C> {
+
+        C create(Task task);
+
+        void release(C component);
+    }
+
+    private final IComponentsLifecycle<C> lifecycle;
+
+    private final Map<Task, C> shown = new HashMap<>();
+
+    TaskComponentsIndex(IComponentsLifecycle<C> lifecycle) {
+        Validate.notNull(lifecycle);
+        this.lifecycle = lifecycle;
+    }
+
+    /**
+     * Returns the component of the task, creating it if the task was not shown
+     */
+    C show(Task task) {
+        C result = shown.get(task);
+        if ( result == null ) {
+            result = lifecycle.create(task);
+            shown.put(task, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Releases the component of the task if it is shown
+     */
+    void hide(Task task) {
+        C component = shown.remove(task);
+        if ( component != null ) {
+            lifecycle.release(component);
+        }
+    }
+
+    /**
+     * Releases the components of the task and of all the tasks inside it
+     */
+    void remove(Task task) {
+        if ( task.isContainer() ) {
+            for (Task each : task.getTasks()) {
+                remove(each);
+            }
+        }
+        hide(task);
+    }
+
+    /**
+     * Returns the component of the task if it is shown, null otherwise
+     */
+    C find(Task task) {
+        return shown.get(task);
+    }
+
+    boolean isShown(Task task) {
+        return shown.containsKey(task);
+    }
+
+    int size() {
+        return shown.size();
+    }
+
+}
@@ -21,11 +21,6 @@
 
 package org.zkoss.ganttz;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ListIterator;
-import java.util.Map;
-
 import org.zkoss.ganttz.adapters.IDisabilityConfiguration;
 import org.zkoss.ganttz.data.Task;
 import org.zkoss.ganttz.data.TaskContainer;
@@ -34,7 +29,8 @@ import org.zkoss.zk.ui.ext.AfterCompose;
 
 /**
  * This class contains the information of a task container. It can be modified
- * and notifies of the changes to the interested parties. <br/>
+ * and notifies of the changes to the interested parties. The components of the
+ * subtasks are created by {@link TaskList} when they are shown. <br/>
  * @author Lorenzo Tilve Álvaro <ltilve@igalia.com>
  */
 public class TaskContainerComponent extends TaskComponent implements
@@ -46,8 +42,6 @@ public class TaskContainerComponent extends TaskComponent implements
                 disabilityConfiguration);
     }
 
-    private List<TaskComponent> subtaskComponents = new ArrayList<TaskComponent>();
-
     private transient IExpandListener expandListener;
 
     public TaskContainerComponent(final TaskContainer taskContainer,
@@ -64,44 +58,6 @@ public class TaskContainerComponent extends TaskComponent implements
             }
         };
         taskContainer.addExpandListener(expandListener);
-        for (Task task : taskContainer.getTasks()) {
-            getCurrentComponents().add(createChild(task));
-        }
-    }
-
-    private TaskComponent createChild(Task task) {
-        return TaskComponent.asTaskComponent(task, disabilityConfiguration,
-                false);
-    }
-
-    @Override
-    protected void publishDescendants(Map<Task, TaskComponent> resultAccumulated) {
-        for (TaskComponent taskComponent : getCurrentComponents()) {
-            taskComponent.publishTaskComponents(resultAccumulated);
-        }
-    }
-
-    @Override
-    protected void remove() {
-        if (isExpanded()) {
-            for (TaskComponent subtaskComponent : getCurrentComponents()) {
-                subtaskComponent.remove();
-            }
-        }
-        super.remove();
-    }
-
-    private List<TaskComponent> getCurrentComponents() {
-        ListIterator<TaskComponent> listIterator = subtaskComponents
-                .listIterator();
-        // one of the subtask components created previously could have been
-        // removed, so we only return the valid ones
-        while (listIterator.hasNext()) {
-            if (!getTaskContainer().contains(listIterator.next().getTask())) {
-                listIterator.remove();
-            }
-        }
-        return subtaskComponents;
     }
 
     public boolean isExpanded() {
@@ -42,18 +42,23 @@ import org.zkoss.zk.ui.ext.AfterCompose;
 import org.zkoss.zul.Menupopup;
 import org.zkoss.zul.impl.XulElement;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.HashMap;
-import java.util.Set;
 import java.util.Collection;
 import java.util.Collections;
 
 /**
  * Component to show the list of task in the planner.
+ * <p>
+ * The {@link TaskComponent} of a task only exists while its row is shown, so the tasks inside collapsed containers or
+ * filtered out don't have components. The dependencies look up the components of their tasks when they are drawn.
+ * <p>
+ * The rows are not virtualized: every shown row has its component and its DOM nodes, also when it is scrolled out of
+ * view. The rows of the {@link LeftTasksTree} are rendered from its tree model and the dependency arrows are placed
+ * from the DOM nodes of both tasks, so both need the rows between them to exist.
  *
  * @author Javier Moran Rua <jmoran@igalia.com>
  */
@@ -73,13 +78,27 @@ public class TaskList extends XulElement implements AfterCompose {
 
     private FilterAndParentExpandedPredicates predicate;
 
-    private Set<Task> visibleTasks = new HashSet<>();
+    private final TaskComponentsIndex<TaskComponent> components =
+            new TaskComponentsIndex<>(new TaskComponentsIndex.IComponentsLifecycle<TaskComponent>() {
 
-    private Map<Task, TaskComponent> taskComponentByTask;
+                @Override
+                public TaskComponent create(Task task) {
+                    return TaskComponent.asTaskComponent(
+                            task, disabilityConfiguration, currentTotalTasks.contains(task));
+                }
+
+                @Override
+                public void release(TaskComponent component) {
+                    component.remove();
+                }
+            });
 
     private Map<TaskContainer, IExpandListener> autoRemovedListers = new WeakHashMap<>();
 
-    private Map<TaskComponent, Menupopup> contextMenus = new HashMap<>();
+    /**
+     * The tasks accepting the same commands share the context menu
+     */
+    private Map<List<Boolean>, Menupopup> contextMenus = new HashMap<>();
 
     public TaskList(
             FunctionalityExposedForExtensions<?> context,
@@ -128,9 +147,7 @@ public class TaskList extends XulElement implements AfterCompose {
     public List<DependencyComponent> asDependencyComponents(Collection<? extends Dependency> dependencies) {
         List<DependencyComponent> result = new ArrayList<>();
         for (Dependency dependency : dependencies) {
-            result.add(new DependencyComponent(
-                    taskComponentByTask.get(dependency.getSource()),
-                    taskComponentByTask.get(dependency.getDestination()), dependency));
+            result.add(new DependencyComponent(this, dependency));
         }
 
         return result;
@@ -154,7 +171,7 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     public void addTasks(Position position, Collection<? extends Task> newTasks) {
-        createAndPublishComponentsIfNeeded(newTasks);
+        prepareToShow(newTasks);
 
         if ( position.isAppendToTop() ) {
             currentTotalTasks.addAll(newTasks);
@@ -168,14 +185,11 @@ public class TaskList extends XulElement implements AfterCompose {
         reload(true);
     }
 
+    /**
+     * Returns the component of the task if its row is shown, null otherwise
+     */
     public TaskComponent find(Task task) {
-        List<TaskComponent> taskComponents = getTaskComponents();
-        for (TaskComponent taskComponent : taskComponents) {
-            if ( taskComponent.getTask().equals(task) ) {
-                return taskComponent;
-            }
-        }
-        return null;
+        return components.find(task);
     }
 
     private void addListenerForTaskComponentEditForm(final TaskComponent taskComponent) {
@@ -214,43 +228,34 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     public int getTasksNumber() {
-        return getTaskComponents().size();
+        return components.size();
     }
 
     @Override
     public void afterCompose() {
-        publishOriginalTasksAsComponents();
+        prepareToShow(currentTotalTasks);
         registerZoomLevelChangedListener();
         reload(false);
     }
 
-    private void publishOriginalTasksAsComponents() {
-        taskComponentByTask = new HashMap<>();
-        createAndPublishComponentsIfNeeded(currentTotalTasks);
-    }
-
-    private List<TaskComponent> createAndPublishComponentsIfNeeded(Collection<? extends Task> newTasks) {
+    /**
+     * Returns the tasks whose rows are shown for the given ones, their leafs if the containers are filtered, and
+     * listens to the expansion of the containers among them.
+     */
+    private List<Task> prepareToShow(Collection<? extends Task> newTasks) {
+        List<Task> result = new ArrayList<>();
         if ( predicate.isFilterContainers() ) {
-            List<Task> taskLeafs = new ArrayList<>();
             for (Task task : newTasks) {
-                taskLeafs.addAll(task.getAllTaskLeafs());
+                result.addAll(task.getAllTaskLeafs());
             }
-            newTasks = taskLeafs;
+        } else {
+            result.addAll(newTasks);
         }
 
-        List<TaskComponent> result = new ArrayList<>();
-        for (Task task : newTasks) {
-            TaskComponent taskComponent = taskComponentByTask.get(task);
-
-            if ( taskComponent == null ) {
-                taskComponent = TaskComponent.asTaskComponent(task, disabilityConfiguration);
-                taskComponent.publishTaskComponents(taskComponentByTask);
-            }
-
+        for (Task task : result) {
             if ( task.isContainer() ) {
                 addExpandListenerTo((TaskContainer) task);
             }
-            result.add(taskComponent);
         }
 
         return result;
@@ -289,8 +294,14 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     private Menupopup getContextMenuFor(TaskComponent taskComponent) {
-        if ( contextMenus.get(taskComponent) == null ) {
-            MenuBuilder<TaskComponent> menuBuilder = MenuBuilder.on(getPage(), getTaskComponents());
+        List<Boolean> accepted = new ArrayList<>();
+        for (CommandOnTaskContextualized<?> command : commandsOnTasksContextualized) {
+            accepted.add(command.accepts(taskComponent));
+        }
+
+        if ( contextMenus.get(accepted) == null ) {
+            MenuBuilder<TaskComponent> menuBuilder =
+                    MenuBuilder.on(getPage(), Collections.<TaskComponent> emptyList());
 
             if ( disabilityConfiguration.isAddingDependenciesEnabled() ) {
 
@@ -299,19 +310,21 @@ public class TaskList extends XulElement implements AfterCompose {
                         (chosen, event) -> chosen.addDependency());
             }
 
-            for (CommandOnTaskContextualized<?> command : commandsOnTasksContextualized) {
-                if ( command.accepts(taskComponent) ) {
+            for (int i = 0; i < commandsOnTasksContextualized.size(); i++) {
+                CommandOnTaskContextualized<?> command = commandsOnTasksContextualized.get(i);
+                if ( accepted.get(i) ) {
                     menuBuilder.item(command.getName(), command.getIcon(), command.toItemAction());
                 }
             }
 
+            // The chosen task component is the reference of the event opening the menu
             Menupopup result = menuBuilder.createWithoutSettingContext();
-            contextMenus.put(taskComponent, result);
+            contextMenus.put(accepted, result);
 
             return result;
         }
 
-        return contextMenus.get(taskComponent);
+        return contextMenus.get(accepted);
     }
 
     GanttPanel getGanttPanel() {
@@ -328,13 +341,7 @@ public class TaskList extends XulElement implements AfterCompose {
 
     public void remove(Task task) {
         currentTotalTasks.remove(task);
-        for (TaskComponent taskComponent : getTaskComponents()) {
-            if ( taskComponent.getTask().equals(task) ) {
-                taskComponent.remove();
-
-                return;
-            }
-        }
+        components.remove(task);
     }
 
     public void addDependency(TaskComponent source, TaskComponent destination) {
@@ -354,11 +361,11 @@ public class TaskList extends XulElement implements AfterCompose {
 
     private void reload(List<Task> tasks, List<Task> tasksPendingToAdd, boolean relocate) {
         for (Task task : tasks) {
-            if ( visibleTasks.contains(task) ) {
+            if ( components.isShown(task) ) {
                 addPendingTasks(tasksPendingToAdd, rowFor(task), relocate);
             }
 
-            final boolean isShown = visibleTasks.contains(task);
+            final boolean isShown = components.isShown(task);
 
             if ( predicate.accepts(task) != isShown ) {
                 if ( isShown ) {
@@ -375,9 +382,7 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     private void makeDisappear(Task task) {
-        TaskComponent taskComponent = find(task);
-        removeChild(taskComponent.getRow());
-        visibleTasks.remove(task);
+        components.hide(task);
         task.setVisible(false);
     }
 
@@ -391,10 +396,16 @@ public class TaskList extends XulElement implements AfterCompose {
             return;
         }
 
-        for (TaskComponent each : createAndPublishComponentsIfNeeded(tasksPendingToAdd)) {
-            addTaskComponent(insertBefore, each, relocate);
-            visibleTasks.add(each.getTask());
-            each.getTask().setVisible(true);
+        List<Task> added = prepareToShow(tasksPendingToAdd);
+        for (Task each : added) {
+            addTaskComponent(insertBefore, components.show(each), relocate);
+        }
+
+        // The rows are added before the tasks become visible, so the dependencies between them find their components
+        DependencyList dependencyList = getGanttPanel().getDependencyList();
+        for (Task each : added) {
+            each.setVisible(true);
+            dependencyList.taskShown(each);
         }
         tasksPendingToAdd.clear();
     }
@@ -276,6 +276,8 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
     private final TopologicalSorter topologicalSorter;
 
+    private int structureVersion = 0;
+
     private List<V> topLevelTasks = new ArrayList<>();
 
     private Map<V, V> fromChildToParent = new HashMap<>();
@@ -503,6 +505,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
         public void recalculationNeeded() {
             taskPointsByDepthCached = null;
+            structureVersion++;
         }
 
         public List<Recalculation> sort(Collection<? extends Recalculation> recalculationsToBeSorted) {
@@ -2466,4 +2469,9 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         return adapter.getChildren(task);
     }
 
+    @Override
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
 }
@@ -21,16 +21,19 @@
 
 package org.zkoss.ganttz.data.criticalpath;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.lang3.Validate;
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.zkoss.ganttz.data.DependencyType;
@@ -40,6 +43,14 @@ import org.zkoss.ganttz.data.constraint.Constraint;
 
 /**
  * Class that calculates the critical path of a Gantt diagram graph.
+ * <p>
+ * The nodes and the values calculated are kept, so the critical path can be
+ * updated with {@link #updateCriticalPath(ICriticalPathCalculable)} after the
+ * dates of some tasks change. Then only the tasks after the modified ones are
+ * recalculated in the forward pass and only the tasks before them in the
+ * backward pass. The total and free float of the tasks can be queried using
+ * the values of the last calculation.
+ * </p>
  *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  */
@@ -68,6 +79,22 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
 
     private Map<T, Map<T, DependencyType>> dependencies;
 
+    private int structureVersion;
+
+    /**
+     * Tasks whose earliest finish is taken into account for the end of the
+     * project.
+     */
+    private Set<T> tasksEndingProject;
+
+    /**
+     * <code>null</code> if the tasks could not be sorted, then the critical
+     * path is always calculated from scratch.
+     */
+    private List<T> topologicalOrder;
+
+    private Map<T, Integer> topologicalIndex;
+
     private class VisitorTracker {
 
         private Map<T, Set<T>> visitorsOn = new HashMap<T, Set<T>>();
@@ -89,6 +116,7 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
 
     public List<T> calculateCriticalPath(ICriticalPathCalculable<T> graph) {
         this.graph = graph;
+        this.structureVersion = graph.getStructureVersion();
 
         dependencies = new HashMap<T, Map<T, DependencyType>>();
 
@@ -98,6 +126,8 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         eop = createEndOfProjectNode();
 
         nodes = createGraphNodes();
+        tasksEndingProject = calculateTasksEndingProject();
+        sortTopologically();
 
         forward(bop, null, new VisitorTracker());
         eop.updateLatestValues();
@@ -107,6 +137,182 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         return getTasksOnCriticalPath();
     }
 
+    /**
+     * Updates the critical path previously calculated for the same graph. Only
+     * the tasks whose dates have changed since the last calculation and the
+     * ones depending on them are recalculated. If the tasks or the
+     * dependencies of the graph have been modified, or the initial date of the
+     * project has moved, it's calculated from scratch.
+     */
+    public List<T> updateCriticalPath(ICriticalPathCalculable<T> graph) {
+        if (!canBeUpdated(graph)) {
+            return calculateCriticalPath(graph);
+        }
+
+        Set<T> modified = updateDatesOfNodes();
+        if (modified.isEmpty()) {
+            return getTasksOnCriticalPath();
+        }
+
+        for (T task : sorted(reachableFrom(modified, true))) {
+            recalculateEarliestStart(nodes.get(task));
+        }
+
+        int previousEndOfProject = eop.getEarliestFinish();
+        recalculateEndOfProject();
+
+        List<T> toRecalculateBackwards;
+        if (eop.getEarliestFinish() == previousEndOfProject) {
+            toRecalculateBackwards = sorted(reachableFrom(modified, false));
+        } else {
+            toRecalculateBackwards = new ArrayList<T>(topologicalOrder);
+        }
+        Collections.reverse(toRecalculateBackwards);
+
+        for (T task : toRecalculateBackwards) {
+            recalculateLatestFinish(nodes.get(task));
+        }
+
+        return getTasksOnCriticalPath();
+    }
+
+    private boolean canBeUpdated(ICriticalPathCalculable<T> graph) {
+        return this.graph == graph && topologicalOrder != null
+                && structureVersion == graph.getStructureVersion()
+                && initDate != null && initDate.equals(calculateInitDate());
+    }
+
+    private Set<T> updateDatesOfNodes() {
+        Set<T> result = new HashSet<T>();
+        for (Node<T, D> each : nodes.values()) {
+            T task = each.getTask();
+            if (each.updateDates(graph.getStartDate(task),
+                    graph.getEndDateFor(task))) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private Set<T> reachableFrom(Set<T> tasks, boolean forward) {
+        Set<T> result = new HashSet<T>(tasks);
+        Deque<T> pending = new ArrayDeque<T>(tasks);
+        while (!pending.isEmpty()) {
+            Node<T, D> node = nodes.get(pending.poll());
+            for (T each : forward ? node.getNextTasks() : node
+                    .getPreviousTasks()) {
+                if (result.add(each)) {
+                    pending.add(each);
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<T> sorted(Set<T> tasks) {
+        List<T> result = new ArrayList<T>(tasks);
+        Collections.sort(result, (o1, o2) -> topologicalIndex.get(o1)
+                .compareTo(topologicalIndex.get(o2)));
+        return result;
+    }
+
+    private void recalculateEarliestStart(Node<T, D> node) {
+        T task = node.getTask();
+        Constraint<GanttDate> constraint = getDateConstraints(task);
+
+        node.resetEarliestValues();
+        if (bop.getNextTasks().contains(task)) {
+            setEarliestStart(node, bop.getEarliestFinish(), constraint);
+        }
+        for (T each : node.getPreviousTasks()) {
+            setEarliestStart(node, earliestStartAfter(nodes.get(each),
+                    getDependencyTypeEndStartByDefault(each, task), node),
+                    constraint);
+        }
+    }
+
+    private void recalculateEndOfProject() {
+        eop = new LastNode<T, D>(eop.getPreviousTasks());
+        for (T each : tasksEndingProject) {
+            eop.setEarliestStart(nodes.get(each).getEarliestFinish());
+        }
+        eop.updateLatestValues();
+    }
+
+    private void recalculateLatestFinish(Node<T, D> node) {
+        T task = node.getTask();
+        Constraint<GanttDate> constraint = getDateConstraints(task);
+
+        node.resetLatestValues();
+        if (eop.getPreviousTasks().contains(task)) {
+            setLatestFinish(node, eop.getLatestStart(), constraint);
+        }
+        for (T each : node.getNextTasks()) {
+            setLatestFinish(node, latestFinishBefore(nodes.get(each),
+                    getDependencyTypeEndStartByDefault(task, each), node),
+                    constraint);
+        }
+    }
+
+    /**
+     * Days that the task can be delayed without delaying the project, using
+     * the values of the last calculation. For containers it's the minimum of
+     * their leaf tasks.
+     */
+    public int getTotalFloat(T task) {
+        int result = Integer.MAX_VALUE;
+        for (Node<T, D> each : getNodesFor(task)) {
+            result = Math.min(result,
+                    each.getLatestStart() - each.getEarliestStart());
+        }
+        return result;
+    }
+
+    /**
+     * Days that the task can be delayed without delaying the earliest start of
+     * any of the following tasks, using the values of the last calculation.
+     * For containers it's the minimum of their leaf tasks.
+     */
+    public int getFreeFloat(T task) {
+        int result = Integer.MAX_VALUE;
+        for (Node<T, D> each : getNodesFor(task)) {
+            result = Math.min(result, getFreeFloat(each));
+        }
+        return result;
+    }
+
+    private int getFreeFloat(Node<T, D> node) {
+        T task = node.getTask();
+        int result = Integer.MAX_VALUE;
+        if (tasksEndingProject.contains(task)) {
+            result = eop.getEarliestStart() - node.getEarliestFinish();
+        }
+        for (T each : node.getNextTasks()) {
+            Node<T, D> next = nodes.get(each);
+            int earliestStartAfter = earliestStartAfter(node,
+                    getDependencyTypeEndStartByDefault(task, each), next);
+            result = Math.min(result, next.getEarliestStart()
+                    - earliestStartAfter);
+        }
+        return result;
+    }
+
+    private List<Node<T, D>> getNodesFor(T task) {
+        Validate.validState(nodes != null,
+                "the critical path has not been calculated yet");
+
+        List<Node<T, D>> result = new ArrayList<Node<T, D>>();
+        for (T each : removeContainers(Arrays.asList(task))) {
+            Node<T, D> node = nodes.get(each);
+            Validate.isTrue(node != null, "task not found in the graph: %s",
+                    each);
+            result.add(node);
+        }
+        Validate.isTrue(!result.isEmpty(), "container without tasks: %s",
+                task);
+        return result;
+    }
+
     private LocalDate calculateInitDate() {
         if (graph.getTasks().isEmpty()) {
             return null;
@@ -227,6 +433,60 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         return result;
     }
 
+    private Set<T> calculateTasksEndingProject() {
+        Set<T> result = new HashSet<T>();
+        for (Node<T, D> each : nodes.values()) {
+            if (allStartStart(each.getTask(), each.getNextTasks())) {
+                result.add(each.getTask());
+            }
+        }
+        return result;
+    }
+
+    private boolean allStartStart(T task, Set<T> nextTasks) {
+        for (T each : nextTasks) {
+            if (getDependencyTypeEndStartByDefault(task,
+                    each) != DependencyType.START_START) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sortTopologically() {
+        List<T> result = new ArrayList<T>();
+        Map<T, Integer> pendingPrevious = new HashMap<T, Integer>();
+        for (Node<T, D> each : nodes.values()) {
+            pendingPrevious.put(each.getTask(), each.getPreviousTasks()
+                    .size());
+            if (each.getPreviousTasks().isEmpty()) {
+                result.add(each.getTask());
+            }
+        }
+
+        for (int i = 0; i < result.size(); i++) {
+            for (T each : nodes.get(result.get(i)).getNextTasks()) {
+                int pending = pendingPrevious.get(each) - 1;
+                pendingPrevious.put(each, pending);
+                if (pending == 0) {
+                    result.add(each);
+                }
+            }
+        }
+
+        if (result.size() != nodes.size()) {
+            topologicalOrder = null;
+            topologicalIndex = null;
+            return;
+        }
+
+        topologicalOrder = result;
+        topologicalIndex = new HashMap<T, Integer>();
+        for (int i = 0; i < result.size(); i++) {
+            topologicalIndex.put(result.get(i), i);
+        }
+    }
+
     private void addDepedenciesAndRelatedTasks(Map<T, Node<T, D>> graph,
             Collection<T> origins,
             Collection<T> destinations, DependencyType type) {
@@ -294,7 +554,6 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
     private void forward(Node<T, D> currentNode, T previousTask,
             VisitorTracker visitorTracker) {
         T currentTask = currentNode.getTask();
-        int earliestStart = currentNode.getEarliestStart();
         int earliestFinish = currentNode.getEarliestFinish();
 
         Set<T> nextTasks = currentNode.getNextTasks();
@@ -318,20 +577,12 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
                         currentTask, task);
                 Constraint<GanttDate> constraint = getDateConstraints(task);
 
-                switch (dependencyType) {
-                case START_START:
-                    setEarliestStart(node, earliestStart, constraint);
+                if (dependencyType == DependencyType.START_START) {
                     countStartStart++;
-                    break;
-                case END_END:
-                    setEarliestStart(node, earliestFinish - node.getDuration(),
-                            constraint);
-                    break;
-                case END_START:
-                default:
-                    setEarliestStart(node, earliestFinish, constraint);
-                    break;
                 }
+                setEarliestStart(node,
+                        earliestStartAfter(currentNode, dependencyType, node),
+                        constraint);
 
                 if (visitorTracker.hasBeenVisitedByAll(task,
                         node.getPreviousTasks())) {
@@ -345,6 +596,19 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         }
     }
 
+    private int earliestStartAfter(Node<T, D> previous,
+            DependencyType dependencyType, Node<T, D> node) {
+        switch (dependencyType) {
+        case START_START:
+            return previous.getEarliestStart();
+        case END_END:
+            return previous.getEarliestFinish() - node.getDuration();
+        case END_START:
+        default:
+            return previous.getEarliestFinish();
+        }
+    }
+
     private void setEarliestStart(Node<T, D> node, int earliestStart,
             Constraint<GanttDate> constraint) {
         if (constraint != null) {
@@ -385,7 +649,6 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
             VisitorTracker visitorTracker) {
         T currentTask = currentNode.getTask();
         int latestStart = currentNode.getLatestStart();
-        int latestFinish = currentNode.getLatestFinish();
 
         Set<T> previousTasks = currentNode.getPreviousTasks();
         if (previousTasks.isEmpty()) {
@@ -408,20 +671,12 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
                         task, currentTask);
                 Constraint<GanttDate> constraint = getDateConstraints(task);
 
-                switch (dependencyType) {
-                case START_START:
-                    setLatestFinish(node, latestStart + node.getDuration(),
-                            constraint);
-                    break;
-                case END_END:
-                    setLatestFinish(node, latestFinish, constraint);
+                if (dependencyType == DependencyType.END_END) {
                     countEndEnd++;
-                    break;
-                case END_START:
-                default:
-                    setLatestFinish(node, latestStart, constraint);
-                    break;
                 }
+                setLatestFinish(node,
+                        latestFinishBefore(currentNode, dependencyType, node),
+                        constraint);
 
                 if (visitorTracker.hasBeenVisitedByAll(task,
                         node.getNextTasks())) {
@@ -435,6 +690,19 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         }
     }
 
+    private int latestFinishBefore(Node<T, D> next,
+            DependencyType dependencyType, Node<T, D> node) {
+        switch (dependencyType) {
+        case START_START:
+            return next.getLatestStart() + node.getDuration();
+        case END_END:
+            return next.getLatestFinish();
+        case END_START:
+        default:
+            return next.getLatestStart();
+        }
+    }
+
     private void setLatestFinish(Node<T, D> node, int latestFinish,
             Constraint<GanttDate> constraint) {
         if (constraint != null) {
@@ -68,4 +68,11 @@ public interface ICriticalPathCalculable<T> {
 
     List<T> getChildren(T task);
 
+    /**
+     * It changes each time a task or a dependency is added or removed, so the
+     * structures calculated previously for the graph can be reused while it
+     * keeps the same value.
+     */
+    int getStructureVersion();
+
 }
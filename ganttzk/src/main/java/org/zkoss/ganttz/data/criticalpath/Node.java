@@ -55,15 +55,8 @@ public class Node<T, D extends IDependency<T>> {
             Set<? extends T> nextTasks, GanttDate startDate, GanttDate endDate) {
         this.task = task;
 
-        if (startDate != null) {
-            this.beginDate = new LocalDate(startDate.toDayRoundedDate());
-        }
-        if (endDate != null) {
-            this.endDate = new LocalDate(endDate.toDayRoundedDate());
-        }
-
-        this.earliestStart = 0;
-        this.earliestFinish = getDuration();
+        updateDates(startDate, endDate);
+        resetEarliestValues();
 
         if (previousTasks != null) {
             this.previousTasks = new HashSet<T>(previousTasks);
@@ -123,6 +116,39 @@ public class Node<T, D extends IDependency<T>> {
         return latestFinish;
     }
 
+    /**
+     * Updates the dates of the task, the values calculated for the node are
+     * not modified.
+     *
+     * @return <code>true</code> if the dates rounded to days have changed
+     */
+    public boolean updateDates(GanttDate startDate, GanttDate endDate) {
+        LocalDate newBeginDate = startDate != null ? new LocalDate(
+                startDate.toDayRoundedDate()) : null;
+        LocalDate newEndDate = endDate != null ? new LocalDate(
+                endDate.toDayRoundedDate()) : null;
+
+        boolean changed = !equal(this.beginDate, newBeginDate)
+                || !equal(this.endDate, newEndDate);
+        this.beginDate = newBeginDate;
+        this.endDate = newEndDate;
+        return changed;
+    }
+
+    private static boolean equal(LocalDate one, LocalDate other) {
+        return one == null ? other == null : one.equals(other);
+    }
+
+    public void resetEarliestValues() {
+        this.earliestStart = 0;
+        this.earliestFinish = getDuration();
+    }
+
+    public void resetLatestValues() {
+        this.latestStart = null;
+        this.latestFinish = null;
+    }
+
     public int getDuration() {
         if (task == null) {
             return 0;
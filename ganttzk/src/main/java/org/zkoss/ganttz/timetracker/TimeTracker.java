@@ -25,6 +25,8 @@ import static org.zkoss.ganttz.i18n.I18nHelper._;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.apache.commons.lang3.Validate;
 import org.joda.time.LocalDate;
@@ -43,6 +45,10 @@ import org.zkoss.ganttz.util.WeakReferencedListeners;
 import org.zkoss.ganttz.util.LongOperationFeedback.ILongOperation;
 import org.zkoss.zk.ui.Component;
 
+/**
+ * The columns of each zoom level are kept while the interval does not change, so going back to a zoom level already
+ * shown does not build them again.
+ */
 public class TimeTracker {
 
     public interface IDetailItemFilter {
@@ -63,9 +69,7 @@ public class TimeTracker {
 
     private IDatesMapper datesMapper = null;
 
-    private Collection<DetailItem> detailsFirstLevelCached = null;
-
-    private Collection<DetailItem> detailsSecondLevelCached = null;
+    private final Map<ZoomLevel, Columns> columnsByZoomLevel = new EnumMap<>(ZoomLevel.class);
 
     private Interval interval;
 
@@ -79,7 +83,57 @@ public class TimeTracker {
 
     private IDetailItemFilter filter = null;
 
-    private Interval realIntervalCached;
+    /**
+     * The columns of a zoom level for the current interval. Each level of details is only calculated when asked for.
+     */
+    private class Columns {
+
+        private final TimeTrackerState state;
+
+        private Collection<DetailItem> firstLevel;
+
+        private Collection<DetailItem> secondLevel;
+
+        private Interval realInterval;
+
+        private Integer horizontalSize;
+
+        private Columns(TimeTrackerState state) {
+            this.state = state;
+        }
+
+        Collection<DetailItem> getFirstLevel() {
+            if ( firstLevel == null ) {
+                firstLevel = state.getFirstLevelDetails(interval);
+            }
+
+            return firstLevel;
+        }
+
+        Collection<DetailItem> getSecondLevel() {
+            if ( secondLevel == null ) {
+                secondLevel = state.getSecondLevelDetails(interval);
+            }
+
+            return secondLevel;
+        }
+
+        Interval getRealInterval() {
+            if ( realInterval == null ) {
+                realInterval = state.getRealIntervalFor(interval);
+            }
+
+            return realInterval;
+        }
+
+        int getHorizontalSize() {
+            if ( horizontalSize == null ) {
+                horizontalSize = sizeOf(getSecondLevel());
+            }
+
+            return horizontalSize;
+        }
+    }
 
     public TimeTracker(Interval interval, ZoomLevel zoomLevel, Component parent) {
         this(interval, zoomLevel, SeveralModifiers.empty(), SeveralModifiers.empty(), parent);
@@ -134,12 +188,18 @@ public class TimeTracker {
         zoomListeners.addListener(listener);
     }
 
-    public Collection<DetailItem> getDetailsFirstLevel() {
-        if ( detailsFirstLevelCached == null ) {
-            detailsFirstLevelCached = getTimeTrackerState().getFirstLevelDetails(interval);
+    private Columns getColumns() {
+        Columns result = columnsByZoomLevel.get(detailLevel);
+        if ( result == null ) {
+            result = new Columns(getTimeTrackerState());
+            columnsByZoomLevel.put(detailLevel, result);
         }
 
-        return filterFirstLevel(detailsFirstLevelCached);
+        return result;
+    }
+
+    public Collection<DetailItem> getDetailsFirstLevel() {
+        return filterFirstLevel(getColumns().getFirstLevel());
     }
 
     private Collection<DetailItem> filterFirstLevel(Collection<DetailItem> firstLevelDetails) {
@@ -147,11 +207,7 @@ public class TimeTracker {
     }
 
     public Collection<DetailItem> getDetailsSecondLevel() {
-        if ( detailsSecondLevelCached == null ) {
-            detailsSecondLevelCached = getTimeTrackerState().getSecondLevelDetails(interval);
-        }
-
-        return filterSecondLevel(detailsSecondLevelCached);
+        return filterSecondLevel(getColumns().getSecondLevel());
     }
 
     private Collection<DetailItem> filterSecondLevel(Collection<DetailItem> secondLevelDetails) {
@@ -159,11 +215,7 @@ public class TimeTracker {
     }
 
     public Interval getRealInterval() {
-        if ( realIntervalCached == null ) {
-            realIntervalCached = getTimeTrackerState().getRealIntervalFor(interval);
-        }
-
-        return realIntervalCached;
+        return getColumns().getRealInterval();
     }
 
     public TimeTrackerState getTimeTrackerState() {
@@ -181,8 +233,12 @@ public class TimeTracker {
     }
 
     public int getHorizontalSize() {
+        return filter == null ? getColumns().getHorizontalSize() : sizeOf(getDetailsSecondLevel());
+    }
+
+    private static int sizeOf(Collection<DetailItem> details) {
         int horizontalSize = 0;
-        for (DetailItem detailItem : getDetailsSecondLevel()) {
+        for (DetailItem detailItem : details) {
             horizontalSize += detailItem.getSize();
         }
 
@@ -191,13 +247,15 @@ public class TimeTracker {
 
     private void clearDetailLevelDependantData() {
         datesMapper = null;
-        detailsFirstLevelCached = detailsSecondLevelCached = null;
-        realIntervalCached = null;
+    }
+
+    private void clearIntervalDependantData() {
+        datesMapper = null;
+        columnsByZoomLevel.clear();
     }
 
     public void resetMapper() {
         datesMapper = null;
-        realIntervalCached = null;
     }
 
     public IDatesMapper getMapper() {
@@ -241,6 +299,11 @@ public class TimeTracker {
         fireZoomChanged();
     }
 
+    private void intervalChanged() {
+        clearIntervalDependantData();
+        fireZoomChanged();
+    }
+
     public void zoomDecrease() {
         detailLevel = detailLevel.previous();
         invalidatingChangeHappenedWithFeedback();
@@ -255,7 +318,7 @@ public class TimeTracker {
         if ( !registeredFirstTask ) {
             registeredFirstTask = true;
             interval = new Interval(startMinusTwoWeeks(task), endPlusOneMonth(task));
-            invalidatingChangeHappened();
+            intervalChanged();
         } else {
             LocalDate newStart = interval.getStart();
             LocalDate newFinish = interval.getFinish();
@@ -274,7 +337,7 @@ public class TimeTracker {
 
             if ( changed ) {
                 interval = new Interval(newStart, newFinish);
-                invalidatingChangeHappened();
+                intervalChanged();
             }
         }
     }
@@ -255,15 +255,33 @@ ganttz.DependencyComponent = zk.$extends(
 
         bind_ : function() {
             this.$supers('bind_', arguments);
+            ganttz.DependencyList.getInstance().register(this);
+            ganttz.DependencyList.getInstance().drawWhenReady(this);
+        },
 
-            /* TODO Maybe move this listener to the $init method */
-            YAHOO.util.Event.onDOMReady(this.proxy(function() {
-                this.draw();
-            }));
+        unbind_ : function() {
+            ganttz.DependencyList.getInstance().unregister(this);
+            this.$supers('unbind_', arguments);
         },
 
         draw : function() {
+            var coords = this.calculateCoords();
+            if (coords) {
+                this.$n().style.display = '';
+                this.drawArrow_(coords.orig, coords.dest);
+            }
+        },
+
+        /*
+         * Only reads the positions of the tasks, so the coordinates of several dependencies can be calculated
+         * before drawing any of them.
+         */
+        calculateCoords : function() {
+            var result = null;
             this._withOriginAndDestination(function(origin, destination) {
+                if (origin.length == 0 || destination.length == 0) {
+                    return;
+                }
                 var orig = this.findPos_(origin);
                 var dest = this.findPos_(destination);
 
@@ -288,8 +306,9 @@ ganttz.DependencyComponent = zk.$extends(
                     orig.top = orig.top - ganttz.TaskComponent.HEIGHT;
                 }
 
-                this.drawArrow_(orig, dest);
+                result = { orig : orig, dest : dest };
             });
+            return result;
         },
 
         _withOriginAndDestination : function(f) {
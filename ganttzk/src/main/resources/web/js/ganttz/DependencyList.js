@@ -1,15 +1,237 @@
 zk.$package("ganttz");
 
+/*
+ * The dependencies are indexed by the tasks they join, so the ones related to a task are found without querying the
+ * DOM. When several dependencies are drawn together all the positions are read before any arrow is changed, and the
+ * arrows out of the visible area are hidden and left pending until it is scrolled to them.
+ *
+ * The pending arrows keep the box they had when they were left out, and are indexed by the bands of rows that box
+ * crosses. On scroll only the arrows of the bands in view whose box is in view are positioned again.
+ */
 ganttz.DependencyList = zk.$extends(zk.Widget, {
     $init : function(){
         this.$supers('$init', arguments);
         this.$class.setInstance(this);
+        this._byTask = {};
+        this._notDrawn = {};
+        this._notDrawnByBand = {};
+        this._toDrawWhenReady = [];
+        this._drawNotDrawnInViewThrottled = common.Common.throttle(
+                this.$class.SCROLL_THROTTLE_MILLIS, this.proxy(this._drawNotDrawnInView));
+    },
+
+    bind_ : function(){
+        this.$supers('bind_', arguments);
+        this._scrollArea = jq('.rightpanel-layout div:first');
+        this.domListen_(this._scrollArea, 'onScroll', '_onScroll');
+    },
+
+    unbind_ : function(){
+        this.domUnlisten_(this._scrollArea, 'onScroll', '_onScroll');
+        clearTimeout(this._lastScrollTimeout);
+        this.$supers('unbind_', arguments);
+    },
+
+    register : function(dependency) {
+        this._addTo(dependency.getIdTaskOrig(), dependency);
+        this._addTo(dependency.getIdTaskEnd(), dependency);
+    },
+
+    unregister : function(dependency) {
+        this._removeFrom(dependency.getIdTaskOrig(), dependency);
+        this._removeFrom(dependency.getIdTaskEnd(), dependency);
+        this._removeNotDrawn(dependency);
+    },
+
+    dependenciesOf : function(taskId) {
+        return (this._byTask[taskId] || []).slice();
+    },
+
+    drawWhenReady : function(dependency) {
+        this._toDrawWhenReady.push(dependency);
+        if (this._toDrawWhenReady.length == 1) {
+            YAHOO.util.Event.onDOMReady(this.proxy(function() {
+                var dependencies = this._toDrawWhenReady;
+                this._toDrawWhenReady = [];
+                this._draw(dependencies);
+            }));
+        }
+    },
+
+    redrawAll : function() {
+        var dependencies = [];
+        for (var w = this.firstChild; w; w = w.nextSibling) {
+            if (w.$instanceof(ganttz.DependencyComponent)) {
+                dependencies.push(w);
+            }
+        }
+        this._draw(dependencies);
+    },
+
+    redraw : function(ids) {
+        var dependencies = [];
+        jq.each(ids.split(','), function(index, id) {
+            var dependency = zk.Widget.$(id);
+            if (dependency) {
+                dependencies.push(dependency);
+            }
+        });
+        this._draw(dependencies);
+    },
+
+    _draw : function(dependencies) {
+        var area = this._visibleArea();
+        var positions = [];
+        for (var i = 0; i < dependencies.length; i++) {
+            if (dependencies[i].desktop) {
+                positions.push({ dependency : dependencies[i], coords : dependencies[i].calculateCoords() });
+            }
+        }
+        for (var j = 0; j < positions.length; j++) {
+            var each = positions[j];
+            if (!each.coords) {
+                continue;
+            }
+            var box = this._boxOf(each.coords);
+            this._removeNotDrawn(each.dependency);
+            if (this._intersects(box, area)) {
+                each.dependency.$n().style.display = '';
+                each.dependency.drawArrow_(each.coords.orig, each.coords.dest);
+            } else {
+                // Hidden so it is not seen at its previous position
+                this._addNotDrawn(each.dependency, box);
+                each.dependency.$n().style.display = 'none';
+            }
+        }
+    },
+
+    /*
+     * Throttled, with a last call once the scroll stops so the final position is not missed.
+     */
+    _onScroll : function() {
+        clearTimeout(this._lastScrollTimeout);
+        this._lastScrollTimeout = setTimeout(this.proxy(this._drawNotDrawnInView), this.$class.SCROLL_THROTTLE_MILLIS);
+        this._drawNotDrawnInViewThrottled();
+    },
+
+    _drawNotDrawnInView : function() {
+        var area = this._visibleArea();
+        if (!area) {
+            return;
+        }
+        var dependencies = [];
+        var found = {};
+        var lastBand = this._bandOf(area.bottom);
+        for (var band = this._bandOf(area.top); band <= lastBand; band++) {
+            var inBand = this._notDrawnByBand[band];
+            for (var id in inBand) {
+                if (!found[id] && this._intersects(this._notDrawn[id].box, area)) {
+                    found[id] = true;
+                    dependencies.push(inBand[id]);
+                }
+            }
+        }
+        if (dependencies.length > 0) {
+            this._draw(dependencies);
+        }
+    },
+
+    _addNotDrawn : function(dependency, box) {
+        var first = this._bandOf(box.top);
+        var last = this._bandOf(box.bottom);
+        this._notDrawn[dependency.uuid] = { box : box, firstBand : first, lastBand : last };
+        for (var band = first; band <= last; band++) {
+            var inBand = this._notDrawnByBand[band];
+            if (!inBand) {
+                inBand = this._notDrawnByBand[band] = {};
+            }
+            inBand[dependency.uuid] = dependency;
+        }
+    },
+
+    _removeNotDrawn : function(dependency) {
+        var notDrawn = this._notDrawn[dependency.uuid];
+        if (!notDrawn) {
+            return;
+        }
+        delete this._notDrawn[dependency.uuid];
+        for (var band = notDrawn.firstBand; band <= notDrawn.lastBand; band++) {
+            var inBand = this._notDrawnByBand[band];
+            delete inBand[dependency.uuid];
+            if (jq.isEmptyObject(inBand)) {
+                delete this._notDrawnByBand[band];
+            }
+        }
+    },
+
+    _bandOf : function(top) {
+        return Math.floor(top / this.$class.BAND_HEIGHT);
+    },
+
+    /*
+     * Area shown of the list of dependencies, in its coordinates, with a margin of a screen on each side so the
+     * arrows are already there when scrolling.
+     */
+    _visibleArea : function() {
+        if (!this._scrollArea || this._scrollArea.length == 0) {
+            return null;
+        }
+        var list = jq('#listdependencies').offset();
+        var shown = this._scrollArea.offset();
+        var width = this._scrollArea.width();
+        var height = this._scrollArea.height();
+        var left = shown.left - list.left;
+        var top = shown.top - list.top;
+        return { left : left - width, right : left + 2 * width, top : top - height, bottom : top + 2 * height };
+    },
+
+    _boxOf : function(coords) {
+        return {
+            left : Math.min(coords.orig.left, coords.dest.left),
+            right : Math.max(coords.orig.left, coords.dest.left),
+            top : Math.min(coords.orig.top, coords.dest.top),
+            bottom : Math.max(coords.orig.top, coords.dest.top)
+        };
+    },
+
+    _intersects : function(box, area) {
+        if (!area) {
+            return true;
+        }
+        return box.right >= area.left && box.left <= area.right && box.bottom >= area.top && box.top <= area.bottom;
+    },
+
+    _addTo : function(taskId, dependency) {
+        var dependencies = this._byTask[taskId];
+        if (!dependencies) {
+            dependencies = this._byTask[taskId] = [];
+        }
+        dependencies.push(dependency);
+    },
+
+    _removeFrom : function(taskId, dependency) {
+        var dependencies = this._byTask[taskId];
+        if (!dependencies) {
+            return;
+        }
+        var index = jq.inArray(dependency, dependencies);
+        if (index >= 0) {
+            dependencies.splice(index, 1);
+        }
+        if (dependencies.length == 0) {
+            delete this._byTask[taskId];
+        }
     }
 },{
+    SCROLL_THROTTLE_MILLIS : 50,
+
+    // Height in pixels of the bands of rows the pending arrows are indexed by
+    BAND_HEIGHT : 500,
+
     setInstance : function(instance){
         this._instance = instance;
     },
     getInstance : function(){
         return this._instance;
     }
-});
\ No newline at end of file
+});
@@ -125,28 +125,14 @@ ganttz.TaskComponent = zk.$extends(
             zAu.send(new zk.Event(this, 'onAddDependency', {dependencyId : task.id}));
         },
         _getRelatedDependencies: function() {
-            return jq('.dependency[idtaskorig='+ this.uuid + ']')
-                .add('.dependency[idtaskend='+ this.uuid + ']')
-                .get()
-                .map(function(dep) {
-                    return ganttz.DependencyComponentBase.$(dep);
-                });
+            return ganttz.DependencyList.getInstance().dependenciesOf(this.uuid);
         },
         _addDragDrop : function() {
             var dragdropregion = this._getDragDropRegion();
             var thisTaskId = this.$n().id;
 
-            var relatedDependencies = common.Common.throttle(3000, function() {
-                return jq('.dependency[idtaskorig='+ thisTaskId + ']')
-                    .add('.dependency[idtaskend='+ thisTaskId + ']')
-                    .get()
-                    .map(function(dep) {
-                        return ganttz.DependencyComponentBase.$(dep);
-                    });
-            });
-
             var drawDependencies = common.Common.throttle(25, function() {
-                relatedDependencies().forEach(function(dependency) {
+                ganttz.DependencyList.getInstance().dependenciesOf(thisTaskId).forEach(function(dependency) {
                     dependency.draw();
                 });
             });
@@ -0,0 +1,69 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.lang3.math.Fraction;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.zkoss.ganttz.util.Interval;
+
+public class DatesMapperOnIntervalTest {
+
+    private final LocalDate start = new LocalDate(2010, 1, 1);
+
+    private final Interval interval = new Interval(start, start.plusDays(1000));
+
+    private final DatesMapperOnInterval mapper = new DatesMapperOnInterval(33333, interval);
+
+    @Test
+    public void convertsDaysLikeTheProportionOfTheInterval() {
+        for (int i = -10; i <= 1010; i++) {
+            LocalDate day = start.plusDays(i);
+            int expected = interval.getProportion(day.toDateTimeAtStartOfDay())
+                    .multiplyBy(Fraction.getFraction(33333, 1)).intValue();
+
+            assertEquals(expected, mapper.toPixels(day));
+        }
+    }
+
+    @Test
+    public void convertsPixelsToTheDayTheyAreIn() {
+        for (int pixels = 0; pixels <= 33333; pixels += 7) {
+            int expected = Fraction.getFraction(pixels, 1).divideBy(mapper.getPixelsPerDay()).intValue();
+
+            assertEquals(start.plusDays(expected), mapper.toDate(pixels));
+        }
+    }
+
+    @Test
+    public void theTimeOfTheDayMovesInsideTheDay() {
+        DateTime day = start.plusDays(300).toDateTimeAtStartOfDay();
+        int atStart = mapper.toPixels(start.plusDays(300));
+        int atNextDay = mapper.toPixels(start.plusDays(301));
+
+        int inTheMiddle = mapper.toPixelsAbsolute(day.plusHours(12).getMillis());
+
+        assertEquals(atStart + (atNextDay - atStart) / 2, inTheMiddle);
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zkoss.ganttz.TaskComponentsIndex.IComponentsLifecycle;
+import org.zkoss.ganttz.data.DefaultFundamentalProperties;
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.ganttz.data.TaskContainer;
+import org.zkoss.ganttz.data.TaskLeaf;
+
+public class TaskComponentsIndexTest {
+
+    private static class Component {
+
+        private final Task task;
+
+        private boolean released = false;
+
+        private Component(Task task) {
+            this.task = task;
+        }
+    }
+
+    private List<Component> created;
+
+    private TaskComponentsIndex<Component> index;
+
+    @Before
+    public void createIndex() {
+        created = new ArrayList<>();
+        index = new TaskComponentsIndex<>(new IComponentsLifecycle<Component>() {
+
+            @Override
+            public Component create(Task task) {
+                Component result = new Component(task);
+                created.add(result);
+
+                return result;
+            }
+
+            @Override
+            public void release(Component component) {
+                component.released = true;
+            }
+        });
+    }
+
+    private static Task leaf() {
+        return new TaskLeaf(new DefaultFundamentalProperties());
+    }
+
+    private static TaskContainer containerWith(Task... tasks) {
+        TaskContainer result = new TaskContainer(new DefaultFundamentalProperties(), false);
+        for (Task each : tasks) {
+            result.add(each);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void theComponentIsNotCreatedUntilTheTaskIsShown() {
+        Task task = leaf();
+
+        assertNull(index.find(task));
+        assertFalse(index.isShown(task));
+        assertTrue(created.isEmpty());
+
+        Component component = index.show(task);
+
+        assertSame(task, component.task);
+        assertSame(component, index.find(task));
+        assertTrue(index.isShown(task));
+        assertEquals(1, created.size());
+    }
+
+    @Test
+    public void showingAShownTaskReturnsTheSameComponent() {
+        Task task = leaf();
+        Component component = index.show(task);
+
+        assertSame(component, index.show(task));
+        assertEquals(1, created.size());
+    }
+
+    @Test
+    public void onlyTheShownTasksHaveComponents() {
+        Task first = leaf();
+        Task second = leaf();
+        TaskContainer container = containerWith(first, second);
+
+        index.show(container);
+
+        assertEquals(1, index.size());
+        assertNull(index.find(first));
+        assertNull(index.find(second));
+        assertEquals(1, created.size());
+    }
+
+    @Test
+    public void theComponentIsReleasedWhenTheTaskIsHidden() {
+        Task task = leaf();
+        Component component = index.show(task);
+
+        index.hide(task);
+
+        assertTrue(component.released);
+        assertNull(index.find(task));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void aNewComponentIsCreatedWhenTheTaskIsShownAgain() {
+        Task task = leaf();
+        Component first = index.show(task);
+        index.hide(task);
+
+        Component second = index.show(task);
+
+        assertNotSame(first, second);
+        assertFalse(second.released);
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void hidingATaskNotShownDoesNothing() {
+        index.hide(leaf());
+
+        assertTrue(created.isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void removingAContainerReleasesTheComponentsOfItsTasks() {
+        Task leaf = leaf();
+        TaskContainer inner = containerWith(leaf);
+        Task other = leaf();
+        TaskContainer container = containerWith(inner, other);
+        Task notRemoved = leaf();
+        Component containerComponent = index.show(container);
+        Component innerComponent = index.show(inner);
+        Component leafComponent = index.show(leaf);
+        Component notRemovedComponent = index.show(notRemoved);
+
+        index.remove(container);
+
+        assertTrue(containerComponent.released);
+        assertTrue(innerComponent.released);
+        assertTrue(leafComponent.released);
+        assertFalse(notRemovedComponent.released);
+        assertEquals(1, index.size());
+        assertSame(notRemovedComponent, index.find(notRemoved));
+    }
+
+}
@@ -27,13 +27,16 @@ import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.zkoss.ganttz.data.constraint.ConstraintOnComparableValues.biggerOrEqualThan;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
@@ -3082,4 +3085,132 @@ public class CriticalPathCalculatorTest {
         }
     }
 
+    private final Map<ITaskFundamentalProperties, Integer> durations = new HashMap<>();
+
+    private ITaskFundamentalProperties task1;
+
+    private ITaskFundamentalProperties task2;
+
+    private ITaskFundamentalProperties task3;
+
+    /**
+     * <pre>
+     * #### T1 ####
+     *       |---- #### T2 ####
+     *
+     * #### T3 ####
+     * </pre>
+     *
+     * The durations can be changed after creating the graph.
+     */
+    private void givenPairOfTasksAndOtherTaskNotConnectedWithChangingDurations(
+            int daysTask1, int daysTask2, int daysTask3) {
+
+        diagramGraphExample = createNiceMock(ICriticalPathCalculable.class);
+
+        task1 = createTask(START, daysTask1);
+        task2 = createTask(START, daysTask2);
+        task3 = createTask(START, daysTask3);
+        durations.put(task1, daysTask1);
+        durations.put(task2, daysTask2);
+        durations.put(task3, daysTask3);
+
+        List<ITaskFundamentalProperties> listOfTasks = Arrays.asList(task1, task2, task3);
+
+        expect(diagramGraphExample.getTasks()).andReturn(listOfTasks).anyTimes();
+        expect(diagramGraphExample.getInitialTasks()).andReturn(Arrays.asList(task1, task3)).anyTimes();
+        expect(diagramGraphExample.getLatestTasks()).andReturn(Arrays.asList(task2, task3)).anyTimes();
+
+        expect(diagramGraphExample.getDependencyFrom(
+                isA(ITaskFundamentalProperties.class),
+                isA(ITaskFundamentalProperties.class))).andReturn(null)
+                .anyTimes();
+
+        expect(diagramGraphExample.getIncomingTasksFor(task1)).andReturn(new HashSet<>()).anyTimes();
+        expect(diagramGraphExample.getIncomingTasksFor(task3)).andReturn(new HashSet<>()).anyTimes();
+
+        expect(diagramGraphExample.getIncomingTasksFor(task2))
+                .andReturn(new HashSet<>(Collections.singletonList(task1)))
+                .anyTimes();
+
+        expect(diagramGraphExample.getOutgoingTasksFor(task1))
+                .andReturn(new HashSet<>(Collections.singletonList(task2)))
+                .anyTimes();
+
+        expect(diagramGraphExample.getOutgoingTasksFor(task2)).andReturn(new HashSet<>()).anyTimes();
+        expect(diagramGraphExample.getOutgoingTasksFor(task3)).andReturn(new HashSet<>()).anyTimes();
+
+        for (final ITaskFundamentalProperties task : listOfTasks) {
+            expect(diagramGraphExample.getStartDate(task)).andReturn(task.getBeginDate()).anyTimes();
+            expect(diagramGraphExample.getEndDateFor(task))
+                    .andAnswer(() -> toDate(START.plusDays(durations.get(task))))
+                    .anyTimes();
+        }
+
+        replay(diagramGraphExample);
+    }
+
+    @Test
+    public void floatsOfPairOfTasksAndOtherTaskNotConnected() {
+        givenPairOfTasksAndOtherTaskNotConnectedWithChangingDurations(5, 5, 8);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+
+        List<ITaskFundamentalProperties> criticalPath = calculator.calculateCriticalPath(diagramGraphExample);
+
+        assertThat(new HashSet<>(criticalPath), equalTo(new HashSet<>(Arrays.asList(task1, task2))));
+        assertThat(calculator.getTotalFloat(task1), equalTo(0));
+        assertThat(calculator.getFreeFloat(task1), equalTo(0));
+        assertThat(calculator.getTotalFloat(task3), equalTo(2));
+        assertThat(calculator.getFreeFloat(task3), equalTo(2));
+    }
+
+    @Test
+    public void updateAfterResizingTaskNotConnected() {
+        givenPairOfTasksAndOtherTaskNotConnectedWithChangingDurations(5, 5, 8);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+        calculator.calculateCriticalPath(diagramGraphExample);
+
+        durations.put(task3, 12);
+        List<ITaskFundamentalProperties> criticalPath = calculator.updateCriticalPath(diagramGraphExample);
+
+        assertThat(criticalPath, equalTo(Collections.singletonList(task3)));
+        assertThat(calculator.getTotalFloat(task1), equalTo(2));
+        assertThat(calculator.getFreeFloat(task1), equalTo(0));
+        assertThat(calculator.getTotalFloat(task2), equalTo(2));
+        assertThat(calculator.getFreeFloat(task2), equalTo(2));
+        assertThat(calculator.getTotalFloat(task3), equalTo(0));
+    }
+
+    @Test
+    public void updateAfterResizingFirstTaskOfPair() {
+        givenPairOfTasksAndOtherTaskNotConnectedWithChangingDurations(5, 5, 8);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+        calculator.calculateCriticalPath(diagramGraphExample);
+
+        durations.put(task1, 1);
+        List<ITaskFundamentalProperties> updated = calculator.updateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> fromScratch = buildCalculator().calculateCriticalPath(diagramGraphExample);
+
+        assertThat(updated, equalTo(Collections.singletonList(task3)));
+        assertThat(new HashSet<>(updated), equalTo(new HashSet<>(fromScratch)));
+        assertThat(calculator.getTotalFloat(task1), equalTo(2));
+        assertThat(calculator.getTotalFloat(task2), equalTo(2));
+    }
+
+    @Test
+    public void updateWithoutChangesKeepsTheCriticalPath() {
+        givenPairOfTasksAndOtherTaskNotConnectedWithChangingDurations(5, 5, 8);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+
+        List<ITaskFundamentalProperties> first = calculator.updateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> second = calculator.updateCriticalPath(diagramGraphExample);
+
+        assertThat(new HashSet<>(second), equalTo(new HashSet<>(first)));
+        assertTrue(second.contains(task1));
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks;
+
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.calendars.entities.CalendarExceptionType;
+import org.libreplan.business.calendars.entities.CalendarExceptionTypeColor;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Builds the in-memory entities used by the benchmarks.
+ * <p>
+ * All of them are real entities, built as the business tests do but without saving them. The workers and the
+ * tasks work on {@link #SCENARIO}, so they don't need the scenario manager of a running application.
+ * </p>
+ */
+public class InMemoryEntities {
+
+    public static final LocalDate START = new LocalDate(2020, 1, 6);
+
+    public static final Scenario SCENARIO = Scenario.create("benchmark");
+
+    private InMemoryEntities() {
+    }
+
+    /**
+     * Eight hours from Monday to Friday.
+     */
+    public static BaseCalendar basicCalendar() {
+        BaseCalendar result = BaseCalendar.createBasicCalendar();
+        result.setName("benchmark");
+
+        return result;
+    }
+
+    /**
+     * A chain of <code>depth</code> calendars, each one derived from the previous one.
+     * Each calendar of the chain adds an exception every <code>exceptionsEveryDays</code> days.
+     *
+     * @return the last calendar of the chain
+     */
+    public static BaseCalendar derivedCalendarsChain(int depth, int exceptionsEveryDays, int days) {
+        CalendarExceptionType exceptionType =
+                CalendarExceptionType.create("BENCHMARK", CalendarExceptionTypeColor.DEFAULT, true);
+
+        BaseCalendar result = basicCalendar();
+        for (int level = 0; level < depth; level++) {
+            result = result.newDerivedCalendar();
+            for (int day = level; day < days; day += exceptionsEveryDays) {
+                result.addExceptionDay(CalendarException.create(START.plusDays(day), hours(level % 8), exceptionType));
+            }
+        }
+
+        return result;
+    }
+
+    public static ResourceCalendar resourceCalendar() {
+        return basicCalendar().newDerivedResourceCalendar();
+    }
+
+    /**
+     * A worker without any load, so the allocations are not affected by other assignments.
+     */
+    public static Worker workerWithoutLoad(ResourceCalendar calendar) {
+        Worker result = Worker.create(UUID.randomUUID().toString());
+        result.setFirstName("benchmark");
+        result.setSurname("benchmark");
+        result.setNif(UUID.randomUUID().toString());
+        result.setCalendar(calendar);
+        result.useScenario(SCENARIO);
+
+        return result;
+    }
+
+    /**
+     * A task of an order with the given calendar, from {@link #START} and lasting the given days.
+     */
+    public static Task task(BaseCalendar calendar, int days) {
+        OrderLine orderLine = OrderLine.createOrderLineWithUnfixedPercentage(8 * days);
+        orderLine.setName("benchmark");
+        orderLine.setCode(UUID.randomUUID().toString());
+        HoursGroup hoursGroup = orderLine.getHoursGroups().get(0);
+        hoursGroup.setCode(UUID.randomUUID().toString());
+
+        Order order = Order.create();
+        order.setName("benchmark");
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(START.toDate());
+        order.setCalendar(calendar);
+        OrderVersion orderVersion = OrderVersion.createInitialVersion(SCENARIO);
+        order.setVersionForScenario(SCENARIO, orderVersion);
+        order.useSchedulingDataFor(orderVersion);
+        order.add(orderLine);
+        orderLine.useSchedulingDataFor(orderVersion);
+
+        TaskSource taskSource =
+                TaskSource.create(orderLine.getCurrentSchedulingDataForVersion(), orderLine.getHoursGroups());
+        Task result = Task.createTaskWithoutDatesInitialized(taskSource);
+        result.setIntraDayStartDate(IntraDayDate.startOfDay(START));
+        result.setIntraDayEndDate(IntraDayDate.startOfDay(START.plusDays(days)));
+
+        return result;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.allocation;
+
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.benchmarks.InMemoryEntities;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.allocationalgorithms.ResourcesPerDayModification;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.ResourcesPerDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation of {@link SpecificResourceAllocation} and {@link GenericResourceAllocation} on a task.
+ * The generic allocation distributes the effort among the workers with the {@code EffortDistributor}.
+ * {@link #untilFillingHours()} goes through the {@code UntilFillingHoursAllocator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceAllocationBenchmark {
+
+    @Param({ "20", "250" })
+    public int taskDays;
+
+    @Param({ "10", "100", "500" })
+    public int workers;
+
+    private Task task;
+
+    private List<Worker> resources;
+
+    @Setup
+    public void setUp() {
+        BaseCalendar calendar = InMemoryEntities.basicCalendar();
+        task = InMemoryEntities.task(calendar, taskDays);
+        resources = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            resources.add(InMemoryEntities.workerWithoutLoad(InMemoryEntities.resourceCalendar()));
+        }
+    }
+
+    @Benchmark
+    public SpecificResourceAllocation specificAllocation() {
+        SpecificResourceAllocation result = SpecificResourceAllocation.create(task);
+        result.setResource(resources.get(0));
+        result.allocate(ResourcesPerDay.amount(1));
+
+        return result;
+    }
+
+    @Benchmark
+    public GenericResourceAllocation genericAllocation() {
+        GenericResourceAllocation result = GenericResourceAllocation.create(task);
+        result.forResources(resources).allocate(ResourcesPerDay.amount(workers));
+
+        return result;
+    }
+
+    @Benchmark
+    public IntraDayDate untilFillingHours() {
+        GenericResourceAllocation generic = GenericResourceAllocation.create(task);
+
+        SpecificResourceAllocation specific = SpecificResourceAllocation.create(task);
+        specific.setResource(resources.get(0));
+
+        List<ResourcesPerDayModification> allocations = new ArrayList<>();
+        allocations.add(ResourcesPerDayModification.create(generic, ResourcesPerDay.amount(workers), resources));
+        allocations.add(ResourcesPerDayModification.create(specific, ResourcesPerDay.amount(1)));
+
+        // The effort of all the workers and the specific one during the whole task
+        return ResourceAllocation.allocating(allocations).untilAllocating(hours(8 * taskDays * (workers + 1)));
+    }
+
+}
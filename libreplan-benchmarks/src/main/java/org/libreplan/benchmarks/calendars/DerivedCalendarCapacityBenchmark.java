@@ -0,0 +1,80 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.calendars;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.InMemoryEntities;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link BaseCalendar#getCapacityWithOvertime(LocalDate)} for every day of a year on the last calendar of a chain of
+ * derived calendars. Every calendar of the chain has its own exceptions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DerivedCalendarCapacityBenchmark {
+
+    private static final int DAYS = 365;
+
+    @Param({ "1", "5", "20" })
+    public int depth;
+
+    @Param({ "7" })
+    public int exceptionsEveryDays;
+
+    private BaseCalendar calendar;
+
+    private LocalDate[] days;
+
+    @Setup
+    public void setUp() {
+        calendar = InMemoryEntities.derivedCalendarsChain(depth, exceptionsEveryDays, DAYS);
+        days = new LocalDate[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            days[i] = InMemoryEntities.START.plusDays(i);
+        }
+    }
+
+    @Benchmark
+    public void capacityWithOvertimeDuringAYear(Blackhole blackhole) {
+        for (LocalDate each : days) {
+            blackhole.consume(calendar.getCapacityWithOvertime(each));
+        }
+    }
+
+}
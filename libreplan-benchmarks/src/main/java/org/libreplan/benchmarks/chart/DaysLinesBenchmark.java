@@ -0,0 +1,128 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.chart;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.InMemoryEntities;
+import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.chart.EffortDurationDaysLine;
+import org.libreplan.business.workingday.EffortDuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Joins of {@link ContiguousDaysLine} of {@link EffortDuration}, as done by the load charts, compared with the same
+ * operations on {@link EffortDurationDaysLine}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaysLinesBenchmark {
+
+    @Param({ "365", "3650" })
+    public int days;
+
+    private ContiguousDaysLine<EffortDuration> load;
+
+    private ContiguousDaysLine<EffortDuration> availability;
+
+    private EffortDurationDaysLine loadLine;
+
+    private EffortDurationDaysLine availabilityLine;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(days);
+        LocalDate start = InMemoryEntities.START;
+        LocalDate end = start.plusDays(days);
+
+        load = ContiguousDaysLine.create(start, end);
+        availability = ContiguousDaysLine.create(start, end);
+        loadLine = EffortDurationDaysLine.create(start, end);
+        availabilityLine = EffortDurationDaysLine.create(start, end);
+
+        for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1)) {
+            EffortDuration assigned = EffortDuration.minutes(random.nextInt(16 * 60));
+            EffortDuration capacity = EffortDuration.hours(random.nextInt(3) * 4);
+
+            load.set(day, assigned);
+            availability.set(day, capacity);
+            loadLine.set(day, assigned);
+            availabilityLine.set(day, capacity);
+        }
+    }
+
+    @Benchmark
+    public ContiguousDaysLine<EffortDuration> min() {
+        return ContiguousDaysLine.min(load, availability);
+    }
+
+    @Benchmark
+    public ContiguousDaysLine<EffortDuration> sum() {
+        return ContiguousDaysLine.sum(load, availability);
+    }
+
+    @Benchmark
+    public ContiguousDaysLine<EffortDuration> substract() {
+        return ContiguousDaysLine.substract(load, availability);
+    }
+
+    @Benchmark
+    public SortedMap<LocalDate, EffortDuration> minToSortedMap() {
+        return ContiguousDaysLine.toSortedMap(ContiguousDaysLine.min(load, availability));
+    }
+
+    @Benchmark
+    public EffortDurationDaysLine minOnIntArrays() {
+        return loadLine.copy().min(availabilityLine);
+    }
+
+    @Benchmark
+    public EffortDurationDaysLine sumOnIntArrays() {
+        return loadLine.copy().add(availabilityLine);
+    }
+
+    @Benchmark
+    public EffortDurationDaysLine subtractOnIntArrays() {
+        return loadLine.copy().subtract(availabilityLine);
+    }
+
+    @Benchmark
+    public SortedMap<LocalDate, EffortDuration> minToSortedMapOnIntArrays() {
+        return loadLine.copy().min(availabilityLine).toSortedMap();
+    }
+
+}
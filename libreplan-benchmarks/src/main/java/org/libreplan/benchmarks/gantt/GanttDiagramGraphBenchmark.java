@@ -0,0 +1,151 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.gantt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.InMemoryEntities;
+import org.libreplan.benchmarks.gantt.SyntheticAdapter.SyntheticDependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.constraint.Constraint;
+import org.zkoss.ganttz.data.criticalpath.CriticalPathCalculator;
+
+/**
+ * {@link GanttDiagramGraph#enforceAllRestrictions()} and {@link CriticalPathCalculator} on synthetic graphs, both
+ * calculating the critical path from scratch and updating it after one task changes.
+ * <p>
+ * Tasks are grouped in containers of {@value #TASKS_PER_CONTAINER} tasks. Each task has up to
+ * {@value #MAX_INCOMING_DEPENDENCIES} end-start dependencies coming from randomly chosen previous tasks, so the graph
+ * is acyclic. The random generator is seeded, so the graph is the same for each run.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GanttDiagramGraphBenchmark {
+
+    private static final int TASKS_PER_CONTAINER = 100;
+
+    private static final int MAX_INCOMING_DEPENDENCIES = 2;
+
+    private static final int MAX_TASK_DAYS = 20;
+
+    @Param({ "1000", "10000", "50000" })
+    public int tasks;
+
+    private GanttDiagramGraph<SyntheticTask, SyntheticDependency> graph;
+
+    private List<SyntheticTask> allTasks;
+
+    private SyntheticTask resizedTask;
+
+    private CriticalPathCalculator<SyntheticTask, SyntheticDependency> calculator;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        Random random = new Random(tasks);
+        graph = GanttDiagramGraph.create(false, new SyntheticAdapter(),
+                Collections.<Constraint<GanttDate>> emptyList(),
+                Collections.<Constraint<GanttDate>> emptyList(), false);
+
+        List<SyntheticTask> leaves = new ArrayList<>();
+        allTasks = new ArrayList<>();
+        for (int i = 0; i < tasks; i += TASKS_PER_CONTAINER) {
+            List<SyntheticTask> children = new ArrayList<>();
+            for (int j = i; j < Math.min(tasks, i + TASKS_PER_CONTAINER); j++) {
+                LocalDate start = InMemoryEntities.START.plusDays(random.nextInt(30));
+                children.add(SyntheticTask.leaf("T" + j, GanttDate.createFrom(start),
+                        GanttDate.createFrom(start.plusDays(1 + random.nextInt(MAX_TASK_DAYS)))));
+            }
+            SyntheticTask container = SyntheticTask.container("C" + i, children);
+            graph.addTopLevel(container);
+
+            leaves.addAll(children);
+            allTasks.addAll(children);
+            allTasks.add(container);
+        }
+
+        for (int i = 1; i < leaves.size(); i++) {
+            int incoming = random.nextInt(MAX_INCOMING_DEPENDENCIES + 1);
+            for (int j = 0; j < incoming; j++) {
+                SyntheticTask source = leaves.get(random.nextInt(i));
+                graph.addWithoutEnforcingConstraints(
+                        new SyntheticDependency(source, leaves.get(i), DependencyType.END_START, true));
+            }
+        }
+
+        resizedTask = leaves.get(leaves.size() / 2);
+        calculator = CriticalPathCalculator.create(false);
+        calculator.calculateCriticalPath(graph);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetDates() {
+        for (SyntheticTask each : allTasks) {
+            each.resetDates();
+        }
+    }
+
+    @Benchmark
+    public GanttDiagramGraph<SyntheticTask, SyntheticDependency> enforceAllRestrictions() {
+        graph.enforceAllRestrictions();
+
+        return graph;
+    }
+
+    @Benchmark
+    public List<SyntheticTask> criticalPath() {
+        return CriticalPathCalculator.<SyntheticTask, SyntheticDependency> create(false).calculateCriticalPath(graph);
+    }
+
+    /**
+     * The dates are reset before each invocation, so each time only the resized task has changed since the last
+     * update.
+     */
+    @Benchmark
+    public List<SyntheticTask> criticalPathUpdatedAfterResizingOneTask() {
+        resizedTask.setEnd(GanttDate.createFrom(resizedTask.getEnd().toLocalDate().plusDays(1)));
+
+        return calculator.updateCriticalPath(graph);
+    }
+
+}
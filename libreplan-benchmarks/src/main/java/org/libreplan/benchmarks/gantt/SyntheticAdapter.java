@@ -0,0 +1,180 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.gantt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.libreplan.benchmarks.gantt.SyntheticAdapter.SyntheticDependency;
+import org.zkoss.ganttz.data.ConstraintCalculator;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.DependencyType.Point;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IAdapter;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IDependenciesEnforcerHookFactory;
+import org.zkoss.ganttz.data.IDependency;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * {@link IAdapter} over {@link SyntheticTask}, without any start or end constraint apart from the dependencies.
+ */
+public class SyntheticAdapter implements IAdapter<SyntheticTask, SyntheticDependency> {
+
+    public static class SyntheticDependency implements IDependency<SyntheticTask> {
+
+        private final SyntheticTask source;
+
+        private final SyntheticTask destination;
+
+        private final DependencyType type;
+
+        private final boolean visible;
+
+        public SyntheticDependency(SyntheticTask source, SyntheticTask destination, DependencyType type,
+                                   boolean visible) {
+            this.source = source;
+            this.destination = destination;
+            this.type = type;
+            this.visible = visible;
+        }
+
+        @Override
+        public SyntheticTask getSource() {
+            return source;
+        }
+
+        @Override
+        public SyntheticTask getDestination() {
+            return destination;
+        }
+
+        @Override
+        public DependencyType getType() {
+            return type;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+    }
+
+    @Override
+    public List<SyntheticTask> getChildren(SyntheticTask task) {
+        return task.getChildren();
+    }
+
+    @Override
+    public SyntheticTask getOwner(SyntheticTask task) {
+        return task.getOwner();
+    }
+
+    @Override
+    public boolean isContainer(SyntheticTask task) {
+        return task.isContainer();
+    }
+
+    @Override
+    public void registerDependenciesEnforcerHookOn(SyntheticTask task,
+                                                   IDependenciesEnforcerHookFactory<SyntheticTask> hookFactory) {
+        task.setHook(hookFactory.create(task));
+    }
+
+    @Override
+    public GanttDate getStartDate(SyntheticTask task) {
+        return task.getStart();
+    }
+
+    @Override
+    public void setStartDateFor(SyntheticTask task, GanttDate newStart) {
+        task.moveTo(newStart);
+    }
+
+    @Override
+    public GanttDate getEndDateFor(SyntheticTask task) {
+        return task.getEnd();
+    }
+
+    @Override
+    public void setEndDateFor(SyntheticTask task, GanttDate newEnd) {
+        task.moveEndTo(newEnd);
+    }
+
+    @Override
+    public List<Constraint<GanttDate>> getConstraints(ConstraintCalculator<SyntheticTask> calculator,
+                                                      Set<SyntheticDependency> withDependencies,
+                                                      Point point) {
+        List<Constraint<GanttDate>> result = new ArrayList<>();
+        for (SyntheticDependency each : withDependencies) {
+            result.addAll(calculator.getConstraints(each, point));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<Constraint<GanttDate>> getStartConstraintsFor(SyntheticTask task) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Constraint<GanttDate>> getEndConstraintsFor(SyntheticTask task) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public SyntheticTask getSource(SyntheticDependency dependency) {
+        return dependency.getSource();
+    }
+
+    @Override
+    public SyntheticTask getDestination(SyntheticDependency dependency) {
+        return dependency.getDestination();
+    }
+
+    @Override
+    public Class<SyntheticDependency> getDependencyType() {
+        return SyntheticDependency.class;
+    }
+
+    @Override
+    public SyntheticDependency createInvisibleDependency(SyntheticTask origin, SyntheticTask destination,
+                                                         DependencyType type) {
+        return new SyntheticDependency(origin, destination, type, false);
+    }
+
+    @Override
+    public DependencyType getType(SyntheticDependency dependency) {
+        return dependency.getType();
+    }
+
+    @Override
+    public boolean isVisible(SyntheticDependency dependency) {
+        return dependency.isVisible();
+    }
+
+    @Override
+    public boolean isFixed(SyntheticTask task) {
+        return false;
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.gantt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.Days;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IDependenciesEnforcerHook;
+
+/**
+ * Minimal task for {@link GanttDiagramGraphBenchmark}. Like the planner tasks, it notifies the changes of its dates
+ * to the {@link IDependenciesEnforcerHook} registered on it. Moving the start keeps the duration.
+ */
+public class SyntheticTask {
+
+    private final String name;
+
+    private final List<SyntheticTask> children = new ArrayList<>();
+
+    private SyntheticTask owner;
+
+    private GanttDate initialStart;
+
+    private GanttDate initialEnd;
+
+    private GanttDate start;
+
+    private GanttDate end;
+
+    private IDependenciesEnforcerHook hook;
+
+    public static SyntheticTask leaf(String name, GanttDate start, GanttDate end) {
+        return new SyntheticTask(name, start, end);
+    }
+
+    public static SyntheticTask container(String name, List<SyntheticTask> children) {
+        SyntheticTask result = new SyntheticTask(name, children.get(0).getStart(), children.get(0).getEnd());
+        for (SyntheticTask each : children) {
+            each.owner = result;
+            result.children.add(each);
+            result.initialStart = GanttDate.min(result.initialStart, each.getStart());
+            result.initialEnd = GanttDate.max(result.initialEnd, each.getEnd());
+        }
+        result.resetDates();
+
+        return result;
+    }
+
+    private SyntheticTask(String name, GanttDate start, GanttDate end) {
+        this.name = name;
+        this.initialStart = start;
+        this.initialEnd = end;
+        resetDates();
+    }
+
+    /**
+     * Goes back to the creation dates without notifying the hook.
+     */
+    public void resetDates() {
+        this.start = initialStart;
+        this.end = initialEnd;
+    }
+
+    public boolean isContainer() {
+        return !children.isEmpty();
+    }
+
+    public List<SyntheticTask> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public SyntheticTask getOwner() {
+        return owner;
+    }
+
+    public GanttDate getStart() {
+        return start;
+    }
+
+    public GanttDate getEnd() {
+        return end;
+    }
+
+    public void moveTo(GanttDate newStart) {
+        GanttDate previousStart = start;
+        GanttDate previousEnd = end;
+        int days = daysBetween(previousStart, previousEnd);
+
+        this.start = newStart;
+        this.end = GanttDate.createFrom(newStart.toLocalDate().plusDays(days));
+
+        if (hook != null) {
+            hook.setStartDate(previousStart, previousEnd, newStart);
+        }
+    }
+
+    public void moveEndTo(GanttDate newEnd) {
+        GanttDate previousEnd = end;
+        this.end = newEnd;
+
+        if (hook != null) {
+            hook.setNewEnd(previousEnd, newEnd);
+        }
+    }
+
+    /**
+     * Changes the end without notifying the graph, as if the dependencies had already been enforced.
+     */
+    void setEnd(GanttDate newEnd) {
+        this.end = newEnd;
+    }
+
+    private static int daysBetween(GanttDate start, GanttDate end) {
+        return Days.daysBetween(start.toLocalDate(), end.toLocalDate()).getDays();
+    }
+
+    void setHook(IDependenciesEnforcerHook hook) {
+        this.hook = hook;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
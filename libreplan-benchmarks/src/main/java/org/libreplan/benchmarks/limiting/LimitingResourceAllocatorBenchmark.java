@@ -0,0 +1,107 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.limiting;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.InMemoryEntities;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.limiting.entities.Gap;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceAllocator;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+import org.libreplan.business.resources.entities.Worker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link LimitingResourceAllocator#getFirstValidGap(LimitingResourceQueue, LimitingResourceQueueElement)} on a queue
+ * where every gap between the allocated elements is too small, so the whole queue is traversed until its end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LimitingResourceAllocatorBenchmark {
+
+    private static final int ELEMENT_HOURS = 4;
+
+    private static final int ELEMENT_TO_ALLOCATE_HOURS = 40;
+
+    @Param({ "100", "1000" })
+    public int queueElements;
+
+    private LimitingResourceQueue queue;
+
+    private LimitingResourceQueueElement elementToAllocate;
+
+    @Setup
+    public void setUp() {
+        Worker worker = Worker.create();
+        worker.setCalendar(InMemoryEntities.resourceCalendar());
+
+        queue = LimitingResourceQueue.create();
+        queue.setResource(worker);
+
+        Task task = InMemoryEntities.task(InMemoryEntities.basicCalendar(), 1);
+        for (int i = 0; i < queueElements; i++) {
+            LocalDate day = InMemoryEntities.START.plusDays(2 * i);
+
+            LimitingResourceQueueElement element = elementWithHours(task, ELEMENT_HOURS);
+            element.setStartDate(day);
+            element.setStartHour(0);
+            element.setEndDate(day);
+            element.setEndHour(ELEMENT_HOURS);
+            queue.addLimitingResourceQueueElement(element);
+        }
+
+        elementToAllocate = elementWithHours(task, ELEMENT_TO_ALLOCATE_HOURS);
+        elementToAllocate.setEarlierStartDateBecauseOfGantt(InMemoryEntities.START.toDate());
+    }
+
+    private static LimitingResourceQueueElement elementWithHours(Task task, int hours) {
+        SpecificResourceAllocation allocation = SpecificResourceAllocation.create(task);
+        allocation.setIntendedTotalHours(hours);
+
+        LimitingResourceQueueElement result = LimitingResourceQueueElement.create();
+        result.setResourceAllocation(allocation);
+
+        return result;
+    }
+
+    @Benchmark
+    public Gap firstValidGap() {
+        return LimitingResourceAllocator.getFirstValidGap(queue, elementToAllocate);
+    }
+
+}
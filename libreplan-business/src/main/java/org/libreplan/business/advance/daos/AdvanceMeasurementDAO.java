@@ -21,6 +21,11 @@
 
 package org.libreplan.business.advance.daos;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -34,4 +39,24 @@ import org.springframework.stereotype.Repository;
 @Repository
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class AdvanceMeasurementDAO extends GenericDAOHibernate<AdvanceMeasurement, Long> implements IAdvanceMeasurementDAO{
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, Long> getAdvanceAssignmentIdsOf(Collection<Long> measurementIds) {
+        Map<Long, Long> result = new HashMap<>();
+        if ( measurementIds.isEmpty() ) {
+            return result;
+        }
+
+        List<Object[]> rows = getSession()
+                .createQuery("select m.id, m.advanceAssignment.id from AdvanceMeasurement m where m.id in (:ids)")
+                .setParameterList("ids", measurementIds)
+                .list();
+        for (Object[] each : rows) {
+            result.put((Long) each[0], (Long) each[1]);
+        }
+
+        return result;
+    }
+
 }
\ No newline at end of file
@@ -21,6 +21,9 @@
 
 package org.libreplan.business.advance.daos;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.common.daos.IGenericDAO;
 
@@ -30,4 +33,10 @@ import org.libreplan.business.common.daos.IGenericDAO;
  */
 
 public interface IAdvanceMeasurementDAO extends IGenericDAO<AdvanceMeasurement, Long> {
+
+    /**
+     * Returns the id of the advance assignment of each of the measurements with the given ids that still exist
+     */
+    Map<Long, Long> getAdvanceAssignmentIdsOf(Collection<Long> measurementIds);
+
 }
\ No newline at end of file
@@ -28,7 +28,10 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.ResourceCalendar;
@@ -191,4 +194,14 @@ public class BaseCalendarDAO extends IntegrationEntityDAO<BaseCalendar> implemen
         }
     }
 
+    /**
+     * Resource calendars are exported with their resources.
+     */
+    @Override
+    protected Criteria createIntegrationCriteria() {
+        return super.createIntegrationCriteria().add(
+                Subqueries.propertyNotIn("id", DetachedCriteria.forClass(ResourceCalendar.class)
+                        .setProjection(Projections.id())));
+    }
+
 }
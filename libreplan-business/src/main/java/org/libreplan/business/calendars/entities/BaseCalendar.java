@@ -61,6 +61,10 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     private static final Capacity DEFAULT_VALUE = Capacity.zero().overAssignableWithoutLimit();
 
+    private static final Capacity ZERO = Capacity.zero();
+
+    private static final Days[] DAYS = Days.values();
+
     private String name;
 
     @Valid
@@ -74,6 +78,8 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     private Integer lastSequenceCode = 0;
 
+    private volatile CapacityTimeline capacityTimeline;
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -129,6 +135,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
         if ((calendarDataVersions != null) && (!calendarDataVersions.isEmpty())) {
             baseCalendar.calendarDataVersions = calendarDataVersions;
+            CapacityTimeline.calendarsModified();
         }
 
         if (parent != null) {
@@ -151,6 +158,20 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     }
 
+    /**
+     * Returns the compiled {@link CapacityTimeline} of this calendar, recompiling it if this calendar or any other
+     * calendar data has been modified since it was compiled.
+     */
+    public CapacityTimeline getCapacityTimeline() {
+        CapacityTimeline result = capacityTimeline;
+        if (result == null || !result.isUpToDate()) {
+            result = CapacityTimeline.compile(this);
+            capacityTimeline = result;
+        }
+
+        return result;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -239,6 +260,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.add(day);
+        CapacityTimeline.calendarsModified();
     }
 
     public void removeExceptionDay(LocalDate date) {
@@ -249,6 +271,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.remove(day);
+        CapacityTimeline.calendarsModified();
     }
 
     public void updateExceptionDay(LocalDate date, Capacity capacity, CalendarExceptionType type) {
@@ -268,13 +291,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     public CalendarException getExceptionDay(LocalDate date) {
-        for (CalendarException exceptionDay : getExceptions(date)) {
-            if (exceptionDay.getDate().equals(date)) {
-                return exceptionDay;
-            }
-        }
-
-        return null;
+        return getCapacityTimeline().getExceptionDay(date);
     }
 
     @Override
@@ -290,33 +307,25 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     private Capacity findCapacityAt(LocalDate date) {
-        if (!isActive(date)) {
-            return Capacity.zero();
+        CapacityTimeline timeline = getCapacityTimeline();
+        if (!timeline.isActive(date)) {
+            return ZERO;
         }
 
-        CalendarException exceptionDay = getExceptionDay(date);
+        CalendarException exceptionDay = timeline.getExceptionDay(date);
         if (exceptionDay != null) {
             return exceptionDay.getCapacity();
         }
 
-        return getCapacityConsideringCalendarDataOn(date, getDayFrom(date));
+        return valueIfNotNullElseDefaultValue(timeline.getCapacityConsideringCalendarDataOn(date, getDayFrom(date)));
     }
 
     private Days getDayFrom(LocalDate date) {
-        return Days.values()[date.getDayOfWeek() - 1];
+        return DAYS[date.getDayOfWeek() - 1];
     }
 
     public Capacity getCapacityConsideringCalendarDataOn(LocalDate date, Days day) {
-        CalendarData calendarData = getCalendarData(date);
-
-        Capacity capacity = calendarData.getCapacityOn(day);
-        BaseCalendar parent = getParent(date);
-
-        if (capacity == null && parent != null) {
-            return parent.getCapacityConsideringCalendarDataOn(date, day);
-        }
-
-        return valueIfNotNullElseDefaultValue(capacity);
+        return valueIfNotNullElseDefaultValue(getCapacityTimeline().getCapacityConsideringCalendarDataOn(date, day));
     }
 
     private Capacity valueIfNotNullElseDefaultValue(Capacity capacity) {
@@ -444,6 +453,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                         }
 
                         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+                        CapacityTimeline.calendarsModified();
 
                         return newCalendarData;
                     }
@@ -491,6 +501,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         CalendarData newCalendarData = CalendarData.create();
         calendarDataVersions.add(newCalendarData);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        CapacityTimeline.calendarsModified();
 
         return newCalendarData;
     }
@@ -508,6 +519,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         newCalendarData.setExpiringDate(expiringDate);
         calendarDataVersions.add(newCalendarData);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        CapacityTimeline.calendarsModified();
 
         return newCalendarData;
     }
@@ -561,6 +573,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
             else{
                 calendarDataVersions.add(version);
                 Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+                CapacityTimeline.calendarsModified();
                 return;
             }
         }
@@ -583,6 +596,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                 }
 
                 calendarDataVersions.add(i, version);
+                CapacityTimeline.calendarsModified();
 
                 return;
             }
@@ -590,6 +604,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
         calendarDataVersions.add(version);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        CapacityTimeline.calendarsModified();
 
     }
 
@@ -809,9 +824,11 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         CalendarData lastCalendarData = getLastCalendarData();
         if (calendarData.equals(lastCalendarData)) {
             calendarDataVersions.remove(calendarData);
+            CapacityTimeline.calendarsModified();
             getLastCalendarData().removeExpiringDate();
         } else {
             calendarDataVersions.remove(calendarData);
+            CapacityTimeline.calendarsModified();
         }
     }
 
@@ -867,11 +884,13 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                 }
             }
             calendarAvailabilities.add(calendarAvailability);
+            CapacityTimeline.calendarsModified();
         }
     }
 
     public void removeCalendarAvailability(CalendarAvailability calendarAvailability) {
         calendarAvailabilities.remove(calendarAvailability);
+        CapacityTimeline.calendarsModified();
     }
 
     public boolean isActive(LocalDate date) {
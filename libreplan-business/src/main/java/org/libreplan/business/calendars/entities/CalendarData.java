@@ -76,6 +76,7 @@ public class CalendarData extends IntegrationEntity {
         if (parent != null) {
             this.parent = parent;
         }
+        CapacityTimeline.calendarsModified();
     }
 
     public void updateCapacitiesPerDay(Map<Integer, Capacity> capacityPerDay) throws IllegalArgumentException {
@@ -126,7 +127,7 @@ public class CalendarData extends IntegrationEntity {
     public CalendarData() {
         capacityPerDay = new HashMap<>();
         for (Days each : Days.values()) {
-            setCapacityAt(each, null);
+            capacityPerDay.put(each.ordinal(), null);
         }
     }
 
@@ -160,6 +161,7 @@ public class CalendarData extends IntegrationEntity {
 
     public void setCapacityAt(Days day, Capacity capacity) {
         capacityPerDay.put(day.ordinal(), capacity);
+        CapacityTimeline.calendarsModified();
     }
 
 
@@ -181,6 +183,7 @@ public class CalendarData extends IntegrationEntity {
 
     public void setExpiringDate(LocalDate expiringDate) {
         this.expiringDate = expiringDate;
+        CapacityTimeline.calendarsModified();
     }
 
     public CalendarData copy() {
@@ -198,10 +201,12 @@ public class CalendarData extends IntegrationEntity {
 
     public void setParent(BaseCalendar parent) {
         this.parent = parent;
+        CapacityTimeline.calendarsModified();
     }
 
     public void removeExpiringDate() {
         this.expiringDate = null;
+        CapacityTimeline.calendarsModified();
     }
 
     public boolean isPosteriorTo(LocalDate date) {
@@ -82,6 +82,7 @@ public class CalendarException extends IntegrationEntity {
         if (type != null) {
             this.type = type;
         }
+        CapacityTimeline.calendarsModified();
     }
 
     private LocalDate date;
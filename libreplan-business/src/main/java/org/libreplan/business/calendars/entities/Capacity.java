@@ -256,6 +256,9 @@ public class Capacity {
 
     public Capacity multiplyBy(int capacity) {
         Validate.isTrue(capacity >= 0);
+        if (capacity == 1) {
+            return this;
+        }
         return new Capacity(standardEffort.multiplyBy(capacity),
                 allowedExtraEffort == null ? null
                         : allowedExtraEffort.multiplyBy(capacity));
@@ -0,0 +1,303 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.calendars.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+
+/**
+ * Immutable, compiled view of the capacity related data of a {@link BaseCalendar}.
+ * <p>
+ * Exceptions are kept sorted by date in arrays, so they are found with a binary search.
+ * The exceptions inherited from the parent chain are merged in at compilation time.
+ * Calendar data versions and {@link CalendarAvailability} windows are also flattened into arrays.
+ * Lookups don't allocate any object.
+ * </p>
+ * <p>
+ * A timeline is stale as soon as any calendar, calendar data, exception or availability is modified.
+ * Those modifications are rare compared to capacity lookups, so a single global modifications counter is used.
+ * This way a change in an ancestor calendar invalidates the timelines of all its derived calendars too.
+ * </p>
+ *
+ * @see BaseCalendar#getCapacityTimeline()
+ */
+public class CapacityTimeline {
+
+    private static final AtomicLong modifications = new AtomicLong();
+
+    private static final Comparator<CalendarException> BY_DATE =
+            (o1, o2) -> o1.getDate().compareTo(o2.getDate());
+
+    /**
+     * It must be called whenever some data affecting the capacity of a calendar is modified.
+     */
+    static void calendarsModified() {
+        modifications.incrementAndGet();
+    }
+
+    static CapacityTimeline compile(BaseCalendar calendar) {
+        return new CapacityTimeline(modifications.get(), calendar);
+    }
+
+    private final long compiledAt;
+
+    private final LocalDate[] ownExceptionDates;
+
+    private final CalendarException[] ownExceptions;
+
+    /**
+     * Own exceptions plus the ones inherited from the parent of the last version.
+     * It has the same semantics than {@link BaseCalendar#getExceptions()}.
+     */
+    private final LocalDate[] allExceptionDates;
+
+    private final CalendarException[] allExceptions;
+
+    /**
+     * Exclusive expiring dates of each version. <code>null</code> for the last one.
+     */
+    private final LocalDate[] versionsExpiringDates;
+
+    private final BaseCalendar[] versionsParents;
+
+    private final Capacity[][] versionsCapacities;
+
+    private final LocalDate[] availabilitiesStarts;
+
+    /**
+     * For each availability, the maximum end date of it and all the previous ones.
+     * <code>null</code> means that there is no end.
+     */
+    private final LocalDate[] availabilitiesMaxEnds;
+
+    private CapacityTimeline(long compiledAt, BaseCalendar calendar) {
+        this.compiledAt = compiledAt;
+
+        List<CalendarException> own = sortedByDate(calendar.getOwnExceptions());
+        this.ownExceptions = own.toArray(new CalendarException[own.size()]);
+        this.ownExceptionDates = datesOf(ownExceptions);
+
+        List<CalendarException> all = mergeWithInherited(own, calendar.getParent());
+        this.allExceptions = all.toArray(new CalendarException[all.size()]);
+        this.allExceptionDates = datesOf(allExceptions);
+
+        List<CalendarData> versions = calendar.getCalendarDataVersions();
+        this.versionsExpiringDates = new LocalDate[versions.size()];
+        this.versionsParents = new BaseCalendar[versions.size()];
+        this.versionsCapacities = new Capacity[versions.size()][];
+
+        for (int i = 0; i < versions.size(); i++) {
+            CalendarData each = versions.get(i);
+            versionsExpiringDates[i] = each.getExpiringDate();
+            versionsParents[i] = each.getParent();
+            versionsCapacities[i] = new Capacity[Days.values().length];
+
+            for (Days day : Days.values()) {
+                versionsCapacities[i][day.ordinal()] = each.getCapacityOn(day);
+            }
+        }
+
+        List<CalendarAvailability> availabilities = new ArrayList<>(calendar.getCalendarAvailabilities());
+        Collections.sort(availabilities, CalendarAvailability.BY_START_DATE_COMPARATOR);
+        this.availabilitiesStarts = new LocalDate[availabilities.size()];
+        this.availabilitiesMaxEnds = new LocalDate[availabilities.size()];
+
+        LocalDate maxEnd = null;
+        for (int i = 0; i < availabilities.size(); i++) {
+            CalendarAvailability each = availabilities.get(i);
+            availabilitiesStarts[i] = each.getStartDate();
+
+            if (i == 0 || (maxEnd != null && (each.getEndDate() == null || each.getEndDate().isAfter(maxEnd)))) {
+                maxEnd = each.getEndDate();
+            }
+            availabilitiesMaxEnds[i] = maxEnd;
+        }
+    }
+
+    private static List<CalendarException> sortedByDate(Collection<CalendarException> exceptions) {
+        List<CalendarException> result = new ArrayList<>(exceptions);
+        Collections.sort(result, BY_DATE);
+
+        return result;
+    }
+
+    private static List<CalendarException> mergeWithInherited(List<CalendarException> own, BaseCalendar parent) {
+        if (parent == null) {
+            return own;
+        }
+
+        CapacityTimeline parentTimeline = parent.getCapacityTimeline();
+        List<CalendarException> result = new ArrayList<>(own);
+
+        for (CalendarException each : parentTimeline.allExceptions) {
+            if (find(own, each.getDate()) == null) {
+                result.add(each);
+            }
+        }
+        Collections.sort(result, BY_DATE);
+
+        return result;
+    }
+
+    private static CalendarException find(List<CalendarException> sortedExceptions, LocalDate date) {
+        int low = 0;
+        int high = sortedExceptions.size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = sortedExceptions.get(middle).getDate().compareTo(date);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return sortedExceptions.get(middle);
+            }
+        }
+
+        return null;
+    }
+
+    private static LocalDate[] datesOf(CalendarException[] exceptions) {
+        LocalDate[] result = new LocalDate[exceptions.length];
+        for (int i = 0; i < exceptions.length; i++) {
+            result[i] = exceptions[i].getDate();
+        }
+
+        return result;
+    }
+
+    private static int indexOf(LocalDate[] sortedDates, LocalDate date) {
+        int low = 0;
+        int high = sortedDates.length - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = sortedDates[middle].compareTo(date);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    boolean isUpToDate() {
+        return compiledAt == modifications.get();
+    }
+
+    /**
+     * Equivalent to {@link BaseCalendar#isActive(LocalDate)}.
+     */
+    public boolean isActive(LocalDate date) {
+        if (availabilitiesStarts.length == 0) {
+            return true;
+        }
+
+        int index = indexOf(availabilitiesStarts, date);
+        int lastStartingBefore = index >= 0 ? lastWithSameStart(index) : -(index + 1) - 1;
+
+        if (lastStartingBefore < 0) {
+            return false;
+        }
+
+        LocalDate maxEnd = availabilitiesMaxEnds[lastStartingBefore];
+
+        return maxEnd == null || maxEnd.compareTo(date) >= 0;
+    }
+
+    private int lastWithSameStart(int index) {
+        int result = index;
+        while (result + 1 < availabilitiesStarts.length &&
+                availabilitiesStarts[result + 1].equals(availabilitiesStarts[index])) {
+            result++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Equivalent to {@link BaseCalendar#getExceptionDay(LocalDate)}.
+     */
+    public CalendarException getExceptionDay(LocalDate date) {
+        int index = indexOf(ownExceptionDates, date);
+        if (index >= 0) {
+            return ownExceptions[index];
+        }
+
+        BaseCalendar parent = versionsParents[versionIndexAt(date)];
+        if (parent == null) {
+            return null;
+        }
+
+        return parent.getCapacityTimeline().getInheritableExceptionDay(date);
+    }
+
+    private CalendarException getInheritableExceptionDay(LocalDate date) {
+        int index = indexOf(allExceptionDates, date);
+
+        return index >= 0 ? allExceptions[index] : null;
+    }
+
+    /**
+     * Equivalent to {@link BaseCalendar#getCapacityConsideringCalendarDataOn(LocalDate, Days)}.
+     *
+     * @return <code>null</code> if neither this calendar nor its ancestors define a value
+     */
+    public Capacity getCapacityConsideringCalendarDataOn(LocalDate date, Days day) {
+        int version = versionIndexAt(date);
+        Capacity capacity = versionsCapacities[version][day.ordinal()];
+        BaseCalendar parent = versionsParents[version];
+
+        if (capacity == null && parent != null) {
+            return parent.getCapacityTimeline().getCapacityConsideringCalendarDataOn(date, day);
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Same search than {@link BaseCalendar#getCalendarData(LocalDate)}.
+     * There are usually very few versions, so they are just traversed.
+     */
+    private int versionIndexAt(LocalDate date) {
+        for (int i = 0; i < versionsExpiringDates.length; i++) {
+            if (versionsExpiringDates[i] == null || date.compareTo(versionsExpiringDates[i]) < 0) {
+                return i;
+            }
+        }
+
+        throw new RuntimeException("Some work week should not be expired");
+    }
+
+}
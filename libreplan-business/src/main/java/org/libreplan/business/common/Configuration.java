@@ -26,7 +26,7 @@ import org.apache.commons.lang3.BooleanUtils;
 /**
  * This is a singleton that contains the compilation options passed from Maven.
  *
- * Currently we have four options:
+ * Currently we have five options:
  * <ul>
  *     <li>Enable/Disable the warning changing default password</li>
  *     <li>
@@ -35,6 +35,7 @@ import org.apache.commons.lang3.BooleanUtils;
  *     </li>
  *     <li>Enable/Disable E-mail sending functionality</li>
  *     <li>Enable/Disable "Delete all projects" button</li>
+ *     <li>Enable/Disable the cluster mode, for several nodes sharing the same database</li>
  * </ul>
  *
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
@@ -54,6 +55,8 @@ public class Configuration {
 
     private boolean deleteAllProjectsButtonDisabled;
 
+    private boolean clusterModeEnabled;
+
     private Configuration() {
     }
 
@@ -107,4 +110,20 @@ public class Configuration {
     public void setDeleteAllProjectsButtonDisabled(boolean deleteAllProjectsButtonDisabled) {
         this.deleteAllProjectsButtonDisabled = deleteAllProjectsButtonDisabled;
     }
+
+    /**
+     * If enabled, the entities modified by each transaction are recorded in a table read by the other nodes using
+     * the same database, so their cached data is reloaded.
+     */
+    public static boolean isClusterModeEnabled() {
+        return singleton.getClusterModeEnabled();
+    }
+
+    public boolean getClusterModeEnabled() {
+        return clusterModeEnabled;
+    }
+
+    public void setClusterModeEnabled(boolean clusterModeEnabled) {
+        this.clusterModeEnabled = clusterModeEnabled;
+    }
 }
@@ -38,6 +38,7 @@ import org.libreplan.business.costcategories.daos.ITypeOfWorkHoursDAO;
 import org.libreplan.business.expensesheet.daos.IExpenseSheetDAO;
 import org.libreplan.business.expensesheet.daos.IExpenseSheetLineDAO;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.labels.daos.ILabelDAO;
 import org.libreplan.business.labels.daos.ILabelTypeDAO;
 import org.libreplan.business.logs.daos.IIssueLogDAO;
@@ -211,6 +212,9 @@ public class Registry {
     @Autowired
     private IOrderAuthorizationDAO orderAuthorizationDAO;
 
+    @Autowired
+    private PredefinedDatabaseSnapshots predefinedDatabaseSnapshots;
+
     @Autowired
     private IConnectorDAO connectorDAO;
 
@@ -400,6 +404,10 @@ public class Registry {
         return getInstance().orderAuthorizationDAO;
     }
 
+    public static PredefinedDatabaseSnapshots getPredefinedDatabaseSnapshots() {
+        return getInstance().predefinedDatabaseSnapshots;
+    }
+
     public static IConnectorDAO getConnectorDAO() {
         return getInstance().connectorDAO;
     }
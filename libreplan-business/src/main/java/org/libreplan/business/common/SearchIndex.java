@@ -0,0 +1,350 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Immutable in memory index to search entities by some of their texts without loading them.
+ * <p>
+ * Each {@link Entry} has the id of an entity, the id of its parent if any, a key to sort the results and the texts to
+ * search in. An entry matches a text if any of its texts, or any of the texts of its root entry, contains it ignoring
+ * the case. For example, a task is found by the name of its project.
+ * <p>
+ * The texts are indexed by trigrams, so only the entries containing all the trigrams of the searched text are checked.
+ * Shorter texts are searched checking all the entries.
+ *
+ * @see #withChanges(Collection, Collection)
+ */
+public class SearchIndex {
+
+    public static class Entry {
+
+        public static Entry create(Long id, Long parentId, String sortKey, String... texts) {
+            return new Entry(id, parentId, sortKey, texts);
+        }
+
+        private final Long id;
+
+        private final Long parentId;
+
+        private final String sortKey;
+
+        private final String[] texts;
+
+        private Entry(Long id, Long parentId, String sortKey, String[] texts) {
+            Validate.notNull(id);
+            this.id = id;
+            this.parentId = parentId;
+            this.sortKey = StringUtils.defaultString(sortKey);
+            this.texts = new String[texts.length];
+            for (int i = 0; i < texts.length; i++) {
+                this.texts[i] = StringUtils.defaultString(texts[i]);
+            }
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getParentId() {
+            return parentId;
+        }
+
+        public String getSortKey() {
+            return sortKey;
+        }
+
+        public String getText(int i) {
+            return texts[i];
+        }
+
+        public List<String> getTexts() {
+            return Collections.unmodifiableList(Arrays.asList(texts));
+        }
+
+    }
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Comparator<Entry> BY_SORT_KEY =
+            Comparator.comparing(Entry::getSortKey).thenComparing(Entry::getId);
+
+    public static SearchIndex empty() {
+        return create(Collections.emptyList());
+    }
+
+    public static SearchIndex create(Collection<Entry> entries) {
+        return new SearchIndex(entries);
+    }
+
+    private final Entry[] entries;
+
+    private final String[][] lowerCaseTexts;
+
+    private final Map<Long, Integer> positionById;
+
+    private final Map<Integer, int[]> descendantsByRoot;
+
+    private final Map<Long, int[]> positionsByGram;
+
+    private SearchIndex(Collection<Entry> entries) {
+        this.entries = entries.toArray(new Entry[entries.size()]);
+        Arrays.sort(this.entries, BY_SORT_KEY);
+
+        this.positionById = new HashMap<>();
+        this.lowerCaseTexts = new String[this.entries.length][];
+        for (int i = 0; i < this.entries.length; i++) {
+            positionById.put(this.entries[i].getId(), i);
+            lowerCaseTexts[i] = new String[this.entries[i].texts.length];
+            for (int j = 0; j < lowerCaseTexts[i].length; j++) {
+                lowerCaseTexts[i][j] = this.entries[i].texts[j].toLowerCase();
+            }
+        }
+
+        this.descendantsByRoot = groupDescendantsByRoot();
+        this.positionsByGram = indexGrams();
+    }
+
+    private Map<Integer, int[]> groupDescendantsByRoot() {
+        Map<Integer, PositionsList> result = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            int root = rootPosition(i);
+            if ( root != i ) {
+                result.computeIfAbsent(root, k -> new PositionsList()).add(i);
+            }
+        }
+
+        return toArrays(result);
+    }
+
+    /**
+     * If some ancestor is not in the index, the last one found is considered the root.
+     */
+    private int rootPosition(int position) {
+        int result = position;
+        Integer parent = positionOf(entries[result].getParentId());
+        for (int depth = 0; parent != null && depth < entries.length; depth++) {
+            result = parent;
+            parent = positionOf(entries[result].getParentId());
+        }
+
+        return result;
+    }
+
+    private Integer positionOf(Long id) {
+        return id != null ? positionById.get(id) : null;
+    }
+
+    private Map<Long, int[]> indexGrams() {
+        Map<Long, PositionsList> result = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            for (String each : lowerCaseTexts[i]) {
+                for (int start = 0; start + GRAM_LENGTH <= each.length(); start++) {
+                    result.computeIfAbsent(gram(each, start), k -> new PositionsList()).add(i);
+                }
+            }
+        }
+
+        return toArrays(result);
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, PositionsList> lists) {
+        Map<K, int[]> result = new HashMap<>();
+        for (Map.Entry<K, PositionsList> each : lists.entrySet()) {
+            result.put(each.getKey(), each.getValue().toArray());
+        }
+
+        return result;
+    }
+
+    /**
+     * Positions are added in increasing order, so repeated ones are always the last one.
+     */
+    private static class PositionsList {
+
+        private int[] positions = new int[4];
+
+        private int size = 0;
+
+        void add(int position) {
+            if ( size > 0 && positions[size - 1] == position ) {
+                return;
+            }
+            if ( size == positions.length ) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public Entry getEntry(Long id) {
+        Integer position = positionOf(id);
+        return position != null ? entries[position] : null;
+    }
+
+    public Entry getRoot(Long id) {
+        Integer position = positionOf(id);
+        return position != null ? entries[rootPosition(position)] : null;
+    }
+
+    /**
+     * Returns the ids of the first <code>limit</code> entries matching the text, in the order given by their sort keys.
+     * If the text is empty the first entries are returned.
+     */
+    public List<Long> search(String text, int limit) {
+        return search(text, limit, each -> true);
+    }
+
+    /**
+     * Like {@link #search(String, int)} but only returning the entries accepted by the filter. For example, to return
+     * only the root entries.
+     */
+    public List<Long> search(String text, int limit, Predicate<Entry> filter) {
+        String query = StringUtils.trimToEmpty(text).toLowerCase();
+        List<Long> result = new ArrayList<>();
+        if ( query.isEmpty() ) {
+            for (int i = 0; i < entries.length && result.size() < limit; i++) {
+                addIfAccepted(result, i, filter);
+            }
+            return result;
+        }
+
+        BitSet matching = matchingDirectly(query);
+        BitSet withDescendants = (BitSet) matching.clone();
+        for (int i = matching.nextSetBit(0); i >= 0; i = matching.nextSetBit(i + 1)) {
+            int[] descendants = descendantsByRoot.get(i);
+            if ( descendants != null ) {
+                for (int each : descendants) {
+                    withDescendants.set(each);
+                }
+            }
+        }
+
+        for (int i = withDescendants.nextSetBit(0); i >= 0 && result.size() < limit;
+             i = withDescendants.nextSetBit(i + 1)) {
+
+            addIfAccepted(result, i, filter);
+        }
+
+        return result;
+    }
+
+    private void addIfAccepted(List<Long> result, int position, Predicate<Entry> filter) {
+        if ( filter.test(entries[position]) ) {
+            result.add(entries[position].getId());
+        }
+    }
+
+    private BitSet matchingDirectly(String query) {
+        BitSet result = new BitSet(entries.length);
+        if ( query.length() < GRAM_LENGTH ) {
+            for (int i = 0; i < entries.length; i++) {
+                if ( contains(i, query) ) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+
+        List<int[]> candidates = new ArrayList<>();
+        for (int start = 0; start + GRAM_LENGTH <= query.length(); start++) {
+            int[] positions = positionsByGram.get(gram(query, start));
+            if ( positions == null ) {
+                return result;
+            }
+            candidates.add(positions);
+        }
+        candidates.sort(Comparator.comparingInt(positions -> positions.length));
+
+        for (int each : candidates.get(0)) {
+            if ( inAll(candidates, each) && contains(each, query) ) {
+                result.set(each);
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean inAll(List<int[]> candidates, int position) {
+        for (int i = 1; i < candidates.size(); i++) {
+            if ( Arrays.binarySearch(candidates.get(i), position) < 0 ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean contains(int position, String query) {
+        for (String each : lowerCaseTexts[position]) {
+            if ( each.contains(query) ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns a new index with the given entries added or replacing the ones with the same id, and without the entries
+     * with the removed ids.
+     */
+    public SearchIndex withChanges(Collection<Entry> updated, Collection<Long> removedIds) {
+        Map<Long, Entry> result = new LinkedHashMap<>();
+        for (Entry each : entries) {
+            result.put(each.getId(), each);
+        }
+        for (Long each : removedIds) {
+            result.remove(each);
+        }
+        for (Entry each : updated) {
+            result.put(each.getId(), each);
+        }
+
+        return new SearchIndex(result.values());
+    }
+
+}
@@ -24,6 +24,8 @@ package org.libreplan.business.common.daos;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.lang3.Validate;
@@ -194,6 +196,16 @@ public class GenericDAOHibernate<E extends BaseEntity, PK extends Serializable>
 
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findByIds(Collection<PK> ids) {
+        if ( ids.isEmpty() ) {
+            return new ArrayList<>();
+        }
+
+        return getSession().createCriteria(entityClass).add(Restrictions.in("id", ids)).list();
+    }
+
     public void remove(PK id) throws InstanceNotFoundException {
         getSession().delete(find(id));
     }
@@ -21,7 +21,9 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
@@ -63,9 +65,33 @@ public interface IIntegrationEntityDAO<E extends IntegrationEntity>
 
     public E findExistingEntityByCode(String code);
 
+    /**
+     * It returns the entities whose code matches, ignoring case and
+     * surrounding whitespace, any of the given ones. Blank codes are ignored.
+     * All of them are searched in a single query, so the number of codes
+     * should be bounded by the caller.
+     */
+    public List<E> findByCodes(Collection<String> codes);
+
     /**
      * It returns all entities ordered by ascending code.
      */
     public List<E> findAll();
 
+    /**
+     * It returns, ordered by ascending code, at most <code>limit</code> of the
+     * entities exported by the integration services whose code is after
+     * <code>afterCode</code>. If <code>afterCode</code> is <code>null</code>
+     * it starts from the first one.
+     */
+    public List<E> findAfterCode(String afterCode, int limit);
+
+    /**
+     * It goes through the entities exported by the integration services,
+     * ordered by ascending code, without keeping them in memory. The session
+     * is cleared periodically, so the processor can't keep references to the
+     * entities or to anything loaded before in the same session.
+     */
+    public void scrollAll(Consumer<E> processor);
+
 }
@@ -21,9 +21,17 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.IntegrationEntity;
@@ -41,6 +49,12 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         extends GenericDAOHibernate<E, Long>
         implements IIntegrationEntityDAO<E> {
 
+    /**
+     * Rows fetched from the database at once while scrolling, the session is
+     * cleared after processing each batch.
+     */
+    private static final int SCROLL_BATCH_SIZE = 100;
+
     @Override
     public boolean existsByCode(String code) {
         try {
@@ -94,10 +108,84 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    @Transactional(readOnly = true)
+    public List<E> findByCodes(Collection<String> codes) {
+        Set<String> normalizedCodes = new HashSet<>();
+        for (String each : codes) {
+            if (!StringUtils.isBlank(each)) {
+                normalizedCodes.add(each.trim().toLowerCase());
+            }
+        }
+        if (normalizedCodes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return getSession()
+                .createQuery("FROM " + getEntityClass().getName() + " e WHERE lower(e." + getCodeProperty() +
+                        ") IN (:codes)")
+                .setParameterList("codes", normalizedCodes)
+                .list();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<E> findAll() {
         return getSession().createCriteria(getEntityClass()).addOrder(Order.asc("code")).list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findAfterCode(String afterCode, int limit) {
+        Criteria criteria = createIntegrationCriteria();
+        if (afterCode != null) {
+            criteria.add(Restrictions.gt(getCodeProperty(), afterCode));
+        }
+
+        return criteria.addOrder(Order.asc(getCodeProperty()))
+                .setMaxResults(limit)
+                .list();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void scrollAll(Consumer<E> processor) {
+        ScrollableResults results = createIntegrationCriteria()
+                .addOrder(Order.asc(getCodeProperty()))
+                .setReadOnly(true)
+                .setFetchSize(SCROLL_BATCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        try {
+            int processed = 0;
+            while (results.next()) {
+                processor.accept((E) results.get(0));
+                processed++;
+                if (processed % SCROLL_BATCH_SIZE == 0) {
+                    getSession().clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * Criteria selecting the entities exported by the integration services.
+     * DAOs whose integration services don't export all the instances of the
+     * entity must override it.
+     */
+    protected Criteria createIntegrationCriteria() {
+        return getSession().createCriteria(getEntityClass());
+    }
+
+    /**
+     * Property holding the code, it must be overridden if the code is not a
+     * direct property of the entity.
+     */
+    protected String getCodeProperty() {
+        return "code";
+    }
+
 }
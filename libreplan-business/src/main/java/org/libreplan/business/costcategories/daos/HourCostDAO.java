@@ -22,6 +22,11 @@
 package org.libreplan.business.costcategories.daos;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.hibernate.Query;
 import org.joda.time.LocalDate;
@@ -29,6 +34,7 @@ import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.costcategories.entities.HourCost;
+import org.libreplan.business.costcategories.entities.HourlyRateTimeline;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.Resource;
@@ -47,6 +53,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class HourCostDAO extends IntegrationEntityDAO<HourCost> implements
         IHourCostDAO {
 
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @Override
     public void remove(Long id) throws InstanceNotFoundException {
         try {
@@ -94,4 +102,42 @@ public class HourCostDAO extends IntegrationEntityDAO<HourCost> implements
         return (BigDecimal) query.uniqueResult();
     }
 
-}
\ No newline at end of file
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public HourlyRateTimeline getHourlyRateTimeline(Collection<Long> resourceIds) {
+        List<HourlyRateTimeline.Rate> rates = new ArrayList<HourlyRateTimeline.Rate>();
+        List<Long> ids = new ArrayList<Long>(resourceIds);
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            List<Object[]> rows = getSession()
+                    .createQuery("SELECT rcca.resource.id, hc.type.id, "
+                            + "rcca.initDate, rcca.endDate, hc.initDate, hc.endDate, hc.priceCost "
+                            + "FROM ResourcesCostCategoryAssignment rcca, HourCost hc "
+                            + "WHERE rcca.costCategory = hc.category "
+                            + "AND rcca.resource.id IN (:ids)")
+                    .setParameterList("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size())))
+                    .list();
+
+            for (Object[] each : rows) {
+                HourlyRateTimeline.Rate rate = HourlyRateTimeline.Rate.intersection(
+                        (Long) each[0], (Long) each[1],
+                        (LocalDate) each[2], (LocalDate) each[3],
+                        (LocalDate) each[4], (LocalDate) each[5],
+                        (BigDecimal) each[6]);
+                if (rate != null) {
+                    rates.add(rate);
+                }
+            }
+        }
+
+        Map<Long, BigDecimal> defaultPrices = new HashMap<Long, BigDecimal>();
+        List<Object[]> types = getSession().createQuery(
+                "SELECT t.id, t.defaultPrice FROM TypeOfWorkHours t").list();
+        for (Object[] each : types) {
+            defaultPrices.put((Long) each[0], (BigDecimal) each[1]);
+        }
+
+        return HourlyRateTimeline.create(rates, defaultPrices);
+    }
+
+}
@@ -22,12 +22,14 @@
 package org.libreplan.business.costcategories.daos;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.costcategories.entities.HourCost;
+import org.libreplan.business.costcategories.entities.HourlyRateTimeline;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
 import org.libreplan.business.resources.entities.Resource;
@@ -62,4 +64,14 @@ public interface IHourCostDAO extends IIntegrationEntityDAO<HourCost> {
 
     public BigDecimal getPriceCostFromCriterionAndType(
             CostCategory category, TypeOfWorkHours type);
+
+    /**
+     * Returns the {@link HourlyRateTimeline} of the resources with the given
+     * ids, with the default prices of all the {@link TypeOfWorkHours}. It
+     * answers the same than
+     * {@link #getPriceCostFromResourceDateAndType(Resource, LocalDate, TypeOfWorkHours)}
+     * for these resources without more queries.
+     */
+    HourlyRateTimeline getHourlyRateTimeline(Collection<Long> resourceIds);
+
 }
@@ -0,0 +1,233 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.costcategories.entities;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.resources.entities.Resource;
+
+/**
+ * Price of an hour of each {@link Resource} and {@link TypeOfWorkHours} along the time, as defined by the
+ * {@link HourCost hour costs} of the {@link CostCategory cost categories} assigned to the resource with
+ * {@link ResourcesCostCategoryAssignment}. The entities are not kept.
+ * <p>
+ * It is immutable. For each resource and type the periods are sorted, so the price at a day is found with a binary
+ * search. The periods of a resource and type don't overlap, as the assignments of a resource and the hour costs of a
+ * category for a type can't overlap.
+ */
+public class HourlyRateTimeline {
+
+    /**
+     * The price of an hour of a resource and type of work hours from a day to another, both included. A null end
+     * means that the period is not finished.
+     */
+    public static class Rate {
+
+        public static Rate create(Long resourceId,
+                                  Long typeOfWorkHoursId,
+                                  LocalDate start,
+                                  LocalDate end,
+                                  BigDecimal price) {
+
+            Validate.notNull(resourceId);
+            Validate.notNull(typeOfWorkHoursId);
+            Validate.notNull(start);
+
+            return new Rate(new Key(resourceId, typeOfWorkHoursId), start, end, price);
+        }
+
+        /**
+         * The rate of the days in both the period of the {@link ResourcesCostCategoryAssignment} and the period of
+         * the {@link HourCost}, or null if they don't share any day. Periods without start are never active.
+         */
+        public static Rate intersection(Long resourceId,
+                                        Long typeOfWorkHoursId,
+                                        LocalDate assignmentStart,
+                                        LocalDate assignmentEnd,
+                                        LocalDate hourCostStart,
+                                        LocalDate hourCostEnd,
+                                        BigDecimal price) {
+
+            if ( typeOfWorkHoursId == null || assignmentStart == null || hourCostStart == null ) {
+                return null;
+            }
+            LocalDate start = later(assignmentStart, hourCostStart);
+            LocalDate end = earlier(assignmentEnd, hourCostEnd);
+            if ( end != null && end.isBefore(start) ) {
+                return null;
+            }
+
+            return create(resourceId, typeOfWorkHoursId, start, end, price);
+        }
+
+        private static LocalDate later(LocalDate a, LocalDate b) {
+            return a.isAfter(b) ? a : b;
+        }
+
+        private static LocalDate earlier(LocalDate a, LocalDate b) {
+            if ( a == null ) {
+                return b;
+            }
+
+            return b == null || a.isBefore(b) ? a : b;
+        }
+
+        private final Key key;
+
+        private final LocalDate start;
+
+        private final LocalDate end;
+
+        private final BigDecimal price;
+
+        private Rate(Key key, LocalDate start, LocalDate end, BigDecimal price) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.price = price;
+        }
+
+        private boolean includes(LocalDate day) {
+            return !day.isBefore(start) && (end == null || !day.isAfter(end));
+        }
+    }
+
+    private static class Key {
+
+        private final long resourceId;
+
+        private final long typeOfWorkHoursId;
+
+        private Key(long resourceId, long typeOfWorkHoursId) {
+            this.resourceId = resourceId;
+            this.typeOfWorkHoursId = typeOfWorkHoursId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if ( !(obj instanceof Key) ) {
+                return false;
+            }
+            Key other = (Key) obj;
+
+            return resourceId == other.resourceId && typeOfWorkHoursId == other.typeOfWorkHoursId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(resourceId) * 31 + Long.hashCode(typeOfWorkHoursId);
+        }
+    }
+
+    private static final Comparator<Rate> BY_START = new Comparator<Rate>() {
+        @Override
+        public int compare(Rate o1, Rate o2) {
+            return o1.start.compareTo(o2.start);
+        }
+    };
+
+    /**
+     * @param defaultPricesByType
+     *            the {@link TypeOfWorkHours#getDefaultPrice() default price} of each type of work hours, used for
+     *            the days without rate
+     */
+    public static HourlyRateTimeline create(Collection<Rate> rates, Map<Long, BigDecimal> defaultPricesByType) {
+        Map<Key, List<Rate>> grouped = new HashMap<>();
+        for (Rate each : rates) {
+            List<Rate> list = grouped.get(each.key);
+            if ( list == null ) {
+                list = new ArrayList<>();
+                grouped.put(each.key, list);
+            }
+            list.add(each);
+        }
+
+        Map<Key, Rate[]> periods = new HashMap<>();
+        for (Entry<Key, List<Rate>> each : grouped.entrySet()) {
+            Rate[] sorted = each.getValue().toArray(new Rate[each.getValue().size()]);
+            Arrays.sort(sorted, BY_START);
+            periods.put(each.getKey(), sorted);
+        }
+
+        return new HourlyRateTimeline(periods, new HashMap<>(defaultPricesByType));
+    }
+
+    public static HourlyRateTimeline empty() {
+        return create(Collections.<Rate> emptyList(), Collections.<Long, BigDecimal> emptyMap());
+    }
+
+    private final Map<Key, Rate[]> periods;
+
+    private final Map<Long, BigDecimal> defaultPricesByType;
+
+    private HourlyRateTimeline(Map<Key, Rate[]> periods, Map<Long, BigDecimal> defaultPricesByType) {
+        this.periods = periods;
+        this.defaultPricesByType = defaultPricesByType;
+    }
+
+    /**
+     * Same value than {@link org.libreplan.business.costcategories.daos.IHourCostDAO#getPriceCostFromResourceDateAndType}
+     * but without querying the database.
+     *
+     * @return the price of the hour cost or null if the resource has no hour cost for that type at that day
+     */
+    public BigDecimal getRate(long resourceId, long typeOfWorkHoursId, LocalDate day) {
+        Rate[] sorted = periods.get(new Key(resourceId, typeOfWorkHoursId));
+        if ( sorted == null ) {
+            return null;
+        }
+        int low = 0;
+        int high = sorted.length - 1;
+        Rate candidate = null;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if ( sorted[middle].start.isAfter(day) ) {
+                high = middle - 1;
+            } else {
+                candidate = sorted[middle];
+                low = middle + 1;
+            }
+        }
+
+        return candidate != null && candidate.includes(day) ? candidate.price : null;
+    }
+
+    /**
+     * The {@link #getRate(long, long, LocalDate) rate} or the default price of the type if there is none or the day
+     * is null
+     */
+    public BigDecimal getPrice(long resourceId, long typeOfWorkHoursId, LocalDate day) {
+        BigDecimal rate = day != null ? getRate(resourceId, typeOfWorkHoursId, day) : null;
+
+        return rate != null ? rate : defaultPricesByType.get(typeOfWorkHoursId);
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.hibernate.notification;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.libreplan.business.common.Configuration;
+
+/**
+ * Table shared by the nodes using the same database where each transaction records the entities it has modified.
+ * Each node reads periodically the entries recorded by the other ones, so its snapshots are reloaded as if the
+ * modifications had been done locally.
+ * <p>
+ * The identifiers of the entries are given by the database just before the transactions are committed, so they
+ * can become visible in a slightly different order. For that reason a skipped identifier is waited for some seconds
+ * before it is considered rolled back.
+ *
+ * @see Configuration#isClusterModeEnabled()
+ */
+class DatabaseChangeLog {
+
+    private static final Log LOG = LogFactory.getLog(DatabaseChangeLog.class);
+
+    /**
+     * If more instances of a class are modified by a transaction only the class is recorded
+     */
+    private static final int MAX_IDS_PER_CLASS = 100;
+
+    static final long MISSING_ENTRY_TIMEOUT_MS = 30 * 1000L;
+
+    static final long RETENTION_MS = 24 * 60 * 60 * 1000L;
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO entity_change_log (node, entity_class, entity_id, change_time) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_ENTRIES_AFTER =
+            "SELECT id, node, entity_class, entity_id FROM entity_change_log WHERE id > ? ORDER BY id";
+
+    private static final String SELECT_LAST_ID = "SELECT MAX(id) FROM entity_change_log";
+
+    private static final String DELETE_ENTRIES_BEFORE = "DELETE FROM entity_change_log WHERE change_time < ?";
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final DataSource dataSource;
+
+    /**
+     * All the entries up to this identifier have been read or are considered rolled back
+     */
+    private long readUpTo = 0;
+
+    private final SortedSet<Long> readAfterReadUpTo = new TreeSet<>();
+
+    private final SortedMap<Long, Long> missingSince = new TreeMap<>();
+
+    DatabaseChangeLog(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Skips the entries already recorded, the snapshots of this node are calculated from the current data.
+     */
+    synchronized void start() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_LAST_ID);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            readUpTo = resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Records the modifications of the given classes using the connection of the transaction doing them.
+     */
+    void append(Connection connection, ModifiedEntities modifications, Collection<Class<?>> classes)
+            throws SQLException {
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ENTRY)) {
+            for (Class<?> each : classes) {
+                Set<Serializable> ids = modifications.getIdsOfExactly(each);
+                if ( ids.isEmpty() || ids.size() > MAX_IDS_PER_CLASS || !areLongs(ids) ) {
+                    addEntry(statement, each, null, now);
+                } else {
+                    for (Serializable id : ids) {
+                        addEntry(statement, each, (Long) id, now);
+                    }
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static boolean areLongs(Set<Serializable> ids) {
+        for (Serializable each : ids) {
+            if ( !(each instanceof Long) ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void addEntry(PreparedStatement statement, Class<?> entityClass, Long id, Timestamp now)
+            throws SQLException {
+
+        statement.setString(1, node);
+        statement.setString(2, entityClass.getName());
+        if ( id == null ) {
+            statement.setNull(3, Types.BIGINT);
+        } else {
+            statement.setLong(3, id);
+        }
+        statement.setTimestamp(4, now);
+        statement.addBatch();
+    }
+
+    /**
+     * Returns the modifications recorded by other nodes since the last call.
+     */
+    synchronized ModifiedEntities readNewEntries() throws SQLException {
+        return readNewEntries(System.currentTimeMillis());
+    }
+
+    synchronized ModifiedEntities readNewEntries(long now) throws SQLException {
+        Map<Class<?>, Set<Serializable>> idsByClass = new HashMap<>();
+        Set<Class<?>> withUnknownIds = new HashSet<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ENTRIES_AFTER)) {
+
+            statement.setLong(1, readUpTo);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long id = resultSet.getLong(1);
+                    if ( !readAfterReadUpTo.add(id) ) {
+                        continue;
+                    }
+                    missingSince.remove(id);
+                    if ( node.equals(resultSet.getString(2)) ) {
+                        continue;
+                    }
+
+                    Class<?> entityClass = classFor(resultSet.getString(3));
+                    if ( entityClass == null ) {
+                        continue;
+                    }
+                    Set<Serializable> ids = idsByClass.get(entityClass);
+                    if ( ids == null ) {
+                        ids = new HashSet<>();
+                        idsByClass.put(entityClass, ids);
+                    }
+                    long entityId = resultSet.getLong(4);
+                    if ( resultSet.wasNull() ) {
+                        withUnknownIds.add(entityClass);
+                    } else {
+                        ids.add(entityId);
+                    }
+                }
+            }
+        }
+        advance(now);
+
+        ModifiedEntities result = ModifiedEntities.from(idsByClass);
+        for (Class<?> each : withUnknownIds) {
+            result = result.plusUnknownIds(each);
+        }
+
+        return result;
+    }
+
+    private static Class<?> classFor(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            LOG.warn("ignoring change log entry for unknown class " + name);
+            return null;
+        }
+    }
+
+    private void advance(long now) {
+        if ( readAfterReadUpTo.isEmpty() ) {
+            return;
+        }
+
+        long last = readAfterReadUpTo.last();
+        for (long id = readUpTo + 1; id < last; id++) {
+            if ( !readAfterReadUpTo.contains(id) && !missingSince.containsKey(id) ) {
+                missingSince.put(id, now);
+            }
+        }
+
+        Iterator<Long> since = missingSince.values().iterator();
+        while (since.hasNext()) {
+            if ( now - since.next() > MISSING_ENTRY_TIMEOUT_MS ) {
+                since.remove();
+            }
+        }
+
+        readUpTo = missingSince.isEmpty() ? last : missingSince.firstKey() - 1;
+        readAfterReadUpTo.headSet(readUpTo + 1).clear();
+    }
+
+    /**
+     * Removes the entries old enough to have been read by all the nodes.
+     */
+    void trim() throws SQLException {
+        trim(System.currentTimeMillis());
+    }
+
+    void trim(long now) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE_ENTRIES_BEFORE)) {
+
+            statement.setTimestamp(1, new Timestamp(now - RETENTION_MS));
+            int removed = statement.executeUpdate();
+            LOG.debug(removed + " entries removed from the change log");
+        }
+    }
+
+}
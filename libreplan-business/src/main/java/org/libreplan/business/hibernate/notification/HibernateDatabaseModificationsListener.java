@@ -20,6 +20,7 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -29,11 +30,15 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
 import javax.transaction.Status;
 import javax.transaction.Synchronization;
 
@@ -43,6 +48,7 @@ import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.event.service.spi.EventListenerRegistry;
 import org.hibernate.event.spi.AbstractEvent;
+import org.hibernate.event.spi.EventSource;
 import org.hibernate.event.spi.EventType;
 import org.hibernate.event.spi.PostDeleteEvent;
 import org.hibernate.event.spi.PostDeleteEventListener;
@@ -53,13 +59,16 @@ import org.hibernate.event.spi.PostUpdateEventListener;
 import org.hibernate.internal.SessionFactoryImpl;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.proxy.HibernateProxy;
+import org.libreplan.business.common.Configuration;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
 
 /**
  * @author Óscar González Fernández
  */
 @Component
+@DependsOn("configuration")
 public class HibernateDatabaseModificationsListener implements
         PostInsertEventListener,
         PostUpdateEventListener,
@@ -68,7 +77,17 @@ public class HibernateDatabaseModificationsListener implements
 
     private static final Log LOG = LogFactory.getLog(HibernateDatabaseModificationsListener.class);
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private static final long CHANGE_LOG_READING_PERIOD_SECONDS = 5;
+
+    private static final long CHANGE_LOG_TRIMMING_PERIOD_MINUTES = 60;
+
+    private final ReloadScheduler scheduler = new ReloadScheduler();
+
+    private final List<NotBlockingAutoUpdatedSnapshot<?>> snapshots = new CopyOnWriteArrayList<>();
+
+    private DatabaseChangeLog changeLog;
+
+    private ScheduledExecutorService changeLogReader;
 
     private final ConcurrentMap<Class<?>, BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>>> interested;
 
@@ -96,20 +115,47 @@ public class HibernateDatabaseModificationsListener implements
 
     private final class Dispatcher implements Synchronization {
 
-        private BlockingQueue<Class<?>> classes = new LinkedBlockingQueue<>();
+        private final ConcurrentMap<Class<?>, BlockingQueue<Serializable>> ids = new ConcurrentHashMap<>();
         private final Transaction transaction;
+        private final EventSource session;
 
-        public Dispatcher(Transaction transaction, Class<?> entityClass) {
-            classes.offer(entityClass);
+        public Dispatcher(Transaction transaction, EventSource session, Class<?> entityClass, Serializable id) {
+            add(entityClass, id);
             this.transaction = transaction;
+            this.session = session;
         }
 
-        public void add(Class<?> entityClass) {
-            classes.offer(entityClass);
+        public void add(Class<?> entityClass, Serializable id) {
+            BlockingQueue<Serializable> queue = ids.get(entityClass);
+            if ( queue == null ) {
+                ids.putIfAbsent(entityClass, new LinkedBlockingQueue<>());
+                queue = ids.get(entityClass);
+            }
+            if ( id != null ) {
+                queue.offer(id);
+            }
         }
 
+        /**
+         * In cluster mode the modifications are recorded in the change log within the transaction, so the other
+         * nodes only see them if it is committed.
+         */
         @Override
         public void beforeCompletion() {
+            if ( changeLog == null || session == null ) {
+                return;
+            }
+
+            final ModifiedEntities modifications = ModifiedEntities.from(ids);
+            final List<Class<?>> classes = new ArrayList<>();
+            for (Class<?> each : modifications.getClasses()) {
+                if ( interested.containsKey(each) ) {
+                    classes.add(each);
+                }
+            }
+            if ( !classes.isEmpty() ) {
+                session.doWork(connection -> changeLog.append(connection, modifications, classes));
+            }
         }
 
         @Override
@@ -118,15 +164,14 @@ public class HibernateDatabaseModificationsListener implements
             pending.remove(transaction);
 
             if ( isProbablySucessful(status) ) {
-                List<Class<?>> list = new ArrayList<>();
-                classes.drainTo(list);
-                LOG.debug(list.size() + " modification events recorded");
-                Set<NotBlockingAutoUpdatedSnapshot<?>> toDispatch = snapshotsInterestedOn(list);
+                ModifiedEntities modifications = ModifiedEntities.from(ids);
+                LOG.debug(modifications.getClasses().size() + " modified entity classes recorded");
+                Set<NotBlockingAutoUpdatedSnapshot<?>> toDispatch = snapshotsInterestedOn(modifications.getClasses());
 
                 LOG.debug(
                         "dispatching " + toDispatch + " snapshots to reload due to transaction successful completion");
 
-                dispatch(toDispatch);
+                dispatch(toDispatch, modifications);
             }
         }
 
@@ -139,6 +184,9 @@ public class HibernateDatabaseModificationsListener implements
     @Autowired
     private SessionFactory sessionFactory;
 
+    @Autowired
+    private DataSource dataSource;
+
     private volatile boolean hibernateListenersRegistered = false;
 
     public HibernateDatabaseModificationsListener() {
@@ -155,6 +203,62 @@ public class HibernateDatabaseModificationsListener implements
         registry.appendListeners(EventType.POST_DELETE, this);
 
         hibernateListenersRegistered = true;
+
+        if ( Configuration.isClusterModeEnabled() ) {
+            startReadingChangeLog();
+        }
+    }
+
+    private void startReadingChangeLog() {
+        changeLog = new DatabaseChangeLog(dataSource);
+        try {
+            changeLog.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("The change log used in cluster mode cannot be read", e);
+        }
+
+        changeLogReader = Executors.newSingleThreadScheduledExecutor();
+        changeLogReader.scheduleWithFixedDelay(
+                this::readChangeLog,
+                CHANGE_LOG_READING_PERIOD_SECONDS, CHANGE_LOG_READING_PERIOD_SECONDS, TimeUnit.SECONDS);
+
+        changeLogReader.scheduleWithFixedDelay(
+                this::trimChangeLog,
+                CHANGE_LOG_TRIMMING_PERIOD_MINUTES, CHANGE_LOG_TRIMMING_PERIOD_MINUTES, TimeUnit.MINUTES);
+
+        LOG.info("cluster mode enabled, reading the change log each "
+                + CHANGE_LOG_READING_PERIOD_SECONDS + " seconds");
+    }
+
+    /**
+     * The modifications done by other nodes are dispatched the same way as the ones done by this one.
+     */
+    private void readChangeLog() {
+        try {
+            ModifiedEntities modifications = changeLog.readNewEntries();
+            if ( !modifications.isEmpty() ) {
+                LOG.debug("modifications done by other nodes: " + modifications);
+                dispatch(snapshotsInterestedOn(modifications.getClasses()), modifications);
+            }
+        } catch (Exception e) {
+            LOG.error("error reading the change log", e);
+        }
+    }
+
+    private void trimChangeLog() {
+        try {
+            changeLog.trim();
+        } catch (Exception e) {
+            LOG.error("error trimming the change log", e);
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if ( changeLogReader != null ) {
+            changeLogReader.shutdownNow();
+        }
+        scheduler.shutdown();
     }
 
     @Override
@@ -164,17 +268,21 @@ public class HibernateDatabaseModificationsListener implements
 
     @Override
     public void onPostDelete(PostDeleteEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(event, inferEntityClass(getEntityObject(event)), event.getId());
     }
 
     @Override
     public void onPostUpdate(PostUpdateEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(event, inferEntityClass(getEntityObject(event)), event.getId());
     }
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(event, inferEntityClass(getEntityObject(event)), event.getId());
+    }
+
+    private void modificationOn(AbstractEvent event, Class<?> entityClass, Serializable id) {
+        modificationOn(inferTransaction(event), event.getSession(), entityClass, id);
     }
 
 
@@ -204,41 +312,50 @@ public class HibernateDatabaseModificationsListener implements
         return entity.getClass();
     }
 
-    void modificationOn(Transaction transaction, Class<?> entityClass) {
+    void modificationOn(Transaction transaction, EventSource session, Class<?> entityClass, Serializable id) {
         if ( transaction == null ) {
-            dispatch(snapshotsInterestedOn(entityClass));
+            dispatch(snapshotsInterestedOn(entityClass), ModifiedEntities.of(entityClass, id));
 
             return;
         }
-        Dispatcher newDispatcher = new Dispatcher(transaction, entityClass);
+        Dispatcher newDispatcher = new Dispatcher(transaction, session, entityClass, id);
         Dispatcher previous;
         previous = pending.putIfAbsent(transaction, newDispatcher);
 
         boolean dispatcherAlreadyExisted = previous != null;
         if ( dispatcherAlreadyExisted ) {
-            previous.add(entityClass);
+            previous.add(entityClass, id);
         } else {
             transaction.registerSynchronization(newDispatcher);
         }
     }
 
-    private void dispatch(Set<NotBlockingAutoUpdatedSnapshot<?>> toBeDispatched) {
-        toBeDispatched.forEach(this::dispatch);
+    private void dispatch(Set<NotBlockingAutoUpdatedSnapshot<?>> toBeDispatched, ModifiedEntities modifications) {
+        for (NotBlockingAutoUpdatedSnapshot<?> each : toBeDispatched) {
+            each.reloadNeeded(scheduler, modifications);
+        }
     }
 
-    private void dispatch(NotBlockingAutoUpdatedSnapshot<?> each) {
-        each.reloadNeeded(executor);
+    @Override
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+        return takeSnapshot(name, callable, null, reloadOn);
     }
 
     @Override
-    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name,
+                                                    Callable<T> callable,
+                                                    IIncrementalUpdater<T> updater,
+                                                    ReloadOn reloadOn) {
         if ( !hibernateListenersRegistered ) {
             throw new IllegalStateException(
                     "The hibernate listeners has not been registered. There is some configuration problem.");
         }
 
         final NotBlockingAutoUpdatedSnapshot<T> result;
-        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable);
+        result = new NotBlockingAutoUpdatedSnapshot<>(
+                name, callable, updater,
+                reloadOn.getDebounceMillis(), reloadOn.getMaxStalenessMillis(), reloadOn.isInvalidatedOnCommit());
+        snapshots.add(result);
 
         for (Class<?> each : reloadOn.getClassesOnWhichToReload()) {
             interested.putIfAbsent(each, emptyQueue());
@@ -246,7 +363,17 @@ public class HibernateDatabaseModificationsListener implements
             boolean success = queue.add(result);
             assert success : "the type of queue used must not have restricted capacity";
         }
-        result.ensureFirstLoad(executor);
+        result.ensureFirstLoad(scheduler);
+
+        return result;
+    }
+
+    @Override
+    public List<SnapshotStatistics> getStatistics() {
+        List<SnapshotStatistics> result = new ArrayList<>();
+        for (NotBlockingAutoUpdatedSnapshot<?> each : snapshots) {
+            result.add(each.getStatistics());
+        }
 
         return result;
     }
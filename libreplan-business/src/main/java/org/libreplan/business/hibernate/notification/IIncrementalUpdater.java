@@ -0,0 +1,39 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.hibernate.notification;
+
+/**
+ * Updates the value of a snapshot from its previous value and the entities modified since it was calculated, instead
+ * of calculating it again from scratch.
+ *
+ * @see ISnapshotRefresherService#takeSnapshot(String, java.util.concurrent.Callable, IIncrementalUpdater, ReloadOn)
+ */
+public interface IIncrementalUpdater<T> {
+
+    /**
+     * @param previousValue
+     *            the last calculated value. It must not be modified
+     * @param modifications
+     *            the entities modified since <code>previousValue</code> was calculated
+     * @return the new value or <code>null</code> if it must be calculated from scratch
+     */
+    T update(T previousValue, ModifiedEntities modifications) throws Exception;
+
+}
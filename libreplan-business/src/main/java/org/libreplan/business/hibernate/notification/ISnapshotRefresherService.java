@@ -20,6 +20,7 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -30,4 +31,18 @@ public interface ISnapshotRefresherService {
 
     public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn);
 
+    /**
+     * Like {@link #takeSnapshot(String, Callable, ReloadOn)} but, once the first value has been calculated, the
+     * modifications are applied to it with <code>updater</code> instead of calling <code>callable</code> again.
+     */
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name,
+                                                    Callable<T> callable,
+                                                    IIncrementalUpdater<T> updater,
+                                                    ReloadOn reloadOn);
+
+    /**
+     * Returns the reloads requested and the executions done by each of the snapshots taken.
+     */
+    public List<SnapshotStatistics> getStatistics();
+
 }
@@ -0,0 +1,196 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.hibernate.notification;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Immutable record of the entities inserted, updated or deleted by one or several transactions.
+ * For each modified entity class it keeps the identifiers of the modified instances. For some classes they can be
+ * unknown, for example if they were too many to be recorded in the change log shared with other nodes.
+ */
+public class ModifiedEntities {
+
+    private static final ModifiedEntities EMPTY = new ModifiedEntities(
+            Collections.<Class<?>, Set<Serializable>> emptyMap(), Collections.<Class<?>> emptySet());
+
+    public static ModifiedEntities empty() {
+        return EMPTY;
+    }
+
+    public static ModifiedEntities of(Class<?> entityClass, Serializable id) {
+        return empty().plus(entityClass, id);
+    }
+
+    static ModifiedEntities from(Map<Class<?>, ? extends Collection<Serializable>> idsByClass) {
+        Map<Class<?>, Set<Serializable>> result = new HashMap<>();
+        for (Entry<Class<?>, ? extends Collection<Serializable>> each : idsByClass.entrySet()) {
+            addTo(result, each.getKey(), each.getValue());
+        }
+
+        return new ModifiedEntities(result, Collections.<Class<?>> emptySet());
+    }
+
+    private final Map<Class<?>, Set<Serializable>> idsByClass;
+
+    private final Set<Class<?>> withUnknownIds;
+
+    private ModifiedEntities(Map<Class<?>, Set<Serializable>> idsByClass, Set<Class<?>> withUnknownIds) {
+        this.idsByClass = idsByClass;
+        this.withUnknownIds = withUnknownIds;
+    }
+
+    public ModifiedEntities plus(Class<?> entityClass, Serializable id) {
+        Map<Class<?>, Set<Serializable>> result = copy(idsByClass);
+        addTo(result, entityClass, id == null ? Collections.<Serializable> emptySet() : Collections.singleton(id));
+
+        return new ModifiedEntities(result, withUnknownIds);
+    }
+
+    /**
+     * Records that some instances of the given class have been modified without knowing which ones.
+     */
+    public ModifiedEntities plusUnknownIds(Class<?> entityClass) {
+        Map<Class<?>, Set<Serializable>> result = copy(idsByClass);
+        addTo(result, entityClass, Collections.<Serializable> emptySet());
+
+        Set<Class<?>> unknown = new HashSet<>(withUnknownIds);
+        unknown.add(entityClass);
+
+        return new ModifiedEntities(result, unknown);
+    }
+
+    public ModifiedEntities plus(ModifiedEntities other) {
+        if ( other.isEmpty() ) {
+            return this;
+        }
+        if ( isEmpty() ) {
+            return other;
+        }
+
+        Map<Class<?>, Set<Serializable>> result = copy(idsByClass);
+        for (Entry<Class<?>, Set<Serializable>> each : other.idsByClass.entrySet()) {
+            addTo(result, each.getKey(), each.getValue());
+        }
+
+        Set<Class<?>> unknown = new HashSet<>(withUnknownIds);
+        unknown.addAll(other.withUnknownIds);
+
+        return new ModifiedEntities(result, unknown);
+    }
+
+    private static Map<Class<?>, Set<Serializable>> copy(Map<Class<?>, Set<Serializable>> idsByClass) {
+        Map<Class<?>, Set<Serializable>> result = new HashMap<>();
+        for (Entry<Class<?>, Set<Serializable>> each : idsByClass.entrySet()) {
+            result.put(each.getKey(), new HashSet<>(each.getValue()));
+        }
+
+        return result;
+    }
+
+    private static void addTo(Map<Class<?>, Set<Serializable>> idsByClass,
+                              Class<?> entityClass,
+                              Collection<Serializable> ids) {
+
+        Set<Serializable> existent = idsByClass.get(entityClass);
+        if ( existent == null ) {
+            existent = new HashSet<>();
+            idsByClass.put(entityClass, existent);
+        }
+        existent.addAll(ids);
+    }
+
+    public boolean isEmpty() {
+        return idsByClass.isEmpty();
+    }
+
+    public Set<Class<?>> getClasses() {
+        return Collections.unmodifiableSet(idsByClass.keySet());
+    }
+
+    /**
+     * Returns <code>false</code> if for some of the modified classes the identifiers of the modified instances are
+     * not known, so they cannot be updated incrementally.
+     */
+    public boolean areAllIdsKnown() {
+        return withUnknownIds.isEmpty();
+    }
+
+    /**
+     * Returns the identifiers of the modified instances of exactly the given class.
+     */
+    Set<Serializable> getIdsOfExactly(Class<?> entityClass) {
+        Set<Serializable> result = idsByClass.get(entityClass);
+        return result != null ? Collections.unmodifiableSet(result) : Collections.<Serializable> emptySet();
+    }
+
+    /**
+     * Checks if some instance of the given classes or any of their subclasses has been modified.
+     */
+    public boolean containsAnyOf(Class<?>... classes) {
+        for (Class<?> modified : idsByClass.keySet()) {
+            for (Class<?> each : classes) {
+                if ( each.isAssignableFrom(modified) ) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the identifiers of the modified instances of the given classes or any of their subclasses.
+     */
+    public Set<Long> getIdsOf(Class<?>... classes) {
+        Set<Long> result = new HashSet<>();
+        for (Entry<Class<?>, Set<Serializable>> entry : idsByClass.entrySet()) {
+            for (Class<?> each : classes) {
+                if ( each.isAssignableFrom(entry.getKey()) ) {
+                    addLongIds(result, entry.getValue());
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static void addLongIds(Set<Long> result, Set<Serializable> ids) {
+        for (Serializable each : ids) {
+            if ( each instanceof Long ) {
+                result.add((Long) each);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return idsByClass.toString();
+    }
+
+}
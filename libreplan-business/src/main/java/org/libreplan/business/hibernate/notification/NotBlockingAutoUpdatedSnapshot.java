@@ -21,8 +21,8 @@
 package org.libreplan.business.hibernate.notification;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.Validate;
@@ -46,6 +46,25 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     private final ExecutionsReport executionsReport;
 
+    private final IIncrementalUpdater<T> updater;
+
+    private final long debounceMillis;
+
+    private final long maxStalenessMillis;
+
+    private final boolean invalidatedOnCommit;
+
+    private final AtomicLong reloadsRequested = new AtomicLong();
+
+    private final AtomicLong calculatingSince = new AtomicLong(-1);
+
+    private final AtomicReference<ModifiedEntities> notAppliedModifications =
+            new AtomicReference<>(ModifiedEntities.empty());
+
+    private final Object updateLock = new Object();
+
+    private volatile T lastCalculated;
+
     private abstract class State {
         abstract T getValue();
 
@@ -144,6 +163,32 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         }
     }
 
+    /**
+     * The value has been invalidated, the readers wait for the ongoing calculation.
+     */
+    private class InvalidatedValue extends State {
+        private final Future<T> ongoingCalculation;
+
+        private InvalidatedValue(Future<T> ongoingCalculation) {
+            this.ongoingCalculation = ongoingCalculation;
+        }
+
+        @Override
+        T getValue() {
+            try {
+                return ongoingCalculation.get();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        State nextState(Future<T> future) {
+            return new InvalidatedValue(future);
+        }
+
+    }
+
     private class FirstCalculation extends State {
         private final Future<T> ongoingCalculation;
 
@@ -168,10 +213,27 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     }
 
     public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable) {
+        this(name, callable, null);
+    }
+
+    public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable, IIncrementalUpdater<T> updater) {
+        this(name, callable, updater, 0, Long.MAX_VALUE, false);
+    }
+
+    public NotBlockingAutoUpdatedSnapshot(String name,
+                                          Callable<T> callable,
+                                          IIncrementalUpdater<T> updater,
+                                          long debounceMillis,
+                                          long maxStalenessMillis,
+                                          boolean invalidatedOnCommit) {
         Validate.notNull(callable);
         Validate.notNull(name);
         this.name = "*" + name + "*";
         this.callable = callable;
+        this.updater = updater;
+        this.debounceMillis = debounceMillis;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.invalidatedOnCommit = invalidatedOnCommit;
         this.currentState = new AtomicReference<State>(new NotLaunchState());
         this.executionsReport = new ExecutionsReport();
     }
@@ -181,9 +243,40 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().getValue();
     }
 
-    public void reloadNeeded(ExecutorService executorService) {
-        Future<T> future = executorService
-                .submit(callableDecoratedWithStatistics());
+    /**
+     * The reload is not launched immediately, the scheduler decides when, calling {@link #launchReload}. If the
+     * snapshot is invalidated on commit, the reload is launched now and the readers wait for it from now on.
+     */
+    public void reloadNeeded(ReloadScheduler scheduler, ModifiedEntities modifications) {
+        reloadsRequested.incrementAndGet();
+        addNotApplied(modifications);
+        if (invalidatedOnCommit) {
+            invalidate(scheduler);
+        } else {
+            scheduler.reloadNeeded(this);
+        }
+    }
+
+    /**
+     * The calculations already running are not cancelled, some readers could be waiting for them.
+     */
+    private void invalidate(ReloadScheduler scheduler) {
+        Future<T> future = scheduler.submit(this, callableDecoratedWithStatistics());
+        State previousState;
+        do {
+            previousState = currentState.get();
+        } while (!currentState.compareAndSet(previousState, new InvalidatedValue(future)));
+    }
+
+    private void addNotApplied(ModifiedEntities modifications) {
+        ModifiedEntities previous;
+        do {
+            previous = notAppliedModifications.get();
+        } while (!notAppliedModifications.compareAndSet(previous, previous.plus(modifications)));
+    }
+
+    void launchReload(ReloadScheduler scheduler) {
+        Future<T> future = scheduler.submit(this, callableDecoratedWithStatistics());
         State previousState;
         State newState = null;
         do {
@@ -196,12 +289,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         previousState.cancel();
     }
 
-    public void ensureFirstLoad(ExecutorService executorService) {
+    public void ensureFirstLoad(ReloadScheduler scheduler) {
         if (hasBeenInitialized()) {
             return;
         }
-        Future<T> future = executorService
-                .submit(callableDecoratedWithStatistics());
+        Future<T> future = scheduler.submit(this, callableDecoratedWithStatistics());
         State previous = currentState.get();
         State newState = previous.nextState(future);
         boolean compareAndSet = currentState.compareAndSet(previous, newState);
@@ -219,6 +311,32 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().hasBeenInitialized();
     }
 
+    long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    /**
+     * Time since the last calculation started, or -1 if there is none running.
+     */
+    long getMsCalculating() {
+        long since = calculatingSince.get();
+        return since < 0 ? -1 : System.currentTimeMillis() - since;
+    }
+
+    long getMeanMsExecuting() {
+        return executionsReport.data.get().getMeanMsExecuting();
+    }
+
+    public SnapshotStatistics getStatistics() {
+        Data data = executionsReport.data.get();
+        return new SnapshotStatistics(name, reloadsRequested.get(), data.executionTimes, data.errors,
+                data.getMeanMsWaiting(), data.getMeanMsExecuting(), data.lastMsExecuting);
+    }
+
     private Callable<T> callableDecoratedWithStatistics() {
         final long requestTime = System.currentTimeMillis();
         return new Callable<T>() {
@@ -228,13 +346,15 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
                 long start = System.currentTimeMillis();
                 long timeWaiting = start - requestTime;
                 Exception error = null;
+                calculatingSince.set(start);
                 try {
-                    return callable.call();
+                    return calculate();
                 } catch (Exception e) {
                     error = e;
                     LOG.error("error executing snapshot " + name);
                     throw e;
                 } finally {
+                    calculatingSince.compareAndSet(start, -1);
                     long timeExecuting = System.currentTimeMillis() - start;
                     executionsReport.newData(timeWaiting, timeExecuting, error);
                 }
@@ -242,24 +362,70 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         };
     }
 
+    /**
+     * If there is an {@link IIncrementalUpdater} and a previous value, the modifications not applied yet are applied
+     * to it. The updates are serialized, so a cancelled update that has already started is not lost, the next one
+     * starts from its result. If the update fails the modifications are kept for the next one. If the identifiers of
+     * some modified entities are not known the value is calculated from scratch.
+     */
+    private T calculate() throws Exception {
+        if (updater == null) {
+            return callable.call();
+        }
+
+        synchronized (updateLock) {
+            ModifiedEntities modifications = notAppliedModifications.getAndSet(ModifiedEntities.empty());
+            T previous = lastCalculated;
+            if (previous != null && modifications.isEmpty()) {
+                return previous;
+            }
+
+            try {
+                T result = previous != null && modifications.areAllIdsKnown()
+                        ? updater.update(previous, modifications)
+                        : null;
+                if (result == null) {
+                    LOG.debug(name + " calculating from scratch");
+                    result = callable.call();
+                }
+                lastCalculated = result;
+
+                return result;
+            } catch (Exception e) {
+                addNotApplied(modifications);
+                throw e;
+            }
+        }
+    }
+
     private static class Data {
         final int executionTimes;
         final int errors;
         long totalMsWaiting;
         long totalMsExecuting;
+        final long lastMsExecuting;
 
         private Data(int executionTimes, int errors, long totalMsWaiting,
-                long totalMsExecuting) {
+                long totalMsExecuting, long lastMsExecuting) {
             this.executionTimes = executionTimes;
             this.totalMsWaiting = totalMsWaiting;
             this.totalMsExecuting = totalMsExecuting;
             this.errors = errors;
+            this.lastMsExecuting = lastMsExecuting;
         }
 
         public Data newData(long timeWaiting, long timeExcuting, Exception e) {
             return new Data(executionTimes + 1, errors + (e != null ? 1 : 0),
                     totalMsWaiting + timeWaiting,
-                    totalMsExecuting + timeExcuting);
+                    totalMsExecuting + timeExcuting, timeExcuting);
+        }
+
+        long getMeanMsWaiting() {
+            return executionTimes == 0 ? 0 : totalMsWaiting / executionTimes;
+        }
+
+        long getMeanMsExecuting() {
+            return executionTimes == 0 ? 0 : totalMsExecuting / executionTimes;
         }
 
     }
@@ -267,7 +433,7 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     private class ExecutionsReport {
 
         private AtomicReference<Data> data = new AtomicReference<Data>(
-                new Data(0, 0, 0, 0));
+                new Data(0, 0, 0, 0, 0));
 
         public void newData(long timeWaiting, long timeExecuting,
                 Exception possibleError) {
@@ -290,9 +456,9 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             LOG.debug(name + " waited for " + timeWaiting
                     + " ms until executing");
             LOG.debug(name + " mean time waiting for execution: "
-                    + data.totalMsWaiting / data.executionTimes + " ms");
+                    + data.getMeanMsWaiting() + " ms");
             LOG.debug(name + " mean time  executing: "
-                    + data.totalMsExecuting / data.executionTimes + " ms");
+                    + data.getMeanMsExecuting() + " ms");
             LOG.debug(name + " has been executed " + data.executionTimes
                     + " times");
             LOG.debug(name + " has produced errors " + data.errors + " times");
@@ -20,25 +20,30 @@
  */
 package org.libreplan.business.hibernate.notification;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.joda.time.LocalDate;
+import org.libreplan.business.advance.daos.IAdvanceMeasurementDAO;
+import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
+import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.common.AdHocTransactionService;
 import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.SearchIndex;
 import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
 import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
@@ -48,13 +53,20 @@ import org.libreplan.business.labels.daos.ILabelTypeDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.planner.chart.CompanyResourceLoad;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.chart.TaskCosts;
+import org.libreplan.business.planner.chart.TaskCostsCalculator;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
+import org.libreplan.business.planner.daos.IResourceAllocationDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
-import org.libreplan.business.planner.entities.ICostCalculator;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.planner.entities.Task;
@@ -71,8 +83,16 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.VirtualWorker;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
+import org.libreplan.business.users.daos.OrderAuthorizationsIndex;
+import org.libreplan.business.users.entities.Profile;
+import org.libreplan.business.users.entities.ProfileOrderAuthorization;
+import org.libreplan.business.users.entities.User;
+import org.libreplan.business.users.entities.UserOrderAuthorization;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportEffortCube;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -88,6 +108,14 @@ public class PredefinedDatabaseSnapshots {
 
     private static final Log LOG = LogFactory.getLog(PredefinedDatabaseSnapshots.class);
 
+    /**
+     * The expensive snapshots are reloaded once modifications stop for this time, so a burst of commits (for example
+     * a timesheets import) causes only one recalculation
+     */
+    private static final long EXPENSIVE_SNAPSHOTS_DEBOUNCE_SECONDS = 2;
+
+    private static final long EXPENSIVE_SNAPSHOTS_MAX_STALENESS_SECONDS = 30;
+
     @Autowired
     private IAdHocTransactionService transactionService;
 
@@ -121,9 +149,15 @@ public class PredefinedDatabaseSnapshots {
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
     @Autowired
     private IDayAssignmentDAO dayAssignmentDAO;
 
+    @Autowired
+    private IResourceAllocationDAO resourceAllocationDAO;
+
     @Autowired
     private IScenarioManager scenarioManager;
 
@@ -131,11 +165,17 @@ public class PredefinedDatabaseSnapshots {
     private IWorkReportLineDAO workReportLineDAO;
 
     @Autowired
-    private ICostCalculator hoursCostCalculator;
+    private IAdvanceMeasurementDAO advanceMeasurementDAO;
+
+    @Autowired
+    private TaskCostsCalculator taskCostsCalculator;
 
     @Autowired
     private ITaskElementDAO taskElementDAO;
 
+    @Autowired
+    private IOrderAuthorizationDAO orderAuthorizationDAO;
+
     private IAutoUpdatedSnapshot<SortedMap<CriterionType, List<Criterion>>> criterionsMap;
 
     private IAutoUpdatedSnapshot<Map<LabelType, List<Label>>> labelsMap;
@@ -154,13 +194,17 @@ public class PredefinedDatabaseSnapshots {
 
     private IAutoUpdatedSnapshot<List<String>> ordersCodes;
 
-    private IAutoUpdatedSnapshot<ResourceLoadChartData> resourceLoadChartData;
+    private IAutoUpdatedSnapshot<CompanyResourceLoad> resourceLoadChartData;
 
-    private IAutoUpdatedSnapshot<List<WorkReportLine>> workReportLines;
+    private IAutoUpdatedSnapshot<WorkReportEffortCube> workReportEffortCube;
 
-    private IAutoUpdatedSnapshot<Map<TaskElement,SortedMap<LocalDate, BigDecimal>>> estimatedCostPerTask;
+    private IAutoUpdatedSnapshot<TaskCosts> taskCosts;
 
-    private IAutoUpdatedSnapshot<Map<TaskElement,SortedMap<LocalDate, BigDecimal>>> advanceCostPerTask;
+    private IAutoUpdatedSnapshot<SearchIndex> orderElementsSearchIndex;
+
+    private IAutoUpdatedSnapshot<SearchIndex> resourcesSearchIndex;
+
+    private IAutoUpdatedSnapshot<OrderAuthorizationsIndex> orderAuthorizationsIndex;
 
     private boolean snapshotsRegistered = false;
 
@@ -201,19 +245,27 @@ public class PredefinedDatabaseSnapshots {
     }
 
     public ResourceLoadChartData snapshotResourceLoadChartData() {
-        return resourceLoadChartData.getValue();
+        return resourceLoadChartData.getValue().getChartData();
     }
 
-    public List<WorkReportLine> snapshotWorkReportLines() {
-        return workReportLines.getValue();
+    public WorkReportEffortCube snapshotWorkReportEffortCube() {
+        return workReportEffortCube.getValue();
     }
 
-    public Map<TaskElement,SortedMap<LocalDate, BigDecimal>> snapshotEstimatedCostPerTask() {
-        return estimatedCostPerTask.getValue();
+    public TaskCosts snapshotTaskCosts() {
+        return taskCosts.getValue();
     }
 
-    public Map<TaskElement,SortedMap<LocalDate, BigDecimal>> snapshotAdvanceCostPerTask() {
-        return advanceCostPerTask.getValue();
+    public SearchIndex snapshotOrderElementsSearchIndex() {
+        return orderElementsSearchIndex.getValue();
+    }
+
+    public SearchIndex snapshotResourcesSearchIndex() {
+        return resourcesSearchIndex.getValue();
+    }
+
+    public OrderAuthorizationsIndex snapshotOrderAuthorizationsIndex() {
+        return orderAuthorizationsIndex.getValue();
     }
 
     public void registerSnapshots() {
@@ -244,36 +296,94 @@ public class PredefinedDatabaseSnapshots {
         resourceLoadChartData = snapshot(
                 "resource load grouped by date",
                 calculateResourceLoadChartData(),
-                CalendarAvailability.class,
-                CalendarException.class,
-                CalendarData.class,
-                TaskElement.class,
-                SpecificResourceAllocation.class,
-                GenericResourceAllocation.class,
-                ResourceAllocation.class);
-
-        workReportLines = snapshot("work report lines", calculateWorkReportLines(), WorkReportLine.class);
-
-        estimatedCostPerTask = snapshot(
-                "estimated cost per task",
-                calculateEstimatedCostPerTask(),
-                TaskElement.class,
-                Task.class,
-                TaskGroup.class,
-                DayAssignment.class);
-
-        advanceCostPerTask = snapshot(
-                "advance cost per task",
-                calculateAdvanceCostPerTask(),
-                TaskElement.class,
-                Task.class,
-                TaskGroup.class,
-                DirectAdvanceAssignment.class);
+                updateResourceLoadChartData(),
+                expensiveToReloadOn(
+                        CalendarAvailability.class,
+                        CalendarException.class,
+                        CalendarData.class,
+                        TaskElement.class,
+                        SpecificResourceAllocation.class,
+                        GenericResourceAllocation.class,
+                        ResourceAllocation.class));
+
+        workReportEffortCube = snapshot(
+                "work report effort cube",
+                calculateWorkReportEffortCube(),
+                updateWorkReportEffortCube(),
+                expensiveToReloadOn(WorkReportLine.class));
+
+        taskCosts = snapshot(
+                "task costs",
+                taskCostsCalculator::calculate,
+                updateTaskCosts(),
+                expensiveToReloadOn(
+                        TaskElement.class,
+                        Task.class,
+                        TaskGroup.class,
+                        ResourceAllocation.class,
+                        DayAssignment.class,
+                        DirectAdvanceAssignment.class,
+                        AdvanceMeasurement.class));
+
+        orderElementsSearchIndex = snapshot(
+                "order elements search index",
+                calculateOrderElementsSearchIndex(),
+                updateOrderElementsSearchIndex(),
+                OrderElement.class,
+                OrderLine.class,
+                OrderLineGroup.class,
+                Order.class);
+
+        resourcesSearchIndex = snapshot(
+                "resources search index",
+                calculateResourcesSearchIndex(),
+                updateResourcesSearchIndex(),
+                Resource.class,
+                Worker.class,
+                Machine.class,
+                VirtualWorker.class);
+
+        orderAuthorizationsIndex = snapshot(
+                "order authorizations index",
+                orderAuthorizationDAO::createAuthorizationsIndex,
+                ReloadOn.onChangeOf(
+                        UserOrderAuthorization.class,
+                        ProfileOrderAuthorization.class,
+                        User.class,
+                        Profile.class)
+                        .invalidatedOnCommit());
+    }
+
+    private static ReloadOn expensiveToReloadOn(Class<?>... reloadOnChangesOf) {
+        return ReloadOn.onChangeOf(reloadOnChangesOf)
+                .debouncedFor(EXPENSIVE_SNAPSHOTS_DEBOUNCE_SECONDS, TimeUnit.SECONDS)
+                .atMostStaleFor(EXPENSIVE_SNAPSHOTS_MAX_STALENESS_SECONDS, TimeUnit.SECONDS);
     }
 
     private <T> IAutoUpdatedSnapshot<T> snapshot(String name, Callable<T> callable, Class<?>... reloadOnChangesOf) {
-        return snapshotRefresherService
-                .takeSnapshot(name, callableOnReadOnlyTransaction(callable), ReloadOn.onChangeOf(reloadOnChangesOf));
+        return snapshot(name, callable, ReloadOn.onChangeOf(reloadOnChangesOf));
+    }
+
+    private <T> IAutoUpdatedSnapshot<T> snapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+        return snapshotRefresherService.takeSnapshot(name, callableOnReadOnlyTransaction(callable), reloadOn);
+    }
+
+    private <T> IAutoUpdatedSnapshot<T> snapshot(String name,
+                                                 Callable<T> callable,
+                                                 IIncrementalUpdater<T> updater,
+                                                 Class<?>... reloadOnChangesOf) {
+        return snapshot(name, callable, updater, ReloadOn.onChangeOf(reloadOnChangesOf));
+    }
+
+    private <T> IAutoUpdatedSnapshot<T> snapshot(String name,
+                                                 Callable<T> callable,
+                                                 IIncrementalUpdater<T> updater,
+                                                 ReloadOn reloadOn) {
+        return snapshotRefresherService.takeSnapshot(
+                name,
+                callableOnReadOnlyTransaction(callable),
+                updaterOnReadOnlyTransaction(updater),
+                reloadOn);
     }
 
     @SuppressWarnings("unchecked")
@@ -281,6 +391,11 @@ public class PredefinedDatabaseSnapshots {
         return AdHocTransactionService.readOnlyProxy(transactionService, Callable.class, callable);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> IIncrementalUpdater<T> updaterOnReadOnlyTransaction(IIncrementalUpdater<T> updater) {
+        return AdHocTransactionService.readOnlyProxy(transactionService, IIncrementalUpdater.class, updater);
+    }
+
     private Callable<SortedMap<CriterionType, List<Criterion>>> calculateCriterionsMap() {
         return () -> {
             SortedMap<CriterionType, List<Criterion>> result = new TreeMap<>(getComparatorByName());
@@ -360,45 +475,148 @@ public class PredefinedDatabaseSnapshots {
         };
     }
 
-    private Callable<ResourceLoadChartData> calculateResourceLoadChartData() {
+    private Callable<CompanyResourceLoad> calculateResourceLoadChartData() {
         return () -> {
-            List<DayAssignment> dayAssignments = dayAssignmentDAO.getAllFor(scenarioManager.getCurrent(), null, null);
+            Scenario current = scenarioManager.getCurrent();
             List<Resource> resources = resourceDAO.list(Resource.class);
-            return new ResourceLoadChartData(dayAssignments, resources);
 
+            return CompanyResourceLoad.create(current.getId(), dayAssignmentDAO.getEffortsFor(current, null), resources);
         };
     }
 
-    private Callable<List<WorkReportLine>> calculateWorkReportLines() {
-        return () -> workReportLineDAO.list(WorkReportLine.class);
-    }
+    /**
+     * Only the resources assigned by the modified allocations, before or after the modification, are reloaded.
+     * Calendar changes can affect any resource, so in that case the load is calculated from scratch.
+     */
+    private IIncrementalUpdater<CompanyResourceLoad> updateResourceLoadChartData() {
+        return (previous, modifications) -> {
+            Scenario current = scenarioManager.getCurrent();
+            if ( !current.getId().equals(previous.getScenarioId()) ||
+                    modifications.containsAnyOf(BaseCalendar.class, CalendarData.class,
+                            CalendarException.class, CalendarAvailability.class) ) {
+                return null;
+            }
 
+            Set<Long> allocations = modifications.getIdsOf(ResourceAllocation.class);
+            allocations.addAll(
+                    resourceAllocationDAO.getIdsOfAllocationsOfTasks(modifications.getIdsOf(TaskElement.class)));
 
+            Set<Long> touched = previous.getResourcesAssignedBy(allocations);
+            touched.addAll(dayAssignmentDAO.getResourceIdsAssignedBy(current, allocations));
+            if ( touched.isEmpty() ) {
+                return previous;
+            }
 
-    private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateEstimatedCostPerTask() {
-        return () -> {
-            Map<TaskElement, SortedMap<LocalDate, BigDecimal>> map = new HashMap<>();
+            List<Resource> resources = new ArrayList<>();
+            for (Long each : touched) {
+                if ( resourceDAO.exists(each) ) {
+                    resources.add(resourceDAO.findExistingEntity(each));
+                }
+            }
 
-            taskElementDAO.
-                    list(TaskElement.class)
-                    .stream()
-                    .filter(task -> task instanceof Task)
-                    .forEach(task -> map.put(task, hoursCostCalculator.getEstimatedCost((Task) task)));
+            return previous.update(touched, dayAssignmentDAO.getEffortsFor(current, touched), resources);
+        };
+    }
+
+    private Callable<WorkReportEffortCube> calculateWorkReportEffortCube() {
+        return () -> WorkReportEffortCube.create(workReportLineDAO.getEffortCubeLines());
+    }
 
-            return map;
+    private IIncrementalUpdater<WorkReportEffortCube> updateWorkReportEffortCube() {
+        return (previous, modifications) -> {
+            Set<Long> modified = modifications.getIdsOf(WorkReportLine.class);
+            List<WorkReportEffortCube.Line> updated = workReportLineDAO.getEffortCubeLines(modified);
+
+            Set<Long> removed = new HashSet<>(modified);
+            for (WorkReportEffortCube.Line each : updated) {
+                removed.remove(each.getId());
+            }
+
+            return previous.withChanges(updated, removed);
         };
     }
 
-    private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateAdvanceCostPerTask() {
-        return () -> {
-            Map<TaskElement, SortedMap<LocalDate, BigDecimal>> map = new HashMap<>();
-            for (TaskElement task : taskElementDAO.list(TaskElement.class)) {
-                if ( task instanceof Task ) {
-                    map.put(task, hoursCostCalculator.getAdvanceCost((Task)task));
-                }
+
+
+    /**
+     * Besides the tasks with a new version, the tasks of the modified allocations, day assignments and advances are
+     * calculated again, including the tasks of the ancestors of the order elements with modified advances. The task of
+     * a removed advance measurement or advance assignment cannot be known, so in that case all the costs are
+     * calculated from scratch.
+     */
+    private IIncrementalUpdater<TaskCosts> updateTaskCosts() {
+        return (previous, modifications) -> {
+            Set<Long> measurements = modifications.getIdsOf(AdvanceMeasurement.class);
+            Map<Long, Long> advanceAssignmentsOfMeasurements =
+                    advanceMeasurementDAO.getAdvanceAssignmentIdsOf(measurements);
+            if ( advanceAssignmentsOfMeasurements.size() < measurements.size() ) {
+                return null;
+            }
+
+            Set<Long> advanceAssignments = modifications.getIdsOf(DirectAdvanceAssignment.class);
+            advanceAssignments.addAll(advanceAssignmentsOfMeasurements.values());
+            Set<Long> tasksOfAdvanceAssignments = taskElementDAO.getIdsOfTasksOfAdvanceAssignments(advanceAssignments);
+            if ( tasksOfAdvanceAssignments == null ) {
+                return null;
             }
-            return map;
+
+            Set<Long> affected = modifications.getIdsOf(TaskElement.class);
+            affected.addAll(resourceAllocationDAO.getIdsOfTasksOfAllocations(
+                    modifications.getIdsOf(ResourceAllocation.class)));
+            affected.addAll(dayAssignmentDAO.getIdsOfTasksOf(modifications.getIdsOf(DayAssignment.class)));
+            affected.addAll(tasksOfAdvanceAssignments);
+
+            return taskCostsCalculator.update(previous, affected);
+        };
+    }
+
+    private Callable<SearchIndex> calculateOrderElementsSearchIndex() {
+        return () -> SearchIndex.create(orderElementDAO.getSearchIndexEntries());
+    }
+
+    /**
+     * Only the modified order elements are read again. The entries of their descendants do not change, they are
+     * matched by the texts of their project at search time.
+     */
+    private IIncrementalUpdater<SearchIndex> updateOrderElementsSearchIndex() {
+        return (previous, modifications) -> {
+            Set<Long> modified = modifications.getIdsOf(OrderElement.class);
+            List<SearchIndex.Entry> updated = orderElementDAO.getSearchIndexEntries(modified);
+
+            return previous.withChanges(updated, notFound(modified, updated));
+        };
+    }
+
+    private Callable<SearchIndex> calculateResourcesSearchIndex() {
+        return () -> SearchIndex.create(toSearchIndexEntries(resourceDAO.list(Resource.class)));
+    }
+
+    private IIncrementalUpdater<SearchIndex> updateResourcesSearchIndex() {
+        return (previous, modifications) -> {
+            Set<Long> modified = modifications.getIdsOf(Resource.class);
+            List<SearchIndex.Entry> updated = toSearchIndexEntries(resourceDAO.findByIds(modified));
+
+            return previous.withChanges(updated, notFound(modified, updated));
         };
     }
 
+    private static List<SearchIndex.Entry> toSearchIndexEntries(List<? extends Resource> resources) {
+        List<SearchIndex.Entry> result = new ArrayList<>();
+        for (Resource each : resources) {
+            String description = each.getShortDescription();
+            result.add(SearchIndex.Entry.create(each.getId(), null, description, description));
+        }
+
+        return result;
+    }
+
+    private static Set<Long> notFound(Set<Long> ids, List<SearchIndex.Entry> found) {
+        Set<Long> result = new HashSet<>(ids);
+        for (SearchIndex.Entry each : found) {
+            result.remove(each.getId());
+        }
+
+        return result;
+    }
+
 }
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Óscar González Fernández
@@ -36,16 +37,66 @@ public class ReloadOn {
     }
 
     public static ReloadOn onChangeOf(Collection<Class<?>> klasses) {
-        return new ReloadOn(klasses);
+        return new ReloadOn(klasses, 0, Long.MAX_VALUE, false);
     }
 
     private final List<Class<?>> classes;
 
-    private ReloadOn(Collection<? extends Class<?>> classes) {
+    private final long debounceMillis;
+
+    private final long maxStalenessMillis;
+
+    private final boolean invalidatedOnCommit;
+
+    private ReloadOn(Collection<? extends Class<?>> classes,
+                     long debounceMillis,
+                     long maxStalenessMillis,
+                     boolean invalidatedOnCommit) {
         this.classes = new ArrayList<Class<?>>(classes);
+        this.debounceMillis = debounceMillis;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.invalidatedOnCommit = invalidatedOnCommit;
+    }
+
+    /**
+     * The reload waits until no more modifications are done during the given time, so a burst of modifications
+     * causes only one reload. By default the reload is started as soon as possible.
+     */
+    public ReloadOn debouncedFor(long duration, TimeUnit unit) {
+        return new ReloadOn(classes, unit.toMillis(duration), maxStalenessMillis, invalidatedOnCommit);
+    }
+
+    /**
+     * Limits the time the reload can be delayed by {@link #debouncedFor(long, TimeUnit)} since the first modification.
+     * Besides, a calculation running for longer than this is not cancelled when a new reload is needed, it is let
+     * finish so the value is not stale forever.
+     */
+    public ReloadOn atMostStaleFor(long duration, TimeUnit unit) {
+        return new ReloadOn(classes, debounceMillis, unit.toMillis(duration), invalidatedOnCommit);
+    }
+
+    /**
+     * The value is invalidated as soon as the transaction with the modifications is committed, so it is never read
+     * stale. It is reloaded without debouncing and the readers wait for the reload instead of getting the previous
+     * value. Meant for small snapshots whose staleness is not acceptable, like the ones used for security checks.
+     */
+    public ReloadOn invalidatedOnCommit() {
+        return new ReloadOn(classes, 0, Long.MAX_VALUE, true);
     }
 
     public List<Class<?>> getClassesOnWhichToReload() {
         return classes;
     }
+
+    public long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    public long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    public boolean isInvalidatedOnCommit() {
+        return invalidatedOnCommit;
+    }
 }
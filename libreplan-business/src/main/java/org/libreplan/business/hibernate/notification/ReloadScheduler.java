@@ -0,0 +1,141 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.hibernate.notification;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when the snapshots are recalculated after the modifications they depend on.
+ * <p>
+ * The reloads requested for a snapshot are coalesced while they keep coming within its debounce window, without
+ * exceeding its max staleness window, see {@link ReloadOn}. When the reload is launched the calculations waiting to
+ * be executed are ordered by their mean execution time, so the cheap snapshots are not delayed by the expensive ones.
+ *
+ * @see NotBlockingAutoUpdatedSnapshot
+ */
+class ReloadScheduler {
+
+    private static final int CALCULATION_THREADS = 3;
+
+    private static final long MIN_RECHECK_DELAY_MS = 1000;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    private final ThreadPoolExecutor calculations = new ThreadPoolExecutor(
+            CALCULATION_THREADS, CALCULATION_THREADS, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+
+    private final AtomicLong submissions = new AtomicLong();
+
+    private final Map<NotBlockingAutoUpdatedSnapshot<?>, PendingReload> pending = new HashMap<>();
+
+    private static class PendingReload {
+
+        private final long firstRequest;
+
+        private ScheduledFuture<?> launch;
+
+        private PendingReload(long firstRequest) {
+            this.firstRequest = firstRequest;
+        }
+    }
+
+    private static class PrioritizedCalculation<T> extends FutureTask<T>
+            implements Comparable<PrioritizedCalculation<?>> {
+
+        private final long meanMsExecuting;
+
+        private final long order;
+
+        private PrioritizedCalculation(Callable<T> callable, long meanMsExecuting, long order) {
+            super(callable);
+            this.meanMsExecuting = meanMsExecuting;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(PrioritizedCalculation<?> other) {
+            int result = Long.compare(meanMsExecuting, other.meanMsExecuting);
+            return result != 0 ? result : Long.compare(order, other.order);
+        }
+    }
+
+    synchronized void reloadNeeded(NotBlockingAutoUpdatedSnapshot<?> snapshot) {
+        long now = System.currentTimeMillis();
+        PendingReload reload = pending.get(snapshot);
+        if ( reload == null ) {
+            reload = new PendingReload(now);
+            pending.put(snapshot, reload);
+        } else {
+            reload.launch.cancel(false);
+        }
+
+        // Not added to the first request, since the max staleness is Long.MAX_VALUE when it is not limited
+        long untilMaxStaleness = snapshot.getMaxStalenessMillis() - (now - reload.firstRequest);
+        scheduleLaunch(snapshot, reload, Math.max(0, Math.min(snapshot.getDebounceMillis(), untilMaxStaleness)));
+    }
+
+    private void scheduleLaunch(final NotBlockingAutoUpdatedSnapshot<?> snapshot, PendingReload reload, long delay) {
+        reload.launch = timer.schedule(() -> launch(snapshot), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A calculation running for longer than the max staleness window is let finish, otherwise a snapshot modified
+     * continuously whose calculation is slower than that would never get a new value.
+     */
+    private synchronized void launch(NotBlockingAutoUpdatedSnapshot<?> snapshot) {
+        PendingReload reload = pending.get(snapshot);
+        if ( reload == null ) {
+            return;
+        }
+
+        if ( snapshot.getMsCalculating() > snapshot.getMaxStalenessMillis() ) {
+            scheduleLaunch(snapshot, reload, Math.max(MIN_RECHECK_DELAY_MS, snapshot.getDebounceMillis()));
+            return;
+        }
+
+        pending.remove(snapshot);
+        snapshot.launchReload(this);
+    }
+
+    <T> Future<T> submit(NotBlockingAutoUpdatedSnapshot<T> snapshot, Callable<T> calculation) {
+        PrioritizedCalculation<T> result = new PrioritizedCalculation<>(
+                calculation, snapshot.getMeanMsExecuting(), submissions.incrementAndGet());
+        calculations.execute(result);
+
+        return result;
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+        calculations.shutdownNow();
+    }
+
+}
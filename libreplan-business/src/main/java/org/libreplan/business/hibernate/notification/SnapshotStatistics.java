@@ -0,0 +1,101 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.hibernate.notification;
+
+/**
+ * Figures about the reloads of a snapshot since the application was started.
+ *
+ * @see ISnapshotRefresherService#getStatistics()
+ */
+public class SnapshotStatistics {
+
+    private final String name;
+
+    private final long reloadsRequested;
+
+    private final int executions;
+
+    private final int errors;
+
+    private final long meanMsWaiting;
+
+    private final long meanMsExecuting;
+
+    private final long lastMsExecuting;
+
+    SnapshotStatistics(String name,
+                       long reloadsRequested,
+                       int executions,
+                       int errors,
+                       long meanMsWaiting,
+                       long meanMsExecuting,
+                       long lastMsExecuting) {
+
+        this.name = name;
+        this.reloadsRequested = reloadsRequested;
+        this.executions = executions;
+        this.errors = errors;
+        this.meanMsWaiting = meanMsWaiting;
+        this.meanMsExecuting = meanMsExecuting;
+        this.lastMsExecuting = lastMsExecuting;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Number of times the snapshot has been notified of some modification. Several of them are coalesced in one
+     * execution when they are close in time.
+     */
+    public long getReloadsRequested() {
+        return reloadsRequested;
+    }
+
+    /**
+     * Number of calculations or incremental updates finished, including the first load and the interrupted ones.
+     */
+    public int getExecutions() {
+        return executions;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public long getMeanMsWaiting() {
+        return meanMsWaiting;
+    }
+
+    public long getMeanMsExecuting() {
+        return meanMsExecuting;
+    }
+
+    public long getLastMsExecuting() {
+        return lastMsExecuting;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + reloadsRequested + " reloads requested, " + executions + " executions, " + errors +
+                " errors, " + meanMsWaiting + " ms waiting and " + meanMsExecuting + " ms executing on average";
+    }
+
+}
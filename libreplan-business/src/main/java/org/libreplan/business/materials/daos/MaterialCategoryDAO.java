@@ -24,6 +24,7 @@ package org.libreplan.business.materials.daos;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
@@ -104,4 +105,13 @@ public class MaterialCategoryDAO extends IntegrationEntityDAO<MaterialCategory>
                 Restrictions.isNull("parent")).addOrder(Order.asc("code"))
                 .list();
     }
+
+    /**
+     * Only the root categories are exported, the rest go inside them.
+     */
+    @Override
+    protected Criteria createIntegrationCriteria() {
+        return super.createIntegrationCriteria().add(
+                Restrictions.isNull("parent"));
+    }
 }
@@ -22,9 +22,11 @@
 package org.libreplan.business.orders.daos;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
+import org.libreplan.business.common.SearchIndex;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.labels.entities.Label;
@@ -89,6 +91,17 @@ public interface IOrderElementDAO extends IIntegrationEntityDAO<OrderElement> {
 
     List<OrderElement> getAll();
 
+    /**
+     * Returns the {@link SearchIndex} entries of all the order elements, with their code and name as texts and their
+     * code as sort key. The entities are not loaded.
+     */
+    List<SearchIndex.Entry> getSearchIndexEntries();
+
+    /**
+     * Like {@link #getSearchIndexEntries()} but only for the order elements with the given ids that still exist
+     */
+    List<SearchIndex.Entry> getSearchIndexEntries(Collection<Long> ids);
+
     public List<OrderElement> findOrderElementsWithExternalCode();
 
     List<OrderElement> findByTemplate(OrderElementTemplate template);
@@ -0,0 +1,50 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.daos;
+
+import java.util.Map;
+
+import org.libreplan.business.orders.entities.Order;
+
+/**
+ * Loads in the current session the data needed to plan an {@link Order} with a fixed number of batched queries per
+ * kind of data, instead of initializing the lazy collections of its elements and tasks one by one.
+ */
+public interface IOrderFetchPlan {
+
+    /**
+     * Loads in the current session the order with the given id and all its elements, with the collections that are
+     * mapped as not lazy already initialized: the children, the hours groups with their criterion requirements, the
+     * criterion requirements and the quality forms. It must be called before the order is loaded by any other means,
+     * otherwise Hibernate initializes those collections element by element when the order is loaded.
+     */
+    void loadOrderElements(Long orderId);
+
+    /**
+     * Loads the advance assignments and measurements, the labels, the allocations with their day assignments and
+     * the dependencies of the given order, that must be attached to the current session. The order tree is expected
+     * to be loaded with {@link #loadOrderElements(Long)}. The task tree is mapped as not lazy, so it is loaded with the
+     * root task.
+     *
+     * @return the milliseconds spent on each phase, in the order they were run
+     */
+    Map<String, Long> loadPlanningData(Order order);
+
+}
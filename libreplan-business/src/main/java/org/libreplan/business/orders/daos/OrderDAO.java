@@ -50,9 +50,7 @@ import org.libreplan.business.reports.dtos.CostExpenseSheetDTO;
 import org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.scenarios.entities.Scenario;
-import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IUserDAO;
-import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
@@ -80,9 +78,6 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
     @Autowired
     private ITypeOfWorkHoursDAO typeOfWorkHoursDAO;
 
-    @Autowired
-    private IOrderAuthorizationDAO orderAuthorizationDAO;
-
     @Autowired
     private IUserDAO userDAO;
 
@@ -198,250 +193,135 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
 
     @Override
     public List<Order> getOrdersByReadAuthorization(User user) {
-        if (user.isInRole(UserRole.ROLE_SUPERUSER) ||
-                user.isInRole(UserRole.ROLE_READ_ALL_PROJECTS) ||
-                user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
-
+        if (canReadAllOrders(user)) {
             return getOrders();
         }
-        else {
-            List<Order> orders = new ArrayList<>();
-            List<OrderAuthorization> authorizations = orderAuthorizationDAO.listByUserAndItsProfiles(user);
-            for(OrderAuthorization authorization : authorizations) {
-
-                if (authorization.getAuthorizationType() == OrderAuthorizationType.READ_AUTHORIZATION ||
-                        authorization.getAuthorizationType() == OrderAuthorizationType.WRITE_AUTHORIZATION) {
-
-                    Order order = authorization.getOrder();
-                    if (!orders.contains(order)) {
-                        // These lines forces the load of the basic attributes of the order
-                        order.getName();
-                        orders.add(order);
-                    }
-                }
-            }
-            return orders;
-        }
+        return getOrdersByAuthorization(user, null);
     }
 
-    private List<Order> getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
-            User user,
-            Date startDate,
-            Date endDate,
-            List<Label> labels,
-            List<Criterion> criteria,
-            ExternalCompany customer,
-            OrderStatusEnum state,
-            Boolean excludeFinishedProject) {
-
-        List<Long> ordersIdsFiltered = getOrdersIdsFiltered(user, labels, criteria, customer, state, excludeFinishedProject);
-        if (ordersIdsFiltered != null && ordersIdsFiltered.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> ordersIdsByDates = getOrdersIdsByDates(startDate, endDate);
-        if (ordersIdsByDates != null && ordersIdsByDates.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> ordersIdsUnscheduled = getOrdersIdsUnscheduled(startDate, endDate);
-
-        Criteria c = getSession().createCriteria(Order.class);
-
-        if (ordersIdsFiltered != null && ordersIdsByDates != null) {
-
-            org.hibernate.criterion.Criterion and = Restrictions.and(
-                    Restrictions.in("id", ordersIdsFiltered),
-                    Restrictions.in("id", ordersIdsByDates));
-
-            c.add(and);
-        } else {
-            if (ordersIdsFiltered != null) {
-                c.add(Restrictions.in("id", ordersIdsFiltered));
-            }
-
-            if (ordersIdsByDates != null) {
-                if (ordersIdsUnscheduled.isEmpty()) {
-                    c.add(Restrictions.in("id", ordersIdsByDates));
-                } else {
-                    c.add(Restrictions.or(
-                            Restrictions.in("id", ordersIdsByDates),
-                            Restrictions.in("id", ordersIdsUnscheduled)));
-                }
-            }
+    @Override
+    public List<Order> getOrdersByWriteAuthorization(User user) {
+        if (user.isInRole(UserRole.ROLE_SUPERUSER) || user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
+            return getOrders();
         }
+        return getOrdersByAuthorization(user, OrderAuthorizationType.WRITE_AUTHORIZATION);
+    }
 
-        c.addOrder(org.hibernate.criterion.Order.desc("initDate"));
-        c.addOrder(org.hibernate.criterion.Order.asc("infoComponent.name"));
-
-        return c.list();
+    private static boolean canReadAllOrders(User user) {
+        return user.isInRole(UserRole.ROLE_SUPERUSER) ||
+                user.isInRole(UserRole.ROLE_READ_ALL_PROJECTS) ||
+                user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS);
     }
 
-    private List<Long> getOrdersIdsUnscheduled(Date startDate, Date endDate) {
-        String strQuery = "SELECT s.orderElement.id " +
-                "FROM SchedulingDataForVersion s " +
-                "WHERE s.schedulingStateType = :type";
+    /**
+     * If <code>type</code> is <code>null</code> any authorization is enough.
+     */
+    private List<Order> getOrdersByAuthorization(User user, OrderAuthorizationType type) {
+        String strQuery = "SELECT o FROM Order o WHERE " + authorizedOrdersCondition(user, type);
 
         Query query = getSession().createQuery(strQuery);
-        query.setParameter("type", SchedulingState.Type.NO_SCHEDULED);
-
-        List<Long> ordersIdsUnscheduled = query.list();
-        if (ordersIdsUnscheduled.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        String strQueryDates = "SELECT o.id " + "FROM Order o " + "WHERE o.id IN (:ids) ";
-
-        if (startDate != null) {
-            strQueryDates += "AND o.initDate >= :startDate ";
-        }
-        if (endDate != null) {
-            strQueryDates += "AND o.initDate <= :endDate ";
-        }
-
-        Query queryDates = getSession().createQuery(strQueryDates);
-        if (startDate != null) {
-            queryDates.setParameter("startDate", startDate);
-        }
-        if (endDate != null) {
-            queryDates.setParameter("endDate", endDate);
-        }
-        queryDates.setParameterList("ids", ordersIdsUnscheduled);
+        setAuthorizedOrdersParameters(query, user, type);
 
-        return queryDates.list();
+        return query.list();
     }
 
     /**
-     * If both params are <code>null</code> it returns <code>null</code>.
-     * Otherwise it filters the list of tasks to return the ones without parent between the dates.
+     * Orders with an authorization for the user or for any of its profiles, checked by the database in the same query
+     * that reads the orders.
      */
-    private List<Long> getOrdersIdsByDates(Date startDate, Date endDate) {
-        if (startDate == null && endDate == null) {
-            /* Don't replace null with Collections.emptyList(), as the prompt says (sometimes), because it breaks logic */
-            return null;
-        }
-
-        String strQuery = "SELECT t.taskSource.schedulingData.orderElement.id "
-                + "FROM TaskElement t "
-                + "WHERE t.parent IS NULL ";
-
-        if (endDate != null) {
-            strQuery += "AND t.startDate.date <= :endDate ";
+    private static String authorizedOrdersCondition(User user, OrderAuthorizationType type) {
+        String result = "o.id IN (SELECT oa.order.id FROM OrderAuthorization oa WHERE (oa.user = :user ";
+        if (!user.getProfiles().isEmpty()) {
+            result += "OR oa.profile IN (:profiles) ";
         }
-
-        if (startDate != null) {
-            strQuery += "AND t.endDate.date >= :startDate ";
+        result += ") ";
+        if (type != null) {
+            result += "AND oa.authorizationType = :authorizationType ";
         }
+        return result + ") ";
+    }
 
-        Query query = getSession().createQuery(strQuery);
-
-        if (startDate != null) {
-            query.setParameter("startDate", LocalDate.fromDateFields(startDate));
+    private static void setAuthorizedOrdersParameters(Query query, User user, OrderAuthorizationType type) {
+        query.setParameter("user", user);
+        if (!user.getProfiles().isEmpty()) {
+            query.setParameterList("profiles", user.getProfiles());
         }
-
-        if (endDate != null) {
-            query.setParameter("endDate", LocalDate.fromDateFields(endDate));
+        if (type != null) {
+            query.setParameter("authorizationType", type);
         }
-
-        return query.list();
     }
 
     /**
-     * If user has permissions over all orders and not filters are passed it returns <code>null</code>.
-     * Otherwise, it returns the list of orders
-     * identifiers for which the user has read permissions and the filters pass.
+     * All the filters, the authorizations of the user included, are applied by just one query. When there are dates
+     * the orders whose root task overlaps them are returned. The unscheduled orders that start between them are only
+     * added when there is no other filter and some root task overlaps the dates.
      */
-    private List<Long> getOrdersIdsFiltered(User user,
-                                            List<Label> labels,
-                                            List<Criterion> criteria,
-                                            ExternalCompany customer,
-                                            OrderStatusEnum state,
-                                            Boolean excludeFinishedProject) {
+    private List<Order> getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+            User user,
+            Date startDate,
+            Date endDate,
+            List<Label> labels,
+            List<Criterion> criteria,
+            ExternalCompany customer,
+            OrderStatusEnum state,
+            Boolean excludeFinishedProject) {
 
-        List<Long> ordersIdsByReadAuthorization = getOrdersIdsByReadAuthorization(user);
+        List<String> conditions = new ArrayList<>();
 
-        String strQuery = "SELECT o.id ";
-        strQuery += "FROM Order o ";
+        boolean filterByAuthorization = !canReadAllOrders(user);
+        if (filterByAuthorization) {
+            conditions.add(authorizedOrdersCondition(user, null));
+        }
 
-        String where = "";
-        String whereFinal = "";
-        if (labels != null && !labels.isEmpty()) {
+        if (labels != null) {
             for (int i = 0; i < labels.size(); i++) {
-                if (where.isEmpty()) {
-                    where += "WHERE ";
-                } else {
-                    where += "AND ";
-                }
-                where += ":label" + i + " IN elements(o.labels) ";
+                conditions.add(":label" + i + " IN elements(o.labels) ");
             }
         }
 
-        if (criteria != null && !criteria.isEmpty()) {
-            strQuery += "JOIN o.criterionRequirements cr ";
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "cr.criterion IN (:criteria) ";
-            where += "AND cr.class = DirectCriterionRequirement ";
-            whereFinal += "GROUP BY o.id ";
-            whereFinal += "HAVING count(o.id) = :criteriaSize ";
+        boolean filterByCriteria = criteria != null && !criteria.isEmpty();
+        if (filterByCriteria) {
+            conditions.add(":criteriaSize = (SELECT count(cr.id) FROM DirectCriterionRequirement cr " +
+                    "WHERE cr.orderElement = o AND cr.criterion IN (:criteria)) ");
         }
 
         if (customer != null) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.customer = :customer ";
+            conditions.add("o.customer = :customer ");
         }
 
         if (state != null) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.state = :state ";
+            conditions.add("o.state = :state ");
         }
 
-        if (excludeFinishedProject != null && excludeFinishedProject == true) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.state <> '" + OrderStatusEnum.FINISHED.getIndex() + "'";
+        if (excludeFinishedProject != null && excludeFinishedProject) {
+            conditions.add("o.state <> :finished ");
         }
 
-        // If not restrictions by labels, criteria, customer or state
-        if (where.isEmpty()) {
-            return ordersIdsByReadAuthorization;
+        boolean filterByDates = startDate != null || endDate != null;
+        boolean withUnscheduled = conditions.isEmpty();
+        if (filterByDates) {
+            conditions.add(betweenDatesCondition(startDate, endDate, withUnscheduled));
         }
 
-        if (ordersIdsByReadAuthorization != null && !ordersIdsByReadAuthorization.isEmpty()) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.id IN (:ids) ";
+        String strQuery = "SELECT o FROM Order o ";
+        if (!conditions.isEmpty()) {
+            strQuery += "WHERE " + StringUtils.join(conditions, "AND ");
         }
+        strQuery += "ORDER BY o.initDate DESC, o.infoComponent.name ASC";
 
-        strQuery += where + whereFinal;
         Query query = getSession().createQuery(strQuery);
 
-        if (labels != null && !labels.isEmpty()) {
-            int i = 0;
-            for (Label label : labels) {
-                query.setParameter("label" + i, label);
-                i++;
+        if (filterByAuthorization) {
+            setAuthorizedOrdersParameters(query, user, null);
+        }
+
+        if (labels != null) {
+            for (int i = 0; i < labels.size(); i++) {
+                query.setParameter("label" + i, labels.get(i));
             }
         }
 
-        if (criteria != null && !criteria.isEmpty()) {
+        if (filterByCriteria) {
             query.setParameterList("criteria", criteria);
             query.setParameter("criteriaSize", (long) criteria.size());
         }
@@ -454,63 +334,73 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
             query.setParameter(STATE_PARAMETER, state);
         }
 
-        if (ordersIdsByReadAuthorization != null && !ordersIdsByReadAuthorization.isEmpty()) {
-            query.setParameterList("ids", ordersIdsByReadAuthorization);
+        if (excludeFinishedProject != null && excludeFinishedProject) {
+            query.setParameter("finished", OrderStatusEnum.FINISHED);
+        }
+
+        if (filterByDates) {
+            setBetweenDatesParameters(query, startDate, endDate, withUnscheduled);
         }
 
         return query.list();
     }
 
-    /**
-     * If user has permissions over all orders it returns <code>null</code>.
-     * Otherwise, it returns the list of orders identifiers for which the user has read permissions.
-     */
-    private List<Long> getOrdersIdsByReadAuthorization(User user) {
-        if (user.isInRole(UserRole.ROLE_SUPERUSER) ||
-                user.isInRole(UserRole.ROLE_READ_ALL_PROJECTS) ||
-                user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
+    private static String betweenDatesCondition(Date startDate, Date endDate, boolean withUnscheduled) {
+        String rootTasksBetweenDates = "FROM TaskElement t WHERE t.parent IS NULL ";
+        if (endDate != null) {
+            rootTasksBetweenDates += "AND t.startDate.date <= :endDay ";
+        }
+        if (startDate != null) {
+            rootTasksBetweenDates += "AND t.endDate.date >= :startDay ";
+        }
 
-            return null;
-        } else {
-            String strQuery = "SELECT oa.order.id " +
-                    "FROM OrderAuthorization oa " +
-                    "WHERE oa.user = :user ";
+        String scheduled = "o.id IN (SELECT t.taskSource.schedulingData.orderElement.id " + rootTasksBetweenDates + ") ";
+        if (!withUnscheduled) {
+            return scheduled;
+        }
 
-            if (!user.getProfiles().isEmpty()) {
-                strQuery += "OR oa.profile IN (:profiles) ";
-            }
+        String unscheduled = "o.id IN (SELECT s.orderElement.id " +
+                "FROM SchedulingDataForVersion s " +
+                "WHERE s.schedulingStateType = :unscheduled) ";
 
-            Query query = getSession().createQuery(strQuery);
-            query.setParameter("user", user);
-            if (!user.getProfiles().isEmpty()) {
-                query.setParameterList("profiles", user.getProfiles());
-            }
+        if (endDate != null) {
+            unscheduled += "AND o.initDate <= :endDate ";
+        }
 
-            return query.list();
+        if (startDate != null) {
+            unscheduled += "AND o.initDate >= :startDate ";
         }
+        unscheduled += "AND EXISTS (SELECT t.id " + rootTasksBetweenDates + ") ";
+
+        return "(" + scheduled + "OR (" + unscheduled + ")) ";
     }
 
-    @Override
-    public List<Order> getOrdersByWriteAuthorization(User user) {
-        if (user.isInRole(UserRole.ROLE_SUPERUSER) || user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
-            return getOrders();
+    private static void setBetweenDatesParameters(Query query, Date startDate, Date endDate,
+                                                  boolean withUnscheduled) {
+        if (withUnscheduled) {
+            query.setParameter("unscheduled", SchedulingState.Type.NO_SCHEDULED);
         }
-        else {
-            List<Order> orders = new ArrayList<>();
-            List<OrderAuthorization> authorizations = orderAuthorizationDAO.listByUserAndItsProfiles(user);
-            for(OrderAuthorization authorization : authorizations) {
-                if (authorization.getAuthorizationType() == OrderAuthorizationType.WRITE_AUTHORIZATION) {
-                    Order order = authorization.getOrder();
-                    if (!orders.contains(order)) {
-                        order.getName(); // this lines forces the load of the basic attributes of the order
-                        orders.add(order);
-                    }
-                }
+
+        if (startDate != null) {
+            query.setParameter("startDay", LocalDate.fromDateFields(startDate));
+            if (withUnscheduled) {
+                query.setParameter("startDate", startDate);
+            }
+        }
+
+        if (endDate != null) {
+            query.setParameter("endDay", LocalDate.fromDateFields(endDate));
+            if (withUnscheduled) {
+                query.setParameter("endDate", endDate);
             }
-            return orders;
         }
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @Override
     public List<Order> findAll() {
         return getSession()
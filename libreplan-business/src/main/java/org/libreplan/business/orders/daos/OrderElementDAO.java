@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,6 +38,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.Query;
 import org.hibernate.criterion.Restrictions;
+import org.libreplan.business.common.SearchIndex;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.email.daos.IEmailNotificationDAO;
@@ -74,6 +76,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implements IOrderElementDAO {
 
+    private static final String SEARCH_INDEX_ENTRIES_QUERY =
+            "select e.id, p.id, e.infoComponent.code, e.infoComponent.name from OrderElement e left join e.parent p";
+
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
@@ -198,6 +203,11 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return result;
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @Override
     public List<OrderElement> findAll() {
         return getSession()
@@ -260,6 +270,34 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return list(OrderElement.class);
     }
 
+    @Override
+    public List<SearchIndex.Entry> getSearchIndexEntries() {
+        return toSearchIndexEntries(getSession().createQuery(SEARCH_INDEX_ENTRIES_QUERY).list());
+    }
+
+    @Override
+    public List<SearchIndex.Entry> getSearchIndexEntries(Collection<Long> ids) {
+        if ( ids.isEmpty() ) {
+            return new ArrayList<>();
+        }
+
+        return toSearchIndexEntries(getSession()
+                .createQuery(SEARCH_INDEX_ENTRIES_QUERY + " where e.id in (:ids)")
+                .setParameterList("ids", ids)
+                .list());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SearchIndex.Entry> toSearchIndexEntries(List<?> rows) {
+        List<SearchIndex.Entry> result = new ArrayList<>();
+        for (Object[] each : (List<Object[]>) rows) {
+            String code = (String) each[2];
+            result.add(SearchIndex.Entry.create((Long) each[0], (Long) each[1], code, code, (String) each[3]));
+        }
+
+        return result;
+    }
+
     @Override
     public List<OrderElement> findOrderElementsWithExternalCode() {
         return getSession()
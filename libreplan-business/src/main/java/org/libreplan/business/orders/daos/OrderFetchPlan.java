@@ -0,0 +1,207 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.daos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Default implementation of {@link IOrderFetchPlan}.<br />
+ *
+ * Each query fetches with joins the collections of all the elements or tasks of the order, so Hibernate initializes
+ * them for the entities already in the session. The ids are split in chunks to keep the statements bounded.<br />
+ *
+ * The elements of the order are the exception. Their not lazy collections would be initialized in batches right after
+ * the query that loads them if any of them was left out, so all of them are loaded by a single query fetching all
+ * those collections. Only the ids of each level of the tree are found first.
+ */
+@Repository
+@Scope(BeanDefinition.SCOPE_SINGLETON)
+public class OrderFetchPlan implements IOrderFetchPlan {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private static class Phases {
+
+        private final Map<String, Long> msByPhase = new LinkedHashMap<>();
+
+        private long phaseStart = System.currentTimeMillis();
+
+        void finished(String phase) {
+            long now = System.currentTimeMillis();
+            msByPhase.put(phase, now - phaseStart);
+            phaseStart = now;
+        }
+    }
+
+    @Override
+    public void loadOrderElements(Long orderId) {
+        List<Long> elements = new ArrayList<>();
+        List<Long> level = Collections.singletonList(orderId);
+        while (!level.isEmpty()) {
+            elements.addAll(level);
+            level = findIds("select e.id from OrderElement e where e.parent.id in (:ids)", level);
+        }
+
+        sessionFactory.getCurrentSession()
+                .createQuery("select distinct e from OrderElement e " +
+                        "left join fetch e.children " +
+                        "left join fetch e.hoursGroups h " +
+                        "left join fetch h.criterionRequirements hr " +
+                        "left join fetch hr.criterion " +
+                        "left join fetch e.criterionRequirements r " +
+                        "left join fetch r.criterion " +
+                        "left join fetch e.taskQualityForms " +
+                        "where e.id in (:ids)")
+                .setParameterList("ids", elements)
+                .list();
+    }
+
+    @Override
+    public Map<String, Long> loadPlanningData(Order order) {
+        Phases phases = new Phases();
+
+        List<OrderElement> all = new ArrayList<>();
+        all.add(order);
+        all.addAll(order.getAllChildren());
+
+        List<Long> elements = new ArrayList<>();
+        List<Long> groups = new ArrayList<>();
+        for (OrderElement each : all) {
+            elements.add(each.getId());
+            if ( each instanceof OrderLineGroup ) {
+                groups.add(each.getId());
+            }
+        }
+        phases.finished("order elements");
+
+        fetch("select distinct e from OrderElement e " +
+                "left join fetch e.directAdvanceAssignments a " +
+                "left join fetch a.advanceMeasurements " +
+                "left join fetch a.advanceType " +
+                "where e.id in (:ids)", elements);
+
+        fetch("select distinct g from OrderLineGroup g " +
+                "left join fetch g.indirectAdvanceAssignments i " +
+                "left join fetch i.advanceType " +
+                "where g.id in (:ids)", groups);
+        phases.finished("advances");
+
+        fetch("select distinct e from OrderElement e " +
+                "left join fetch e.labels l " +
+                "left join fetch l.type " +
+                "where e.id in (:ids)", elements);
+        phases.finished("labels");
+
+        TaskGroup rootTask = order.getAssociatedTaskElement();
+        if ( rootTask == null ) {
+            return phases.msByPhase;
+        }
+
+        List<TaskElement> allTasks = new ArrayList<>();
+        allTasks.add(rootTask);
+        allTasks.addAll(rootTask.getAllChildren());
+
+        List<Long> taskElements = new ArrayList<>();
+        List<Long> tasks = new ArrayList<>();
+        for (TaskElement each : allTasks) {
+            taskElements.add(each.getId());
+            if ( each.isTask() ) {
+                tasks.add(each.getId());
+            }
+        }
+        phases.finished("task elements");
+
+        fetch("select distinct t from Task t left join fetch t.resourceAllocations where t.id in (:ids)", tasks);
+
+        fetch("select distinct a from ResourceAllocation a " +
+                "left join fetch a.derivedAllocations " +
+                "where a.task.id in (:ids)", tasks);
+
+        fetch("select distinct a from GenericResourceAllocation a " +
+                "left join fetch a.criterions " +
+                "where a.task.id in (:ids)", tasks);
+        phases.finished("allocations");
+
+        fetch("select distinct a from SpecificResourceAllocation a " +
+                "left join fetch a.specificDayAssignmentsContainers c " +
+                "left join fetch c.dayAssignments " +
+                "where a.task.id in (:ids)", tasks);
+
+        fetch("select distinct a from GenericResourceAllocation a " +
+                "left join fetch a.genericDayAssignmentsContainers c " +
+                "left join fetch c.dayAssignments " +
+                "where a.task.id in (:ids)", tasks);
+
+        fetch("select distinct d from DerivedAllocation d " +
+                "left join fetch d.derivedDayAssignmentsContainers c " +
+                "left join fetch c.dayAssignments " +
+                "where d.derivedFrom.task.id in (:ids)", tasks);
+        phases.finished("day assignments");
+
+        fetch("select distinct t from TaskElement t " +
+                "left join fetch t.dependenciesWithThisOrigin " +
+                "left join fetch t.dependenciesWithThisDestination " +
+                "where t.id in (:ids)", taskElements);
+        phases.finished("dependencies");
+
+        return phases.msByPhase;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> findIds(String query, List<Long> ids) {
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            result.addAll(sessionFactory.getCurrentSession()
+                    .createQuery(query)
+                    .setParameterList("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size())))
+                    .list());
+        }
+
+        return result;
+    }
+
+    private void fetch(String query, List<Long> ids) {
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            sessionFactory.getCurrentSession()
+                    .createQuery(query)
+                    .setParameterList("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size())))
+                    .list();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.entities;
+
+/**
+ * Service running in background the recalculations of data aggregated by
+ * {@link Order}, like {@link SumChargedEffort} or {@link SumExpenses}.
+ * <p>
+ * There is at most one pending recalculation of each kind for each order, the
+ * requests received meanwhile are coalesced into it. Recalculations of
+ * different orders are run in parallel.
+ * </p>
+ */
+public interface IOrderRecalculationService {
+
+    interface IRecalculation {
+
+        void recalculate(Long orderId);
+
+    }
+
+    /**
+     * Requests to run <code>recalculation</code> for the {@link Order} with the
+     * given id. Requests with the same <code>name</code> and
+     * <code>orderId</code> are coalesced while the recalculation has not
+     * started. If it has already started, it's run again once finished.
+     */
+    void recalculate(String name, Long orderId, IRecalculation recalculation);
+
+    /**
+     * Number of recalculations waiting to be run, including the ones waiting
+     * to retry.
+     */
+    int getQueueDepth();
+
+    int getRunning();
+
+    long getCompleted();
+
+    long getCoalesced();
+
+    long getRetries();
+
+    long getFailures();
+
+    /**
+     * Mean time since the oldest request covered by a recalculation until it
+     * is completed.
+     */
+    long getMeanLatencyMillis();
+
+    long getMaxLatencyMillis();
+
+}
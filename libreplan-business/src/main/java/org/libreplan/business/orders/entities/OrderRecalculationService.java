@@ -0,0 +1,335 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.entities;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default implementation of {@link IOrderRecalculationService}.<br />
+ *
+ * The recalculations are run on a bounded pool. If there's any concurrency
+ * issue (because of some reports were saving in the meanwhile) the
+ * recalculation is scheduled again after an exponential backoff with jitter
+ * (with <code>MAX_ATTEMPTS_BECAUSE_CONCURRENCY</code> as maximum), so no
+ * thread of the pool is blocked while waiting.
+ */
+@Component
+@Scope(BeanDefinition.SCOPE_SINGLETON)
+public class OrderRecalculationService implements IOrderRecalculationService {
+
+    private static final Log LOG = LogFactory.getLog(OrderRecalculationService.class);
+
+    /**
+     * Number of times that a recalculation is tried if there is any concurrency
+     * issue.
+     */
+    protected static final int MAX_ATTEMPTS_BECAUSE_CONCURRENCY = 20;
+
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 100;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 10000;
+
+    private static final class Key {
+
+        private final String name;
+
+        private final Long orderId;
+
+        private Key(String name, Long orderId) {
+            this.name = name;
+            this.orderId = orderId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+
+            return name.equals(other.name) && orderId.equals(other.orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + orderId.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name + " of order (id=" + orderId + ")";
+        }
+    }
+
+    /**
+     * Pending or running recalculation. All its state is guarded by itself.
+     */
+    private class Job implements Runnable {
+
+        private final Key key;
+
+        private final IRecalculation recalculation;
+
+        private boolean scheduled = false;
+
+        private boolean running = false;
+
+        private boolean finished = false;
+
+        private boolean requestedWhileRunning = false;
+
+        /**
+         * Time of the oldest request not covered by a recalculation started.
+         */
+        private long requestedAt;
+
+        private int attempt = 0;
+
+        private Job(Key key, IRecalculation recalculation) {
+            this.key = key;
+            this.recalculation = recalculation;
+        }
+
+        /**
+         * @return <code>false</code> if the job has already finished and
+         *         can't take more requests
+         */
+        synchronized boolean request(long now) {
+            if (finished) {
+                return false;
+            }
+
+            if (!scheduled && !running) {
+                requestedAt = now;
+                submit(0);
+            } else if (running && !requestedWhileRunning) {
+                requestedWhileRunning = true;
+                requestedAt = now;
+            } else {
+                coalesced.incrementAndGet();
+            }
+
+            return true;
+        }
+
+        private void submit(long delayMillis) {
+            scheduled = true;
+            queueDepth.incrementAndGet();
+            executor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            long coveredRequestAt;
+            synchronized (this) {
+                scheduled = false;
+                running = true;
+                requestedWhileRunning = false;
+                coveredRequestAt = requestedAt;
+            }
+            queueDepth.decrementAndGet();
+            runningCount.incrementAndGet();
+
+            boolean retry = false;
+            try {
+                LOG.info("Recalculate " + key);
+                recalculation.recalculate(key.orderId);
+                completed(coveredRequestAt);
+            } catch (OptimisticLockingFailureException e) {
+                retry = true;
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                LOG.error("Error recalculating " + key, e);
+            } finally {
+                runningCount.decrementAndGet();
+                finish(retry, coveredRequestAt);
+            }
+        }
+
+        private synchronized void finish(boolean retry, long coveredRequestAt) {
+            running = false;
+
+            if (retry) {
+                attempt++;
+                if (attempt < MAX_ATTEMPTS_BECAUSE_CONCURRENCY) {
+                    long delay = retryDelay(attempt);
+                    LOG.info("Concurrency problem recalculating " + key + " trying again in " + delay +
+                            " ms (attempt " + attempt + ")");
+                    retries.incrementAndGet();
+                    // The requests received while running are covered by the retry
+                    requestedAt = coveredRequestAt;
+                    requestedWhileRunning = false;
+                    submit(delay);
+                    return;
+                }
+                failures.incrementAndGet();
+                LOG.error("Impossible to recalculate " + key + " due to concurrency problems");
+            }
+            attempt = 0;
+
+            if (requestedWhileRunning) {
+                requestedWhileRunning = false;
+                submit(0);
+                return;
+            }
+
+            finished = true;
+            jobs.remove(key, this);
+        }
+    }
+
+    private final ConcurrentMap<Key, Job> jobs = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final AtomicInteger runningCount = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+
+    private final LongAccumulator maxLatencyMillis = new LongAccumulator(Math::max, 0);
+
+    public OrderRecalculationService() {
+        this(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    OrderRecalculationService(int poolSize) {
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(poolSize, daemonThreads());
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+        return runnable -> {
+            Thread result = defaultFactory.newThread(runnable);
+            result.setName("order-recalculation-" + result.getName());
+            result.setDaemon(true);
+
+            return result;
+        };
+    }
+
+    private static long retryDelay(int attempt) {
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, INITIAL_RETRY_DELAY_MILLIS << Math.min(attempt - 1, 16));
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    @Override
+    public void recalculate(String name, Long orderId, IRecalculation recalculation) {
+        Validate.notNull(name);
+        Validate.notNull(orderId);
+        Validate.notNull(recalculation);
+
+        Key key = new Key(name, orderId);
+        long now = System.currentTimeMillis();
+        Job job;
+        do {
+            // If the job found has just finished, it's already removed and a new one is created
+            job = jobs.computeIfAbsent(key, k -> new Job(k, recalculation));
+        } while (!job.request(now));
+    }
+
+    private void completed(long requestedAt) {
+        long latency = System.currentTimeMillis() - requestedAt;
+        long completedNow = completed.incrementAndGet();
+        totalLatencyMillis.addAndGet(latency);
+        maxLatencyMillis.accumulate(latency);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("recalculations completed: " + completedNow + ", queue depth: " + getQueueDepth() +
+                    ", coalesced requests: " + getCoalesced() + ", retries: " + getRetries() + ", failures: " +
+                    getFailures() + ", mean latency: " + getMeanLatencyMillis() + " ms, max latency: " +
+                    getMaxLatencyMillis() + " ms");
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public int getRunning() {
+        return runningCount.get();
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    @Override
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getMeanLatencyMillis() {
+        long completedCount = completed.get();
+
+        return completedCount == 0 ? 0 : totalLatencyMillis.get() / completedCount;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis.get();
+    }
+
+}
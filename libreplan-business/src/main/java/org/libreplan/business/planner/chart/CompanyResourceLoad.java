@@ -0,0 +1,394 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
+import org.libreplan.business.planner.entities.DayAssignmentEffort;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * Immutable aggregate of the load of all the resources of a scenario, from which the {@link ResourceLoadChartData}
+ * of the company is built.
+ * <p>
+ * It keeps, per resource, the assigned effort and the effort over its calendar capacity on each day, and the totals
+ * per day for all the resources. So when the allocations of some resources change, the new value is obtained
+ * subtracting the old load of those resources and adding the new one, without reading the rest of assignments.
+ * </p>
+ *
+ * @see PredefinedDatabaseSnapshots
+ */
+public class CompanyResourceLoad {
+
+    /**
+     * Load of one resource from {@link #first} to the last day it has some assignment.
+     */
+    private static class ResourceLoad {
+
+        private final LocalDate first;
+
+        private final int[] assigned;
+
+        private final int[] overCapacity;
+
+        private ResourceLoad(LocalDate first, int[] assigned, int[] overCapacity) {
+            this.first = first;
+            this.assigned = assigned;
+            this.overCapacity = overCapacity;
+        }
+
+        LocalDate getLast() {
+            return first.plusDays(assigned.length - 1);
+        }
+
+    }
+
+    public static CompanyResourceLoad create(Long scenarioId,
+                                             List<DayAssignmentEffort> efforts,
+                                             List<Resource> resources) {
+
+        Map<Long, Resource> resourcesById = byId(resources);
+        Map<Long, ResourceLoad> loads = calculateLoads(efforts, resourcesById);
+
+        LocalDate start = null;
+        LocalDate end = null;
+        for (ResourceLoad each : loads.values()) {
+            start = start == null || each.first.isBefore(start) ? each.first : start;
+            end = end == null || each.getLast().isAfter(end) ? each.getLast() : end;
+        }
+
+        int[] availability = new int[start == null ? 0 : daysFrom(start, end) + 1];
+        for (int i = 0; i < availability.length; i++) {
+            availability[i] = capacityOf(resources, start.plusDays(i));
+        }
+
+        return new CompanyResourceLoad(scenarioId, start, availability, loads, resourcesByAllocation(efforts));
+    }
+
+    private static Map<Long, Resource> byId(Collection<? extends Resource> resources) {
+        Map<Long, Resource> result = new HashMap<>();
+        for (Resource each : resources) {
+            result.put(each.getId(), each);
+        }
+
+        return result;
+    }
+
+    private static Map<Long, ResourceLoad> calculateLoads(List<DayAssignmentEffort> efforts,
+                                                          Map<Long, Resource> resourcesById) {
+
+        Map<Long, LocalDate[]> spans = new HashMap<>();
+        for (DayAssignmentEffort each : efforts) {
+            LocalDate[] span = spans.get(each.getResourceId());
+            if ( span == null ) {
+                spans.put(each.getResourceId(), new LocalDate[] { each.getDay(), each.getDay() });
+            } else {
+                span[0] = each.getDay().isBefore(span[0]) ? each.getDay() : span[0];
+                span[1] = each.getDay().isAfter(span[1]) ? each.getDay() : span[1];
+            }
+        }
+
+        Map<Long, int[]> assignedByResource = new HashMap<>();
+        for (Entry<Long, LocalDate[]> each : spans.entrySet()) {
+            assignedByResource.put(each.getKey(), new int[daysFrom(each.getValue()[0], each.getValue()[1]) + 1]);
+        }
+
+        for (DayAssignmentEffort each : efforts) {
+            LocalDate first = spans.get(each.getResourceId())[0];
+            assignedByResource.get(each.getResourceId())[daysFrom(first, each.getDay())] +=
+                    each.getDuration().getSeconds();
+        }
+
+        Map<Long, ResourceLoad> result = new HashMap<>();
+        for (Entry<Long, int[]> each : assignedByResource.entrySet()) {
+            LocalDate first = spans.get(each.getKey())[0];
+            int[] assigned = each.getValue();
+            int[] overCapacity = new int[assigned.length];
+            Resource resource = resourcesById.get(each.getKey());
+
+            for (int i = 0; i < assigned.length; i++) {
+                int capacity = resource == null ? 0 : capacityOf(resource, first.plusDays(i));
+                overCapacity[i] = assigned[i] - Math.min(capacity, assigned[i]);
+            }
+            result.put(each.getKey(), new ResourceLoad(first, assigned, overCapacity));
+        }
+
+        return result;
+    }
+
+    private static Map<Long, Set<Long>> resourcesByAllocation(List<DayAssignmentEffort> efforts) {
+        Map<Long, Set<Long>> result = new HashMap<>();
+        addResourcesByAllocation(result, efforts);
+
+        return result;
+    }
+
+    private static void addResourcesByAllocation(Map<Long, Set<Long>> resourcesByAllocation,
+                                                 List<DayAssignmentEffort> efforts) {
+
+        for (DayAssignmentEffort each : efforts) {
+            Set<Long> resources = resourcesByAllocation.get(each.getAllocationId());
+            if ( resources == null ) {
+                resources = new HashSet<>();
+                resourcesByAllocation.put(each.getAllocationId(), resources);
+            }
+            resources.add(each.getResourceId());
+        }
+    }
+
+    private static int capacityOf(Collection<? extends Resource> resources, LocalDate day) {
+        int result = 0;
+        for (Resource each : resources) {
+            result += capacityOf(each, day);
+        }
+
+        return result;
+    }
+
+    private static int capacityOf(Resource resource, LocalDate day) {
+        return ResourceLoadChartData.calendarCapacityFor(resource, PartialDay.wholeDay(day)).getSeconds();
+    }
+
+    private static int daysFrom(LocalDate start, LocalDate day) {
+        return Days.daysBetween(start, day).getDays();
+    }
+
+    private final Long scenarioId;
+
+    /**
+     * First day of {@link #availability}, {@link #load} and {@link #overCapacity}.
+     * <code>null</code> if there are no assignments.
+     */
+    private final LocalDate start;
+
+    private final int[] availability;
+
+    private final int[] load;
+
+    private final int[] overCapacity;
+
+    private final Map<Long, ResourceLoad> loadsByResource;
+
+    /**
+     * The resources assigned by each allocation. Derived assignments are kept in the allocation they come from.
+     */
+    private final Map<Long, Set<Long>> resourcesByAllocation;
+
+    private final ResourceLoadChartData chartData;
+
+    private CompanyResourceLoad(Long scenarioId,
+                                LocalDate start,
+                                int[] availability,
+                                Map<Long, ResourceLoad> loadsByResource,
+                                Map<Long, Set<Long>> resourcesByAllocation) {
+
+        this.scenarioId = scenarioId;
+        this.start = start;
+        this.availability = availability;
+        this.loadsByResource = loadsByResource;
+        this.resourcesByAllocation = resourcesByAllocation;
+        this.load = new int[availability.length];
+        this.overCapacity = new int[availability.length];
+
+        for (ResourceLoad each : loadsByResource.values()) {
+            add(each, 1);
+        }
+        this.chartData = buildChartData();
+    }
+
+    private CompanyResourceLoad(CompanyResourceLoad previous,
+                                Map<Long, ResourceLoad> loadsByResource,
+                                Map<Long, Set<Long>> resourcesByAllocation,
+                                Collection<ResourceLoad> removed,
+                                Collection<ResourceLoad> added) {
+
+        this.scenarioId = previous.scenarioId;
+        this.start = previous.start;
+        this.availability = previous.availability;
+        this.loadsByResource = loadsByResource;
+        this.resourcesByAllocation = resourcesByAllocation;
+        this.load = previous.load.clone();
+        this.overCapacity = previous.overCapacity.clone();
+
+        for (ResourceLoad each : removed) {
+            add(each, -1);
+        }
+        for (ResourceLoad each : added) {
+            add(each, 1);
+        }
+        this.chartData = buildChartData();
+    }
+
+    private void add(ResourceLoad resourceLoad, int sign) {
+        int offset = daysFrom(start, resourceLoad.first);
+        for (int i = 0; i < resourceLoad.assigned.length; i++) {
+            load[offset + i] += sign * resourceLoad.assigned[i];
+            overCapacity[offset + i] += sign * resourceLoad.overCapacity[i];
+        }
+    }
+
+    /**
+     * The chart covers from the first to the last day with assignments, like
+     * {@link ContiguousDaysLine#byDay(Collection)} does.
+     */
+    private ResourceLoadChartData buildChartData() {
+        SortedMap<LocalDate, EffortDuration> loadMap = new TreeMap<>();
+        SortedMap<LocalDate, EffortDuration> overloadMap = new TreeMap<>();
+        SortedMap<LocalDate, EffortDuration> availabilityMap = new TreeMap<>();
+
+        if ( !loadsByResource.isEmpty() ) {
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            for (ResourceLoad each : loadsByResource.values()) {
+                first = Math.min(first, daysFrom(start, each.first));
+                last = Math.max(last, daysFrom(start, each.getLast()));
+            }
+
+            for (int i = first; i <= last; i++) {
+                LocalDate day = start.plusDays(i);
+                loadMap.put(day, EffortDuration.seconds(Math.min(load[i], availability[i])));
+                overloadMap.put(day, EffortDuration.seconds(overCapacity[i] + availability[i]));
+                availabilityMap.put(day, EffortDuration.seconds(availability[i]));
+            }
+        }
+
+        return new ResourceLoadChartData(loadMap, overloadMap, availabilityMap);
+    }
+
+    public Long getScenarioId() {
+        return scenarioId;
+    }
+
+    public ResourceLoadChartData getChartData() {
+        return chartData;
+    }
+
+    /**
+     * Returns the resources that had some assignment from the given allocations when this load was calculated.
+     */
+    public Set<Long> getResourcesAssignedBy(Collection<Long> allocationIds) {
+        Set<Long> result = new HashSet<>();
+        for (Long each : allocationIds) {
+            Set<Long> resources = resourcesByAllocation.get(each);
+            if ( resources != null ) {
+                result.addAll(resources);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a new load replacing the assignments of some resources.
+     *
+     * @param resourceIds
+     *            the resources whose assignments have changed
+     * @param efforts
+     *            all the current assignments of these resources
+     * @param resources
+     *            the entities of these resources, used to know their capacity
+     * @return the new load or <code>null</code> if the new assignments are out of the days this load covers, so
+     *         the availability of all the resources on the new days is unknown and it must be calculated from scratch
+     */
+    public CompanyResourceLoad update(Set<Long> resourceIds,
+                                      List<DayAssignmentEffort> efforts,
+                                      Collection<? extends Resource> resources) {
+
+        Map<Long, ResourceLoad> newLoads = calculateLoads(efforts, byId(resources));
+        for (Long each : newLoads.keySet()) {
+            Validate.isTrue(resourceIds.contains(each), "unexpected assignments of resource " + each);
+        }
+
+        if ( !areCovered(newLoads.values()) ) {
+            return null;
+        }
+
+        Map<Long, ResourceLoad> loads = new HashMap<>(loadsByResource);
+        Map<Long, ResourceLoad> removed = new HashMap<>();
+        for (Long each : resourceIds) {
+            ResourceLoad previous = loads.remove(each);
+            if ( previous != null ) {
+                removed.put(each, previous);
+            }
+        }
+        loads.putAll(newLoads);
+
+        return new CompanyResourceLoad(this, loads,
+                updateResourcesByAllocation(resourceIds, efforts), removed.values(), newLoads.values());
+    }
+
+    private boolean areCovered(Collection<ResourceLoad> loads) {
+        for (ResourceLoad each : loads) {
+            if ( start == null || each.first.isBefore(start) ||
+                    daysFrom(start, each.getLast()) >= availability.length ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Map<Long, Set<Long>> updateResourcesByAllocation(Set<Long> resourceIds,
+                                                             List<DayAssignmentEffort> efforts) {
+
+        Map<Long, Set<Long>> result = new HashMap<>();
+        for (Entry<Long, Set<Long>> each : resourcesByAllocation.entrySet()) {
+            if ( Collections.disjoint(each.getValue(), resourceIds) ) {
+                result.put(each.getKey(), each.getValue());
+            } else {
+                Set<Long> remaining = new HashSet<>(each.getValue());
+                remaining.removeAll(resourceIds);
+                if ( !remaining.isEmpty() ) {
+                    result.put(each.getKey(), remaining);
+                }
+            }
+        }
+
+        Map<Long, Set<Long>> added = resourcesByAllocation(efforts);
+        for (Entry<Long, Set<Long>> each : added.entrySet()) {
+            Set<Long> resources = result.get(each.getKey());
+            if ( resources == null ) {
+                result.put(each.getKey(), each.getValue());
+            } else {
+                Set<Long> merged = new HashSet<>(resources);
+                merged.addAll(each.getValue());
+                result.put(each.getKey(), merged);
+            }
+        }
+
+        return result;
+    }
+
+}
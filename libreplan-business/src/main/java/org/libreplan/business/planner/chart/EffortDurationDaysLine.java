@@ -0,0 +1,306 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * {@link ContiguousDaysLine} specialized for {@link EffortDuration}. The efforts are kept as seconds in an
+ * <code>int</code> array, so the days are not boxed and the bulk operations don't allocate any object.
+ * <p>
+ * Bulk operations modify the line in place and return it, so they can be chained.
+ * Both lines must cover the same days. {@link #subInterval(LocalDate, LocalDate)} returns a view sharing the array,
+ * use {@link #copy()} before modifying a line that must not change.
+ * </p>
+ *
+ * @see ContiguousDaysLine
+ */
+public class EffortDurationDaysLine {
+
+    public static EffortDurationDaysLine create(LocalDate fromInclusive, LocalDate endExclusive) {
+        if ( fromInclusive.isAfter(endExclusive) ) {
+            throw new IllegalArgumentException(
+                    "fromInclusive (" + fromInclusive + ") is after endExclusive (" + endExclusive + ")");
+        }
+        int size = Days.daysBetween(fromInclusive, endExclusive).getDays();
+
+        return new EffortDurationDaysLine(fromInclusive, new int[size], 0, size);
+    }
+
+    public static EffortDurationDaysLine invalid() {
+        return new EffortDurationDaysLine(null, new int[0], 0, 0);
+    }
+
+    /**
+     * Creates a line with all the values at zero, from the day of the first assignment to the day of the last one.
+     * Same days than {@link ContiguousDaysLine#byDay(Collection)}.
+     */
+    public static EffortDurationDaysLine spanning(Collection<? extends DayAssignment> assignments) {
+        if ( assignments.isEmpty() ) {
+            return invalid();
+        }
+        LocalDate first = null;
+        LocalDate last = null;
+        for (DayAssignment each : assignments) {
+            LocalDate day = each.getDay();
+            if ( first == null || day.isBefore(first) ) {
+                first = day;
+            }
+            if ( last == null || day.isAfter(last) ) {
+                last = day;
+            }
+        }
+
+        return create(first, last.plusDays(1));
+    }
+
+    public static EffortDurationDaysLine from(ContiguousDaysLine<EffortDuration> line) {
+        if ( line.isNotValid() ) {
+            return invalid();
+        }
+        EffortDurationDaysLine result = create(line.getStart(), line.getEndExclusive());
+        int i = 0;
+        for (ContiguousDaysLine.OnDay<EffortDuration> each : line) {
+            EffortDuration value = each.getValue();
+            result.seconds[i++] = value == null ? 0 : value.getSeconds();
+        }
+
+        return result;
+    }
+
+    private final LocalDate startInclusive;
+
+    private final int[] seconds;
+
+    private final int offset;
+
+    private final int size;
+
+    private EffortDurationDaysLine(LocalDate startInclusive, int[] seconds, int offset, int size) {
+        this.startInclusive = startInclusive;
+        this.seconds = seconds;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public boolean isNotValid() {
+        return startInclusive == null;
+    }
+
+    private void mustBeValid() {
+        if ( isNotValid() ) {
+            throw new IllegalStateException("this line is invalid");
+        }
+    }
+
+    public LocalDate getStart() {
+        mustBeValid();
+
+        return startInclusive;
+    }
+
+    public LocalDate getEndExclusive() {
+        return getStart().plusDays(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean includes(LocalDate day) {
+        if ( isNotValid() ) {
+            return false;
+        }
+        int index = daysFromStart(day);
+
+        return index >= 0 && index < size;
+    }
+
+    private int daysFromStart(LocalDate day) {
+        return Days.daysBetween(startInclusive, day).getDays();
+    }
+
+    private int indexOf(LocalDate day) throws IndexOutOfBoundsException {
+        Validate.notNull(day);
+        mustBeValid();
+        int index = daysFromStart(day);
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException(day + " is not inside the line");
+        }
+
+        return offset + index;
+    }
+
+    public EffortDuration get(LocalDate day) throws IndexOutOfBoundsException {
+        return EffortDuration.seconds(getSeconds(day));
+    }
+
+    public int getSeconds(LocalDate day) throws IndexOutOfBoundsException {
+        return seconds[indexOf(day)];
+    }
+
+    public void set(LocalDate day, EffortDuration value) throws IndexOutOfBoundsException {
+        seconds[indexOf(day)] = value.getSeconds();
+    }
+
+    public void addSeconds(LocalDate day, int amount) throws IndexOutOfBoundsException {
+        seconds[indexOf(day)] += amount;
+    }
+
+    /**
+     * Adds the duration of the assignments to the days they are at. The assignments outside the line are ignored.
+     */
+    public EffortDurationDaysLine addAssignments(Collection<? extends DayAssignment> assignments) {
+        if ( isNotValid() ) {
+            return this;
+        }
+        for (DayAssignment each : assignments) {
+            int index = daysFromStart(each.getDay());
+            if ( index >= 0 && index < size ) {
+                seconds[offset + index] += each.getDuration().getSeconds();
+            }
+        }
+
+        return this;
+    }
+
+    public EffortDurationDaysLine add(EffortDurationDaysLine other) {
+        checkSameDays(other);
+        for (int i = 0; i < size; i++) {
+            seconds[offset + i] += other.seconds[other.offset + i];
+        }
+
+        return this;
+    }
+
+    public EffortDurationDaysLine min(EffortDurationDaysLine other) {
+        checkSameDays(other);
+        for (int i = 0; i < size; i++) {
+            seconds[offset + i] = Math.min(seconds[offset + i], other.seconds[other.offset + i]);
+        }
+
+        return this;
+    }
+
+    /**
+     * An {@link EffortDuration} can't be negative, so if the subtrahend is bigger at some day the result is zero
+     * there. Same as {@link ContiguousDaysLine#substract(ContiguousDaysLine, ContiguousDaysLine)}.
+     */
+    public EffortDurationDaysLine subtract(EffortDurationDaysLine subtrahend) {
+        checkSameDays(subtrahend);
+        for (int i = 0; i < size; i++) {
+            seconds[offset + i] = Math.max(0, seconds[offset + i] - subtrahend.seconds[subtrahend.offset + i]);
+        }
+
+        return this;
+    }
+
+    public EffortDurationDaysLine clamp(EffortDuration lower, EffortDuration upper) {
+        Validate.isTrue(lower.compareTo(upper) <= 0, "lower must not be bigger than upper");
+        int lowerSeconds = lower.getSeconds();
+        int upperSeconds = upper.getSeconds();
+        for (int i = offset; i < offset + size; i++) {
+            seconds[i] = Math.min(upperSeconds, Math.max(lowerSeconds, seconds[i]));
+        }
+
+        return this;
+    }
+
+    private void checkSameDays(EffortDurationDaysLine other) {
+        if ( isNotValid() && other.isNotValid() ) {
+            return;
+        }
+        Validate.isTrue(!isNotValid() && !other.isNotValid(), "both lines must be valid");
+        Validate.isTrue(startInclusive.equals(other.startInclusive), "the start of both lines must be the same date");
+        Validate.isTrue(size == other.size, "the end of both lines must be the same date");
+    }
+
+    public EffortDuration sum() {
+        int result = 0;
+        for (int i = offset; i < offset + size; i++) {
+            result += seconds[i];
+        }
+
+        return EffortDuration.seconds(result);
+    }
+
+    /**
+     * Returns a view of the days of this line inside the interval. Changes on the view are seen on this line
+     * and vice versa.
+     */
+    public EffortDurationDaysLine subInterval(LocalDate startInclusive, LocalDate endExclusive) {
+        if ( isNotValid() ||
+                startInclusive.compareTo(endExclusive) >= 0 ||
+                startInclusive.compareTo(getEndExclusive()) >= 0 ||
+                endExclusive.compareTo(getStart()) <= 0 ) {
+
+            return invalid();
+        }
+        int from = Math.max(0, daysFromStart(startInclusive));
+        int to = Math.min(size, daysFromStart(endExclusive));
+
+        return new EffortDurationDaysLine(this.startInclusive.plusDays(from), seconds, offset + from, to - from);
+    }
+
+    /**
+     * Returns a new line covering the same days with all the values at zero.
+     */
+    public EffortDurationDaysLine sameDaysAtZero() {
+        if ( isNotValid() ) {
+            return invalid();
+        }
+
+        return new EffortDurationDaysLine(startInclusive, new int[size], 0, size);
+    }
+
+    public EffortDurationDaysLine copy() {
+        if ( isNotValid() ) {
+            return invalid();
+        }
+        int[] copied = new int[size];
+        System.arraycopy(seconds, offset, copied, 0, size);
+
+        return new EffortDurationDaysLine(startInclusive, copied, 0, size);
+    }
+
+    public SortedMap<LocalDate, EffortDuration> toSortedMap() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        LocalDate current = startInclusive;
+        for (int i = offset; i < offset + size; i++) {
+            result.put(current, EffortDuration.seconds(seconds[i]));
+            current = current.plusDays(1);
+        }
+
+        return result;
+    }
+
+}
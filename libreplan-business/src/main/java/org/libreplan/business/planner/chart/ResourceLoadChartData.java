@@ -22,8 +22,6 @@
 package org.libreplan.business.planner.chart;
 
 import static org.libreplan.business.planner.chart.ContiguousDaysLine.compound;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.sum;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.toSortedMap;
 import static org.libreplan.business.workingday.EffortDuration.min;
 
 import java.util.Collection;
@@ -50,6 +48,7 @@ import org.libreplan.business.workingday.IntraDayDate.PartialDay;
  * run each time the chart is shown.
  *
  * @see PredefinedDatabaseSnapshots
+ * @see CompanyResourceLoad
  *
  * @author Jacobo Aragunde Pérez<jaragunde@igalia.com>
  */
@@ -61,6 +60,14 @@ public class ResourceLoadChartData implements ILoadChartData {
 
     private SortedMap<LocalDate, EffortDuration> availability;
 
+    ResourceLoadChartData(SortedMap<LocalDate, EffortDuration> load,
+                          SortedMap<LocalDate, EffortDuration> overload,
+                          SortedMap<LocalDate, EffortDuration> availability) {
+        this.load = load;
+        this.overload = overload;
+        this.availability = availability;
+    }
+
     public ResourceLoadChartData(List<DayAssignment> dayAssignments, List<Resource> resources) {
         this(dayAssignments, resources, null, null);
     }
@@ -70,22 +77,96 @@ public class ResourceLoadChartData implements ILoadChartData {
                                  LocalDate startInclusive,
                                  LocalDate endExclusive) {
 
-        ContiguousDaysLine<List<DayAssignment>> assignments = ContiguousDaysLine.byDay(dayAssignments);
+        EffortDurationDaysLine days = EffortDurationDaysLine.spanning(dayAssignments);
 
         if (startInclusive != null && endExclusive != null) {
-            assignments = assignments.subInterval(startInclusive, endExclusive);
+            days = days.subInterval(startInclusive, endExclusive);
+        }
+
+        EffortDurationDaysLine availabilityOnAllResources = capacityOn(days, resources);
+
+        this.load = days.sameDaysAtZero().addAssignments(dayAssignments).min(availabilityOnAllResources).toSortedMap();
+        this.overload = overloadOn(days, dayAssignments).add(availabilityOnAllResources).toSortedMap();
+        this.availability = availabilityOnAllResources.toSortedMap();
+    }
+
+    /**
+     * For each day of the given line, the sum of the capacities of the resources.
+     * The returned line is new, the given one is only used for its days.
+     */
+    public static EffortDurationDaysLine capacityOn(EffortDurationDaysLine days,
+                                                    Collection<? extends Resource> resources) {
+
+        EffortDurationDaysLine result = days.sameDaysAtZero();
+        if (result.isNotValid()) {
+            return result;
+        }
+
+        for (LocalDate day = result.getStart(); day.isBefore(result.getEndExclusive()); day = day.plusDays(1)) {
+            result.set(day, sumCalendarCapacitiesForDay(resources, day));
         }
 
-        ContiguousDaysLine<EffortDuration> load = assignments.transform(extractLoad());
+        return result;
+    }
 
-        ContiguousDaysLine<EffortDuration> overload = assignments.transform(extractOverload());
+    /**
+     * For each day of the given line, the sum of the capacities of the resources with some of the given assignments
+     * at that day. Same values than {@link #extractAvailabilityOnAssignedResources()}.
+     */
+    public static EffortDurationDaysLine capacityOfAssignedResourcesOn(
+            EffortDurationDaysLine days, Collection<? extends DayAssignment> dayAssignments) {
+
+        EffortDurationDaysLine result = days.sameDaysAtZero();
+        for (Entry<Resource, Set<LocalDate>> each : daysByResource(result, dayAssignments).entrySet()) {
+            for (LocalDate day : each.getValue()) {
+                result.addSeconds(day, calendarCapacityFor(each.getKey(), PartialDay.wholeDay(day)).getSeconds());
+            }
+        }
 
-        ContiguousDaysLine<EffortDuration> availabilityOnAllResources =
-                assignments.transform(extractAvailabilityOnAllResources(resources));
+        return result;
+    }
+
+    /**
+     * For each day of the given line, the effort assigned over the capacity of each resource, added up.
+     * Same values than {@link #extractOverload()}.
+     */
+    public static EffortDurationDaysLine overloadOn(EffortDurationDaysLine days,
+                                                    Collection<? extends DayAssignment> dayAssignments) {
+
+        EffortDurationDaysLine result = days.sameDaysAtZero();
+        for (Entry<Resource, List<DayAssignment>> each : DayAssignment.byResource(dayAssignments).entrySet()) {
+            EffortDurationDaysLine assigned = result.sameDaysAtZero().addAssignments(each.getValue());
+            EffortDurationDaysLine capacity = result.sameDaysAtZero();
+
+            for (DayAssignment assignment : each.getValue()) {
+                LocalDate day = assignment.getDay();
+                if (capacity.includes(day) && capacity.getSeconds(day) == 0) {
+                    capacity.set(day, calendarCapacityFor(each.getKey(), PartialDay.wholeDay(day)));
+                }
+            }
+            result.add(assigned.subtract(capacity));
+        }
 
-        this.load = toSortedMap(ContiguousDaysLine.min(load, availabilityOnAllResources));
-        this.overload = toSortedMap(sum(overload, availabilityOnAllResources));
-        this.availability = toSortedMap(availabilityOnAllResources);
+        return result;
+    }
+
+    private static Map<Resource, Set<LocalDate>> daysByResource(EffortDurationDaysLine days,
+                                                                Collection<? extends DayAssignment> dayAssignments) {
+
+        Map<Resource, Set<LocalDate>> result = new HashMap<>();
+        for (DayAssignment each : dayAssignments) {
+            if (!days.includes(each.getDay())) {
+                continue;
+            }
+            Set<LocalDate> resourceDays = result.get(each.getResource());
+            if (resourceDays == null) {
+                resourceDays = new HashSet<>();
+                result.put(each.getResource(), resourceDays);
+            }
+            resourceDays.add(each.getDay());
+        }
+
+        return result;
     }
 
     public static IValueTransformer<List<DayAssignment>, EffortDuration> extractOverload() {
@@ -157,18 +238,6 @@ public class ResourceLoadChartData implements ILoadChartData {
         };
     }
 
-    private IValueTransformer<List<DayAssignment>, EffortDuration> extractAvailabilityOnAllResources(
-            final List<Resource> resources) {
-
-        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
-
-            @Override
-            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
-                return sumCalendarCapacitiesForDay(resources, day);
-            }
-        };
-    }
-
     public SortedMap<LocalDate, EffortDuration> getLoad() {
         return load;
     }
@@ -0,0 +1,171 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
+import org.libreplan.business.planner.entities.ICostCalculator;
+import org.libreplan.business.planner.entities.Task;
+
+/**
+ * Immutable cache of the estimated and advance cost curves of every {@link Task}, as calculated by
+ * {@link ICostCalculator}, keyed by the task id.
+ * <p>
+ * Each cost keeps the version of the task it was calculated from, so when some tasks change only the ones with
+ * another version now, or affected by changes in other entities, have to be calculated again.
+ * </p>
+ *
+ * @see PredefinedDatabaseSnapshots
+ */
+public class TaskCosts {
+
+    /**
+     * Cost curves of one task and the data needed to filter them, so the task does not have to be loaded
+     */
+    public static class TaskCost {
+
+        public static TaskCost create(Task task,
+                                      SortedMap<LocalDate, BigDecimal> estimatedCost,
+                                      SortedMap<LocalDate, BigDecimal> advanceCost) {
+
+            return new TaskCost(task.getId(), task.getVersion(), task.getStartAsLocalDate(),
+                    task.getEndAsLocalDate(), estimatedCost, advanceCost);
+        }
+
+        private final Long taskId;
+
+        private final Long version;
+
+        private final LocalDate start;
+
+        private final LocalDate end;
+
+        private final SortedMap<LocalDate, BigDecimal> estimatedCost;
+
+        private final SortedMap<LocalDate, BigDecimal> advanceCost;
+
+        public TaskCost(Long taskId,
+                        Long version,
+                        LocalDate start,
+                        LocalDate end,
+                        SortedMap<LocalDate, BigDecimal> estimatedCost,
+                        SortedMap<LocalDate, BigDecimal> advanceCost) {
+
+            this.taskId = taskId;
+            this.version = version;
+            this.start = start;
+            this.end = end;
+            this.estimatedCost = Collections.unmodifiableSortedMap(new TreeMap<>(estimatedCost));
+            this.advanceCost = Collections.unmodifiableSortedMap(new TreeMap<>(advanceCost));
+        }
+
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public LocalDate getEnd() {
+            return end;
+        }
+
+        public SortedMap<LocalDate, BigDecimal> getEstimatedCost() {
+            return estimatedCost;
+        }
+
+        public SortedMap<LocalDate, BigDecimal> getAdvanceCost() {
+            return advanceCost;
+        }
+    }
+
+    public static TaskCosts create(Collection<TaskCost> costs) {
+        return new TaskCosts(Collections.<Long, TaskCost> emptyMap()).withChanges(costs, null);
+    }
+
+    private final Map<Long, TaskCost> costsByTask;
+
+    private TaskCosts(Map<Long, TaskCost> costsByTask) {
+        this.costsByTask = Collections.unmodifiableMap(costsByTask);
+    }
+
+    public Collection<TaskCost> getAll() {
+        return costsByTask.values();
+    }
+
+    public TaskCost get(Long taskId) {
+        return costsByTask.get(taskId);
+    }
+
+    /**
+     * Returns the ids of the given tasks that are not in the cache or whose cost was calculated from another version
+     *
+     * @param versions
+     *            the current version of the tasks by their id
+     */
+    public Set<Long> getOutdated(Map<Long, Long> versions) {
+        Set<Long> result = new HashSet<>();
+        for (Entry<Long, Long> each : versions.entrySet()) {
+            TaskCost cached = costsByTask.get(each.getKey());
+            if ( cached == null || !cached.getVersion().equals(each.getValue()) ) {
+                result.add(each.getKey());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns new costs where the given ones replace the cached ones of the same tasks
+     *
+     * @param existing
+     *            if not <code>null</code>, only the costs of these tasks are kept, so the removed tasks are dropped
+     */
+    public TaskCosts withChanges(Collection<TaskCost> recalculated, Set<Long> existing) {
+        Map<Long, TaskCost> result = new HashMap<>(costsByTask);
+        if ( existing != null ) {
+            result.keySet().retainAll(existing);
+        }
+        for (TaskCost each : recalculated) {
+            if ( existing == null || existing.contains(each.getTaskId()) ) {
+                result.put(each.getTaskId(), each);
+            }
+        }
+
+        return new TaskCosts(result);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.planner.chart.TaskCosts.TaskCost;
+import org.libreplan.business.planner.daos.ITaskElementDAO;
+import org.libreplan.business.planner.entities.ICostCalculator;
+import org.libreplan.business.planner.entities.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calculates the {@link TaskCosts} of the tasks that are not up to date.<br />
+ *
+ * The tasks are split in batches that are calculated on a bounded pool, each batch on its own read-only transaction,
+ * so the Hibernate sessions are never shared between threads.
+ */
+@Component
+@Scope(BeanDefinition.SCOPE_SINGLETON)
+public class TaskCostsCalculator {
+
+    private static final int TASKS_PER_BATCH = 50;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Autowired
+    private ITaskElementDAO taskElementDAO;
+
+    @Autowired
+    private ICostCalculator hoursCostCalculator;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), daemonThreads());
+
+    private static ThreadFactory daemonThreads() {
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+        return runnable -> {
+            Thread result = defaultFactory.newThread(runnable);
+            result.setName("task-costs-" + result.getName());
+            result.setDaemon(true);
+
+            return result;
+        };
+    }
+
+    public TaskCosts calculate() throws InterruptedException, ExecutionException {
+        return update(TaskCosts.create(Collections.<TaskCost> emptyList()), Collections.<Long> emptySet());
+    }
+
+    /**
+     * Calculates again the costs of the tasks with another version than the cached one and of the given ones, that
+     * can be affected by changes in other entities without changing their version. The removed tasks are dropped.
+     */
+    public TaskCosts update(TaskCosts previous, Set<Long> affectedTaskIds)
+            throws InterruptedException, ExecutionException {
+
+        Map<Long, Long> versions = taskElementDAO.getVersionsOfTasks();
+
+        Set<Long> outdated = previous.getOutdated(versions);
+        for (Long each : affectedTaskIds) {
+            if ( versions.containsKey(each) ) {
+                outdated.add(each);
+            }
+        }
+
+        return previous.withChanges(calculateCosts(new ArrayList<>(outdated)), versions.keySet());
+    }
+
+    private List<TaskCost> calculateCosts(List<Long> taskIds) throws InterruptedException, ExecutionException {
+        List<Future<List<TaskCost>>> batches = new ArrayList<>();
+        for (int i = 0; i < taskIds.size(); i += TASKS_PER_BATCH) {
+            final List<Long> batch = taskIds.subList(i, Math.min(i + TASKS_PER_BATCH, taskIds.size()));
+            batches.add(executor.submit(
+                    () -> transactionService.runOnReadOnlyTransaction(() -> calculateCostsOf(batch))));
+        }
+
+        List<TaskCost> result = new ArrayList<>();
+        try {
+            for (Future<List<TaskCost>> each : batches) {
+                result.addAll(each.get());
+            }
+        } finally {
+            for (Future<List<TaskCost>> each : batches) {
+                each.cancel(true);
+            }
+        }
+
+        return result;
+    }
+
+    private List<TaskCost> calculateCostsOf(Collection<Long> taskIds) {
+        List<TaskCost> result = new ArrayList<>();
+        for (Long each : taskIds) {
+            Task task;
+            try {
+                task = (Task) taskElementDAO.find(each);
+            } catch (InstanceNotFoundException e) {
+                // Removed since the versions were read
+                continue;
+            }
+            result.add(TaskCost.create(
+                    task, hoursCostCalculator.getEstimatedCost(task), hoursCostCalculator.getAdvanceCost(task)));
+        }
+
+        return result;
+    }
+
+}
@@ -24,7 +24,9 @@ package org.libreplan.business.planner.daos;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
@@ -32,11 +34,13 @@ import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignmentEffort;
 import org.libreplan.business.planner.entities.DerivedDayAssignment;
 import org.libreplan.business.planner.entities.GenericDayAssignment;
 import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
@@ -52,6 +56,8 @@ import org.springframework.stereotype.Repository;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> implements IDayAssignmentDAO {
 
+    private static final int MAX_IDS_PER_STATEMENT = 1000;
+
     private final String SCENARIO = "scenario";
 
     @Override
@@ -194,4 +200,100 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
                     .list();
     }
 
+    @Override
+    public List<DayAssignmentEffort> getEffortsFor(Scenario scenario, Collection<Long> resourceIds) {
+        List<DayAssignmentEffort> result = new ArrayList<>();
+        if ( resourceIds != null && resourceIds.isEmpty() ) {
+            return result;
+        }
+
+        String resourceCondition = resourceIds != null ? " and d.resource.id in (:resourceIds)" : "";
+        result.addAll(getEfforts(
+                "select c.resourceAllocation.id, d.resource.id, d.day, d.duration " +
+                        "from SpecificDayAssignmentsContainer c JOIN c.dayAssignments d " +
+                        "where c.scenario = :scenario" + resourceCondition, scenario, resourceIds));
+
+        result.addAll(getEfforts(
+                "select c.resourceAllocation.id, d.resource.id, d.day, d.duration " +
+                        "from GenericDayAssignmentsContainer c JOIN c.dayAssignments d " +
+                        "where c.scenario = :scenario" + resourceCondition, scenario, resourceIds));
+
+        result.addAll(getEfforts(
+                "select c.resourceAllocation.derivedFrom.id, d.resource.id, d.day, d.duration " +
+                        "from DerivedDayAssignmentsContainer c JOIN c.dayAssignments d " +
+                        "where c.scenario = :scenario" + resourceCondition, scenario, resourceIds));
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DayAssignmentEffort> getEfforts(String queryString, Scenario scenario, Collection<Long> resourceIds) {
+        Query query = getSession().createQuery(queryString).setParameter(SCENARIO, scenario);
+        if ( resourceIds != null ) {
+            query.setParameterList("resourceIds", resourceIds);
+        }
+
+        List<DayAssignmentEffort> result = new ArrayList<>();
+        for (Object[] each : (List<Object[]>) query.list()) {
+            result.add(new DayAssignmentEffort(
+                    (Long) each[0], (Long) each[1], (LocalDate) each[2], (EffortDuration) each[3]));
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Long> getResourceIdsAssignedBy(Scenario scenario, Collection<Long> allocationIds) {
+        Set<Long> result = new HashSet<>();
+        if ( allocationIds.isEmpty() ) {
+            return result;
+        }
+
+        String[] queries = {
+                "select distinct d.resource.id from SpecificDayAssignmentsContainer c JOIN c.dayAssignments d " +
+                        "where c.scenario = :scenario and c.resourceAllocation.id in (:allocationIds)",
+
+                "select distinct d.resource.id from GenericDayAssignmentsContainer c JOIN c.dayAssignments d " +
+                        "where c.scenario = :scenario and c.resourceAllocation.id in (:allocationIds)",
+
+                "select distinct d.resource.id from DerivedDayAssignmentsContainer c JOIN c.dayAssignments d " +
+                        "where c.scenario = :scenario and c.resourceAllocation.derivedFrom.id in (:allocationIds)" };
+
+        for (String each : queries) {
+            result.addAll(getSession()
+                    .createQuery(each)
+                    .setParameter(SCENARIO, scenario)
+                    .setParameterList("allocationIds", allocationIds)
+                    .list());
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Long> getIdsOfTasksOf(Collection<Long> dayAssignmentIds) {
+        Set<Long> result = new HashSet<>();
+        List<Long> ids = new ArrayList<>(dayAssignmentIds);
+
+        String[] queries = {
+                "select distinct d.container.resourceAllocation.task.id from SpecificDayAssignment d " +
+                        "where d.id in (:ids)",
+
+                "select distinct d.container.resourceAllocation.task.id from GenericDayAssignment d " +
+                        "where d.id in (:ids)" };
+
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_STATEMENT) {
+            for (String each : queries) {
+                result.addAll(getSession()
+                        .createQuery(each)
+                        .setParameterList("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_STATEMENT, ids.size())))
+                        .list());
+            }
+        }
+
+        return result;
+    }
+
 }
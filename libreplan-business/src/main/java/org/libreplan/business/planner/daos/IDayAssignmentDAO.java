@@ -23,10 +23,12 @@ package org.libreplan.business.planner.daos;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IGenericDAO;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignmentEffort;
 import org.libreplan.business.planner.entities.DerivedDayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
@@ -58,4 +60,24 @@ public interface IDayAssignmentDAO extends IGenericDAO<DayAssignment, Long> {
 
     public List<DayAssignment> findByResources(List<Resource> resources);
 
+    /**
+     * Returns a projection of all the day assignments of the scenario without loading them as entities.
+     *
+     * @param resourceIds
+     *            if not <code>null</code> only the assignments of these resources are returned
+     */
+    List<DayAssignmentEffort> getEffortsFor(Scenario scenario, Collection<Long> resourceIds);
+
+    /**
+     * Returns the ids of the resources that have some day assignment on the scenario for the given allocations,
+     * including the assignments derived from them.
+     */
+    Set<Long> getResourceIdsAssignedBy(Scenario scenario, Collection<Long> allocationIds);
+
+    /**
+     * Returns the ids of the tasks of the specific and generic day assignments with the given ids that still exist.
+     * The derived day assignments are ignored.
+     */
+    Set<Long> getIdsOfTasksOf(Collection<Long> dayAssignmentIds);
+
 }
@@ -21,9 +21,11 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IGenericDAO;
@@ -100,4 +102,14 @@ public interface IResourceAllocationDAO extends
             Date intervalFilterStartDate,
             Date intervalFilterEndDate);
 
-}
\ No newline at end of file
+    /**
+     * Returns the ids of the allocations of the tasks with the given ids.
+     */
+    Set<Long> getIdsOfAllocationsOfTasks(Collection<Long> taskIds);
+
+    /**
+     * Returns the ids of the tasks of the allocations with the given ids that still exist.
+     */
+    Set<Long> getIdsOfTasksOfAllocations(Collection<Long> allocationIds);
+
+}
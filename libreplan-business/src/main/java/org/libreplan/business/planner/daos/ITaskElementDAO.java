@@ -21,10 +21,14 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.libreplan.business.common.daos.IGenericDAO;
+import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskGroup;
 
@@ -44,4 +48,16 @@ public interface ITaskElementDAO extends IGenericDAO<TaskElement, Long> {
 
     List<TaskElement> getTaskElementsWithParentsWithoutMilestones();
 
+    /**
+     * Returns the current version of every {@link Task} by its id, without loading the tasks.
+     */
+    Map<Long, Long> getVersionsOfTasks();
+
+    /**
+     * Returns the ids of the tasks of the order elements of the direct advance assignments with the given ids, and of
+     * the tasks of their ancestors, whose advance adds up the ones of their children. If some of the advance
+     * assignments have been removed the tasks they affected can't be known, so <code>null</code> is returned.
+     */
+    Set<Long> getIdsOfTasksOfAdvanceAssignments(Collection<Long> advanceAssignmentIds);
+
 }
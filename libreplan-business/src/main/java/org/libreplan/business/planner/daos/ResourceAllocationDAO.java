@@ -23,12 +23,15 @@ package org.libreplan.business.planner.daos;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
@@ -58,6 +61,32 @@ public class ResourceAllocationDAO
         extends GenericDAOHibernate<ResourceAllocation, Long>
         implements IResourceAllocationDAO {
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Long> getIdsOfAllocationsOfTasks(Collection<Long> taskIds) {
+        if ( taskIds.isEmpty() ) {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(getSession()
+                .createQuery("select r.id from ResourceAllocation r where r.task.id in (:taskIds)")
+                .setParameterList("taskIds", taskIds)
+                .list());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Long> getIdsOfTasksOfAllocations(Collection<Long> allocationIds) {
+        if ( allocationIds.isEmpty() ) {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(getSession()
+                .createQuery("select r.task.id from ResourceAllocation r where r.id in (:allocationIds)")
+                .setParameterList("allocationIds", allocationIds)
+                .list());
+    }
+
     @Override
     public List<ResourceAllocation<?>> findAllocationsRelatedToAnyOf(Scenario onScenario, List<Resource> resources) {
         List<ResourceAllocation<?>> result = new ArrayList<>();
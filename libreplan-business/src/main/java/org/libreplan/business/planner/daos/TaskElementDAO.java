@@ -21,8 +21,13 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Criteria;
 import org.hibernate.Hibernate;
@@ -155,4 +160,47 @@ public class TaskElementDAO extends GenericDAOHibernate<TaskElement, Long> imple
         return query.list();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, Long> getVersionsOfTasks() {
+        Map<Long, Long> result = new HashMap<>();
+        for (Object[] each : (List<Object[]>) getSession().createQuery("select t.id, t.version from Task t").list()) {
+            result.put((Long) each[0], (Long) each[1]);
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Long> getIdsOfTasksOfAdvanceAssignments(Collection<Long> advanceAssignmentIds) {
+        if ( advanceAssignmentIds.isEmpty() ) {
+            return new HashSet<>();
+        }
+
+        List<Long> orderElementIds = getSession()
+                .createQuery("select a.orderElement.id from DirectAdvanceAssignment a where a.id in (:ids)")
+                .setParameterList("ids", advanceAssignmentIds)
+                .list();
+        if ( orderElementIds.size() < advanceAssignmentIds.size() ) {
+            return null;
+        }
+
+        Set<Long> withAncestors = new HashSet<>(orderElementIds);
+        Set<Long> parents = withAncestors;
+        while ( !parents.isEmpty() ) {
+            parents = new HashSet<>(getSession()
+                    .createQuery("select e.parent.id from OrderElement e where e.id in (:ids) and e.parent is not null")
+                    .setParameterList("ids", parents)
+                    .list());
+            parents.removeAll(withAncestors);
+            withAncestors.addAll(parents);
+        }
+
+        return new HashSet<>(getSession()
+                .createQuery("select s.task.id from TaskSource s where s.schedulingData.orderElement.id in (:ids)")
+                .setParameterList("ids", withAncestors)
+                .list());
+    }
+
 }
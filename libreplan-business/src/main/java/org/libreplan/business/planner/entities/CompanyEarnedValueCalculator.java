@@ -23,7 +23,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -31,7 +31,8 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine.Interval;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
-import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.planner.chart.TaskCosts.TaskCost;
+import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -52,39 +53,25 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     @Transactional(readOnly = true)
     public SortedMap<LocalDate, BigDecimal> calculateBudgetedCostWorkScheduled(AvailabilityTimeLine.Interval interval) {
 
-        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> estimatedCostPerTask =
-                databaseSnapshots.snapshotEstimatedCostPerTask();
-
-        Collection<TaskElement> list = filterTasksByDate(estimatedCostPerTask.keySet(), interval);
+        Collection<TaskCost> list = filterTasksByDate(databaseSnapshots.snapshotTaskCosts().getAll(), interval);
         SortedMap<LocalDate, BigDecimal> estimatedCost = new TreeMap<LocalDate, BigDecimal>();
 
-        for (TaskElement each : list) {
-            addCost(estimatedCost, estimatedCostPerTask.get(each));
+        for (TaskCost each : list) {
+            addCost(estimatedCost, each.getEstimatedCost());
         }
         return accumulateResult(estimatedCost);
     }
 
-    private List<TaskElement> filterTasksByDate(Collection<TaskElement> tasks, AvailabilityTimeLine.Interval interval) {
-        List<TaskElement> result = new ArrayList<TaskElement>();
-        for(TaskElement task : tasks) {
-            if ( interval.includes(task.getStartAsLocalDate()) || interval.includes(task.getEndAsLocalDate()) ) {
+    private List<TaskCost> filterTasksByDate(Collection<TaskCost> tasks, AvailabilityTimeLine.Interval interval) {
+        List<TaskCost> result = new ArrayList<TaskCost>();
+        for(TaskCost task : tasks) {
+            if ( interval.includes(task.getStart()) || interval.includes(task.getEnd()) ) {
                 result.add(task);
             }
         }
         return result;
     }
 
-    private List<WorkReportLine> filterWorkReportLinesByDate(Collection<WorkReportLine> lines,
-                                                             AvailabilityTimeLine.Interval interval) {
-        List<WorkReportLine> result = new ArrayList<WorkReportLine>();
-        for(WorkReportLine line: lines) {
-            if ( interval.includes(line.getLocalDate()) ) {
-                result.add(line);
-            }
-        }
-        return result;
-    }
-
     private void addCost(SortedMap<LocalDate, BigDecimal> currentCost,
                          SortedMap<LocalDate, BigDecimal> additionalCost) {
 
@@ -117,23 +104,17 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     public SortedMap<LocalDate, BigDecimal> calculateActualCostWorkPerformed(
             Interval interval) {
         SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        Collection<WorkReportLine> workReportLines = filterWorkReportLinesByDate(
-                databaseSnapshots.snapshotWorkReportLines(),
-                interval);
+        SortedMap<LocalDate, EffortDuration> effortPerDay = databaseSnapshots
+                .snapshotWorkReportEffortCube().getEffortPerDay(null, null);
 
-        if (workReportLines.isEmpty()) {
-            return result;
+        for (Entry<LocalDate, EffortDuration> each : effortPerDay.entrySet()) {
+            if (interval.includes(each.getKey())) {
+                result.put(each.getKey(), each.getValue().toHoursAsDecimalWithScale(2));
+            }
         }
 
-        for (WorkReportLine workReportLine : workReportLines) {
-            LocalDate day = new LocalDate(workReportLine.getDate());
-            BigDecimal cost = workReportLine.getEffort()
-                    .toHoursAsDecimalWithScale(2);
-
-            if (!result.containsKey(day)) {
-                result.put(day, BigDecimal.ZERO);
-            }
-            result.put(day, result.get(day).add(cost));
+        if (result.isEmpty()) {
+            return result;
         }
         return accumulateResult(result);
     }
@@ -141,14 +122,12 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     @Override
     public SortedMap<LocalDate, BigDecimal> calculateBudgetedCostWorkPerformed(
             Interval interval) {
-        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> advanceCostPerTask = databaseSnapshots
-                .snapshotAdvanceCostPerTask();
-        Collection<TaskElement> tasks = filterTasksByDate(
-                advanceCostPerTask.keySet(), interval);
+        Collection<TaskCost> tasks = filterTasksByDate(
+                databaseSnapshots.snapshotTaskCosts().getAll(), interval);
 
         SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        for (TaskElement each : tasks) {
-            addCost(result, advanceCostPerTask.get(each));
+        for (TaskCost each : tasks) {
+            addCost(result, each.getAdvanceCost());
         }
         return result;
     }
@@ -307,6 +307,9 @@ public abstract class DayAssignment extends BaseEntity {
 
     public final boolean belongsToSomeOf(Map<Long, Set<BaseEntity>> allocations) {
         BaseEntity parent = getParent();
+        if (parent == null) {
+            return false;
+        }
         if (parent.getId() == null) {
             Set<BaseEntity> entitiesWithNullId = allocations.get(null);
             return entitiesWithNullId != null
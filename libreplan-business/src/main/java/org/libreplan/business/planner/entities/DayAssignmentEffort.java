@@ -0,0 +1,66 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.entities;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Lightweight projection of a {@link DayAssignment}.
+ * It is used to aggregate the load of many day assignments without loading them as entities.
+ * <p>
+ * For {@link DerivedDayAssignment derived assignments} the allocation is the {@link ResourceAllocation} their
+ * {@link DerivedAllocation} is derived from.
+ * </p>
+ */
+public class DayAssignmentEffort {
+
+    private final Long allocationId;
+
+    private final Long resourceId;
+
+    private final LocalDate day;
+
+    private final EffortDuration duration;
+
+    public DayAssignmentEffort(Long allocationId, Long resourceId, LocalDate day, EffortDuration duration) {
+        this.allocationId = allocationId;
+        this.resourceId = resourceId;
+        this.day = day;
+        this.duration = duration;
+    }
+
+    public Long getAllocationId() {
+        return allocationId;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public EffortDuration getDuration() {
+        return duration;
+    }
+
+}
@@ -101,7 +101,6 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
     }
 
     @Valid
-    @SuppressWarnings("unused")
     private Set<GenericDayAssignmentsContainer> getGenericDayAssignmentsContainers() {
         return new HashSet<>(genericDayAssignmentsContainers);
     }
@@ -305,6 +304,11 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
         }
     }
 
+    @Override
+    protected Collection<GenericDayAssignmentsContainer> getAssignmentsContainers() {
+        return getGenericDayAssignmentsContainers();
+    }
+
     @Override
     public void copyAssignments(Scenario from, Scenario to) {
         GenericDayAssignmentsContainer fromContainer = retrieveOrCreateContainerFor(from);
@@ -20,6 +20,7 @@
 package org.libreplan.business.planner.entities;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 import org.libreplan.business.orders.entities.OrderElement;
 
@@ -100,4 +101,16 @@ public interface IMoneyCostCalculator {
      */
     BigDecimal getExpensesMoneyCost(OrderElement orderElement);
 
+    /**
+     * Returns the same than {@link #getHoursMoneyCost(OrderElement)} for the
+     * given {@link OrderElement} and for each one of its descendants,
+     * calculated at once.
+     *
+     * @param The
+     *            {@link OrderElement} root of the elements
+     * @return Money cost of the hours of each element and all its children
+     */
+    Map<OrderElement, BigDecimal> getHoursMoneyCostOfEachElement(
+            OrderElement orderElement);
+
 }
@@ -20,9 +20,8 @@
 package org.libreplan.business.planner.entities;
 
 import org.libreplan.business.orders.entities.Order;
-import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.chart.EffortDurationDaysLine;
 import org.libreplan.business.resources.entities.IAssignmentsOnResourceCalculator;
-import org.libreplan.business.workingday.EffortDuration;
 
 
 /**
@@ -30,20 +29,23 @@ import org.libreplan.business.workingday.EffortDuration;
  * @author Diego Pino García <dpino@igalia.com>
  *
  *         Utility class for calculating 'Resource Load' values from an Order
+ *
+ *         The returned lines are kept until the order is set again, so they
+ *         must be copied before being modified.
  */
 public interface IOrderResourceLoadCalculator {
 
     void setOrder(Order order,
             IAssignmentsOnResourceCalculator assignmentsOnResourceCalculator);
 
-    ContiguousDaysLine<EffortDuration> getMaxCapacityOnResources();
+    EffortDurationDaysLine getMaxCapacityOnResources();
 
-    ContiguousDaysLine<EffortDuration> getOrderLoad();
+    EffortDurationDaysLine getOrderLoad();
 
-    ContiguousDaysLine<EffortDuration> getAllLoad();
+    EffortDurationDaysLine getAllLoad();
 
-    ContiguousDaysLine<EffortDuration> getOrderOverload();
+    EffortDurationDaysLine getOrderOverload();
 
-    ContiguousDaysLine<EffortDuration> getAllOverload();
+    EffortDurationDaysLine getAllOverload();
 
 }
@@ -21,14 +21,24 @@ package org.libreplan.business.planner.entities;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.libreplan.business.costcategories.daos.IHourCostDAO;
+import org.libreplan.business.costcategories.entities.HourlyRateTimeline;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
-import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.ReportedEffort;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -40,8 +50,14 @@ import org.springframework.stereotype.Component;
  * Money cost is calculated checking the hours reported for that task and using
  * the cost category of each resource in the different dates.<br />
  *
- * Money cost is stored in a map that will be cached in memeroy. This map could
- * be reseted when needed with method {@code resetMoneyCostMap}.
+ * The money cost of the hours of each order element is kept in a ledger shared
+ * by all the users. Each entry remembers the {@link WorkReportLinesVersion} of
+ * the own lines of the element and the entries of its children it was added up
+ * from. So when some lines change only the cost of their order element is
+ * calculated again, and the costs of its ancestors are added up again from the
+ * entries of their children. The changes in the cost categories are not
+ * detected, the ledger could be reseted when needed with method
+ * {@code resetMoneyCostMap}.
  *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
@@ -56,36 +72,51 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
     @Autowired
     private IHourCostDAO hourCostDAO;
 
-    private Map<OrderElement, MoneyCost> moneyCostTotalMap = new HashMap<OrderElement, MoneyCost>();
+    private final ConcurrentMap<Long, HoursCost> hoursCostLedger = new ConcurrentHashMap<>();
 
-    private class MoneyCost {
-        private BigDecimal costOfHours;
-        private BigDecimal costOfExpenses;
+    /**
+     * The money cost of the hours of an order element and its descendants. It
+     * is immutable, so it can be shared between threads.
+     */
+    private static class HoursCost {
 
-        public MoneyCost() {
-        }
+        private final WorkReportLinesVersion ownLinesVersion;
 
-        public void setCostOfHours(BigDecimal costOfHours) {
-            this.costOfHours = costOfHours;
-        }
+        private final BigDecimal ownCost;
 
-        public BigDecimal getCostOfHours() {
-            return costOfHours;
-        }
+        private final List<HoursCost> children;
 
-        public void setCostOfExpenses(BigDecimal costOfExpenses) {
-            this.costOfExpenses = costOfExpenses;
-        }
+        private final BigDecimal total;
+
+        private HoursCost(WorkReportLinesVersion ownLinesVersion, BigDecimal ownCost, List<HoursCost> children) {
+            this.ownLinesVersion = ownLinesVersion;
+            this.ownCost = ownCost;
+            this.children = children;
 
-        public BigDecimal getCostOfExpenses() {
-            return costOfExpenses;
+            BigDecimal result = BigDecimal.ZERO.setScale(2);
+            for (HoursCost each : children) {
+                result = result.add(each.total);
+            }
+            this.total = result.add(ownCost).setScale(2, RoundingMode.HALF_UP);
         }
 
+        boolean isUpToDate(WorkReportLinesVersion currentOwnLinesVersion, List<HoursCost> currentChildren) {
+            if (!ownLinesVersion.equals(currentOwnLinesVersion)
+                    || children.size() != currentChildren.size()) {
+                return false;
+            }
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i) != currentChildren.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     @Override
     public void resetMoneyCostMap() {
-        moneyCostTotalMap = new HashMap<OrderElement, MoneyCost>();
+        hoursCostLedger.clear();
     }
 
     @Override
@@ -107,51 +138,137 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
 
     @Override
     public BigDecimal getHoursMoneyCost(OrderElement orderElement) {
-        MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
-        if (moneyCost != null) {
-            BigDecimal result = moneyCost.getCostOfHours();
-            if (result != null) {
-                return result;
+        return getHoursMoneyCostOfEachElement(orderElement).get(orderElement);
+    }
+
+    @Override
+    public Map<OrderElement, BigDecimal> getHoursMoneyCostOfEachElement(
+            OrderElement orderElement) {
+        Set<Long> ids = new HashSet<>();
+        collectIds(orderElement, ids);
+        Map<Long, WorkReportLinesVersion> linesVersions = workReportLineDAO
+                .getLinesVersionsByOrderElement(ids);
+
+        Set<Long> outdated = new HashSet<>();
+        for (Long each : ids) {
+            WorkReportLinesVersion version = linesVersionOf(each, linesVersions);
+            HoursCost current = hoursCostLedger.get(each);
+            if (version.hasLines()
+                    && (current == null || !current.ownLinesVersion.equals(version))) {
+                outdated.add(each);
             }
         }
 
-        BigDecimal result = BigDecimal.ZERO.setScale(2);
+        Map<OrderElement, BigDecimal> result = new IdentityHashMap<>();
+        addUp(orderElement, linesVersions,
+                getMoneyCostFromOwnWorkReportLines(outdated), result);
+        return result;
+    }
+
+    private static void collectIds(OrderElement orderElement, Set<Long> ids) {
+        if (orderElement.getId() != null) {
+            ids.add(orderElement.getId());
+        }
         for (OrderElement each : orderElement.getChildren()) {
-            result = result.add(getHoursMoneyCost(each));
+            collectIds(each, ids);
         }
+    }
 
-        result = result.add(getMoneyCostFromOwnWorkReportLines(orderElement))
-                .setScale(2, RoundingMode.HALF_UP);
+    private static WorkReportLinesVersion linesVersionOf(Long orderElementId,
+            Map<Long, WorkReportLinesVersion> linesVersions) {
+        WorkReportLinesVersion result = linesVersions.get(orderElementId);
+        return result != null ? result : WorkReportLinesVersion.none();
+    }
 
-        if (moneyCost == null) {
-            moneyCost = new MoneyCost();
+    /**
+     * Returns the entry of the ledger for the element if it is up to date, or
+     * creates a new one from the entries of the children. The elements not
+     * saved yet have no lines and are not kept in the ledger.
+     */
+    private HoursCost addUp(OrderElement orderElement,
+            Map<Long, WorkReportLinesVersion> linesVersions,
+            Map<Long, BigDecimal> calculatedOwnCosts,
+            Map<OrderElement, BigDecimal> totals) {
+        List<HoursCost> children = new ArrayList<>();
+        for (OrderElement each : orderElement.getChildren()) {
+            children.add(addUp(each, linesVersions, calculatedOwnCosts, totals));
         }
-        moneyCost.setCostOfHours(result);
-        moneyCostTotalMap.put(orderElement, moneyCost);
+
+        HoursCost result = ledgerEntryFor(orderElement, children,
+                linesVersions, calculatedOwnCosts);
+        totals.put(orderElement, result.total);
         return result;
     }
 
-    private BigDecimal getMoneyCostFromOwnWorkReportLines(OrderElement orderElement) {
-        List<WorkReportLine> workReportLines = workReportLineDAO
-                .findByOrderElement(orderElement);
+    private HoursCost ledgerEntryFor(OrderElement orderElement,
+            List<HoursCost> children,
+            Map<Long, WorkReportLinesVersion> linesVersions,
+            Map<Long, BigDecimal> calculatedOwnCosts) {
+        Long id = orderElement.getId();
+        if (id == null) {
+            return new HoursCost(WorkReportLinesVersion.none(),
+                    BigDecimal.ZERO.setScale(2), children);
+        }
 
-        BigDecimal result = BigDecimal.ZERO.setScale(2);
-        for (WorkReportLine workReportLine : workReportLines) {
-            BigDecimal priceCost = hourCostDAO
-                    .getPriceCostFromResourceDateAndType(
-                            workReportLine.getResource(),
-                            workReportLine.getLocalDate(),
-                            workReportLine.getTypeOfWorkHours());
-
-            // If cost undefined via CostCategory get it from type
-            if (priceCost == null) {
-                priceCost = workReportLine.getTypeOfWorkHours()
-                        .getDefaultPrice();
-            }
+        WorkReportLinesVersion version = linesVersionOf(id, linesVersions);
+        HoursCost current = hoursCostLedger.get(id);
+        if (current != null && current.isUpToDate(version, children)) {
+            return current;
+        }
+
+        HoursCost result = new HoursCost(version,
+                ownCost(id, version, current, calculatedOwnCosts), children);
+        hoursCostLedger.put(id, result);
+        return result;
+    }
 
-            BigDecimal cost = priceCost.multiply(workReportLine.getEffort()
+    private BigDecimal ownCost(Long id, WorkReportLinesVersion version,
+            HoursCost current, Map<Long, BigDecimal> calculatedOwnCosts) {
+        if (!version.hasLines()) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        if (calculatedOwnCosts.containsKey(id)) {
+            return calculatedOwnCosts.get(id);
+        }
+        if (current != null && current.ownLinesVersion.equals(version)) {
+            return current.ownCost;
+        }
+        // The entry has been removed meanwhile by another thread
+        return getMoneyCostFromOwnWorkReportLines(Collections.singleton(id)).get(id);
+    }
+
+    /**
+     * Calculates with two queries the cost of the own lines of the given order
+     * elements, using the {@link HourlyRateTimeline} of the resources of the
+     * lines instead of querying the price of each line.
+     */
+    private Map<Long, BigDecimal> getMoneyCostFromOwnWorkReportLines(
+            Collection<Long> orderElementIds) {
+        Map<Long, BigDecimal> result = new HashMap<>();
+        if (orderElementIds.isEmpty()) {
+            return result;
+        }
+
+        List<ReportedEffort> efforts = workReportLineDAO
+                .getReportedEfforts(orderElementIds);
+        Set<Long> resourceIds = new HashSet<>();
+        for (ReportedEffort each : efforts) {
+            resourceIds.add(each.getResourceId());
+        }
+        HourlyRateTimeline rates = hourCostDAO.getHourlyRateTimeline(resourceIds);
+
+        for (Long each : orderElementIds) {
+            result.put(each, BigDecimal.ZERO.setScale(2));
+        }
+        for (ReportedEffort each : efforts) {
+            // If cost undefined via CostCategory it is the default of the type
+            BigDecimal priceCost = rates.getPrice(each.getResourceId(),
+                    each.getTypeOfWorkHoursId(), each.getDay());
+
+            BigDecimal cost = priceCost.multiply(each.getEffort()
                     .toHoursAsDecimalWithScale(2));
-            result = result.add(cost);
+            result.put(each.getOrderElementId(),
+                    result.get(each.getOrderElementId()).add(cost));
         }
 
         return result;
@@ -174,26 +291,12 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
 
     @Override
     public BigDecimal getExpensesMoneyCost(OrderElement orderElement) {
-        MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
-        if (moneyCost != null) {
-            BigDecimal result = moneyCost.getCostOfExpenses();
-            if (result != null) {
-                return result;
-            }
-        }
-
         BigDecimal result = BigDecimal.ZERO.setScale(2);
         if ((orderElement.getSumExpenses()) != null) {
             result = result.add(orderElement.getSumExpenses().getTotalDirectExpenses());
             result = result.add(orderElement.getSumExpenses().getTotalIndirectExpenses()).setScale(
                     2, RoundingMode.HALF_UP);
         }
-
-        if (moneyCost == null) {
-            moneyCost = new MoneyCost();
-        }
-        moneyCost.setCostOfExpenses(result);
-        moneyCostTotalMap.put(orderElement, moneyCost);
         return result;
     }
 
@@ -30,11 +30,11 @@ import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.planner.chart.ContiguousDaysLine;
 import org.libreplan.business.planner.chart.ContiguousDaysLine.OnDay;
+import org.libreplan.business.planner.chart.EffortDurationDaysLine;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
 import org.libreplan.business.planner.entities.DayAssignment.FilterType;
 import org.libreplan.business.resources.entities.IAssignmentsOnResourceCalculator;
 import org.libreplan.business.resources.entities.Resource;
-import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -51,19 +51,26 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
 
     private IAssignmentsOnResourceCalculator assignmentsOnResourceCalculator;
 
+    private List<DayAssignment> orderDayAssignments;
+
     private ContiguousDaysLine<List<DayAssignment>> orderAssignments;
 
-    private ContiguousDaysLine<List<DayAssignment>> filteredAssignments;
+    private List<DayAssignment> filteredAssignments;
+
+    /**
+     * The days of the order assignments. All the lines cover these days.
+     */
+    private EffortDurationDaysLine days;
 
-    private ContiguousDaysLine<EffortDuration> maxCapacityOnResources;
+    private EffortDurationDaysLine maxCapacityOnResources;
 
-    private ContiguousDaysLine<EffortDuration> orderLoad;
+    private EffortDurationDaysLine orderLoad;
 
-    private ContiguousDaysLine<EffortDuration> allLoad;
+    private EffortDurationDaysLine allLoad;
 
-    private ContiguousDaysLine<EffortDuration> orderOverload;
+    private EffortDurationDaysLine orderOverload;
 
-    private ContiguousDaysLine<EffortDuration> allOverload;
+    private EffortDurationDaysLine allOverload;
 
     @Override
     public void setOrder(Order order,
@@ -74,8 +81,10 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
     }
 
     private void initializeValues() {
+        orderDayAssignments = null;
         orderAssignments = null;
         filteredAssignments = null;
+        days = null;
         maxCapacityOnResources = null;
         orderLoad = null;
         allLoad = null;
@@ -84,43 +93,56 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getMaxCapacityOnResources() {
+    public EffortDurationDaysLine getMaxCapacityOnResources() {
         if (maxCapacityOnResources == null) {
-            maxCapacityOnResources = getOrderAssignments()
-                     .transform(ResourceLoadChartData
-                             .extractAvailabilityOnAssignedResources());
+            maxCapacityOnResources = ResourceLoadChartData
+                    .capacityOfAssignedResourcesOn(getDays(),
+                            getOrderDayAssignments());
         }
         return maxCapacityOnResources;
     }
 
+    private List<DayAssignment> getOrderDayAssignments() {
+        if (orderDayAssignments == null) {
+            orderDayAssignments = order
+                    .getDayAssignments(FilterType.WITHOUT_DERIVED);
+        }
+        return orderDayAssignments;
+    }
+
+    private EffortDurationDaysLine getDays() {
+        if (days == null) {
+            days = EffortDurationDaysLine.spanning(getOrderDayAssignments());
+        }
+        return days;
+    }
+
     private ContiguousDaysLine<List<DayAssignment>> getOrderAssignments() {
         if (orderAssignments == null) {
-            List<DayAssignment> orderDayAssignments = order
-                    .getDayAssignments(FilterType.WITHOUT_DERIVED);
-            orderAssignments = ContiguousDaysLine.byDay(orderDayAssignments);
+            orderAssignments = ContiguousDaysLine.byDay(getOrderDayAssignments());
         }
         return orderAssignments;
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getOrderLoad() {
+    public EffortDurationDaysLine getOrderLoad() {
         if (orderLoad == null) {
-            orderLoad = getOrderAssignments()
-                     .transform(ResourceLoadChartData.extractLoad());
+            orderLoad = getDays().sameDaysAtZero().addAssignments(
+                    getOrderDayAssignments());
         }
         return orderLoad;
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getAllLoad() {
+    public EffortDurationDaysLine getAllLoad() {
         if (allLoad == null) {
-            allLoad = getFilteredAssignments()
-                     .transform(ResourceLoadChartData.extractLoad());
+            allLoad = getDays().sameDaysAtZero().addAssignments(
+                    getFilteredAssignments());
         }
         return allLoad;
     }
 
-    private ContiguousDaysLine<List<DayAssignment>> getFilteredAssignments() {
+    private List<DayAssignment> getFilteredAssignments() {
         if (filteredAssignments == null) {
             ContiguousDaysLine<List<DayAssignment>> allAssignments = allAssignments(getOrderAssignments());
             filteredAssignments = filterAllAssignmentsByOrderResources(
@@ -129,7 +151,7 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
         return filteredAssignments;
     }
 
-    private ContiguousDaysLine<List<DayAssignment>> filterAllAssignmentsByOrderResources(
+    private List<DayAssignment> filterAllAssignmentsByOrderResources(
             ContiguousDaysLine<List<DayAssignment>> allAssignments,
             ContiguousDaysLine<List<DayAssignment>> orderAssignments) {
         List<DayAssignment> filteredAssignments = new ArrayList<DayAssignment>();
@@ -142,7 +164,7 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
             filteredAssignments.addAll(filterAssignmentsByResource(
                     allAssignments.get(onDay.getDay()), resources));
         }
-        return ContiguousDaysLine.byDay(filteredAssignments);
+        return filteredAssignments;
     }
 
     private List<DayAssignment> filterAssignmentsByResource(
@@ -198,19 +220,19 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getOrderOverload() {
+    public EffortDurationDaysLine getOrderOverload() {
         if (orderOverload == null) {
-            orderOverload = getOrderAssignments()
-                     .transform(ResourceLoadChartData.extractOverload());
+            orderOverload = ResourceLoadChartData.overloadOn(getDays(),
+                    getOrderDayAssignments());
         }
         return orderOverload;
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getAllOverload() {
+    public EffortDurationDaysLine getAllOverload() {
         if (allOverload == null) {
-            allOverload = getFilteredAssignments()
-                     .transform(ResourceLoadChartData.extractOverload());
+            allOverload = ResourceLoadChartData.overloadOn(getDays(),
+                    getFilteredAssignments());
         }
         return allOverload;
     }
@@ -2004,6 +2004,22 @@ public abstract class ResourceAllocation<T extends DayAssignment>
 
     public abstract void makeAssignmentsContainersDontPoseAsTransientAnyMore();
 
+    protected abstract Collection<? extends IDayAssignmentsContainer<T>> getAssignmentsContainers();
+
+    /**
+     * The containers of the day assignments of this allocation and of its derived allocations, for all the scenarios.
+     */
+    public List<BaseEntity> getAllAssignmentsContainers() {
+        List<BaseEntity> result = new ArrayList<>();
+        for (IDayAssignmentsContainer<T> each : getAssignmentsContainers()) {
+            result.add((BaseEntity) each);
+        }
+        for (DerivedAllocation each : getDerivedAllocations()) {
+            result.addAll(each.getContainers());
+        }
+        return result;
+    }
+
     public void removePredecessorsDayAssignmentsFor(Scenario scenario) {
         for (DerivedAllocation each : getDerivedAllocations()) {
             each.removePredecessorContainersFor(scenario);
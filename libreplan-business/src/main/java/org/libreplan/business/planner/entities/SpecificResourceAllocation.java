@@ -22,6 +22,7 @@
 package org.libreplan.business.planner.entities;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -265,6 +266,11 @@ public class SpecificResourceAllocation extends ResourceAllocation<SpecificDayAs
         }
     }
 
+    @Override
+    protected Collection<SpecificDayAssignmentsContainer> getAssignmentsContainers() {
+        return getSpecificDayAssignmentsContainers();
+    }
+
     @Override
     public void copyAssignments(Scenario from, Scenario to) {
         SpecificDayAssignmentsContainer fromContainer = retrieveOrCreateContainerFor(from);
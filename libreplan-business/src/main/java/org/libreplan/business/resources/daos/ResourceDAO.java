@@ -26,9 +26,12 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
+import org.hibernate.Criteria;
 import org.hibernate.Query;
+import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.reports.dtos.HoursWorkedPerResourceDTO;
@@ -38,6 +41,7 @@ import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.LimitingResourceQueue;
 import org.libreplan.business.resources.entities.Machine;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.VirtualWorker;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.workingday.EffortDuration;
@@ -284,4 +288,14 @@ public class ResourceDAO extends IntegrationEntityDAO<Resource> implements IReso
         return result;
     }
 
+    /**
+     * Virtual workers are not exported.
+     */
+    @Override
+    protected Criteria createIntegrationCriteria() {
+        return super.createIntegrationCriteria().add(
+                Subqueries.propertyNotIn("id", DetachedCriteria.forClass(VirtualWorker.class)
+                        .setProjection(Projections.id())));
+    }
+
 }
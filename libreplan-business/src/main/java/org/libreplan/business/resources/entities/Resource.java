@@ -133,7 +133,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private Set<DayAssignment> dayAssignments = new HashSet<DayAssignment>();
 
-    private Map<LocalDate, List<DayAssignment>> assignmentsByDayCached = null;
+    private ResourceLoadIndex loadIndex = null;
 
     private Set<ResourcesCostCategoryAssignment> resourcesCostCategoryAssignments =
             new HashSet<ResourcesCostCategoryAssignment>();
@@ -142,27 +142,45 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private LimitingResourceQueue limitingResourceQueue;
 
-    private void clearCachedData() {
-        assignmentsByDayCached = null;
-        dayAssignmentsState.clearCachedData();
-    }
-
-    private List<DayAssignment> getAssignmentsForDay(LocalDate date) {
-        if ( assignmentsByDayCached == null ) {
-            assignmentsByDayCached = DayAssignment.byDay(getAssignments());
+    private ResourceLoadIndex getLoadIndex() {
+        if ( loadIndex == null ) {
+            loadIndex = ResourceLoadIndex.create(this);
         }
-        List<DayAssignment> list = assignmentsByDayCached.get(date);
-        if ( list == null ){
-            return Collections.emptyList();
-        }
-        return list;
+        return loadIndex;
     }
 
     private abstract class DayAssignmentsState {
 
         private List<DayAssignment> cachedAssignments;
 
-        abstract List<DayAssignment> calculateAssignments();
+        abstract boolean isIncluded(DayAssignment assignment);
+
+        abstract Scenario getIncludedScenario();
+
+        /**
+         * If the assignments whose scenario is not known yet, because they don't have a container, are included
+         */
+        abstract boolean areWithoutScenarioIncluded();
+
+        EffortDuration getAssignedEffort(LocalDate day) {
+            return getLoadIndex().getAssignedEffort(getIncludedScenario(), areWithoutScenarioIncluded(), day);
+        }
+
+        EffortDuration getAssignedEffortDiscounting(Map<Long, Set<BaseEntity>> allocationsFromWhichDiscountHours,
+                                                    LocalDate day) {
+            return getLoadIndex().getAssignedEffortDiscounting(
+                    allocationsFromWhichDiscountHours, getIncludedScenario(), areWithoutScenarioIncluded(), day);
+        }
+
+        List<DayAssignment> calculateAssignments() {
+            List<DayAssignment> result = new ArrayList<DayAssignment>();
+            for (DayAssignment each : dayAssignments) {
+                if ( isIncluded(each) ) {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
 
         List<DayAssignment> getAssignments() {
             if ( cachedAssignments != null ) {
@@ -179,15 +197,19 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     private class UsingScenarioManager extends DayAssignmentsState {
 
         @Override
-        List<DayAssignment> calculateAssignments() {
-            List<DayAssignment> result = new ArrayList<DayAssignment>();
+        boolean isIncluded(DayAssignment assignment) {
             Scenario current = Registry.getScenarioManager().getCurrent();
-            for (DayAssignment each : dayAssignments) {
-                if ( each.getScenario() != null && each.getScenario().equals(current) ) {
-                    result.add(each);
-                }
-            }
-            return result;
+            return assignment.getScenario() != null && assignment.getScenario().equals(current);
+        }
+
+        @Override
+        Scenario getIncludedScenario() {
+            return Registry.getScenarioManager().getCurrent();
+        }
+
+        @Override
+        boolean areWithoutScenarioIncluded() {
+            return false;
         }
     }
 
@@ -200,19 +222,23 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         }
 
         @Override
-        List<DayAssignment> calculateAssignments() {
-            List<DayAssignment> result = new ArrayList<DayAssignment>();
-            for (DayAssignment each : dayAssignments) {
-                if ( isTransient(each) || each.getScenario().equals(currentScenario) ) {
-                    result.add(each);
-                }
-            }
-            return result;
+        boolean isIncluded(DayAssignment assignment) {
+            return isTransient(assignment) || assignment.getScenario().equals(currentScenario);
         }
 
         private boolean isTransient(DayAssignment each) {
             return each.getScenario() == null;
         }
+
+        @Override
+        Scenario getIncludedScenario() {
+            return currentScenario;
+        }
+
+        @Override
+        boolean areWithoutScenarioIncluded() {
+            return true;
+        }
     }
 
     private DayAssignmentsState dayAssignmentsState = new UsingScenarioManager();
@@ -844,40 +870,58 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     }
 
     public EffortDuration getAssignedEffort(LocalDate localDate) {
-        return DayAssignment.sum(getAssignmentsForDay(localDate));
+        return dayAssignmentsState.getAssignedEffort(localDate);
     }
 
+    /**
+     * The provided map must not be modified once passed, since the effort of
+     * the allocations it contains is kept for the next calls with the same map
+     * until the assignments of the resource change.
+     */
     public EffortDuration getAssignedDurationDiscounting(
             Map<Long, Set<BaseEntity>> allocationsFromWhichDiscountHours,
             LocalDate day) {
 
-        EffortDuration result = zero();
-        for (DayAssignment dayAssignment : getAssignmentsForDay(day)) {
-
-            if ( !dayAssignment.belongsToSomeOf(allocationsFromWhichDiscountHours) ) {
-                result = result.plus(dayAssignment.getDuration());
-            }
-        }
-        return result;
+        return dayAssignmentsState.getAssignedEffortDiscounting(allocationsFromWhichDiscountHours, day);
     }
 
     public void addNewAssignments(Collection<? extends DayAssignment> assignments) {
         Validate.notNull(assignments);
         Validate.noNullElements(assignments);
-        clearCachedData();
-        this.dayAssignments.addAll(assignments);
+        List<DayAssignment> added = new ArrayList<DayAssignment>();
+        for (DayAssignment each : assignments) {
+            if ( this.dayAssignments.add(each) ) {
+                added.add(each);
+            }
+        }
+        dayAssignmentsState.clearCachedData();
+        if ( loadIndex != null ) {
+            loadIndex.addAll(added);
+        }
     }
 
     public void removeAssignments(Collection<? extends DayAssignment> assignments) {
         Validate.noNullElements(assignments);
-        clearCachedData();
-        this.dayAssignments.removeAll(assignments);
+        List<DayAssignment> removed = new ArrayList<DayAssignment>();
+        for (DayAssignment each : assignments) {
+            if ( this.dayAssignments.remove(each) ) {
+                removed.add(each);
+            }
+        }
+        dayAssignmentsState.clearCachedData();
+        if ( loadIndex != null ) {
+            loadIndex.removeAll(removed);
+        }
     }
 
     public List<DayAssignment> getAssignments() {
         return dayAssignmentsState.getAssignments();
     }
 
+    Collection<DayAssignment> getAssignmentsOfAllScenarios() {
+        return Collections.unmodifiableSet(dayAssignments);
+    }
+
     public void useScenario(Scenario scenario) {
         dayAssignmentsState = new OnSpecifiedScenario(scenario);
     }
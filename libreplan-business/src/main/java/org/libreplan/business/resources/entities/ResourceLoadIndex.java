@@ -0,0 +1,286 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.resources.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Effort assigned to a {@link Resource} for each day, kept in arrays indexed by the offset of the day.
+ * <p>
+ * It's updated incrementally when assignments are added or removed, so it's not recalculated from scratch after
+ * each modification.
+ * </p>
+ * <p>
+ * The effort is kept for each scenario, and the one to return is chosen when asked. An assignment can be added to
+ * the resource before its container is set, so its scenario is not known yet. Its effort is kept apart and moved to
+ * its scenario once it is known.
+ * </p>
+ * <p>
+ * The effort of the allocations to discount is kept too for the last discounting asked. The allocation algorithms
+ * ask many times for the effort discounting the same allocations, so after the first time the effort discounting
+ * them is a subtraction instead of traversing the assignments of the day. It's calculated again from the
+ * assignments after any of them is added or removed, since the allocations they belong to and their ids can have
+ * changed meanwhile.
+ * </p>
+ *
+ * @see Resource#getAssignedDurationDiscounting(Map, LocalDate)
+ */
+class ResourceLoadIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Seconds for each day since a start date. The array grows at both sides as needed.
+     */
+    private static class DaysSeconds {
+
+        private LocalDate start;
+
+        private int[] seconds;
+
+        int get(LocalDate day) {
+            if (start == null) {
+                return 0;
+            }
+            int index = Days.daysBetween(start, day).getDays();
+
+            return index >= 0 && index < seconds.length ? seconds[index] : 0;
+        }
+
+        void add(LocalDate day, int amount) {
+            if (start == null) {
+                start = day;
+                seconds = new int[INITIAL_CAPACITY];
+            }
+            int index = Days.daysBetween(start, day).getDays();
+
+            if (index < 0) {
+                int prepended = Math.max(-index, seconds.length);
+                int[] grown = new int[seconds.length + prepended];
+                System.arraycopy(seconds, 0, grown, prepended, seconds.length);
+
+                seconds = grown;
+                start = start.minusDays(prepended);
+                index += prepended;
+            } else if (index >= seconds.length) {
+                seconds = Arrays.copyOf(seconds, Math.max(seconds.length * 2, index + 1));
+            }
+            seconds[index] += amount;
+        }
+    }
+
+    private static class ScenarioSeconds {
+
+        private final Scenario scenario;
+
+        private final DaysSeconds seconds = new DaysSeconds();
+
+        private ScenarioSeconds(Scenario scenario) {
+            this.scenario = scenario;
+        }
+    }
+
+    static ResourceLoadIndex create(Resource resource) {
+        ResourceLoadIndex result = new ResourceLoadIndex(resource);
+        result.addAll(resource.getAssignmentsOfAllScenarios());
+
+        return result;
+    }
+
+    private final Resource resource;
+
+    /**
+     * There are only a few scenarios, and their hash code changes when they are saved, so they are not used as keys.
+     */
+    private final List<ScenarioSeconds> byScenario = new ArrayList<>();
+
+    private final Set<DayAssignment> withoutScenario = new HashSet<>();
+
+    private final DaysSeconds withoutScenarioSeconds = new DaysSeconds();
+
+    private Map<Long, Set<BaseEntity>> lastDiscounted;
+
+    private Scenario lastDiscountedScenario;
+
+    private boolean lastDiscountedWithoutScenario;
+
+    private DaysSeconds lastDiscountedSeconds;
+
+    private ResourceLoadIndex(Resource resource) {
+        this.resource = resource;
+    }
+
+    void addAll(Collection<? extends DayAssignment> assignments) {
+        for (DayAssignment each : assignments) {
+            add(each);
+        }
+        lastDiscounted = null;
+    }
+
+    void removeAll(Collection<? extends DayAssignment> assignments) {
+        for (DayAssignment each : assignments) {
+            remove(each);
+        }
+        lastDiscounted = null;
+    }
+
+    private void add(DayAssignment assignment) {
+        int seconds = assignment.getDuration().getSeconds();
+        Scenario scenario = assignment.getScenario();
+        if (scenario != null) {
+            secondsOf(scenario).add(assignment.getDay(), seconds);
+        } else if (withoutScenario.add(assignment)) {
+            withoutScenarioSeconds.add(assignment.getDay(), seconds);
+        }
+    }
+
+    /**
+     * The assignments are removed from the resource before being detached from their container, so their scenario is
+     * the one they were indexed with.
+     */
+    private void remove(DayAssignment assignment) {
+        int seconds = assignment.getDuration().getSeconds();
+        if (withoutScenario.remove(assignment)) {
+            withoutScenarioSeconds.add(assignment.getDay(), -seconds);
+        } else if (assignment.getScenario() != null) {
+            secondsOf(assignment.getScenario()).add(assignment.getDay(), -seconds);
+        }
+    }
+
+    private DaysSeconds secondsOf(Scenario scenario) {
+        ScenarioSeconds existent = find(scenario);
+        if (existent != null) {
+            return existent.seconds;
+        }
+        ScenarioSeconds result = new ScenarioSeconds(scenario);
+        byScenario.add(result);
+
+        return result.seconds;
+    }
+
+    private ScenarioSeconds find(Scenario scenario) {
+        for (ScenarioSeconds each : byScenario) {
+            if (each.scenario.equals(scenario)) {
+                return each;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Moves the effort of the assignments whose container has been set since they were added to their scenario.
+     */
+    private void moveToTheirScenario() {
+        if (withoutScenario.isEmpty()) {
+            return;
+        }
+        Iterator<DayAssignment> iterator = withoutScenario.iterator();
+        while (iterator.hasNext()) {
+            DayAssignment each = iterator.next();
+            if (each.getScenario() != null) {
+                iterator.remove();
+                int seconds = each.getDuration().getSeconds();
+                withoutScenarioSeconds.add(each.getDay(), -seconds);
+                secondsOf(each.getScenario()).add(each.getDay(), seconds);
+                lastDiscounted = null;
+            }
+        }
+    }
+
+    private int getSeconds(Scenario scenario, boolean withoutScenarioIncluded, LocalDate day) {
+        ScenarioSeconds ofScenario = scenario != null ? find(scenario) : null;
+        int result = ofScenario != null ? ofScenario.seconds.get(day) : 0;
+
+        return withoutScenarioIncluded ? result + withoutScenarioSeconds.get(day) : result;
+    }
+
+    /**
+     * @param scenario
+     *            the effort of the assignments of this scenario is returned
+     * @param withoutScenarioIncluded
+     *            if the effort of the assignments whose scenario is not known yet is included too
+     */
+    EffortDuration getAssignedEffort(Scenario scenario, boolean withoutScenarioIncluded, LocalDate day) {
+        moveToTheirScenario();
+
+        return EffortDuration.seconds(getSeconds(scenario, withoutScenarioIncluded, day));
+    }
+
+    /**
+     * The allocations to discount are matched like in {@link DayAssignment#belongsToSomeOf(Map)}. The given map must
+     * not be modified after calling this method, since the effort of the allocations it contains is kept for the next
+     * calls until the assignments change.
+     *
+     * @see #getAssignedEffort(Scenario, boolean, LocalDate)
+     */
+    EffortDuration getAssignedEffortDiscounting(Map<Long, Set<BaseEntity>> allocationsToDiscount,
+                                                Scenario scenario,
+                                                boolean withoutScenarioIncluded,
+                                                LocalDate day) {
+        if (allocationsToDiscount.isEmpty()) {
+            return getAssignedEffort(scenario, withoutScenarioIncluded, day);
+        }
+        moveToTheirScenario();
+        if (allocationsToDiscount != lastDiscounted
+                || !Objects.equals(scenario, lastDiscountedScenario)
+                || withoutScenarioIncluded != lastDiscountedWithoutScenario) {
+            discounting(allocationsToDiscount, scenario, withoutScenarioIncluded);
+        }
+
+        return EffortDuration.seconds(
+                getSeconds(scenario, withoutScenarioIncluded, day) - lastDiscountedSeconds.get(day));
+    }
+
+    private void discounting(Map<Long, Set<BaseEntity>> allocationsToDiscount,
+                             Scenario scenario,
+                             boolean withoutScenarioIncluded) {
+        DaysSeconds discounted = new DaysSeconds();
+        for (DayAssignment each : resource.getAssignmentsOfAllScenarios()) {
+            boolean included = each.getScenario() != null
+                    ? each.getScenario().equals(scenario)
+                    : withoutScenarioIncluded;
+            if (included && each.belongsToSomeOf(allocationsToDiscount)) {
+                discounted.add(each.getDay(), each.getDuration().getSeconds());
+            }
+        }
+
+        lastDiscounted = allocationsToDiscount;
+        lastDiscountedScenario = scenario;
+        lastDiscountedWithoutScenario = withoutScenarioIncluded;
+        lastDiscountedSeconds = discounted;
+    }
+
+}
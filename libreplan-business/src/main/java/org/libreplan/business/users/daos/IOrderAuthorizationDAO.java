@@ -110,4 +110,11 @@ public interface IOrderAuthorizationDAO extends IGenericDAO<OrderAuthorization,
     List<OrderAuthorization> listByOrderUserAndItsProfiles(Order order,
             User user);
 
+    /**
+     * Reads all the authorizations, and the profiles of all the users, with
+     * one query for each of them.
+     * @return {@link OrderAuthorizationsIndex} with all the authorizations
+     */
+    OrderAuthorizationsIndex createAuthorizationsIndex();
+
 }
@@ -22,14 +22,20 @@
 package org.libreplan.business.users.daos;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Criteria;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.Registry;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.users.daos.OrderAuthorizationsIndex.Grant;
 import org.libreplan.business.users.entities.OrderAuthorization;
+import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.Profile;
 import org.libreplan.business.users.entities.User;
 import org.springframework.stereotype.Repository;
@@ -117,4 +123,48 @@ public class OrderAuthorizationDAO extends GenericDAOHibernate<OrderAuthorizatio
         }
         return list;
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public OrderAuthorizationsIndex createAuthorizationsIndex() {
+        Map<String, Long> userIdsByLoginName = new HashMap<>();
+        for (Object[] each : (List<Object[]>) getSession()
+                .createQuery("SELECT u.id, u.loginName FROM User u")
+                .list()) {
+            userIdsByLoginName.put((String) each[1], (Long) each[0]);
+        }
+
+        Map<Long, Set<Long>> profileIdsByUser = new HashMap<>();
+        for (Object[] each : (List<Object[]>) getSession()
+                .createQuery("SELECT u.id, p.id FROM User u JOIN u.profiles p")
+                .list()) {
+            Set<Long> profiles = profileIdsByUser.get(each[0]);
+            if (profiles == null) {
+                profiles = new HashSet<>();
+                profileIdsByUser.put((Long) each[0], profiles);
+            }
+            profiles.add((Long) each[1]);
+        }
+
+        List<Grant> grants = new ArrayList<>();
+        for (Object[] each : (List<Object[]>) getSession()
+                .createQuery("SELECT a.user.id, a.order.id, a.authorizationType "
+                        + "FROM UserOrderAuthorization a "
+                        + "WHERE a.user IS NOT NULL AND a.order IS NOT NULL")
+                .list()) {
+            grants.add(Grant.toUser((Long) each[0], (Long) each[1],
+                    (OrderAuthorizationType) each[2]));
+        }
+        for (Object[] each : (List<Object[]>) getSession()
+                .createQuery("SELECT a.profile.id, a.order.id, a.authorizationType "
+                        + "FROM ProfileOrderAuthorization a "
+                        + "WHERE a.profile IS NOT NULL AND a.order IS NOT NULL")
+                .list()) {
+            grants.add(Grant.toProfile((Long) each[0], (Long) each[1],
+                    (OrderAuthorizationType) each[2]));
+        }
+
+        return OrderAuthorizationsIndex.create(userIdsByLoginName,
+                profileIdsByUser, grants);
+    }
 }
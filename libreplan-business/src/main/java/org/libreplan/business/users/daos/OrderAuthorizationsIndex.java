@@ -0,0 +1,205 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.users.daos;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.Validate;
+import org.libreplan.business.users.entities.OrderAuthorization;
+import org.libreplan.business.users.entities.OrderAuthorizationType;
+
+/**
+ * Immutable index of the {@link OrderAuthorization}s of all the users, given directly or through their profiles.
+ * The identifiers of the orders a user can read or write are calculated the first time they are asked for and kept
+ * while the index lives, so checking the authorizations of a long list of orders does not hit the database.
+ * <p>
+ * The roles of the user are not taken into account, the callers check them before.
+ */
+public class OrderAuthorizationsIndex {
+
+    public static class Grant {
+
+        public static Grant toUser(Long userId, Long orderId, OrderAuthorizationType type) {
+            return new Grant(userId, null, orderId, type);
+        }
+
+        public static Grant toProfile(Long profileId, Long orderId, OrderAuthorizationType type) {
+            return new Grant(null, profileId, orderId, type);
+        }
+
+        private final Long userId;
+
+        private final Long profileId;
+
+        private final Long orderId;
+
+        private final OrderAuthorizationType type;
+
+        private Grant(Long userId, Long profileId, Long orderId, OrderAuthorizationType type) {
+            Validate.isTrue(userId != null || profileId != null);
+            Validate.notNull(orderId);
+            Validate.notNull(type);
+            this.userId = userId;
+            this.profileId = profileId;
+            this.orderId = orderId;
+            this.type = type;
+        }
+
+        private boolean allowsWriting() {
+            return type == OrderAuthorizationType.WRITE_AUTHORIZATION;
+        }
+    }
+
+    private static class AuthorizedOrders {
+
+        private static final AuthorizedOrders NONE =
+                new AuthorizedOrders(Collections.<Long> emptySet(), Collections.<Long> emptySet());
+
+        private final Set<Long> readable;
+
+        private final Set<Long> writable;
+
+        private AuthorizedOrders(Set<Long> readable, Set<Long> writable) {
+            this.readable = Collections.unmodifiableSet(readable);
+            this.writable = Collections.unmodifiableSet(writable);
+        }
+    }
+
+    public static OrderAuthorizationsIndex create(Map<String, Long> userIdsByLoginName,
+                                                  Map<Long, ? extends Collection<Long>> profileIdsByUser,
+                                                  List<Grant> grants) {
+        return new OrderAuthorizationsIndex(userIdsByLoginName, profileIdsByUser, grants);
+    }
+
+    private final Map<String, Long> userIdsByLoginName;
+
+    private final Map<Long, Collection<Long>> profileIdsByUser = new HashMap<>();
+
+    private final Map<Long, Set<Long>> readableByUser = new HashMap<>();
+
+    private final Map<Long, Set<Long>> writableByUser = new HashMap<>();
+
+    private final Map<Long, Set<Long>> readableByProfile = new HashMap<>();
+
+    private final Map<Long, Set<Long>> writableByProfile = new HashMap<>();
+
+    private final ConcurrentMap<Long, AuthorizedOrders> authorizedByUser = new ConcurrentHashMap<>();
+
+    private OrderAuthorizationsIndex(Map<String, Long> userIdsByLoginName,
+                                     Map<Long, ? extends Collection<Long>> profileIdsByUser,
+                                     List<Grant> grants) {
+        this.userIdsByLoginName = new HashMap<>(userIdsByLoginName);
+        for (Map.Entry<Long, ? extends Collection<Long>> each : profileIdsByUser.entrySet()) {
+            this.profileIdsByUser.put(each.getKey(), new HashSet<>(each.getValue()));
+        }
+        for (Grant each : grants) {
+            if ( each.userId != null ) {
+                add(readableByUser, writableByUser, each.userId, each);
+            } else {
+                add(readableByProfile, writableByProfile, each.profileId, each);
+            }
+        }
+    }
+
+    private static void add(Map<Long, Set<Long>> readable, Map<Long, Set<Long>> writable, Long key, Grant grant) {
+        idsOf(readable, key).add(grant.orderId);
+        if ( grant.allowsWriting() ) {
+            idsOf(writable, key).add(grant.orderId);
+        }
+    }
+
+    private static Set<Long> idsOf(Map<Long, Set<Long>> map, Long key) {
+        Set<Long> result = map.get(key);
+        if ( result == null ) {
+            result = new HashSet<>();
+            map.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * The orders with a read or a write authorization for the user or for any of its profiles.
+     */
+    public Set<Long> getReadableOrderIds(String loginName) {
+        return authorizedOrdersOf(loginName).readable;
+    }
+
+    /**
+     * The orders with a write authorization for the user or for any of its profiles.
+     */
+    public Set<Long> getWritableOrderIds(String loginName) {
+        return authorizedOrdersOf(loginName).writable;
+    }
+
+    public boolean canRead(String loginName, Long orderId) {
+        return getReadableOrderIds(loginName).contains(orderId);
+    }
+
+    public boolean canWrite(String loginName, Long orderId) {
+        return getWritableOrderIds(loginName).contains(orderId);
+    }
+
+    public boolean hasAnyAuthorization(String loginName) {
+        return !getReadableOrderIds(loginName).isEmpty();
+    }
+
+    private AuthorizedOrders authorizedOrdersOf(String loginName) {
+        Long userId = loginName == null ? null : userIdsByLoginName.get(loginName);
+        if ( userId == null ) {
+            return AuthorizedOrders.NONE;
+        }
+        AuthorizedOrders result = authorizedByUser.get(userId);
+        if ( result == null ) {
+            result = calculateAuthorizedOrders(userId);
+            authorizedByUser.putIfAbsent(userId, result);
+        }
+
+        return result;
+    }
+
+    private AuthorizedOrders calculateAuthorizedOrders(Long userId) {
+        Set<Long> readable = new HashSet<>(get(readableByUser, userId));
+        Set<Long> writable = new HashSet<>(get(writableByUser, userId));
+        Collection<Long> profiles = profileIdsByUser.get(userId);
+        if ( profiles != null ) {
+            for (Long each : profiles) {
+                readable.addAll(get(readableByProfile, each));
+                writable.addAll(get(writableByProfile, each));
+            }
+        }
+
+        return new AuthorizedOrders(readable, writable);
+    }
+
+    private static Set<Long> get(Map<Long, Set<Long>> map, Long key) {
+        Set<Long> result = map.get(key);
+        return result != null ? result : Collections.<Long> emptySet();
+    }
+
+}
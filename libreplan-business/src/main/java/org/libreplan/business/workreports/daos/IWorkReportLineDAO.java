@@ -21,8 +21,10 @@
 
 package org.libreplan.business.workreports.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
@@ -31,6 +33,9 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.ReportedEffort;
+import org.libreplan.business.workreports.valueobjects.WorkReportEffortCube;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesVersion;
 
 /**
  * Dao for {@link WorkReportLine}
@@ -84,4 +89,26 @@ public interface IWorkReportLineDAO extends
     List<WorkReportLine> findByOrderElementAndChildrenFilteredByDate(
             OrderElement orderElement, Date start, Date end, boolean sortByDate);
 
+    /**
+     * Returns the {@link WorkReportEffortCube} lines of all the work report lines. The entities are not loaded.
+     */
+    List<WorkReportEffortCube.Line> getEffortCubeLines();
+
+    /**
+     * Like {@link #getEffortCubeLines()} but only for the work report lines with the given ids that still exist
+     */
+    List<WorkReportEffortCube.Line> getEffortCubeLines(Collection<Long> ids);
+
+    /**
+     * Returns the {@link WorkReportLinesVersion} of the own work report lines of each of the given order elements.
+     * The order elements without lines are not included.
+     */
+    Map<Long, WorkReportLinesVersion> getLinesVersionsByOrderElement(Collection<Long> orderElementIds);
+
+    /**
+     * Returns the {@link ReportedEffort} of each own work report line of the given order elements. The entities are
+     * not loaded.
+     */
+    List<ReportedEffort> getReportedEfforts(Collection<Long> orderElementIds);
+
 }
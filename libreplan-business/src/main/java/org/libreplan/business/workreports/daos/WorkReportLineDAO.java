@@ -25,18 +25,25 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
 import org.hibernate.criterion.Restrictions;
+import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.reports.dtos.WorkReportLineDTO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.ReportedEffort;
+import org.libreplan.business.workreports.valueobjects.WorkReportEffortCube;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesVersion;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
@@ -55,6 +62,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         implements IWorkReportLineDAO {
 
+    private static final String EFFORT_CUBE_LINES_QUERY = "select l.id, l.resource.id, l.orderElement.id, "
+            + "l.typeOfWorkHours.id, l.date, l.effort from WorkReportLine l";
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @SuppressWarnings("unchecked")
     @Override
     public List<WorkReportLine> findByOrderElement(OrderElement orderElement){
@@ -245,4 +257,83 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
 
     }
 
+    @Override
+    public List<WorkReportEffortCube.Line> getEffortCubeLines() {
+        return toEffortCubeLines(getSession().createQuery(EFFORT_CUBE_LINES_QUERY).list());
+    }
+
+    @Override
+    public List<WorkReportEffortCube.Line> getEffortCubeLines(Collection<Long> ids) {
+        if ( ids.isEmpty() ) {
+            return new ArrayList<>();
+        }
+
+        return toEffortCubeLines(getSession()
+                .createQuery(EFFORT_CUBE_LINES_QUERY + " where l.id in (:ids)")
+                .setParameterList("ids", ids)
+                .list());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WorkReportEffortCube.Line> toEffortCubeLines(List<?> rows) {
+        List<WorkReportEffortCube.Line> result = new ArrayList<>();
+        for (Object[] each : (List<Object[]>) rows) {
+            result.add(WorkReportEffortCube.Line.create(
+                    (Long) each[0],
+                    (Long) each[1],
+                    (Long) each[2],
+                    (Long) each[3],
+                    LocalDate.fromDateFields((Date) each[4]),
+                    (EffortDuration) each[5]));
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, WorkReportLinesVersion> getLinesVersionsByOrderElement(Collection<Long> orderElementIds) {
+        Map<Long, WorkReportLinesVersion> result = new HashMap<>();
+        List<Long> ids = new ArrayList<>(orderElementIds);
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            List<Object[]> rows = getSession()
+                    .createQuery("select l.orderElement.id, count(l), sum(l.id), sum(l.version) "
+                            + "from WorkReportLine l where l.orderElement.id in (:ids) group by l.orderElement.id")
+                    .setParameterList("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size())))
+                    .list();
+
+            for (Object[] each : rows) {
+                result.put((Long) each[0],
+                        WorkReportLinesVersion.create((Long) each[1], (Long) each[2], (Long) each[3]));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ReportedEffort> getReportedEfforts(Collection<Long> orderElementIds) {
+        List<ReportedEffort> result = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(orderElementIds);
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            List<Object[]> rows = getSession()
+                    .createQuery("select l.orderElement.id, l.resource.id, l.typeOfWorkHours.id, l.date, l.effort "
+                            + "from WorkReportLine l where l.orderElement.id in (:ids)")
+                    .setParameterList("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size())))
+                    .list();
+
+            for (Object[] each : rows) {
+                result.add(ReportedEffort.create(
+                        (Long) each[0],
+                        (Long) each[1],
+                        (Long) each[2],
+                        each[3] != null ? LocalDate.fromDateFields((Date) each[3]) : null,
+                        (EffortDuration) each[4]));
+            }
+        }
+
+        return result;
+    }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.valueobjects;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+
+/**
+ * The order element, resource, type of work hours, day and effort of a {@link WorkReportLine}, without loading it.
+ */
+public class ReportedEffort {
+
+    public static ReportedEffort create(Long orderElementId,
+                                        Long resourceId,
+                                        Long typeOfWorkHoursId,
+                                        LocalDate day,
+                                        EffortDuration effort) {
+
+        return new ReportedEffort(orderElementId, resourceId, typeOfWorkHoursId, day,
+                effort != null ? effort : EffortDuration.zero());
+    }
+
+    private final long orderElementId;
+
+    private final long resourceId;
+
+    private final long typeOfWorkHoursId;
+
+    private final LocalDate day;
+
+    private final EffortDuration effort;
+
+    private ReportedEffort(long orderElementId,
+                           long resourceId,
+                           long typeOfWorkHoursId,
+                           LocalDate day,
+                           EffortDuration effort) {
+        this.orderElementId = orderElementId;
+        this.resourceId = resourceId;
+        this.typeOfWorkHoursId = typeOfWorkHoursId;
+        this.day = day;
+        this.effort = effort;
+    }
+
+    public long getOrderElementId() {
+        return orderElementId;
+    }
+
+    public long getResourceId() {
+        return resourceId;
+    }
+
+    public long getTypeOfWorkHoursId() {
+        return typeOfWorkHoursId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public EffortDuration getEffort() {
+        return effort;
+    }
+
+}
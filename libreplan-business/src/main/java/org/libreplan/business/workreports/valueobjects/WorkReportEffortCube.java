@@ -0,0 +1,390 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.valueobjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+
+/**
+ * Effort of all the {@link WorkReportLine work report lines} added up by resource, order element, type of work hours
+ * and day, without keeping the entities.
+ * <p>
+ * It is immutable. {@link #withChanges(Collection, Collection)} returns a new cube sharing with this one the days and
+ * the lines not modified, so it can be updated from the modified lines without recalculating everything.
+ * <p>
+ * Each line only keeps its id, day and effort in primitive arrays, plus a reference to its cell. The cells are
+ * interned, so there is one instance per resource, order element and type of work hours.
+ */
+public class WorkReportEffortCube {
+
+    private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+    private static final int LINE_BUCKETS = 1024;
+
+    /**
+     * The dimensions and the effort of a work report line, used to create or update the cube but not kept by it
+     */
+    public static class Line {
+
+        public static Line create(Long id,
+                                  Long resourceId,
+                                  Long orderElementId,
+                                  Long typeOfWorkHoursId,
+                                  LocalDate day,
+                                  EffortDuration effort) {
+
+            return new Line(id, new Cell(resourceId, orderElementId, typeOfWorkHoursId),
+                    Days.daysBetween(EPOCH, day).getDays(), effort != null ? effort.getSeconds() : 0);
+        }
+
+        private static final Comparator<Line> BY_ID = Comparator.comparingLong(Line::getId);
+
+        private final long id;
+
+        private final Cell cell;
+
+        private final int day;
+
+        private final int seconds;
+
+        private Line(long id, Cell cell, int day, int seconds) {
+            this.id = id;
+            this.cell = cell;
+            this.day = day;
+            this.seconds = seconds;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    private static class Cell {
+
+        private final long resourceId;
+
+        private final long orderElementId;
+
+        private final long typeOfWorkHoursId;
+
+        private Cell(Long resourceId, Long orderElementId, Long typeOfWorkHoursId) {
+            this.resourceId = resourceId;
+            this.orderElementId = orderElementId;
+            this.typeOfWorkHoursId = typeOfWorkHoursId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if ( !(obj instanceof Cell) ) {
+                return false;
+            }
+            Cell other = (Cell) obj;
+
+            return resourceId == other.resourceId && orderElementId == other.orderElementId &&
+                    typeOfWorkHoursId == other.typeOfWorkHoursId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(resourceId) * 961 + Long.hashCode(orderElementId) * 31 +
+                    Long.hashCode(typeOfWorkHoursId);
+        }
+    }
+
+    /**
+     * The lines whose ids fall in a bucket, sorted by id. Each position of the arrays is a line.
+     */
+    private static class LinesBucket {
+
+        private static final LinesBucket EMPTY = new LinesBucket(0);
+
+        private final long[] ids;
+
+        private final Cell[] cells;
+
+        private final int[] days;
+
+        private final int[] seconds;
+
+        private LinesBucket(int size) {
+            ids = new long[size];
+            cells = new Cell[size];
+            days = new int[size];
+            seconds = new int[size];
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private int indexOf(long lineId) {
+            return Arrays.binarySearch(ids, lineId);
+        }
+
+        /**
+         * Returns a new bucket without the lines with the given ids and with the added ones, sorted by id
+         */
+        private LinesBucket merge(List<Line> addedSortedById, Set<Long> removedIds) {
+            int kept = 0;
+            for (long each : ids) {
+                if ( !removedIds.contains(each) ) {
+                    kept++;
+                }
+            }
+
+            LinesBucket result = new LinesBucket(kept + addedSortedById.size());
+            int i = 0;
+            int j = 0;
+            int position = 0;
+            while ( i < ids.length || j < addedSortedById.size() ) {
+                if ( i < ids.length && removedIds.contains(ids[i]) ) {
+                    i++;
+                } else if ( j == addedSortedById.size() ||
+                        (i < ids.length && ids[i] < addedSortedById.get(j).getId()) ) {
+                    result.set(position++, ids[i], cells[i], days[i], seconds[i]);
+                    i++;
+                } else {
+                    Line line = addedSortedById.get(j++);
+                    result.set(position++, line.getId(), line.cell, line.day, line.seconds);
+                }
+            }
+
+            return result;
+        }
+
+        private void set(int position, long id, Cell cell, int day, int seconds) {
+            this.ids[position] = id;
+            this.cells[position] = cell;
+            this.days[position] = day;
+            this.seconds[position] = seconds;
+        }
+    }
+
+    public static WorkReportEffortCube create(Collection<Line> lines) {
+        LinesBucket[] buckets = new LinesBucket[LINE_BUCKETS];
+        Arrays.fill(buckets, LinesBucket.EMPTY);
+
+        WorkReportEffortCube result = new WorkReportEffortCube(new TreeMap<>(), buckets, new ConcurrentHashMap<>());
+        result.apply(lines, Collections.emptySet());
+
+        return result;
+    }
+
+    public static WorkReportEffortCube empty() {
+        return create(Collections.<Line> emptyList());
+    }
+
+    private static int bucketOf(long lineId) {
+        return (int) Math.floorMod(lineId, (long) LINE_BUCKETS);
+    }
+
+    private static int toDay(LocalDate date) {
+        return Days.daysBetween(EPOCH, date).getDays();
+    }
+
+    private final TreeMap<Integer, Map<Cell, Integer>> secondsByDay;
+
+    private final LinesBucket[] linesByBucket;
+
+    /**
+     * Canonical instance of each cell, shared by the cubes updated from the same one
+     */
+    private final Map<Cell, Cell> internedCells;
+
+    /**
+     * Days already copied by this cube while it is being created from a previous one
+     */
+    private final Set<Integer> ownDays = new HashSet<>();
+
+    private WorkReportEffortCube(TreeMap<Integer, Map<Cell, Integer>> secondsByDay,
+                                 LinesBucket[] linesByBucket,
+                                 Map<Cell, Cell> internedCells) {
+        this.secondsByDay = secondsByDay;
+        this.linesByBucket = linesByBucket;
+        this.internedCells = internedCells;
+    }
+
+    /**
+     * Returns a new cube where the lines with the given ids have been replaced by the updated ones or removed.
+     */
+    public WorkReportEffortCube withChanges(Collection<Line> updated, Collection<Long> removedIds) {
+        if ( updated.isEmpty() && removedIds.isEmpty() ) {
+            return this;
+        }
+
+        WorkReportEffortCube result = new WorkReportEffortCube(
+                new TreeMap<>(secondsByDay), linesByBucket.clone(), internedCells);
+        result.apply(updated, removedIds);
+
+        return result;
+    }
+
+    /**
+     * Rebuilds only the buckets of the updated and removed lines, once each
+     */
+    private void apply(Collection<Line> updated, Collection<Long> removedIds) {
+        Map<Integer, Set<Long>> removedByBucket = new HashMap<>();
+        Map<Integer, List<Line>> addedByBucket = new HashMap<>();
+        for (Long each : removedIds) {
+            removedByBucket.computeIfAbsent(bucketOf(each), bucket -> new HashSet<>()).add(each);
+        }
+        for (Line each : updated) {
+            int bucket = bucketOf(each.getId());
+            removedByBucket.computeIfAbsent(bucket, key -> new HashSet<>()).add(each.getId());
+            addedByBucket.computeIfAbsent(bucket, key -> new ArrayList<>())
+                    .add(new Line(each.getId(), intern(each.cell), each.day, each.seconds));
+        }
+
+        for (Entry<Integer, Set<Long>> each : removedByBucket.entrySet()) {
+            LinesBucket previous = linesByBucket[each.getKey()];
+            for (Long id : each.getValue()) {
+                int position = previous.indexOf(id);
+                if ( position >= 0 ) {
+                    addSeconds(previous.days[position], previous.cells[position], -previous.seconds[position]);
+                }
+            }
+
+            List<Line> added = addedByBucket.getOrDefault(each.getKey(), Collections.emptyList());
+            added.sort(Line.BY_ID);
+            for (Line line : added) {
+                addSeconds(line.day, line.cell, line.seconds);
+            }
+            linesByBucket[each.getKey()] = previous.merge(added, each.getValue());
+        }
+        ownDays.clear();
+    }
+
+    private Cell intern(Cell cell) {
+        Cell previous = internedCells.putIfAbsent(cell, cell);
+        return previous != null ? previous : cell;
+    }
+
+    private void addSeconds(int day, Cell cell, int seconds) {
+        Map<Cell, Integer> cells = secondsByDay.get(day);
+        if ( cells == null ) {
+            cells = new HashMap<>();
+            secondsByDay.put(day, cells);
+            ownDays.add(day);
+        } else if ( ownDays.add(day) ) {
+            cells = new HashMap<>(cells);
+            secondsByDay.put(day, cells);
+        }
+
+        Integer previous = cells.get(cell);
+        int total = (previous != null ? previous : 0) + seconds;
+        if ( total == 0 ) {
+            cells.remove(cell);
+        } else {
+            cells.put(cell, total);
+        }
+
+        if ( cells.isEmpty() ) {
+            secondsByDay.remove(day);
+        }
+    }
+
+    /**
+     * Effort of all the lines per day. The bounds can be <code>null</code> to not limit the days.
+     */
+    public SortedMap<LocalDate, EffortDuration> getEffortPerDay(LocalDate startInclusive, LocalDate endExclusive) {
+        return effortPerDay(startInclusive, endExclusive, cell -> true);
+    }
+
+    /**
+     * Effort per day of the lines of the given order elements, usually a task and all its descendants.
+     */
+    public SortedMap<LocalDate, EffortDuration> getEffortPerDayOfOrderElements(Collection<Long> orderElementIds) {
+        Set<Long> ids = new HashSet<>(orderElementIds);
+        return effortPerDay(null, null, cell -> ids.contains(cell.orderElementId));
+    }
+
+    /**
+     * Effort per day of the lines of the given resource. The bounds can be <code>null</code> to not limit the days.
+     */
+    public SortedMap<LocalDate, EffortDuration> getEffortPerDayOfResource(Long resourceId,
+                                                                          LocalDate startInclusive,
+                                                                          LocalDate endExclusive) {
+        return effortPerDay(startInclusive, endExclusive, cell -> cell.resourceId == resourceId);
+    }
+
+    /**
+     * Effort of the lines of the given resource in the period. The bounds can be <code>null</code> to not limit it.
+     */
+    public EffortDuration getEffortOfResource(Long resourceId, LocalDate startInclusive, LocalDate endExclusive) {
+        return EffortDuration.sum(getEffortPerDayOfResource(resourceId, startInclusive, endExclusive).values(),
+                each -> each);
+    }
+
+    private SortedMap<LocalDate, EffortDuration> effortPerDay(LocalDate startInclusive,
+                                                              LocalDate endExclusive,
+                                                              Predicate<Cell> included) {
+
+        SortedMap<Integer, Map<Cell, Integer>> days = secondsByDay;
+        if ( startInclusive != null ) {
+            days = days.tailMap(toDay(startInclusive));
+        }
+        if ( endExclusive != null ) {
+            days = days.headMap(toDay(endExclusive));
+        }
+
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        for (Entry<Integer, Map<Cell, Integer>> day : days.entrySet()) {
+            int seconds = 0;
+            for (Entry<Cell, Integer> each : day.getValue().entrySet()) {
+                if ( included.test(each.getKey()) ) {
+                    seconds += each.getValue();
+                }
+            }
+            if ( seconds != 0 ) {
+                result.put(EPOCH.plusDays(day.getKey()), EffortDuration.seconds(seconds));
+            }
+        }
+
+        return result;
+    }
+
+    public int getNumberOfLines() {
+        int result = 0;
+        for (LinesBucket each : linesByBucket) {
+            result += each.size();
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.valueobjects;
+
+import org.libreplan.business.workreports.entities.WorkReportLine;
+
+/**
+ * Summary of the {@link WorkReportLine work report lines} of an order element that changes whenever one of them is
+ * added, removed or modified: the number of lines, the sum of their ids and the sum of their versions.
+ */
+public class WorkReportLinesVersion {
+
+    private static final WorkReportLinesVersion NONE = new WorkReportLinesVersion(0, 0, 0);
+
+    public static WorkReportLinesVersion none() {
+        return NONE;
+    }
+
+    public static WorkReportLinesVersion create(Long count, Long idsSum, Long versionsSum) {
+        return new WorkReportLinesVersion(valueOf(count), valueOf(idsSum), valueOf(versionsSum));
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private final long count;
+
+    private final long idsSum;
+
+    private final long versionsSum;
+
+    private WorkReportLinesVersion(long count, long idsSum, long versionsSum) {
+        this.count = count;
+        this.idsSum = idsSum;
+        this.versionsSum = versionsSum;
+    }
+
+    public boolean hasLines() {
+        return count > 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( !(obj instanceof WorkReportLinesVersion) ) {
+            return false;
+        }
+        WorkReportLinesVersion other = (WorkReportLinesVersion) obj;
+
+        return count == other.count && idsSum == other.idsSum && versionsSum == other.versionsSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(count) * 961 + Long.hashCode(idsSum) * 31 + Long.hashCode(versionsSum);
+    }
+
+}
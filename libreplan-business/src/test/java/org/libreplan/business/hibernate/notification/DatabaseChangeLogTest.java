@@ -0,0 +1,238 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.resources.entities.Worker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Tests for {@link DatabaseChangeLog}. The entries are written and read through the test database, as two nodes
+ * sharing it would do.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class DatabaseChangeLogTest {
+
+    private static final int WRITERS = 8;
+
+    private static final int TRANSACTIONS_PER_WRITER = 25;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private long lastIdBefore;
+
+    private DatabaseChangeLog writer;
+
+    private DatabaseChangeLog reader;
+
+    private final List<Connection> pending = new ArrayList<>();
+
+    @Before
+    public void startNodes() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT MAX(id) FROM entity_change_log");
+             ResultSet resultSet = statement.executeQuery()) {
+
+            lastIdBefore = resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+        writer = new DatabaseChangeLog(dataSource);
+        writer.start();
+        reader = new DatabaseChangeLog(dataSource);
+        reader.start();
+    }
+
+    @After
+    public void removeEntries() throws SQLException {
+        for (Connection each : pending) {
+            each.rollback();
+            each.close();
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "DELETE FROM entity_change_log WHERE id > ?")) {
+
+            statement.setLong(1, lastIdBefore);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Records the modification in a transaction left open, as a transaction that has not committed yet
+     */
+    private Connection appendWithoutCommitting(Class<?> entityClass, long id) throws SQLException {
+        Connection result = dataSource.getConnection();
+        pending.add(result);
+        result.setAutoCommit(false);
+        writer.append(result, ModifiedEntities.of(entityClass, id), Collections.singletonList(entityClass));
+
+        return result;
+    }
+
+    private void commit(Connection connection) throws SQLException {
+        pending.remove(connection);
+        connection.commit();
+        connection.close();
+    }
+
+    private void rollback(Connection connection) throws SQLException {
+        pending.remove(connection);
+        connection.rollback();
+        connection.close();
+    }
+
+    private void append(Class<?> entityClass, long id) throws SQLException {
+        commit(appendWithoutCommitting(entityClass, id));
+    }
+
+    @Test
+    public void theEntriesOfTheOtherNodesAreReadOnce() throws SQLException {
+        append(Worker.class, 1L);
+        append(Order.class, 2L);
+
+        ModifiedEntities read = reader.readNewEntries();
+
+        assertEquals(Collections.singleton(1L), read.getIdsOf(Worker.class));
+        assertEquals(Collections.singleton(2L), read.getIdsOf(Order.class));
+        assertTrue(reader.readNewEntries().isEmpty());
+        assertTrue(writer.readNewEntries().isEmpty());
+    }
+
+    @Test
+    public void theEntriesAppendedConcurrentlyAreAllReadOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch startTogether = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            final long firstId = i * TRANSACTIONS_PER_WRITER;
+            writers.add(executor.submit(() -> {
+                startTogether.await();
+                for (long id = firstId; id < firstId + TRANSACTIONS_PER_WRITER; id++) {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.setAutoCommit(false);
+                        writer.append(connection, ModifiedEntities.of(Worker.class, id),
+                                Collections.singletonList(Worker.class));
+                        Thread.sleep(id % 3);
+                        connection.commit();
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        List<Long> read = new ArrayList<>();
+        startTogether.countDown();
+        for (Future<?> each : writers) {
+            while (!each.isDone()) {
+                read.addAll(reader.readNewEntries().getIdsOf(Worker.class));
+            }
+            each.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        read.addAll(reader.readNewEntries().getIdsOf(Worker.class));
+
+        assertEquals(WRITERS * TRANSACTIONS_PER_WRITER, read.size());
+        assertEquals(WRITERS * TRANSACTIONS_PER_WRITER, new HashSet<>(read).size());
+    }
+
+    @Test
+    public void anEntryCommittedAfterTheFollowingOnesIsReadWhenItFillsTheGap() throws SQLException {
+        Connection slow = appendWithoutCommitting(Worker.class, 1L);
+        append(Worker.class, 2L);
+
+        assertEquals(Collections.singleton(2L), reader.readNewEntries().getIdsOf(Worker.class));
+
+        commit(slow);
+        append(Worker.class, 3L);
+
+        Set<Long> read = reader.readNewEntries().getIdsOf(Worker.class);
+        assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), read);
+        assertTrue(reader.readNewEntries().isEmpty());
+    }
+
+    @Test
+    public void aGapNotFilledBeforeTheTimeoutIsConsideredRolledBack() throws SQLException {
+        long now = System.currentTimeMillis();
+        Connection rolledBack = appendWithoutCommitting(Worker.class, 1L);
+        append(Worker.class, 2L);
+
+        assertEquals(Collections.singleton(2L), reader.readNewEntries(now).getIdsOf(Worker.class));
+
+        rollback(rolledBack);
+        long afterTimeout = now + DatabaseChangeLog.MISSING_ENTRY_TIMEOUT_MS + 1;
+        assertTrue(reader.readNewEntries(afterTimeout).isEmpty());
+
+        append(Worker.class, 3L);
+        assertEquals(Collections.singleton(3L), reader.readNewEntries(afterTimeout).getIdsOf(Worker.class));
+    }
+
+    @Test
+    public void trimmingTheEntriesNotReadByALaggingNodeDoesNotStopItsReading() throws SQLException {
+        long now = System.currentTimeMillis();
+        append(Worker.class, 1L);
+        assertEquals(Collections.singleton(1L), reader.readNewEntries(now).getIdsOf(Worker.class));
+
+        append(Worker.class, 2L);
+        append(Worker.class, 3L);
+        writer.trim(now + DatabaseChangeLog.RETENTION_MS + 1000);
+
+        append(Worker.class, 4L);
+        assertEquals(Collections.singleton(4L), reader.readNewEntries(now).getIdsOf(Worker.class));
+
+        long afterTimeout = now + DatabaseChangeLog.MISSING_ENTRY_TIMEOUT_MS + 1;
+        assertTrue(reader.readNewEntries(afterTimeout).isEmpty());
+
+        append(Worker.class, 5L);
+        assertEquals(Collections.singleton(5L), reader.readNewEntries(afterTimeout).getIdsOf(Worker.class));
+    }
+
+}
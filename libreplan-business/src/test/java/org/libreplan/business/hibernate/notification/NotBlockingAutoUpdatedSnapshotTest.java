@@ -0,0 +1,115 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link NotBlockingAutoUpdatedSnapshot}.
+ */
+public class NotBlockingAutoUpdatedSnapshotTest {
+
+    private ReloadScheduler scheduler;
+
+    private ExecutorService readers;
+
+    private final AtomicInteger source = new AtomicInteger(1);
+
+    @Before
+    public void createScheduler() {
+        scheduler = new ReloadScheduler();
+        readers = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void shutdownScheduler() {
+        readers.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    private NotBlockingAutoUpdatedSnapshot<Integer> loadedSnapshot(long debounceMillis, boolean invalidatedOnCommit) {
+        NotBlockingAutoUpdatedSnapshot<Integer> result = new NotBlockingAutoUpdatedSnapshot<>(
+                "test", source::get, null, debounceMillis, Long.MAX_VALUE, invalidatedOnCommit);
+        result.ensureFirstLoad(scheduler);
+        assertEquals(1, (int) result.getValue());
+
+        return result;
+    }
+
+    private void modify(NotBlockingAutoUpdatedSnapshot<?> snapshot) {
+        snapshot.reloadNeeded(scheduler, ModifiedEntities.of(Object.class, 1L));
+    }
+
+    @Test
+    public void aValueInvalidatedOnCommitIsNotReadStale() {
+        NotBlockingAutoUpdatedSnapshot<Integer> snapshot = loadedSnapshot(0, true);
+
+        source.set(2);
+        modify(snapshot);
+
+        assertEquals(2, (int) snapshot.getValue());
+    }
+
+    @Test
+    public void theReadersWaitForTheCalculationOfAnInvalidatedValue() throws Exception {
+        final CountDownLatch calculationAllowed = new CountDownLatch(1);
+        final NotBlockingAutoUpdatedSnapshot<Integer> snapshot = new NotBlockingAutoUpdatedSnapshot<>(
+                "test", () -> {
+                    if ( source.get() > 1 ) {
+                        calculationAllowed.await();
+                    }
+                    return source.get();
+                }, null, 0, Long.MAX_VALUE, true);
+        snapshot.ensureFirstLoad(scheduler);
+        assertEquals(1, (int) snapshot.getValue());
+
+        source.set(2);
+        modify(snapshot);
+        Future<Integer> read = readers.submit(snapshot::getValue);
+
+        Thread.sleep(100);
+        assertFalse(read.isDone());
+
+        calculationAllowed.countDown();
+        assertEquals(2, (int) read.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void aValueNotInvalidatedOnCommitIsReadStaleUntilReloaded() {
+        NotBlockingAutoUpdatedSnapshot<Integer> snapshot = loadedSnapshot(TimeUnit.HOURS.toMillis(1), false);
+
+        source.set(2);
+        modify(snapshot);
+
+        assertEquals(1, (int) snapshot.getValue());
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ReloadScheduler}.
+ */
+public class ReloadSchedulerTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private ReloadScheduler scheduler;
+
+    private final AtomicInteger calculations = new AtomicInteger();
+
+    @Before
+    public void createScheduler() {
+        scheduler = new ReloadScheduler();
+    }
+
+    @After
+    public void shutdownScheduler() {
+        scheduler.shutdown();
+    }
+
+    private NotBlockingAutoUpdatedSnapshot<Integer> loadedSnapshot(long debounceMillis, long maxStalenessMillis) {
+        NotBlockingAutoUpdatedSnapshot<Integer> result = new NotBlockingAutoUpdatedSnapshot<>(
+                "test", calculations::incrementAndGet, null, debounceMillis, maxStalenessMillis, false);
+        result.ensureFirstLoad(scheduler);
+        result.getValue();
+        assertEquals(1, calculations.get());
+
+        return result;
+    }
+
+    private void modify(NotBlockingAutoUpdatedSnapshot<?> snapshot) {
+        snapshot.reloadNeeded(scheduler, ModifiedEntities.of(Object.class, 1L));
+    }
+
+    private void waitForCalculations(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (calculations.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, calculations.get());
+    }
+
+    @Test
+    public void theReloadIsNotLaunchedUntilTheDebounceTimeHasPassed() throws InterruptedException {
+        NotBlockingAutoUpdatedSnapshot<Integer> snapshot = loadedSnapshot(500, Long.MAX_VALUE);
+
+        modify(snapshot);
+        Thread.sleep(200);
+
+        assertEquals(1, calculations.get());
+        waitForCalculations(2);
+    }
+
+    @Test
+    public void theReloadIsLaunchedAtOnceWithoutDebounce() throws InterruptedException {
+        NotBlockingAutoUpdatedSnapshot<Integer> snapshot = loadedSnapshot(0, Long.MAX_VALUE);
+
+        modify(snapshot);
+
+        waitForCalculations(2);
+    }
+
+    @Test
+    public void theModificationsDoneWhileDebouncingCauseOnlyOneReload() throws InterruptedException {
+        NotBlockingAutoUpdatedSnapshot<Integer> snapshot = loadedSnapshot(300, Long.MAX_VALUE);
+
+        for (int i = 0; i < 5; i++) {
+            modify(snapshot);
+            Thread.sleep(50);
+        }
+        waitForCalculations(2);
+        Thread.sleep(600);
+
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    public void theReloadIsLaunchedWhenTheMaxStalenessIsReachedAlthoughModificationsContinue()
+            throws InterruptedException {
+
+        NotBlockingAutoUpdatedSnapshot<Integer> snapshot = loadedSnapshot(300, 600);
+
+        long end = System.currentTimeMillis() + 1500;
+        while (System.currentTimeMillis() < end) {
+            modify(snapshot);
+            Thread.sleep(50);
+        }
+
+        assertTrue(calculations.get() >= 2);
+    }
+
+}
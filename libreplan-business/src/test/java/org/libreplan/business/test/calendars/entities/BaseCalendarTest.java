@@ -838,4 +838,31 @@ public class BaseCalendarTest {
         AvailabilityTimeLine availability = calendar.getAvailability();
         assertFalse(availability.isValid(MONDAY_LOCAL_DATE));
     }
+
+    @Test
+    public void theCapacityOfDerivedCalendarsIsUpdatedWhenAnAncestorChanges() {
+        BaseCalendar calendar = createBasicCalendar();
+        BaseCalendar derived = calendar.newDerivedCalendar().newDerivedCalendar();
+
+        assertThat(derived.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(hours(8)));
+
+        addExceptionOn(calendar, WEDNESDAY_LOCAL_DATE, Capacity.zero());
+        assertThat(derived.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(zero()));
+
+        calendar.removeExceptionDay(WEDNESDAY_LOCAL_DATE);
+        calendar.setCapacityAt(Days.MONDAY, withNormalDuration(hours(4)));
+        assertThat(derived.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(hours(8)));
+        assertThat(derived.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(4)));
+    }
+
+    @Test
+    public void theOwnExceptionsOverrideTheInheritedOnes() {
+        BaseCalendar calendar = createChristmasCalendar();
+        BaseCalendar derived = calendar.newDerivedCalendar();
+        addExceptionOn(derived, CHRISTMAS_DAY_LOCAL_DATE, withNormalDuration(hours(3)));
+
+        assertThat(derived.getCapacityOn(wholeDay(CHRISTMAS_DAY_LOCAL_DATE)), equalTo(hours(3)));
+        assertThat(calendar.getCapacityOn(wholeDay(CHRISTMAS_DAY_LOCAL_DATE)), equalTo(zero()));
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.common;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.libreplan.business.common.SearchIndex;
+import org.libreplan.business.common.SearchIndex.Entry;
+
+public class SearchIndexTest {
+
+    private SearchIndex index = SearchIndex.create(asList(
+            Entry.create(1L, null, "P1", "P1", "Building"),
+            Entry.create(2L, 1L, "P1-T1", "P1-T1", "Foundations"),
+            Entry.create(3L, 2L, "P1-T2", "P1-T2", "Walls"),
+            Entry.create(4L, null, "P2", "P2", "Bridge"),
+            Entry.create(5L, 4L, "P2-T1", "P2-T1", "Pillars of the bridge")));
+
+    @Test
+    public void anEmptyTextReturnsTheFirstEntriesBySortKey() {
+        assertThat(index.search("", 3), equalTo(asList(1L, 2L, 3L)));
+        assertThat(index.search(null, 10), equalTo(asList(1L, 2L, 3L, 4L, 5L)));
+    }
+
+    @Test
+    public void theTextIsSearchedIgnoringCase() {
+        assertThat(index.search("WALL", 10), equalTo(singletonList(3L)));
+        assertThat(index.search("  foundations ", 10), equalTo(singletonList(2L)));
+    }
+
+    @Test
+    public void theTextCanBeInTheMiddleOfAnyOfTheTexts() {
+        assertThat(index.search("unda", 10), equalTo(singletonList(2L)));
+        assertThat(index.search("t2", 10), equalTo(singletonList(3L)));
+    }
+
+    @Test
+    public void textsShorterThanATrigramAreAlsoFound() {
+        assertThat(index.search("w", 10), equalTo(singletonList(3L)));
+        assertThat(index.search("ri", 10), equalTo(asList(4L, 5L)));
+    }
+
+    @Test
+    public void theEntriesWhichRootMatchesAreFound() {
+        assertThat(index.search("building", 10), equalTo(asList(1L, 2L, 3L)));
+    }
+
+    @Test
+    public void theEntriesWhichIntermediateAncestorMatchesAreNotFound() {
+        assertThat(index.search("foundations", 10), equalTo(singletonList(2L)));
+    }
+
+    @Test
+    public void allTheTrigramsMustBePresentInTheSameText() {
+        assertThat(index.search("p1building", 10), equalTo(emptyList()));
+        assertThat(index.search("bridges", 10), equalTo(emptyList()));
+    }
+
+    @Test
+    public void theNumberOfResultsIsLimited() {
+        assertThat(index.search("p", 2), equalTo(asList(1L, 2L)));
+    }
+
+    @Test
+    public void theResultsCanBeFiltered() {
+        assertThat(index.search("p", 10, each -> each.getParentId() == null), equalTo(asList(1L, 4L)));
+    }
+
+    @Test
+    public void theRootOfAnEntryCanBeRetrieved() {
+        assertThat(index.getRoot(3L).getText(1), equalTo("Building"));
+        assertThat(index.getRoot(4L).getId(), equalTo(4L));
+        assertThat(index.getRoot(6L), nullValue());
+    }
+
+    @Test
+    public void changesCreateANewIndex() {
+        SearchIndex changed = index.withChanges(
+                asList(Entry.create(1L, null, "P1", "P1", "House"), Entry.create(6L, 4L, "P2-T2", "P2-T2", "Deck")),
+                singletonList(3L));
+
+        assertThat(changed.search("building", 10), equalTo(emptyList()));
+        assertThat(changed.search("house", 10), equalTo(asList(1L, 2L)));
+        assertThat(changed.search("bridge", 10), equalTo(asList(4L, 5L, 6L)));
+        assertThat(changed.getEntry(3L), nullValue());
+        assertThat(index.search("building", 10), equalTo(asList(1L, 2L, 3L)));
+    }
+
+    @Test
+    public void anEntryWithoutItsParentInTheIndexIsARoot() {
+        SearchIndex withoutParent = SearchIndex.create(singletonList(Entry.create(2L, 1L, "T1", "T1", "Task")));
+
+        assertThat(withoutParent.getRoot(2L).getId(), equalTo(2L));
+        assertThat(withoutParent.search("task", 10), equalTo(singletonList(2L)));
+    }
+
+    @Test
+    public void aBigIndexIsSearchedByTrigrams() {
+        List<Entry> entries = new ArrayList<>();
+        for (long i = 0; i < 10000; i++) {
+            entries.add(Entry.create(i, null, String.format("%05d", i), "CODE-" + i, "Element " + i));
+        }
+        SearchIndex big = SearchIndex.create(entries);
+
+        assertThat(big.size(), equalTo(10000));
+        assertThat(big.search("code-9999", 10), equalTo(singletonList(9999L)));
+        assertThat(big.search("element 123", 3), equalTo(asList(123L, 1230L, 1231L)));
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.costcategories.entities;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.costcategories.entities.HourlyRateTimeline;
+import org.libreplan.business.costcategories.entities.HourlyRateTimeline.Rate;
+
+public class HourlyRateTimelineTest {
+
+    private static final LocalDate JANUARY = new LocalDate(2026, 1, 1);
+
+    private static final LocalDate FEBRUARY = new LocalDate(2026, 2, 1);
+
+    private static final LocalDate MARCH = new LocalDate(2026, 3, 1);
+
+    private final HourlyRateTimeline timeline = HourlyRateTimeline.create(
+            asList(Rate.create(1L, 10L, FEBRUARY, MARCH.minusDays(1), new BigDecimal(20)),
+                    Rate.create(1L, 10L, JANUARY, FEBRUARY.minusDays(1), new BigDecimal(10)),
+                    Rate.create(1L, 10L, MARCH.plusDays(10), null, new BigDecimal(30)),
+                    Rate.create(2L, 10L, JANUARY, null, new BigDecimal(40))),
+            singletonMap(10L, new BigDecimal(5)));
+
+    @Test
+    public void theRateOfThePeriodIncludingTheDayIsFound() {
+        assertThat(timeline.getRate(1, 10, JANUARY), equalTo(new BigDecimal(10)));
+        assertThat(timeline.getRate(1, 10, FEBRUARY.minusDays(1)), equalTo(new BigDecimal(10)));
+        assertThat(timeline.getRate(1, 10, FEBRUARY), equalTo(new BigDecimal(20)));
+        assertThat(timeline.getRate(1, 10, MARCH.plusYears(5)), equalTo(new BigDecimal(30)));
+        assertThat(timeline.getRate(2, 10, MARCH), equalTo(new BigDecimal(40)));
+    }
+
+    @Test
+    public void thereIsNoRateOutsideThePeriods() {
+        assertThat(timeline.getRate(1, 10, JANUARY.minusDays(1)), nullValue());
+        assertThat(timeline.getRate(1, 10, MARCH), nullValue());
+        assertThat(timeline.getRate(1, 11, FEBRUARY), nullValue());
+        assertThat(timeline.getRate(3, 10, FEBRUARY), nullValue());
+    }
+
+    @Test
+    public void theDefaultPriceOfTheTypeIsUsedWithoutRate() {
+        assertThat(timeline.getPrice(1, 10, MARCH), equalTo(new BigDecimal(5)));
+        assertThat(timeline.getPrice(1, 10, null), equalTo(new BigDecimal(5)));
+        assertThat(timeline.getPrice(1, 10, FEBRUARY), equalTo(new BigDecimal(20)));
+    }
+
+    @Test
+    public void theRateOfAnHourCostIsOnlyActiveDuringTheAssignment() {
+        assertThat(Rate.intersection(1L, 10L, JANUARY, FEBRUARY, MARCH, null, BigDecimal.ONE), nullValue());
+        assertThat(Rate.intersection(1L, 10L, null, null, JANUARY, null, BigDecimal.ONE), nullValue());
+
+        HourlyRateTimeline intersected = HourlyRateTimeline.create(
+                asList(Rate.intersection(1L, 10L, JANUARY, MARCH, FEBRUARY, null, BigDecimal.ONE)),
+                singletonMap(10L, BigDecimal.ZERO));
+
+        assertThat(intersected.getPrice(1, 10, FEBRUARY.minusDays(1)), equalTo(BigDecimal.ZERO));
+        assertThat(intersected.getPrice(1, 10, FEBRUARY), equalTo(BigDecimal.ONE));
+        assertThat(intersected.getPrice(1, 10, MARCH), equalTo(BigDecimal.ONE));
+        assertThat(intersected.getPrice(1, 10, MARCH.plusDays(1)), equalTo(BigDecimal.ZERO));
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.orders.daos;
+
+import static org.junit.Assert.assertEquals;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderFetchPlan;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test for {@link IOrderFetchPlan}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class OrderFetchPlanTest {
+
+    @Autowired
+    private IOrderFetchPlan orderFetchPlan;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Before
+    public void loadRequiredData() {
+        scenariosBootstrap.loadRequiredData();
+    }
+
+    private Order createOrder(int groups, int linesPerGroup) {
+        Order order = Order.create();
+        order.setName(UUID.randomUUID().toString());
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(new Date());
+        BaseCalendar basicCalendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(basicCalendar);
+        order.setCalendar(basicCalendar);
+        OrderVersion orderVersion = ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order);
+        orderDAO.save(order);
+        orderDAO.flush();
+        order.useSchedulingDataFor(orderVersion);
+
+        for (int i = 0; i < groups; i++) {
+            OrderLineGroup group = OrderLineGroup.create();
+            group.setName(UUID.randomUUID().toString());
+            group.setCode(UUID.randomUUID().toString());
+            order.add(group);
+
+            for (int j = 0; j < linesPerGroup; j++) {
+                OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(10);
+                line.setName(UUID.randomUUID().toString());
+                line.setCode(UUID.randomUUID().toString());
+                line.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+                group.add(line);
+            }
+        }
+        orderDAO.save(order);
+        orderDAO.flush();
+        sessionFactory.getCurrentSession().clear();
+
+        return order;
+    }
+
+    /**
+     * Loads the order with the fetch plan and walks its tree touching the collections mapped as not lazy
+     *
+     * @return the number of statements run
+     */
+    private long statementsToLoad(Order order) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        orderFetchPlan.loadOrderElements(order.getId());
+        Order loaded = orderDAO.findExistingEntity(order.getId());
+        for (OrderElement each : loaded.getAllChildren()) {
+            each.getCriterionRequirements().size();
+
+            for (HoursGroup hoursGroup : each.getHoursGroups()) {
+                hoursGroup.getCriterionRequirements().size();
+            }
+        }
+
+        long result = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        return result;
+    }
+
+    @Test
+    @Transactional
+    public void theWholeOrderTreeIsLoaded() {
+        Order order = createOrder(3, 4);
+
+        orderFetchPlan.loadOrderElements(order.getId());
+        Order loaded = orderDAO.findExistingEntity(order.getId());
+
+        assertEquals(3 + 3 * 4, loaded.getAllChildren().size());
+        assertEquals(3 * 4 * 10, loaded.getWorkHours().intValue());
+    }
+
+    @Test
+    @Transactional
+    public void theStatementsToLoadAnOrderDoNotGrowWithItsElements() {
+        long small = statementsToLoad(createOrder(2, 2));
+        long big = statementsToLoad(createOrder(20, 20));
+
+        assertEquals(small, big);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.orders.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.orders.entities.OrderRecalculationService;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Tests for {@link OrderRecalculationService}.
+ */
+public class OrderRecalculationServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private OrderRecalculationService service;
+
+    @Before
+    public void createService() {
+        service = new OrderRecalculationService();
+    }
+
+    @Test
+    public void requestsForTheSameOrderAreCoalesced() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            service.recalculate("test", 1L, orderId -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+            });
+            if (i == 0) {
+                await(started);
+            }
+        }
+        release.countDown();
+
+        waitUntilCompleted(2);
+        assertEquals(2, executions.get());
+        assertEquals(8, service.getCoalesced());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    public void differentOrdersAreRecalculatedInParallel() throws Exception {
+        final CyclicBarrier bothRunning = new CyclicBarrier(2);
+
+        for (long orderId = 1; orderId <= 2; orderId++) {
+            service.recalculate("test", orderId, id -> {
+                try {
+                    bothRunning.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+
+        waitUntilCompleted(2);
+        assertEquals(0, service.getFailures());
+    }
+
+    @Test
+    public void concurrencyProblemsAreRetried() throws Exception {
+        final AtomicInteger executions = new AtomicInteger();
+
+        service.recalculate("test", 1L, orderId -> {
+            if (executions.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("concurrent modification");
+            }
+        });
+
+        waitUntilCompleted(1);
+        assertEquals(3, executions.get());
+        assertEquals(2, service.getRetries());
+        assertEquals(0, service.getFailures());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void waitUntilCompleted(long completed) throws InterruptedException {
+        long limit = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (service.getCompleted() < completed && System.currentTimeMillis() < limit) {
+            Thread.sleep(10);
+        }
+        assertEquals(completed, service.getCompleted());
+    }
+
+}
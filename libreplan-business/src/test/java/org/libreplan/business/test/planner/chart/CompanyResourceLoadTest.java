@@ -0,0 +1,123 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.chart;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.SameWorkHoursEveryDay;
+import org.libreplan.business.planner.chart.CompanyResourceLoad;
+import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.entities.DayAssignmentEffort;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+
+/**
+ * Tests for {@link CompanyResourceLoad}.
+ */
+public class CompanyResourceLoadTest {
+
+    private static final LocalDate DAY = new LocalDate(2012, 3, 5);
+
+    private static final Long SCENARIO = 1L;
+
+    private final Worker first = workerWithId(1L);
+
+    private final Worker second = workerWithId(2L);
+
+    private static Worker workerWithId(Long id) {
+        Worker result = createNiceMock(Worker.class);
+        expect(result.getId()).andReturn(id).anyTimes();
+        expect(result.getCalendarOrDefault()).andReturn(SameWorkHoursEveryDay.getDefaultWorkingDay()).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private static DayAssignmentEffort effort(Long allocation, Resource resource, LocalDate day, int hours) {
+        return new DayAssignmentEffort(allocation, resource.getId(), day, hours(hours));
+    }
+
+    private CompanyResourceLoad givenLoad() {
+        List<DayAssignmentEffort> efforts = Arrays.asList(
+                effort(10L, first, DAY, 6),
+                effort(10L, first, DAY.plusDays(1), 10),
+                effort(11L, second, DAY.plusDays(1), 4));
+
+        return CompanyResourceLoad.create(SCENARIO, efforts, Arrays.<Resource> asList(first, second));
+    }
+
+    @Test
+    public void theChartCoversFromTheFirstToTheLastAssignedDay() {
+        ResourceLoadChartData data = givenLoad().getChartData();
+
+        assertThat(data.getLoad().size(), equalTo(2));
+        assertThat(data.getAvailability().get(DAY), equalTo(hours(16)));
+        assertThat(data.getLoad().get(DAY), equalTo(hours(6)));
+        assertThat(data.getLoad().get(DAY.plusDays(1)), equalTo(hours(14)));
+        assertThat(data.getOverload().get(DAY), equalTo(hours(16)));
+        assertThat(data.getOverload().get(DAY.plusDays(1)), equalTo(hours(18)));
+    }
+
+    @Test
+    public void theResourcesAssignedByAnAllocationAreKnown() {
+        CompanyResourceLoad load = givenLoad();
+
+        assertThat(load.getResourcesAssignedBy(Collections.singleton(10L)),
+                equalTo(Collections.singleton(1L)));
+    }
+
+    @Test
+    public void theAssignmentsOfTheModifiedResourcesAreReplaced() {
+        CompanyResourceLoad load = givenLoad().update(
+                new HashSet<>(Collections.singletonList(1L)),
+                Collections.singletonList(effort(10L, first, DAY.plusDays(1), 2)),
+                Collections.singletonList(first));
+
+        ResourceLoadChartData data = load.getChartData();
+        assertThat(data.getLoad().size(), equalTo(1));
+        assertThat(data.getLoad().get(DAY.plusDays(1)), equalTo(hours(6)));
+        assertThat(data.getOverload().get(DAY.plusDays(1)), equalTo(hours(16)));
+        assertThat(data.getAvailability().get(DAY.plusDays(1)), equalTo(hours(16)));
+    }
+
+    @Test
+    public void itMustBeCalculatedFromScratchIfTheAssignmentsGoBeyondTheKnownDays() {
+        CompanyResourceLoad load = givenLoad().update(
+                new HashSet<>(Collections.singletonList(2L)),
+                Collections.singletonList(effort(11L, second, DAY.plusDays(2), 2)),
+                Collections.singletonList(second));
+
+        assertThat(load, nullValue());
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.chart;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.SortedMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.chart.EffortDurationDaysLine;
+import org.libreplan.business.workingday.EffortDuration;
+
+public class EffortDurationDaysLineTest {
+
+    private static final LocalDate someDate = new LocalDate(2002, 2, 10);
+
+    private EffortDurationDaysLine lineWithHours(int... hoursByDay) {
+        EffortDurationDaysLine result = EffortDurationDaysLine.create(someDate, someDate.plusDays(hoursByDay.length));
+        for (int i = 0; i < hoursByDay.length; i++) {
+            result.set(someDate.plusDays(i), hours(hoursByDay[i]));
+        }
+
+        return result;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aLineCannotBeCreatedWithAStartBeforeTheEnd() {
+        EffortDurationDaysLine.create(someDate, someDate.minusDays(1));
+    }
+
+    @Test
+    public void initiallyTheValuesAreZero() {
+        EffortDurationDaysLine line = EffortDurationDaysLine.create(someDate, someDate.plusDays(3));
+        assertThat(line.size(), equalTo(3));
+        assertThat(line.sum(), equalTo(zero()));
+    }
+
+    @Test
+    public void theBulkOperationsAreDoneInPlace() {
+        EffortDurationDaysLine line = lineWithHours(2, 8, 4);
+
+        line.add(lineWithHours(1, 1, 1));
+        assertThat(line.get(someDate), equalTo(hours(3)));
+
+        line.min(lineWithHours(8, 4, 8));
+        assertThat(line.get(someDate.plusDays(1)), equalTo(hours(4)));
+
+        line.subtract(lineWithHours(4, 1, 1));
+        assertThat(line.get(someDate), equalTo(zero()));
+        assertThat(line.get(someDate.plusDays(1)), equalTo(hours(3)));
+        assertThat(line.get(someDate.plusDays(2)), equalTo(hours(4)));
+
+        line.clamp(hours(1), hours(3));
+        assertThat(line.sum(), equalTo(hours(1 + 3 + 3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theLinesMustCoverTheSameDays() {
+        lineWithHours(1, 2, 3).add(lineWithHours(1, 2));
+    }
+
+    @Test
+    public void aSubIntervalSharesTheValues() {
+        EffortDurationDaysLine line = lineWithHours(1, 2, 3, 4);
+        EffortDurationDaysLine subInterval = line.subInterval(someDate.plusDays(1), someDate.plusDays(3));
+
+        assertThat(subInterval.getStart(), equalTo(someDate.plusDays(1)));
+        assertThat(subInterval.size(), equalTo(2));
+        assertThat(subInterval.sum(), equalTo(hours(5)));
+
+        subInterval.set(someDate.plusDays(2), hours(10));
+        assertThat(line.get(someDate.plusDays(2)), equalTo(hours(10)));
+        assertFalse(subInterval.includes(someDate.plusDays(3)));
+    }
+
+    @Test
+    public void aSubIntervalOutsideTheLineIsNotValid() {
+        EffortDurationDaysLine line = lineWithHours(1, 2);
+        assertTrue(line.subInterval(someDate.plusDays(2), someDate.plusDays(5)).isNotValid());
+    }
+
+    @Test
+    public void aCopyDoesNotShareTheValues() {
+        EffortDurationDaysLine line = lineWithHours(1, 2);
+        EffortDurationDaysLine copy = line.copy();
+        copy.add(lineWithHours(1, 1));
+
+        assertThat(line.sum(), equalTo(hours(3)));
+        assertThat(copy.sum(), equalTo(hours(5)));
+    }
+
+    @Test
+    public void canBeConvertedToASortedMap() {
+        SortedMap<LocalDate, EffortDuration> map = lineWithHours(1, 2, 3).toSortedMap();
+
+        assertThat(map.size(), equalTo(3));
+        assertThat(map.firstKey(), equalTo(someDate));
+        assertThat(map.get(someDate.plusDays(2)), equalTo(hours(3)));
+    }
+
+}
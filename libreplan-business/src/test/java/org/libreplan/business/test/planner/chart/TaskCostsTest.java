@@ -0,0 +1,89 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.chart;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.chart.TaskCosts;
+import org.libreplan.business.planner.chart.TaskCosts.TaskCost;
+
+/**
+ * Tests for {@link TaskCosts}.
+ */
+public class TaskCostsTest {
+
+    private static final LocalDate DAY = new LocalDate(2026, 3, 2);
+
+    private static TaskCost cost(Long taskId, Long version, int estimated) {
+        SortedMap<LocalDate, BigDecimal> estimatedCost = new TreeMap<>();
+        estimatedCost.put(DAY, new BigDecimal(estimated));
+
+        return new TaskCost(taskId, version, DAY, DAY.plusDays(1), estimatedCost, new TreeMap<>());
+    }
+
+    private static Map<Long, Long> versions(Long... idAndVersion) {
+        Map<Long, Long> result = new HashMap<>();
+        for (int i = 0; i < idAndVersion.length; i += 2) {
+            result.put(idAndVersion[i], idAndVersion[i + 1]);
+        }
+
+        return result;
+    }
+
+    private TaskCosts costs = TaskCosts.create(asList(cost(1L, 0L, 8), cost(2L, 3L, 4)));
+
+    @Test
+    public void theNewTasksAndTheOnesWithAnotherVersionAreOutdated() {
+        assertThat(costs.getOutdated(versions(1L, 0L, 2L, 4L, 3L, 0L)), equalTo(new HashSet<>(asList(2L, 3L))));
+        assertThat(costs.getOutdated(versions(1L, 0L, 2L, 3L)).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void theRecalculatedCostsReplaceTheCachedOnes() {
+        TaskCosts changed = costs.withChanges(singletonList(cost(2L, 4L, 6)), new HashSet<>(asList(1L, 2L)));
+
+        assertThat(changed.get(2L).getEstimatedCost().get(DAY), equalTo(new BigDecimal(6)));
+        assertThat(changed.get(1L).getEstimatedCost().get(DAY), equalTo(new BigDecimal(8)));
+        assertThat(costs.get(2L).getEstimatedCost().get(DAY), equalTo(new BigDecimal(4)));
+    }
+
+    @Test
+    public void theRemovedTasksAreDropped() {
+        TaskCosts changed = costs.withChanges(singletonList(cost(3L, 0L, 1)), new HashSet<>(singletonList(2L)));
+
+        assertThat(changed.get(1L), nullValue());
+        assertThat(changed.get(3L), nullValue());
+        assertThat(changed.getAll().size(), equalTo(1));
+    }
+
+}
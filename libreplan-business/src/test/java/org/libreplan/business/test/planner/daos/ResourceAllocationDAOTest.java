@@ -25,18 +25,25 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.daos.IHoursGroupDAO;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
@@ -45,11 +52,14 @@ import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderLine;
 import org.libreplan.business.orders.entities.TaskSource;
 import org.libreplan.business.orders.entities.TaskSource.TaskSourceSynchronization;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.IResourceAllocationDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.daos.ITaskSourceDAO;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignmentsContainer;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.resources.daos.IResourceDAO;
@@ -60,6 +70,7 @@ import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
 import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.ResourcesPerDay;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -74,6 +85,8 @@ import org.springframework.transaction.annotation.Transactional;
  */
 public class ResourceAllocationDAOTest {
 
+    private static final Log LOG = LogFactory.getLog(ResourceAllocationDAOTest.class);
+
     public static OrderVersion setupVersionUsing(
             IScenarioManager scenarioManager, Order order) {
         Scenario current = scenarioManager.getCurrent();
@@ -109,6 +122,15 @@ public class ResourceAllocationDAOTest {
     @Autowired
     private IScenarioManager scenarioManager;
 
+    @Autowired
+    private IDayAssignmentDAO dayAssignmentDAO;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
     enum ResourceAllocationType {
         SPECIFIC_RESOURCE_ALLOCATION, GENERIC_RESOURCE_ALLOCATION
     }
@@ -269,6 +291,122 @@ public class ResourceAllocationDAOTest {
         assertEquals(previous + 2, list.size());
     }
 
+    @Test
+    public void testReplacedDayAssignmentsAreDeletedAfterAFailedSave() {
+        final SpecificResourceAllocation allocation = transactionService.runOnAnotherTransaction(() -> {
+            SpecificResourceAllocation result = createValidSpecificResourceAllocation();
+            result.switchToScenario(scenarioManager.getCurrent());
+            containerOf(result).resetTo(assignmentOf(result, 8));
+            resourceAllocationDAO.save(result);
+
+            return result;
+        });
+        dontPoseAsTransientObjectAnymore(allocation);
+        Long firstId = allocation.getAssignments().get(0).getId();
+
+        containerOf(allocation).resetTo(assignmentOf(allocation, 4));
+        try {
+            transactionService.runOnAnotherTransaction(() -> {
+                save(allocation);
+                throw new RuntimeException("saving failed");
+            });
+            fail("the saving should have failed");
+        } catch (RuntimeException e) {
+            // Expected
+        }
+        Long notSavedId = allocation.getAssignments().get(0).getId();
+
+        transactionService.runOnAnotherTransaction(() -> {
+            save(allocation);
+            return null;
+        });
+        final Long secondId = allocation.getAssignments().get(0).getId();
+
+        assertFalse(existsDayAssignment(firstId));
+        assertFalse(existsDayAssignment(notSavedId));
+        assertTrue(existsDayAssignment(secondId));
+    }
+
+    private SpecificDayAssignmentsContainer containerOf(SpecificResourceAllocation allocation) {
+        return (SpecificDayAssignmentsContainer) allocation.getAllAssignmentsContainers().get(0);
+    }
+
+    private List<SpecificDayAssignment> assignmentOf(SpecificResourceAllocation allocation, int hours) {
+        return Arrays.asList(SpecificDayAssignment.create(
+                allocation.getTask().getStartAsLocalDate(), EffortDuration.hours(hours), allocation.getResource()));
+    }
+
+    private Void save(SpecificResourceAllocation allocation) {
+        resourceAllocationDAO.save(allocation);
+        return null;
+    }
+
+    private void dontPoseAsTransientObjectAnymore(SpecificResourceAllocation allocation) {
+        allocation.dontPoseAsTransientObjectAnymore();
+        allocation.makeAssignmentsContainersDontPoseAsTransientAnyMore();
+        for (SpecificDayAssignment each : allocation.getAssignments()) {
+            each.dontPoseAsTransientObjectAnymore();
+        }
+        allocation.getResource().dontPoseAsTransientObjectAnymore();
+        allocation.getTask().dontPoseAsTransientObjectAnymore();
+    }
+
+    private boolean existsDayAssignment(final Long id) {
+        return transactionService.runOnAnotherReadOnlyTransaction(() -> dayAssignmentDAO.exists(id));
+    }
+
+    @Test
+    @Transactional
+    public void theReplacedDayAssignmentsOfTwoYearsForFiftyWorkersAreSavedInBatches() {
+        final int workers = 50;
+        final int days = 2 * 365;
+        List<SpecificResourceAllocation> allocations = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            SpecificResourceAllocation allocation = createValidSpecificResourceAllocation();
+            allocation.switchToScenario(scenarioManager.getCurrent());
+            containerOf(allocation).resetTo(dailyAssignmentsOf(allocation, days, 8));
+            resourceAllocationDAO.save(allocation);
+            allocations.add(allocation);
+        }
+        resourceAllocationDAO.flush();
+
+        for (SpecificResourceAllocation each : allocations) {
+            containerOf(each).resetTo(dailyAssignmentsOf(each, days, 4));
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        long start = System.currentTimeMillis();
+
+        for (SpecificResourceAllocation each : allocations) {
+            resourceAllocationDAO.save(each);
+        }
+        resourceAllocationDAO.flush();
+
+        long elapsed = System.currentTimeMillis() - start;
+        long statements = statistics.getPrepareStatementCount();
+        long deleted = statistics.getEntityDeleteCount();
+        long inserted = statistics.getEntityInsertCount();
+        statistics.setStatisticsEnabled(false);
+        LOG.info("Replacing " + days + " day assignments of " + workers + " workers took " + elapsed + " ms and " +
+                statements + " statements");
+
+        assertEquals(workers * days, deleted);
+        assertEquals(workers * days, inserted);
+        assertTrue(statements < (deleted + inserted) / 10);
+    }
+
+    private List<SpecificDayAssignment> dailyAssignmentsOf(SpecificResourceAllocation allocation, int days, int hours) {
+        List<SpecificDayAssignment> result = new ArrayList<>();
+        LocalDate start = allocation.getTask().getStartAsLocalDate();
+        for (int i = 0; i < days; i++) {
+            result.add(SpecificDayAssignment.create(
+                    start.plusDays(i), EffortDuration.hours(hours), allocation.getResource()));
+        }
+
+        return result;
+    }
+
     @Test
     @Transactional
     public void testFindAllocationsRelatedToResourcesWithDateFilter() {
@@ -23,6 +23,7 @@ package org.libreplan.business.test.planner.daos;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -31,9 +32,13 @@ import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.Resource;
@@ -44,6 +49,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.advance.bootstrap.PredefinedAdvancedTypes;
+import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.daos.IConfigurationDAO;
@@ -154,6 +161,13 @@ public class TaskElementDAOTest {
         return (Task) taskSource.getTask();
     }
 
+    private Task createValidTaskFor(Order order) {
+        TaskSource taskSource = TaskSource.create(order.getCurrentSchedulingDataForVersion(), order.getHoursGroups());
+        TaskSource.mustAdd(taskSource).apply(TaskSource.persistTaskSources(taskSourceDAO));
+
+        return (Task) taskSource.getTask();
+    }
+
     private OrderLine createOrderLine() {
         OrderLine orderLine = OrderLine.create();
         orderLine.setName("bla");
@@ -205,6 +219,16 @@ public class TaskElementDAOTest {
         return (TaskGroup) taskSource.getTask();
     }
 
+    private DirectAdvanceAssignment addAdvanceAssignment(OrderLine orderLine) throws Exception {
+        DirectAdvanceAssignment result = DirectAdvanceAssignment.create(false, BigDecimal.TEN);
+        result.setAdvanceType(PredefinedAdvancedTypes.UNITS.getType());
+        orderLine.addAdvanceAssignment(result);
+        orderDAO.save(orderLine.getOrder());
+        sessionFactory.getCurrentSession().flush();
+
+        return result;
+    }
+
     private Date plusDays(Date today, int days) {
         LocalDate result = LocalDate.fromDateFields(today).plusDays(days);
         return result.toDateTimeAtStartOfDay().toDate();
@@ -404,6 +428,34 @@ public class TaskElementDAOTest {
         transactionService.runOnTransaction(checkDependencyWasSaved);
     }
 
+    @Test
+    @Transactional
+    public void theTasksOfTheAncestorsOfAnAdvanceAssignmentAreAffectedByIt() throws Exception {
+        Task task = createValidTask();
+        OrderLine orderLine = (OrderLine) task.getOrderElement();
+        Task taskOfOrder = createValidTaskFor(orderLine.getOrder());
+        Task unrelated = createValidTask();
+        DirectAdvanceAssignment advanceAssignment = addAdvanceAssignment(orderLine);
+
+        Set<Long> affected =
+                taskElementDAO.getIdsOfTasksOfAdvanceAssignments(Collections.singleton(advanceAssignment.getId()));
+
+        assertTrue(affected.contains(task.getId()));
+        assertTrue(affected.contains(taskOfOrder.getId()));
+        assertFalse(affected.contains(unrelated.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void theTasksAffectedByARemovedAdvanceAssignmentAreNotKnown() throws Exception {
+        Task task = createValidTask();
+        DirectAdvanceAssignment advanceAssignment = addAdvanceAssignment((OrderLine) task.getOrderElement());
+        Long removedId = advanceAssignment.getId() + 1000;
+
+        assertNull(taskElementDAO.getIdsOfTasksOfAdvanceAssignments(
+                new HashSet<>(Arrays.asList(advanceAssignment.getId(), removedId))));
+    }
+
     public void aTaskCanBeRemoved() {
         Task task = createValidTask();
         taskElementDAO.save(task);
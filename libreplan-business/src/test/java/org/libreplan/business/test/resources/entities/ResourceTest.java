@@ -21,6 +21,8 @@
 
 package org.libreplan.business.test.resources.entities;
 
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -38,8 +40,12 @@ import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignmentsContainer;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.CriterionTypeBase;
@@ -56,6 +62,7 @@ import org.libreplan.business.test.resources.daos.CriterionSatisfactionDAOTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
@@ -63,6 +70,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Tests for {@link Resource}.
@@ -570,6 +579,147 @@ public class ResourceTest {
         assertThat(worker.getAssignedEffort(today), equalTo(hours(13)));
     }
 
+    @Test
+    @Transactional
+    public void afterRemovingAnAssignmentItsEffortIsNotAssignedAnymore() {
+        givenWorker();
+        LocalDate today = new LocalDate();
+        SpecificDayAssignment specificDayAssignment = new SpecificDayAssignment(today, hours(10), worker);
+        SpecificDayAssignment another = new SpecificDayAssignment(today, hours(3), worker);
+        givenWorkerWithAssignments(specificDayAssignment, another);
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(13)));
+
+        worker.removeAssignments(Collections.singletonList(another));
+
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(10)));
+    }
+
+    @Test
+    @Transactional
+    public void theAssignedEffortIsKeptForDaysFarApart() {
+        givenWorker();
+        LocalDate today = new LocalDate();
+        givenWorkerWithAssignments(new SpecificDayAssignment(today, hours(1), worker));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(1)));
+
+        worker.addNewAssignments(Arrays.asList(
+                new SpecificDayAssignment(today.minusDays(500), hours(2), worker),
+                new SpecificDayAssignment(today.plusDays(500), hours(3), worker)));
+
+        assertThat(worker.getAssignedEffort(today.minusDays(500)), equalTo(hours(2)));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(1)));
+        assertThat(worker.getAssignedEffort(today.plusDays(500)), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffort(today.plusDays(1000)), equalTo(hours(0)));
+    }
+
+    @Test
+    @Transactional
+    public void theEffortOfTheDiscountedAllocationsIsNotConsidered() {
+        givenWorker();
+        LocalDate today = new LocalDate();
+        SpecificResourceAllocation allocation = givenAllocation();
+        SpecificDayAssignment ofAllocation = new SpecificDayAssignment(today, hours(5), worker);
+        ofAllocation.setSpecificResourceAllocation(allocation);
+        givenWorkerWithAssignments(ofAllocation, new SpecificDayAssignment(today, hours(3), worker));
+
+        Map<Long, Set<BaseEntity>> discounting = BaseEntity.byId(Collections.singleton(allocation));
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(3)));
+
+        SpecificDayAssignment addedToAllocation = new SpecificDayAssignment(today, hours(2), worker);
+        addedToAllocation.setSpecificResourceAllocation(allocation);
+        worker.addNewAssignments(Collections.singletonList(addedToAllocation));
+
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(10)));
+
+        worker.removeAssignments(Collections.singletonList(ofAllocation));
+
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(5)));
+    }
+
+    @Test
+    @Transactional
+    public void theDiscountIsRightAfterTheAllocationGetsItsId() {
+        givenWorker();
+        LocalDate today = new LocalDate();
+        SpecificResourceAllocation allocation = givenAllocation();
+        SpecificDayAssignment first = new SpecificDayAssignment(today, hours(5), worker);
+        first.setSpecificResourceAllocation(allocation);
+        SpecificDayAssignment second = new SpecificDayAssignment(today, hours(2), worker);
+        second.setSpecificResourceAllocation(allocation);
+        givenWorkerWithAssignments(first, second, new SpecificDayAssignment(today, hours(3), worker));
+
+        Map<Long, Set<BaseEntity>> discountingWithoutId = BaseEntity.byId(Collections.singleton(allocation));
+        assertThat(worker.getAssignedDurationDiscounting(discountingWithoutId, today), equalTo(hours(3)));
+
+        ReflectionTestUtils.setField(allocation, "id", 1000L);
+        worker.removeAssignments(Collections.singletonList(first));
+
+        assertThat(worker.getAssignedDurationDiscounting(discountingWithoutId, today), equalTo(hours(5)));
+
+        Map<Long, Set<BaseEntity>> discountingWithId = BaseEntity.byId(Collections.singleton(allocation));
+        assertThat(worker.getAssignedDurationDiscounting(discountingWithId, today), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(5)));
+
+        worker.removeAssignments(Collections.singletonList(second));
+
+        assertThat(worker.getAssignedDurationDiscounting(discountingWithId, today), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(3)));
+    }
+
+    @Test
+    @Transactional
+    public void anAssignmentIsDiscountedIfItsAllocationIsSetAfterAddingIt() {
+        givenWorker();
+        LocalDate today = new LocalDate();
+        SpecificResourceAllocation allocation = givenAllocation();
+        SpecificDayAssignment assignment = new SpecificDayAssignment(today, hours(5), worker);
+        givenWorkerWithAssignments(assignment);
+
+        Map<Long, Set<BaseEntity>> discounting = BaseEntity.byId(Collections.singleton(allocation));
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(5)));
+
+        assignment.setSpecificResourceAllocation(allocation);
+        worker.addNewAssignments(Collections.singletonList(new SpecificDayAssignment(today, hours(3), worker)));
+
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(8)));
+    }
+
+    @Test
+    @Transactional
+    public void theEffortOfAnAssignmentIsAssignedOnceItsScenarioIsKnown() {
+        givenWorkerUsingScenarioManager();
+        LocalDate today = new LocalDate();
+        SpecificResourceAllocation allocation = givenAllocation();
+        SpecificDayAssignmentsContainer container =
+                SpecificDayAssignmentsContainer.create(allocation, scenarioManager.getCurrent());
+        givenWorkerWithAssignments(new SpecificDayAssignment(today, hours(2), worker));
+        // As when the assignments are copied before the scenario of their container
+        ReflectionTestUtils.setField(container, "scenario", null);
+        SpecificDayAssignment.copy(
+                container, Collections.singletonList(new SpecificDayAssignment(today, hours(5), worker)));
+
+        Map<Long, Set<BaseEntity>> discounting = BaseEntity.byId(Collections.singleton(allocation));
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(0)));
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(0)));
+
+        ReflectionTestUtils.setField(container, "scenario", scenarioManager.getCurrent());
+
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(5)));
+        assertThat(worker.getAssignedDurationDiscounting(discounting, today), equalTo(hours(0)));
+        assertThat(worker.getAssignedDurationDiscounting(
+                BaseEntity.byId(Collections.singleton(givenAllocation())), today), equalTo(hours(5)));
+    }
+
+    private SpecificResourceAllocation givenAllocation() {
+        Task task = createNiceMock(Task.class);
+        replay(task);
+
+        return SpecificResourceAllocation.create(task);
+    }
+
     private void givenWorkerWithAssignments(DayAssignment... assignments) {
         this.assignments = Arrays.asList(assignments);
         worker.addNewAssignments(this.assignments);
@@ -580,4 +730,8 @@ public class ResourceTest {
         worker.useScenario(scenarioManager.getCurrent());
     }
 
+    private void givenWorkerUsingScenarioManager() {
+        worker = Worker.create("firstName", "surName", "2333232");
+    }
+
 }
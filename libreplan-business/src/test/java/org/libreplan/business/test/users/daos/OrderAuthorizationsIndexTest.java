@@ -0,0 +1,86 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.users.daos;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.users.entities.OrderAuthorizationType.READ_AUTHORIZATION;
+import static org.libreplan.business.users.entities.OrderAuthorizationType.WRITE_AUTHORIZATION;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Test;
+import org.libreplan.business.users.daos.OrderAuthorizationsIndex;
+import org.libreplan.business.users.daos.OrderAuthorizationsIndex.Grant;
+
+public class OrderAuthorizationsIndexTest {
+
+    private OrderAuthorizationsIndex index = OrderAuthorizationsIndex.create(
+            users(),
+            singletonMap(1L, (Collection<Long>) asList(10L, 11L)),
+            asList(
+                    Grant.toUser(1L, 100L, READ_AUTHORIZATION),
+                    Grant.toUser(2L, 101L, WRITE_AUTHORIZATION),
+                    Grant.toProfile(10L, 102L, WRITE_AUTHORIZATION),
+                    Grant.toProfile(11L, 103L, READ_AUTHORIZATION),
+                    Grant.toProfile(12L, 104L, WRITE_AUTHORIZATION)));
+
+    private static Map<String, Long> users() {
+        Map<String, Long> result = new HashMap<>();
+        result.put("alice", 1L);
+        result.put("bob", 2L);
+        result.put("carol", 3L);
+
+        return result;
+    }
+
+    @Test
+    public void theAuthorizationsOfTheProfilesAreAddedToTheOnesOfTheUser() {
+        assertThat(index.getReadableOrderIds("alice"), equalTo(set(100L, 102L, 103L)));
+        assertThat(index.getWritableOrderIds("alice"), equalTo(set(102L)));
+    }
+
+    @Test
+    public void aWriteAuthorizationAllowsReading() {
+        assertTrue(index.canRead("bob", 101L));
+        assertTrue(index.canWrite("bob", 101L));
+        assertFalse(index.canRead("bob", 100L));
+    }
+
+    @Test
+    public void unknownUsersOrUsersWithoutAuthorizationsCannotSeeAnyOrder() {
+        assertFalse(index.hasAnyAuthorization("carol"));
+        assertFalse(index.hasAnyAuthorization("dave"));
+        assertFalse(index.canRead(null, 100L));
+        assertTrue(index.hasAnyAuthorization("alice"));
+    }
+
+    private static HashSet<Long> set(Long... ids) {
+        return new HashSet<>(asList(ids));
+    }
+
+}
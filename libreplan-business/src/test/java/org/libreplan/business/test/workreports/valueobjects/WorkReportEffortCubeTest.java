@@ -0,0 +1,138 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.workreports.valueobjects;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.valueobjects.WorkReportEffortCube;
+import org.libreplan.business.workreports.valueobjects.WorkReportEffortCube.Line;
+
+public class WorkReportEffortCubeTest {
+
+    private static final LocalDate MONDAY = new LocalDate(2026, 3, 2);
+
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private static final LocalDate WEDNESDAY = MONDAY.plusDays(2);
+
+    private WorkReportEffortCube cube = WorkReportEffortCube.create(asList(
+            Line.create(1L, 10L, 100L, 1000L, MONDAY, hours(4)),
+            Line.create(2L, 10L, 101L, 1000L, MONDAY, hours(3)),
+            Line.create(3L, 11L, 100L, 1001L, TUESDAY, hours(8)),
+            Line.create(4L, 10L, 100L, 1000L, WEDNESDAY, hours(2))));
+
+    private static SortedMap<LocalDate, EffortDuration> effortPerDay(Object... dayAndEffort) {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        for (int i = 0; i < dayAndEffort.length; i += 2) {
+            result.put((LocalDate) dayAndEffort[i], (EffortDuration) dayAndEffort[i + 1]);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void theEffortOfAllTheLinesIsAddedUpPerDay() {
+        assertThat(cube.getEffortPerDay(null, null),
+                equalTo(effortPerDay(MONDAY, hours(7), TUESDAY, hours(8), WEDNESDAY, hours(2))));
+    }
+
+    @Test
+    public void theDaysCanBeLimited() {
+        assertThat(cube.getEffortPerDay(TUESDAY, WEDNESDAY), equalTo(effortPerDay(TUESDAY, hours(8))));
+        assertThat(cube.getEffortPerDay(TUESDAY, null), equalTo(effortPerDay(TUESDAY, hours(8), WEDNESDAY, hours(2))));
+    }
+
+    @Test
+    public void theEffortCanBeFilteredByOrderElements() {
+        assertThat(cube.getEffortPerDayOfOrderElements(singletonList(101L)), equalTo(effortPerDay(MONDAY, hours(3))));
+        assertThat(cube.getEffortPerDayOfOrderElements(asList(100L, 101L)), equalTo(cube.getEffortPerDay(null, null)));
+    }
+
+    @Test
+    public void theEffortCanBeFilteredByResourceAndPeriod() {
+        assertThat(cube.getEffortPerDayOfResource(10L, null, null),
+                equalTo(effortPerDay(MONDAY, hours(7), WEDNESDAY, hours(2))));
+        assertThat(cube.getEffortOfResource(10L, MONDAY, TUESDAY), equalTo(hours(7)));
+        assertThat(cube.getEffortOfResource(12L, null, null), equalTo(EffortDuration.zero()));
+    }
+
+    @Test
+    public void theChangesReturnANewCubeWithoutModifyingThePreviousOne() {
+        WorkReportEffortCube changed = cube.withChanges(
+                asList(Line.create(1L, 10L, 100L, 1000L, TUESDAY, hours(1)),
+                        Line.create(5L, 12L, 102L, 1000L, WEDNESDAY, hours(5))),
+                singletonList(3L));
+
+        assertThat(changed.getEffortPerDay(null, null),
+                equalTo(effortPerDay(MONDAY, hours(3), TUESDAY, hours(1), WEDNESDAY, hours(7))));
+        assertThat(changed.getNumberOfLines(), equalTo(4));
+
+        assertThat(cube.getEffortPerDay(null, null),
+                equalTo(effortPerDay(MONDAY, hours(7), TUESDAY, hours(8), WEDNESDAY, hours(2))));
+        assertThat(cube.getNumberOfLines(), equalTo(4));
+    }
+
+    @Test
+    public void removingUnknownLinesDoesNothing() {
+        WorkReportEffortCube changed = cube.withChanges(
+                emptyList(), singletonList(42L));
+
+        assertThat(changed.getEffortPerDay(null, null), equalTo(cube.getEffortPerDay(null, null)));
+    }
+
+    @Test
+    public void theLinesOfTheSameCellAndDayAreAddedUpAcrossTheBuckets() {
+        List<Line> lines = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            lines.add(Line.create(id, 10L + id % 2, 100L, 1000L, MONDAY, hours(1)));
+        }
+        WorkReportEffortCube big = WorkReportEffortCube.create(lines);
+
+        List<Line> moved = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            moved.add(Line.create(id, 10L + id % 2, 100L, 1000L, TUESDAY, hours(2)));
+            removed.add(id + 3000);
+        }
+        WorkReportEffortCube changed = big.withChanges(moved, removed);
+
+        assertThat(big.getNumberOfLines(), equalTo(5000));
+        assertThat(big.getEffortOfResource(10L, null, null), equalTo(hours(2500)));
+        assertThat(changed.getNumberOfLines(), equalTo(3000));
+        assertThat(changed.getEffortPerDay(null, null),
+                equalTo(effortPerDay(MONDAY, hours(1000), TUESDAY, hours(4000))));
+        assertThat(changed.getEffortPerDayOfResource(11L, null, null),
+                equalTo(effortPerDay(MONDAY, hours(500), TUESDAY, hours(2000))));
+    }
+
+}
@@ -34,6 +34,7 @@ import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.web.common.Util;
 import org.libreplan.web.common.components.finders.IBandboxFinder;
+import org.libreplan.web.common.components.finders.IIndexedBandboxFinder;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.zkoss.zk.ui.Executions;
@@ -70,6 +71,8 @@ public class BandboxSearch extends HtmlMacroComponent {
 
     private List<? extends BaseEntity> model;
 
+    private boolean modelSet = false;
+
     @Override
     public void afterCompose() {
         super.afterCompose();
@@ -182,6 +185,10 @@ public class BandboxSearch extends HtmlMacroComponent {
      */
     @SuppressWarnings("unchecked")
     private ListModel<Object> getSubModel(String inputText) {
+        if ( isIndexed() ) {
+            return new SimpleListModel<>(new ArrayList<Object>(((IIndexedBandboxFinder) finder).getMatching(inputText)));
+        }
+
         List<Object> result = new ArrayList<>();
 
         final ListModel finderModel = finder.getModel();
@@ -194,6 +201,13 @@ public class BandboxSearch extends HtmlMacroComponent {
         return new SimpleListModel<>(result);
     }
 
+    /**
+     * The index of the finder can only be used if the elements are the ones of the finder, not a model set here.
+     */
+    private boolean isIndexed() {
+        return !modelSet && finder instanceof IIndexedBandboxFinder;
+    }
+
     /**
      * Append headers to listbox header list.
      */
@@ -226,6 +240,7 @@ public class BandboxSearch extends HtmlMacroComponent {
     public void setFinder(String classname) {
         finder = (IBandboxFinder) getBean(StringUtils.uncapitalize(classname));
         finder.resetModel();
+        modelSet = false;
     }
 
     public List<? extends BaseEntity> getModel() {
@@ -238,6 +253,7 @@ public class BandboxSearch extends HtmlMacroComponent {
     }
 
     private void setModel(ListModel<Object> model) {
+        modelSet = true;
         finder.setModel(model);
         listbox.setModel(model);
     }
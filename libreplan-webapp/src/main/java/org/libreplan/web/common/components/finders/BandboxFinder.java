@@ -43,12 +43,19 @@ public abstract class BandboxFinder implements IBandboxFinder {
     @Transactional(readOnly = true)
     public ListModel getModel() {
         if (model == null) {
-            model = new SimpleListModel<>(getAll());
+            model = createModel();
         }
 
         return model;
     }
 
+    /**
+     * Creates the model used when none has been set, by default with all the elements
+     */
+    protected ListModel createModel() {
+        return new SimpleListModel<>(getAll());
+    }
+
     @Override
     public void setModel(ListModel model) {
         this.model = model;
@@ -0,0 +1,43 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.common.components.finders;
+
+import java.util.List;
+
+import org.libreplan.business.common.SearchIndex;
+import org.libreplan.web.common.components.bandboxsearch.BandboxSearch;
+
+/**
+ * {@link IBandboxFinder} that looks for the elements matching a text in a {@link SearchIndex}, instead of checking all
+ * the elements of its model. Only the elements returned are loaded.
+ *
+ * {@link BandboxSearch} uses it when no model has been given to it.
+ */
+public interface IIndexedBandboxFinder extends IBandboxFinder {
+
+    /**
+     * Returns the first elements matching the text, ready to be rendered
+     *
+     * @param text
+     * @return
+     */
+    List<? extends Object> getMatching(String text);
+
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.common.components.finders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.common.SearchIndex;
+import org.libreplan.business.common.daos.IGenericDAO;
+import org.springframework.transaction.annotation.Transactional;
+import org.zkoss.zul.ListModel;
+import org.zkoss.zul.SimpleListModel;
+
+/**
+ * {@link BandboxFinder} implementing {@link IIndexedBandboxFinder}. Concrete classes provide the index and the DAO to
+ * load the matching entities.
+ *
+ * The initial model is formed by the first entries of the index, not by all the entities.
+ */
+public abstract class IndexedBandboxFinder<T extends BaseEntity> extends BandboxFinder implements IIndexedBandboxFinder {
+
+    public static final int MAX_RESULTS = 100;
+
+    protected abstract SearchIndex getIndex();
+
+    protected abstract IGenericDAO<T, Long> getDAO();
+
+    /**
+     * Only the entries accepted are returned, by default all of them
+     */
+    protected boolean accept(SearchIndex.Entry entry) {
+        return true;
+    }
+
+    /**
+     * Initializes what is needed to render the entity, it is called inside the transaction loading it
+     */
+    protected void initialize(T entity) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<T> getMatching(String text) {
+        List<Long> ids = getIndex().search(text, MAX_RESULTS, this::accept);
+
+        Map<Long, T> byId = new HashMap<>();
+        for (T each : getDAO().findByIds(ids)) {
+            byId.put(each.getId(), each);
+        }
+
+        List<T> result = new ArrayList<>();
+        for (Long each : ids) {
+            T entity = byId.get(each);
+            if ( entity != null ) {
+                initialize(entity);
+                result.add(entity);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    protected ListModel createModel() {
+        return new SimpleListModel<>(getMatching(""));
+    }
+
+}
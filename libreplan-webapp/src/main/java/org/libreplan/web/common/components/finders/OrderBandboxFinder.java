@@ -20,6 +20,8 @@
 
 package org.libreplan.web.common.components.finders;
 
+import org.libreplan.business.common.SearchIndex;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,11 +38,14 @@ import java.util.List;
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
  */
 @Repository
-public class OrderBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class OrderBandboxFinder extends IndexedBandboxFinder<Order> {
 
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private PredefinedDatabaseSnapshots databaseSnapshots;
+
     private final String headers[] = { _("Project code"), _("Project name") };
 
     /**
@@ -56,6 +61,24 @@ public class OrderBandboxFinder extends BandboxFinder implements IBandboxFinder
         return orderDAO.findAll();
     }
 
+    @Override
+    protected SearchIndex getIndex() {
+        return databaseSnapshots.snapshotOrderElementsSearchIndex();
+    }
+
+    @Override
+    protected IOrderDAO getDAO() {
+        return orderDAO;
+    }
+
+    /**
+     * The projects are the order elements without parent
+     */
+    @Override
+    protected boolean accept(SearchIndex.Entry entry) {
+        return entry.getParentId() == null;
+    }
+
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         Order order = (Order) obj;
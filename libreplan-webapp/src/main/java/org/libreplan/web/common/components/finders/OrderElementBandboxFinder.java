@@ -21,6 +21,8 @@
 
 package org.libreplan.web.common.components.finders;
 
+import org.libreplan.business.common.SearchIndex;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
@@ -40,7 +42,7 @@ import java.util.List;
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  */
 @Repository
-public class OrderElementBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class OrderElementBandboxFinder extends IndexedBandboxFinder<OrderElement> {
 
     @Autowired
     private IOrderElementDAO orderElementDAO;
@@ -48,6 +50,9 @@ public class OrderElementBandboxFinder extends BandboxFinder implements IBandbox
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private PredefinedDatabaseSnapshots databaseSnapshots;
+
     private final String headers[] = { _("Project"), _("Project code"), _("Task"), _("Task code") };
 
     /**
@@ -72,6 +77,16 @@ public class OrderElementBandboxFinder extends BandboxFinder implements IBandbox
         }
     }
 
+    @Override
+    protected SearchIndex getIndex() {
+        return databaseSnapshots.snapshotOrderElementsSearchIndex();
+    }
+
+    @Override
+    protected IOrderElementDAO getDAO() {
+        return orderElementDAO;
+    }
+
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         OrderElement orderElement = (OrderElement) obj;
@@ -108,12 +123,14 @@ public class OrderElementBandboxFinder extends BandboxFinder implements IBandbox
             OrderElement orderElement = (OrderElement) data;
             item.setValue(orderElement);
 
+            SearchIndex.Entry order = getIndex().getRoot(orderElement.getId());
+
             Listcell orderName = new Listcell();
-            orderName.setLabel(orderElement.getOrder().getName());
+            orderName.setLabel(order != null ? order.getText(1) : orderElement.getOrder().getName());
             orderName.setParent(item);
 
             Listcell orderCode = new Listcell();
-            orderCode.setLabel(orderElement.getOrder().getCode());
+            orderCode.setLabel(order != null ? order.getText(0) : orderElement.getOrder().getCode());
             orderCode.setParent(item);
 
             Listcell orderElementName = new Listcell();
@@ -20,6 +20,8 @@
 package org.libreplan.web.common.components.finders;
 
 import org.apache.commons.lang3.StringUtils;
+import org.libreplan.business.common.SearchIndex;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.entities.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,11 +40,14 @@ import java.util.List;
  * @author Manuel Rego Casasnovas <rego@igalia.com>
  */
 @Repository
-public class ResourceBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class ResourceBandboxFinder extends IndexedBandboxFinder<Resource> {
 
     @Autowired
     private IResourceDAO resourceDAO;
 
+    @Autowired
+    private PredefinedDatabaseSnapshots databaseSnapshots;
+
     private final String headers[] = { _("Resource") };
 
     /**
@@ -58,6 +63,16 @@ public class ResourceBandboxFinder extends BandboxFinder implements IBandboxFind
         return resourceDAO.findAll();
     }
 
+    @Override
+    protected SearchIndex getIndex() {
+        return databaseSnapshots.snapshotResourcesSearchIndex();
+    }
+
+    @Override
+    protected IResourceDAO getDAO() {
+        return resourceDAO;
+    }
+
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         Resource resource = (Resource) obj;
@@ -47,6 +47,7 @@ import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
@@ -79,11 +80,6 @@ import org.libreplan.business.resources.entities.LimitingResourceQueue;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.bootstrap.PredefinedScenarios;
 import org.libreplan.business.scenarios.entities.Scenario;
-import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
-import org.libreplan.business.users.daos.IUserDAO;
-import org.libreplan.business.users.entities.OrderAuthorization;
-import org.libreplan.business.users.entities.OrderAuthorizationType;
-import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.IntraDayDate;
@@ -108,10 +104,7 @@ public class LimitingResourceQueueModel implements ILimitingResourceQueueModel {
     private IOrderDAO orderDAO;
 
     @Autowired
-    private IUserDAO userDAO;
-
-    @Autowired
-    private IOrderAuthorizationDAO orderAuthorizationDAO;
+    private PredefinedDatabaseSnapshots databaseSnapshots;
 
     @Autowired
     private ILimitingResourceQueueElementDAO limitingResourceQueueElementDAO;
@@ -397,20 +390,7 @@ public class LimitingResourceQueueModel implements ILimitingResourceQueueModel {
             return true;
         }
 
-        try {
-            User user = userDAO.findByLoginName(loginName);
-            for (OrderAuthorization authorization : orderAuthorizationDAO.listByOrderUserAndItsProfiles(order, user)) {
-
-                if ( authorization.getAuthorizationType() == OrderAuthorizationType.READ_AUTHORIZATION ||
-                        authorization.getAuthorizationType() == OrderAuthorizationType.WRITE_AUTHORIZATION ) {
-                    return true;
-                }
-            }
-        } catch (InstanceNotFoundException e) {
-            // This case shouldn't happen, because it would mean that there isn't a logged user
-            // anyway, if it happened we don't allow the user to pass.
-        }
-        return false;
+        return databaseSnapshots.snapshotOrderAuthorizationsIndex().canRead(loginName, order.getId());
     }
 
     @Override
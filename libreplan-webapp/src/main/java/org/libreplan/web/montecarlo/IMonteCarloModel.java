@@ -21,11 +21,8 @@
 
 package org.libreplan.web.montecarlo;
 
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 
-import org.joda.time.LocalDate;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
 
@@ -35,9 +32,16 @@ import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
  */
 public interface IMonteCarloModel {
 
-    Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
+    MonteCarloHistogram calculateMonteCarlo(List<MonteCarloTask> tasks,
             int times, IDesktopUpdatesEmitter<Integer> iterationProgress);
 
+    /**
+     * @param seed
+     *            if not <code>null</code> the same seed and estimations always produce the same result
+     */
+    MonteCarloHistogram calculateMonteCarlo(List<MonteCarloTask> tasks,
+            int times, Long seed, IDesktopUpdatesEmitter<Integer> iterationProgress);
+
     void setCriticalPath(List<TaskElement> criticalPath);
 
     String getOrderName();
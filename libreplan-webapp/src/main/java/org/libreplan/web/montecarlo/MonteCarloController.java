@@ -23,12 +23,9 @@ package org.libreplan.web.montecarlo;
 
 import static org.libreplan.web.I18nHelper._;
 
-import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-import org.joda.time.LocalDate;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.web.common.Util;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -75,7 +72,7 @@ public class MonteCarloController extends GenericForwardComposer {
 
     private static final Integer DEFAULT_ITERATIONS = 10000;
 
-    private static final Integer MAX_NUMBER_ITERATIONS = 100000;
+    private static final Integer MAX_NUMBER_ITERATIONS = 1000000;
 
     private final RowRenderer gridCriticalPathTasksRender = new CriticalPathTasksRender();
 
@@ -118,7 +115,7 @@ public class MonteCarloController extends GenericForwardComposer {
                     updatesEmitter.doUpdate(disableButton(true));
                     int iterations = getIterations();
 
-                    final Map<LocalDate, BigDecimal> monteCarloData = monteCarloModel
+                    final MonteCarloHistogram monteCarloData = monteCarloModel
                             .calculateMonteCarlo(getSelectedCriticalPath(),
                                     iterations,
                                     percentageCompletedNotifier(updatesEmitter));
@@ -194,16 +191,16 @@ public class MonteCarloController extends GenericForwardComposer {
                 };
             }
 
-            private IDesktopUpdate showCalculatedData(final Map<LocalDate, BigDecimal> monteCarloData) {
+            private IDesktopUpdate showCalculatedData(final MonteCarloHistogram monteCarloData) {
                 return () -> showMonteCarloGraph(monteCarloData);
             }
 
-            private void showMonteCarloGraph(Map<LocalDate, BigDecimal> data) {
+            private void showMonteCarloGraph(MonteCarloHistogram data) {
                 monteCarloChartWindow = createMonteCarloGraphWindow(data);
                 monteCarloChartWindow.setMode("modal");
             }
 
-            private Window createMonteCarloGraphWindow(Map<LocalDate, BigDecimal> data) {
+            private Window createMonteCarloGraphWindow(MonteCarloHistogram data) {
                 HashMap<String, Object> args = new HashMap<>();
                 args.put("monteCarloGraphController", new MonteCarloGraphController());
                 Window result = (Window) Executions.createComponents("/planner/montecarlo_function.zul", self, args);
@@ -96,6 +96,25 @@ public class MonteCarloCriticalPathBuilder {
         return result;
     }
 
+    /**
+     * Tasks in the critical path that cannot start until the given one has finished.
+     * Dependencies to a {@link TaskGroup} are navigated like when building the paths.
+     *
+     * @param task
+     * @return {@link List<Task>}
+     */
+    public List<Task> getSuccessorsInCriticalPath(Task task) {
+        List<Task> result = new ArrayList<>();
+
+        for (Task each : getDestinations(task)) {
+            if (tasksInCriticalPath.contains(each)) {
+                result.add(each);
+            }
+        }
+
+        return result;
+    }
+
     private Collection<List<Task>> allPossiblePaths(Task task) {
         Collection<List<Task>> result = new ArrayList<>();
         List<Task> path = Collections.singletonList(task);
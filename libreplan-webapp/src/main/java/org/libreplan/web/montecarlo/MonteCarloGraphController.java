@@ -35,6 +35,7 @@ import org.zkoss.zul.CategoryModel;
 import org.zkoss.zul.Chart;
 import org.zkoss.zul.Datebox;
 import org.zkoss.zul.Decimalbox;
+import org.zkoss.zul.Label;
 import org.zkoss.zul.SimpleCategoryModel;
 
 /**
@@ -56,6 +57,12 @@ public class MonteCarloGraphController extends GenericForwardComposer {
 
     private Decimalbox dbIntervalProbability;
 
+    private Label lblPercentile50;
+
+    private Label lblPercentile80;
+
+    private Label lblPercentile95;
+
     private List<LocalDate> dates;
 
     private Map<LocalDate, BigDecimal> monteCarloValues;
@@ -77,13 +84,14 @@ public class MonteCarloGraphController extends GenericForwardComposer {
     private IOnClose onClose = null;
 
     public void generateMonteCarloGraph(String orderName,
-                                        Map<LocalDate, BigDecimal> data,
+                                        MonteCarloHistogram histogram,
                                         boolean byWeek,
                                         IOnClose onClose) {
 
         this.onClose = onClose;
 
         CategoryModel xyModel;
+        Map<LocalDate, BigDecimal> data = histogram.getProbabilities();
 
         initializeMonteCarloValues(data);
 
@@ -101,6 +109,10 @@ public class MonteCarloGraphController extends GenericForwardComposer {
         dateboxStartDateProbability.setValue(toDate(first));
         dateboxEndDateProbability.setValue(toDate(last));
         dbIntervalProbability.setValue(calculateProbabilityDensity(first, last));
+
+        lblPercentile50.setValue(histogram.getPercentile(50).toString());
+        lblPercentile80.setValue(histogram.getPercentile(80).toString());
+        lblPercentile95.setValue(histogram.getPercentile(95).toString());
     }
 
     private void initializeMonteCarloValues(Map<LocalDate, BigDecimal> data) {
@@ -0,0 +1,96 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+
+/**
+ * Number of iterations of a {@link MonteCarloSimulation} that ended at each day.
+ */
+public class MonteCarloHistogram {
+
+    static MonteCarloHistogram create(LocalDate firstDay, long[] counts, long iterations) {
+        return new MonteCarloHistogram(firstDay, counts, iterations);
+    }
+
+    private final LocalDate firstDay;
+
+    private final long[] counts;
+
+    private final long iterations;
+
+    private MonteCarloHistogram(LocalDate firstDay, long[] counts, long iterations) {
+        Validate.notNull(firstDay);
+        Validate.isTrue(iterations > 0);
+        this.firstDay = firstDay;
+        this.counts = counts;
+        this.iterations = iterations;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getTimesEndingAt(LocalDate day) {
+        int index = Days.daysBetween(firstDay, day).getDays();
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * Probability of ending at each day. Only the days with some iteration ending at them are included.
+     */
+    public SortedMap<LocalDate, BigDecimal> getProbabilities() {
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(firstDay.plusDays(i),
+                        BigDecimal.valueOf(counts[i]).divide(BigDecimal.valueOf(iterations), 8, RoundingMode.HALF_UP));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * First day at which at least the given percentage of the iterations have ended.
+     *
+     * @param percentage
+     *            from 0 to 100
+     */
+    public LocalDate getPercentile(int percentage) {
+        Validate.isTrue(percentage >= 0 && percentage <= 100);
+
+        long accumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+            if (accumulated > 0 && accumulated * 100 >= percentage * iterations) {
+                return firstDay.plusDays(i);
+            }
+        }
+        return firstDay.plusDays(counts.length - 1);
+    }
+
+}
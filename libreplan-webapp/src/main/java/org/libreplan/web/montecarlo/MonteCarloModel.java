@@ -24,15 +24,12 @@ package org.libreplan.web.montecarlo;
 import static org.libreplan.web.I18nHelper._;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
@@ -52,9 +49,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
 
 /**
- * Calculates the MonteCarlo function for a list of tasks.
- * Usually this list of tasks represents a critical path.
- * There could be many critical paths in scheduling.
+ * Calculates the MonteCarlo function for the tasks in the critical path.
+ * There could be many critical paths in scheduling, the estimations of the tasks are edited per path but all the
+ * network of tasks in the critical path is simulated.
  *
  * @author Diego Pino Garcia <dpino@igalia.com>
  */
@@ -195,161 +192,104 @@ public class MonteCarloModel implements IMonteCarloModel {
     }
 
     @Override
-    public Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
-                                                          int iterations,
-                                                          IDesktopUpdatesEmitter<Integer> iterationProgress) {
-
-        MonteCarloCalculation monteCarloCalculation = new MonteCarloCalculation(
-                copyOf(tasks), iterations, iterationProgress);
-        Map<LocalDate, BigDecimal> monteCarloValues = monteCarloCalculation.doCalculation();
-
-        // Convert number of times to probability
-        for (LocalDate key : monteCarloValues.keySet()) {
-            BigDecimal times = monteCarloValues.get(key);
-            BigDecimal probability = times.divide(BigDecimal.valueOf(iterations), 8, RoundingMode.HALF_UP);
-            monteCarloValues.put(key, probability);
-        }
+    public MonteCarloHistogram calculateMonteCarlo(List<MonteCarloTask> tasks,
+                                                   int iterations,
+                                                   IDesktopUpdatesEmitter<Integer> iterationProgress) {
 
-        return monteCarloValues;
+        return calculateMonteCarlo(tasks, iterations, null, iterationProgress);
     }
 
-    private List<MonteCarloTask> copyOf(List<MonteCarloTask> tasks) {
-        List<MonteCarloTask> result = new ArrayList<>();
-
-        for (MonteCarloTask each: tasks) {
-            result.add(MonteCarloTask.copy(each));
+    @Override
+    public MonteCarloHistogram calculateMonteCarlo(List<MonteCarloTask> tasks,
+                                                   int iterations,
+                                                   Long seed,
+                                                   IDesktopUpdatesEmitter<Integer> iterationProgress) {
+
+        List<MonteCarloTask> network = estimationsForNetwork(tasks);
+        MonteCarloSimulation simulation = MonteCarloSimulation.create(getFirstStart(network), network.size());
+
+        Map<Task, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < network.size(); i++) {
+            MonteCarloTask each = network.get(i);
+            indexes.put(each.getTask(), i);
+            simulation.setEstimations(i, each.getStartDate(),
+                    realDurationDays(each, each.getOptimisticDuration()),
+                    realDurationDays(each, each.getNormalDuration()),
+                    realDurationDays(each, each.getPessimisticDuration()),
+                    each.getPessimisticDurationPercentage(),
+                    each.getNormalDurationPercentage());
         }
 
-        return result;
-    }
+        MonteCarloCriticalPathBuilder networkBuilder = MonteCarloCriticalPathBuilder.create(tasksOf(network));
+        for (MonteCarloTask each : network) {
+            for (Task successor : networkBuilder.getSuccessorsInCriticalPath(each.getTask())) {
+                simulation.addDependency(indexes.get(each.getTask()), indexes.get(successor));
+            }
+        }
 
-    @Override
-    public String getOrderName() {
-        return orderName;
+        return simulation.run(iterations, seed, iterationProgress);
     }
 
-    private static class MonteCarloCalculation {
-
-        private Map<MonteCarloTask, Set<EstimationRange>> estimationRangesForTasks = new HashMap<>();
-
-        private List<MonteCarloTask> tasks;
-
-        private int iterations;
-
-        private IDesktopUpdatesEmitter<Integer> iterationProgress;
-
-        public MonteCarloCalculation(List<MonteCarloTask> tasks,
-                                     int iterations,
-                                     IDesktopUpdatesEmitter<Integer> iterationProgress) {
-
-            adjustDurationDays(tasks);
-            initializeEstimationRanges(tasks);
-            this.tasks = tasks;
-            this.iterations = iterations;
-            this.iterationProgress = iterationProgress;
+    /**
+     * All the tasks in the critical path are simulated, not only the ones of the given path.
+     * The estimations of the given path are used for its tasks, for the rest the ones of the first path containing
+     * them.
+     */
+    private List<MonteCarloTask> estimationsForNetwork(List<MonteCarloTask> tasks) {
+        Map<Task, MonteCarloTask> result = new LinkedHashMap<>();
+        for (MonteCarloTask each : tasks) {
+            result.put(each.getTask(), each);
         }
 
-        public Map<LocalDate, BigDecimal> doCalculation() {
-            Map<LocalDate, BigDecimal> result = new HashMap<>();
-
-            final int onePercent = iterations / 100;
-            Random randomGenerator = new Random((new Date()).getTime());
-
-            // Calculate number of times a date is repeated
-            for (int i = 0; i < iterations; i++) {
-                LocalDate endDate = calculateEndDateFor(tasks, randomGenerator);
-                BigDecimal times = result.get(endDate);
-
-                times = times != null ? times.add(BigDecimal.ONE) : BigDecimal.ONE;
-
-                result.put(endDate, times);
-
-                if (i % onePercent == 0) {
-                    increaseProgressMeter((i * 100) / iterations);
+        for (String each : getCriticalPathNames()) {
+            for (MonteCarloTask task : criticalPaths.get(each)) {
+                if (!result.containsKey(task.getTask())) {
+                    result.put(task.getTask(), task);
                 }
             }
-
-            return result;
-        }
-
-        private void increaseProgressMeter(int completedPercent) {
-            iterationProgress.doUpdate(completedPercent);
         }
 
-        private LocalDate calculateEndDateFor(List<MonteCarloTask> tasks, Random randomGenerator) {
-            Validate.notEmpty(tasks);
-            BigDecimal durationDays = BigDecimal.ZERO;
-            MonteCarloTask first = tasks.get(0);
-
-            for (MonteCarloTask each : tasks) {
-                BigDecimal randomNumber = generate(randomGenerator);
-                durationDays = durationDays.add(getDuration(each, randomNumber));
+        if (tasksInCriticalPath != null) {
+            for (Task each : tasksInCriticalPath) {
+                if (!result.containsKey(each)) {
+                    result.put(each, MonteCarloTask.create(each));
+                }
             }
-
-            return first.getStartDate().plusDays(durationDays.intValue());
         }
 
-        private BigDecimal generate(Random randomGenerator) {
-            return BigDecimal.valueOf(randomGenerator.nextDouble());
-        }
-
-        private BigDecimal getDuration(MonteCarloTask each, BigDecimal random) {
-            ESTIMATION_TYPE type = getEstimationType(each, random);
-            Validate.notNull(type);
-            switch (type) {
-
-                case PESSIMISTIC:
-                    return each.getPessimisticDuration();
-
-                case NORMAL:
-                    return each.getNormalDuration();
+        return new ArrayList<>(result.values());
+    }
 
-                case OPTIMISTIC:
-                    return each.getOptimisticDuration();
+    private static LocalDate getFirstStart(List<MonteCarloTask> tasks) {
+        Validate.notEmpty(tasks);
+        LocalDate result = tasks.get(0).getStartDate();
 
-                default:
-                    break;
+        for (MonteCarloTask each : tasks) {
+            if (each.getStartDate().isBefore(result)) {
+                result = each.getStartDate();
             }
-
-            return BigDecimal.ZERO;
         }
 
-        private void adjustDurationDays(List<MonteCarloTask> tasks) {
-            for (MonteCarloTask each : tasks) {
-                each.setPessimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getPessimisticDuration()));
-                each.setNormalDuration(MonteCarloTask.calculateRealDurationFor(each, each.getNormalDuration()));
-                each.setOptimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getOptimisticDuration()));
-            }
-        }
+        return result;
+    }
 
-        private void initializeEstimationRanges(List<MonteCarloTask> tasks) {
-            estimationRangesForTasks.clear();
+    private static int realDurationDays(MonteCarloTask task, BigDecimal duration) {
+        return MonteCarloTask.calculateRealDurationFor(task, duration).intValue();
+    }
 
-            for (MonteCarloTask each : tasks) {
-                createEstimationRangesFor(each);
-            }
-        }
+    private static List<Task> tasksOf(List<MonteCarloTask> tasks) {
+        List<Task> result = new ArrayList<>();
 
-        private void createEstimationRangesFor(MonteCarloTask task) {
-            Set<EstimationRange> estimationRanges = new HashSet<>();
-            estimationRanges.add(EstimationRange.pessimisticRangeFor(task));
-            estimationRanges.add(EstimationRange.normalRangeFor(task));
-            estimationRanges.add(EstimationRange.optimisticRangeFor(task));
-            estimationRangesForTasks.put(task, estimationRanges);
+        for (MonteCarloTask each : tasks) {
+            result.add(each.getTask());
         }
 
-        public ESTIMATION_TYPE getEstimationType(MonteCarloTask task, BigDecimal random) {
-            Set<EstimationRange> estimationRanges = estimationRangesForTasks.get(task);
-
-            for (EstimationRange each : estimationRanges) {
-                if (each.contains(random)) {
-                    return each.getEstimationType();
-                }
-            }
-
-            return null;
-        }
+        return result;
+    }
 
+    @Override
+    public String getOrderName() {
+        return orderName;
     }
 
 }
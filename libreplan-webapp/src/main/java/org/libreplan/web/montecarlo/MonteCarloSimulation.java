@@ -0,0 +1,347 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+
+/**
+ * Simulates the end date of a network of tasks whose durations are random.
+ * <p>
+ * Each task has an optimistic, a normal and a pessimistic duration in days, each one with its probability.
+ * A task without predecessors starts at its own start, the rest start when all their predecessors have finished.
+ * The end of an iteration is the end of the last task.
+ * </p>
+ * <p>
+ * The iterations are run in parallel on a {@link ForkJoinPool}. Each subtask has its own {@link SplittableRandom}
+ * split from the one of its parent, and the splits don't depend on the number of threads, so a given seed always
+ * produces the same result. Durations are kept in primitive arrays and the end dates are counted in an array too,
+ * so the iterations don't allocate any object.
+ * </p>
+ *
+ * @see MonteCarloHistogram
+ */
+public class MonteCarloSimulation {
+
+    /**
+     * Number of iterations below which a subtask is not split anymore.
+     */
+    private static final int ITERATIONS_PER_SUBTASK = 16 * 1024;
+
+    /**
+     * The progress is added up each time this number of iterations is done.
+     */
+    private static final int ITERATIONS_PER_PROGRESS_UPDATE = 1024;
+
+    private final LocalDate start;
+
+    private final int[] startOffsets;
+
+    private final int[] optimistic;
+
+    private final int[] normal;
+
+    private final int[] pessimistic;
+
+    private final double[] pessimisticProbability;
+
+    private final double[] pessimisticOrNormalProbability;
+
+    private final List<List<Integer>> predecessorsOf;
+
+    private int[] topologicalOrder;
+
+    private int[] predecessorsFrom;
+
+    private int[] predecessors;
+
+    public static MonteCarloSimulation create(LocalDate start, int numberOfTasks) {
+        return new MonteCarloSimulation(start, numberOfTasks);
+    }
+
+    private MonteCarloSimulation(LocalDate start, int numberOfTasks) {
+        Validate.notNull(start);
+        Validate.isTrue(numberOfTasks > 0);
+        this.start = start;
+        this.startOffsets = new int[numberOfTasks];
+        this.optimistic = new int[numberOfTasks];
+        this.normal = new int[numberOfTasks];
+        this.pessimistic = new int[numberOfTasks];
+        this.pessimisticProbability = new double[numberOfTasks];
+        this.pessimisticOrNormalProbability = new double[numberOfTasks];
+        this.predecessorsOf = new ArrayList<>();
+        for (int i = 0; i < numberOfTasks; i++) {
+            predecessorsOf.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @param taskStart
+     *            it's only used if the task has no predecessors
+     * @param pessimisticPercentage
+     *            probability of the pessimistic duration, from 0 to 100
+     * @param normalPercentage
+     *            probability of the normal duration, from 0 to 100. The optimistic duration has the rest.
+     */
+    public void setEstimations(int task, LocalDate taskStart,
+                               int optimisticDays, int normalDays, int pessimisticDays,
+                               int pessimisticPercentage, int normalPercentage) {
+
+        Validate.isTrue(!taskStart.isBefore(start), "tasks cannot start before the simulation start");
+        Validate.isTrue(pessimisticPercentage >= 0 && normalPercentage >= 0
+                && pessimisticPercentage + normalPercentage <= 100, "percentages should sum at most 100");
+
+        startOffsets[task] = Days.daysBetween(start, taskStart).getDays();
+        optimistic[task] = optimisticDays;
+        normal[task] = normalDays;
+        pessimistic[task] = pessimisticDays;
+        pessimisticProbability[task] = pessimisticPercentage / 100.0;
+        pessimisticOrNormalProbability[task] = (pessimisticPercentage + normalPercentage) / 100.0;
+        topologicalOrder = null;
+    }
+
+    /**
+     * The <code>destination</code> task cannot start until <code>origin</code> has finished.
+     */
+    public void addDependency(int origin, int destination) {
+        Validate.isTrue(origin != destination);
+        if (!predecessorsOf.get(destination).contains(origin)) {
+            predecessorsOf.get(destination).add(origin);
+            topologicalOrder = null;
+        }
+    }
+
+    /**
+     * @param seed
+     *            if <code>null</code> a different sequence of random numbers is used each time
+     * @param progress
+     *            it's notified with the percentage of iterations done. It can be called from several threads.
+     */
+    public MonteCarloHistogram run(int iterations, Long seed, IDesktopUpdatesEmitter<Integer> progress) {
+        Validate.isTrue(iterations > 0);
+        compileNetwork();
+
+        int minimumEnd = endWithDurations(minimumDurations());
+        int maximumEnd = endWithDurations(maximumDurations());
+
+        SplittableRandom random = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        Progress progressCounter = new Progress(iterations, progress);
+        long[] counts = ForkJoinPool.commonPool().invoke(
+                new Iterations(iterations, random, minimumEnd, maximumEnd, progressCounter));
+
+        return MonteCarloHistogram.create(start.plusDays(minimumEnd), counts, iterations);
+    }
+
+    /**
+     * Sorts the tasks topologically and moves the predecessors of each one to a single array.
+     */
+    private void compileNetwork() {
+        if (topologicalOrder != null) {
+            return;
+        }
+        int size = startOffsets.length;
+
+        int[] pendingPredecessors = new int[size];
+        List<List<Integer>> successorsOf = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            successorsOf.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            pendingPredecessors[i] = predecessorsOf.get(i).size();
+            for (int each : predecessorsOf.get(i)) {
+                successorsOf.get(each).add(i);
+            }
+        }
+
+        int[] order = new int[size];
+        int sorted = 0;
+        for (int i = 0; i < size; i++) {
+            if (pendingPredecessors[i] == 0) {
+                order[sorted++] = i;
+            }
+        }
+        for (int next = 0; next < sorted; next++) {
+            for (int each : successorsOf.get(order[next])) {
+                if (--pendingPredecessors[each] == 0) {
+                    order[sorted++] = each;
+                }
+            }
+        }
+        if (sorted < size) {
+            throw new IllegalArgumentException("the dependencies between the tasks cannot have cycles");
+        }
+
+        predecessorsFrom = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            predecessorsFrom[i + 1] = predecessorsFrom[i] + predecessorsOf.get(i).size();
+        }
+        predecessors = new int[predecessorsFrom[size]];
+        for (int i = 0; i < size; i++) {
+            int position = predecessorsFrom[i];
+            for (int each : predecessorsOf.get(i)) {
+                predecessors[position++] = each;
+            }
+        }
+        topologicalOrder = order;
+    }
+
+    private int[] minimumDurations() {
+        int[] result = new int[startOffsets.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.min(optimistic[i], Math.min(normal[i], pessimistic[i]));
+        }
+        return result;
+    }
+
+    private int[] maximumDurations() {
+        int[] result = new int[startOffsets.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.max(optimistic[i], Math.max(normal[i], pessimistic[i]));
+        }
+        return result;
+    }
+
+    private int endWithDurations(int[] durations) {
+        return end(durations, new int[durations.length]);
+    }
+
+    /**
+     * @param ends
+     *            used to store the end of each task, its previous content is ignored
+     * @return the offset from the simulation start of the end of the last task
+     */
+    private int end(int[] durations, int[] ends) {
+        int result = 0;
+        for (int task : topologicalOrder) {
+            int taskStart = predecessorsFrom[task] == predecessorsFrom[task + 1] ? startOffsets[task] : 0;
+            for (int i = predecessorsFrom[task]; i < predecessorsFrom[task + 1]; i++) {
+                taskStart = Math.max(taskStart, ends[predecessors[i]]);
+            }
+            ends[task] = taskStart + durations[task];
+            result = Math.max(result, ends[task]);
+        }
+        return result;
+    }
+
+    private void sampleDurations(SplittableRandom random, int[] durations) {
+        for (int i = 0; i < durations.length; i++) {
+            double value = random.nextDouble();
+            if (value < pessimisticProbability[i]) {
+                durations[i] = pessimistic[i];
+            } else if (value < pessimisticOrNormalProbability[i]) {
+                durations[i] = normal[i];
+            } else {
+                durations[i] = optimistic[i];
+            }
+        }
+    }
+
+    private static class Progress {
+
+        private final long total;
+
+        private final IDesktopUpdatesEmitter<Integer> emitter;
+
+        private final AtomicLong done = new AtomicLong();
+
+        Progress(long total, IDesktopUpdatesEmitter<Integer> emitter) {
+            this.total = total;
+            this.emitter = emitter;
+        }
+
+        void iterationsDone(int iterations) {
+            long after = done.addAndGet(iterations);
+            long before = after - iterations;
+            int percentage = (int) (after * 100 / total);
+            if (emitter != null && percentage > (int) (before * 100 / total)) {
+                emitter.doUpdate(percentage);
+            }
+        }
+    }
+
+    private class Iterations extends RecursiveTask<long[]> {
+
+        private final int iterations;
+
+        private final SplittableRandom random;
+
+        private final int minimumEnd;
+
+        private final int maximumEnd;
+
+        private final Progress progress;
+
+        Iterations(int iterations, SplittableRandom random, int minimumEnd, int maximumEnd, Progress progress) {
+            this.iterations = iterations;
+            this.random = random;
+            this.minimumEnd = minimumEnd;
+            this.maximumEnd = maximumEnd;
+            this.progress = progress;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (iterations <= ITERATIONS_PER_SUBTASK) {
+                return simulate();
+            }
+
+            int half = iterations / 2;
+            Iterations first = new Iterations(half, random.split(), minimumEnd, maximumEnd, progress);
+            Iterations second = new Iterations(iterations - half, random, minimumEnd, maximumEnd, progress);
+            first.fork();
+            long[] result = second.compute();
+            long[] other = first.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+
+        private long[] simulate() {
+            long[] result = new long[maximumEnd - minimumEnd + 1];
+            int[] durations = new int[startOffsets.length];
+            int[] ends = new int[startOffsets.length];
+
+            int notNotified = 0;
+            for (int i = 0; i < iterations; i++) {
+                sampleDurations(random, durations);
+                result[end(durations, ends) - minimumEnd]++;
+
+                if (++notNotified == ITERATIONS_PER_PROGRESS_UPDATE) {
+                    progress.iterationsDone(notNotified);
+                    notNotified = 0;
+                }
+            }
+            progress.iterationsDone(notNotified);
+
+            return result;
+        }
+    }
+
+}
@@ -51,6 +51,7 @@ import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
 import org.libreplan.business.externalcompanies.entities.EndDateCommunication;
 import org.libreplan.business.externalcompanies.entities.ExternalCompany;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.labels.daos.ILabelDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.orders.daos.IOrderDAO;
@@ -77,10 +78,7 @@ import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.templates.daos.IOrderElementTemplateDAO;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
 import org.libreplan.business.templates.entities.OrderTemplate;
-import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IUserDAO;
-import org.libreplan.business.users.entities.OrderAuthorization;
-import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
 import org.libreplan.web.calendars.BaseCalendarModel;
@@ -164,7 +162,7 @@ public class OrderModel extends IntegrationEntityModel implements IOrderModel {
     private IUserDAO userDAO;
 
     @Autowired
-    private IOrderAuthorizationDAO orderAuthorizationDAO;
+    private PredefinedDatabaseSnapshots databaseSnapshots;
 
     @Autowired
     private IScenarioDAO scenarioDAO;
@@ -834,23 +832,8 @@ public class OrderModel extends IntegrationEntityModel implements IOrderModel {
                 .isSuperuserOrUserInRoles(UserRole.ROLE_CREATE_PROJECTS)) {
             return true;
         }
-        try {
-            User user = userDAO.findByLoginName(loginName);
-            for(OrderAuthorization authorization :
-                    orderAuthorizationDAO.listByOrderUserAndItsProfiles(order, user)) {
-                if(authorization.getAuthorizationType() ==
-                        OrderAuthorizationType.READ_AUTHORIZATION ||
-                        authorization.getAuthorizationType() ==
-                                OrderAuthorizationType.WRITE_AUTHORIZATION) {
-                    return true;
-                }
-            }
-        }
-        catch(InstanceNotFoundException e) {
-            // This case shouldn't happen, because it would mean that there isn't a logged user
-            //anyway, if it happenned we don't allow the user to pass
-        }
-        return false;
+        return databaseSnapshots.snapshotOrderAuthorizationsIndex()
+                .canRead(loginName, order.getId());
     }
 
     @Override
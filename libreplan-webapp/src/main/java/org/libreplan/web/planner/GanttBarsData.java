@@ -0,0 +1,254 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.planner;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.SumChargedEffort;
+import org.libreplan.business.orders.entities.SumExpenses;
+import org.libreplan.business.planner.entities.IMoneyCostCalculator;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.workingday.EffortDuration;
+import org.zkoss.ganttz.ProjectStatusEnum;
+
+/**
+ * Values of the bars and the status icons of the Gantt for each {@link TaskElement} with an {@link OrderElement} under
+ * a root task: the money cost, the budget, the charged effort and the hours and budget status.
+ * <p>
+ * It is immutable and it is calculated in a single pass over the tree of tasks, inside the transaction of the caller,
+ * so showing or zooming the Gantt doesn't need a transaction for each value of each task.
+ */
+public class GanttBarsData {
+
+    public static class TaskValues {
+
+        private final EffortDuration chargedEffort;
+
+        private final BigDecimal totalBudget;
+
+        private final BigDecimal moneyCost;
+
+        private final BigDecimal hoursMoneyCost;
+
+        private final BigDecimal expensesMoneyCost;
+
+        private final ProjectStatusEnum hoursStatus;
+
+        private final ProjectStatusEnum budgetStatus;
+
+        private TaskValues(EffortDuration chargedEffort,
+                           BigDecimal totalBudget,
+                           BigDecimal hoursMoneyCost,
+                           BigDecimal expensesMoneyCost,
+                           ProjectStatusEnum hoursStatus,
+                           ProjectStatusEnum budgetStatus) {
+
+            this.chargedEffort = chargedEffort;
+            this.totalBudget = totalBudget;
+            this.moneyCost = hoursMoneyCost.add(expensesMoneyCost).setScale(2, RoundingMode.HALF_UP);
+            this.hoursMoneyCost = hoursMoneyCost;
+            this.expensesMoneyCost = expensesMoneyCost;
+            this.hoursStatus = hoursStatus;
+            this.budgetStatus = budgetStatus;
+        }
+
+        public EffortDuration getChargedEffort() {
+            return chargedEffort;
+        }
+
+        public BigDecimal getTotalBudget() {
+            return totalBudget;
+        }
+
+        public BigDecimal getMoneyCost() {
+            return moneyCost;
+        }
+
+        public BigDecimal getHoursMoneyCost() {
+            return hoursMoneyCost;
+        }
+
+        public BigDecimal getExpensesMoneyCost() {
+            return expensesMoneyCost;
+        }
+
+        /**
+         * For a task group, the worst status of the tasks under it
+         */
+        public ProjectStatusEnum getHoursStatus() {
+            return hoursStatus;
+        }
+
+        /**
+         * For a task group, the worst status of the tasks under it
+         */
+        public ProjectStatusEnum getBudgetStatus() {
+            return budgetStatus;
+        }
+    }
+
+    /**
+     * It must be called inside a transaction
+     */
+    public static GanttBarsData calculate(TaskElement root, IMoneyCostCalculator moneyCostCalculator) {
+        Map<OrderElement, BigDecimal> hoursMoneyCosts = root.getOrderElement() != null
+                ? moneyCostCalculator.getHoursMoneyCostOfEachElement(root.getOrderElement())
+                : Collections.<OrderElement, BigDecimal> emptyMap();
+
+        GanttBarsData result = new GanttBarsData(new IdentityHashMap<>());
+        result.fill(root, moneyCostCalculator, hoursMoneyCosts);
+
+        return result;
+    }
+
+    private final Map<TaskElement, TaskValues> valuesByTask;
+
+    private GanttBarsData(Map<TaskElement, TaskValues> valuesByTask) {
+        this.valuesByTask = valuesByTask;
+    }
+
+    public boolean contains(TaskElement taskElement) {
+        return valuesByTask.containsKey(taskElement);
+    }
+
+    /**
+     * @return the values of the task or null if it was not under the root task or it has no {@link OrderElement}
+     */
+    public TaskValues getValuesOf(TaskElement taskElement) {
+        return valuesByTask.get(taskElement);
+    }
+
+    /**
+     * Fills the values of the task and its descendants and returns the hours and budget status of the tasks among
+     * them, or null if there is no task.
+     */
+    private ProjectStatusEnum[] fill(TaskElement taskElement,
+                                     IMoneyCostCalculator moneyCostCalculator,
+                                     Map<OrderElement, BigDecimal> hoursMoneyCosts) {
+
+        ProjectStatusEnum[] statuses = null;
+        for (TaskElement each : taskElement.getChildren()) {
+            statuses = worst(statuses, fill(each, moneyCostCalculator, hoursMoneyCosts));
+        }
+
+        OrderElement orderElement = taskElement.getOrderElement();
+        if ( taskElement.isTask() ) {
+            statuses = new ProjectStatusEnum[] { hoursStatusOf(orderElement), budgetStatusOf(orderElement) };
+        }
+
+        if ( orderElement != null ) {
+            BigDecimal hoursMoneyCost = hoursMoneyCosts.get(orderElement);
+            if ( hoursMoneyCost == null ) {
+                hoursMoneyCost = moneyCostCalculator.getHoursMoneyCost(orderElement);
+            }
+
+            valuesByTask.put(taskElement, new TaskValues(
+                    chargedEffortOf(orderElement),
+                    orderElement.getTotalBudget(),
+                    hoursMoneyCost,
+                    moneyCostCalculator.getExpensesMoneyCost(orderElement),
+                    statuses != null ? statuses[0] : ProjectStatusEnum.AS_PLANNED,
+                    statuses != null ? statuses[1] : ProjectStatusEnum.AS_PLANNED));
+        }
+
+        return statuses;
+    }
+
+    private static ProjectStatusEnum[] worst(ProjectStatusEnum[] a, ProjectStatusEnum[] b) {
+        if ( a == null ) {
+            return b;
+        }
+        if ( b == null ) {
+            return a;
+        }
+
+        return new ProjectStatusEnum[] { worst(a[0], b[0]), worst(a[1], b[1]) };
+    }
+
+    private static ProjectStatusEnum worst(ProjectStatusEnum a, ProjectStatusEnum b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static EffortDuration chargedEffortOf(OrderElement orderElement) {
+        SumChargedEffort sumChargedEffort = orderElement.getSumChargedEffort();
+        return (sumChargedEffort != null) ? sumChargedEffort.getTotalChargedEffort() : EffortDuration.zero();
+    }
+
+    private static ProjectStatusEnum hoursStatusOf(OrderElement orderElement) {
+        EffortDuration sumChargedEffort = chargedEffortOf(orderElement);
+        EffortDuration estimatedEffort =
+                EffortDuration.fromHoursAsBigDecimal(new BigDecimal(orderElement.getWorkHours()).setScale(2));
+
+        if ( sumChargedEffort.isZero() || sumChargedEffort.compareTo(estimatedEffort) <= 0 ) {
+            return ProjectStatusEnum.AS_PLANNED;
+        }
+
+        EffortDuration withMarginEstimatedHours = orderElement.getWithMarginCalculatedHours();
+
+        return estimatedEffort.compareTo(sumChargedEffort) < 0 && sumChargedEffort.compareTo(withMarginEstimatedHours) <= 0
+                ? ProjectStatusEnum.WITHIN_MARGIN
+                : ProjectStatusEnum.MARGIN_EXCEEDED;
+    }
+
+    private static ProjectStatusEnum budgetStatusOf(OrderElement orderElement) {
+        BigDecimal budget = orderElement.getBudget();
+        BigDecimal totalExpense = getTotalExpense(orderElement);
+        BigDecimal withMarginCalculatedBudget = orderElement.getWithMarginCalculatedBudget();
+
+        if ( totalExpense.compareTo(budget) <= 0 ) {
+            return ProjectStatusEnum.AS_PLANNED;
+        }
+
+        return budget.compareTo(totalExpense) < 0 && totalExpense.compareTo(withMarginCalculatedBudget) <= 0
+                ? ProjectStatusEnum.WITHIN_MARGIN
+                : ProjectStatusEnum.MARGIN_EXCEEDED;
+    }
+
+    /**
+     * Returns total expense for the specified <code>orderElement</code>.
+     *
+     * @param orderElement
+     */
+    public static BigDecimal getTotalExpense(OrderElement orderElement) {
+        BigDecimal total = BigDecimal.ZERO;
+        SumExpenses sumExpenses = orderElement.getSumExpenses();
+
+        if ( sumExpenses != null ) {
+            BigDecimal directExpenes = sumExpenses.getTotalDirectExpenses();
+            BigDecimal indirectExpense = sumExpenses.getTotalIndirectExpenses();
+
+            if ( directExpenes != null ) {
+                total = total.add(directExpenes);
+            }
+
+            if ( indirectExpense != null ) {
+                total = total.add(indirectExpense);
+            }
+        }
+
+        return total;
+    }
+
+}
@@ -32,7 +32,9 @@ import java.math.RoundingMode;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Arrays;
@@ -59,8 +61,6 @@ import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
-import org.libreplan.business.orders.entities.SumChargedEffort;
-import org.libreplan.business.orders.entities.SumExpenses;
 import org.libreplan.business.planner.daos.IResourceAllocationDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.Dependency;
@@ -378,6 +378,8 @@ public class TaskElementAdapter {
 
         private final PlanningState planningState;
 
+        private final Map<TaskElement, GanttBarsData> barsDataByRoot = new IdentityHashMap<>();
+
         public Adapter() {
             this(null);
         }
@@ -407,6 +409,37 @@ public class TaskElementAdapter {
             this.preventCalculateResourcesText = preventCalculateResourcesText;
         }
 
+        /**
+         * The values of the bars of a task with an {@link OrderElement}. They are calculated in one transaction for
+         * all the tasks under its root the first time they are needed. For an order they are kept in the
+         * {@link PlanningState} until it is saved.
+         */
+        private GanttBarsData.TaskValues getBarValuesOf(TaskElement taskElement) {
+            final TaskElement root = rootOf(taskElement);
+            GanttBarsData barsData = planningState != null ? planningState.getBarsData() : barsDataByRoot.get(root);
+
+            if ( barsData == null || !barsData.contains(taskElement) ) {
+                barsData = transactionService.runOnReadOnlyTransaction(
+                        () -> GanttBarsData.calculate(root, moneyCostCalculator));
+
+                if ( planningState != null ) {
+                    planningState.setBarsData(barsData);
+                } else {
+                    barsDataByRoot.put(root, barsData);
+                }
+            }
+
+            return barsData.getValuesOf(taskElement);
+        }
+
+        private TaskElement rootOf(TaskElement taskElement) {
+            TaskElement result = taskElement;
+            while (result.getParent() != null) {
+                result = result.getParent();
+            }
+            return result;
+        }
+
         private class TaskElementWrapper implements ITaskFundamentalProperties {
 
             private final TaskElement taskElement;
@@ -570,10 +603,7 @@ public class TaskElementAdapter {
                     return BigDecimal.ZERO;
                 }
 
-                boolean cond = orderElement.getSumChargedEffort() != null;
-
-                EffortDuration totalChargedEffort = cond ? orderElement.getSumChargedEffort().getTotalChargedEffort()
-                        : EffortDuration.zero();
+                EffortDuration totalChargedEffort = getBarValuesOf(taskElement).getChargedEffort();
 
                 EffortDuration estimatedEffort = taskElement.getSumOfAssignedEffort();
 
@@ -625,25 +655,25 @@ public class TaskElementAdapter {
             private BigDecimal getTotalCalculatedBudget() {
                 return (taskElement == null) || (taskElement.getOrderElement() == null)
                         ? BigDecimal.ZERO
-                        : transactionService.runOnReadOnlyTransaction(() -> taskElement.getOrderElement().getTotalBudget());
+                        : getBarValuesOf(taskElement).getTotalBudget();
             }
 
             private BigDecimal getMoneyCost() {
                 return (taskElement == null) || (taskElement.getOrderElement() == null)
                         ? BigDecimal.ZERO
-                        : transactionService.runOnReadOnlyTransaction(() -> moneyCostCalculator.getTotalMoneyCost(taskElement.getOrderElement()));
+                        : getBarValuesOf(taskElement).getMoneyCost();
             }
 
             private BigDecimal getHoursMoneyCost() {
                 return (taskElement == null) || (taskElement.getOrderElement() == null)
                         ? BigDecimal.ZERO
-                        : transactionService.runOnReadOnlyTransaction(() -> moneyCostCalculator.getHoursMoneyCost(taskElement.getOrderElement()));
+                        : getBarValuesOf(taskElement).getHoursMoneyCost();
             }
 
             private BigDecimal getExpensesMoneyCost() {
                 return (taskElement == null) || (taskElement.getOrderElement() == null)
                         ? BigDecimal.ZERO
-                        : transactionService.runOnReadOnlyTransaction(() -> moneyCostCalculator.getExpensesMoneyCost(taskElement.getOrderElement()));
+                        : getBarValuesOf(taskElement).getExpensesMoneyCost();
             }
 
             @Override
@@ -1031,162 +1061,16 @@ public class TaskElementAdapter {
 
             @Override
             public ProjectStatusEnum getProjectHoursStatus() {
-
-                if ( taskElement.isTask() ) {
-                    return getProjectHourStatus(taskElement.getOrderElement());
-                }
-
-                List<TaskElement> taskElements = taskElement.getAllChildren();
-
-                ProjectStatusEnum status = ProjectStatusEnum.AS_PLANNED;
-                ProjectStatusEnum highestStatus = null;
-
-                for (TaskElement taskElement : taskElements) {
-
-                    if ( !taskElement.isTask() ) {
-                        continue;
-                    }
-
-                    status = getProjectHourStatus(taskElement.getOrderElement());
-
-                    if ( status == ProjectStatusEnum.MARGIN_EXCEEDED ) {
-                        highestStatus = ProjectStatusEnum.MARGIN_EXCEEDED;
-                        break;
-                    }
-
-                    if ( status == ProjectStatusEnum.WITHIN_MARGIN ) {
-                        highestStatus = ProjectStatusEnum.WITHIN_MARGIN;
-                    }
-
-                }
-
-                if ( highestStatus != null ) {
-                    status = highestStatus;
-                }
-
-                return status;
-            }
-
-            /**
-             * Returns {@link ProjectStatusEnum} for the specified <code>orderElement</code>.
-             *
-             * @param orderElement
-             */
-            private ProjectStatusEnum getProjectHourStatus(OrderElement orderElement) {
-                EffortDuration sumChargedEffort = getSumChargedEffort(orderElement);
-                EffortDuration estimatedEffort = getEstimatedEffort(orderElement);
-
-                if ( sumChargedEffort.isZero() || sumChargedEffort.compareTo(estimatedEffort) <= 0 ) {
-                    return ProjectStatusEnum.AS_PLANNED;
-                }
-
-                EffortDuration withMarginEstimatedHours = orderElement.getWithMarginCalculatedHours();
-
-                return estimatedEffort.compareTo(sumChargedEffort) < 0 && sumChargedEffort.compareTo(withMarginEstimatedHours) <= 0
-                        ? ProjectStatusEnum.WITHIN_MARGIN
-                        : ProjectStatusEnum.MARGIN_EXCEEDED;
-
-            }
-
-            /**
-             * Returns sum charged effort for the specified <code>orderElement</code>.
-             *
-             * @param orderElement
-             */
-            private EffortDuration getSumChargedEffort(OrderElement orderElement) {
-                SumChargedEffort sumChargedEffort = orderElement.getSumChargedEffort();
-                return (sumChargedEffort != null) ? sumChargedEffort.getTotalChargedEffort() : EffortDuration.zero();
-            }
-
-            /**
-             * Returns the estimated effort for the specified <code>orderElement</code>.
-             *
-             * @param orderElement
-             */
-            private EffortDuration getEstimatedEffort(OrderElement orderElement) {
-                return EffortDuration.fromHoursAsBigDecimal(new BigDecimal(orderElement.getWorkHours()).setScale(2));
+                return taskElement.getOrderElement() != null
+                        ? getBarValuesOf(taskElement).getHoursStatus()
+                        : ProjectStatusEnum.AS_PLANNED;
             }
 
             @Override
             public ProjectStatusEnum getProjectBudgetStatus() {
-
-                if ( taskElement.isTask() ) {
-                    return getProjectBudgetStatus(taskElement.getOrderElement());
-                }
-
-                List<TaskElement> taskElements = taskElement.getAllChildren();
-
-                ProjectStatusEnum status = ProjectStatusEnum.AS_PLANNED;
-                ProjectStatusEnum highestStatus = null;
-
-                for (TaskElement taskElement : taskElements) {
-
-                    if ( !taskElement.isTask() ) {
-                        continue;
-                    }
-
-                    status = getProjectBudgetStatus(taskElement.getOrderElement());
-
-                    if ( status == ProjectStatusEnum.MARGIN_EXCEEDED ) {
-                        highestStatus = ProjectStatusEnum.MARGIN_EXCEEDED;
-                        break;
-                    }
-
-                    if ( status == ProjectStatusEnum.WITHIN_MARGIN ) {
-                        highestStatus = ProjectStatusEnum.WITHIN_MARGIN;
-                    }
-
-                }
-
-                if ( highestStatus != null ) {
-                    status = highestStatus;
-                }
-
-                return status;
-            }
-
-            /**
-             * Returns {@link ProjectStatusEnum} for the specified <code>orderElement</code>.
-             *
-             * @param orderElement
-             */
-            private ProjectStatusEnum getProjectBudgetStatus(OrderElement orderElement) {
-                BigDecimal budget = orderElement.getBudget();
-                BigDecimal totalExpense = getTotalExpense(orderElement);
-                BigDecimal withMarginCalculatedBudget = orderElement.getWithMarginCalculatedBudget();
-
-                if ( totalExpense.compareTo(budget) <= 0 ) {
-                    return ProjectStatusEnum.AS_PLANNED;
-                }
-
-                return budget.compareTo(totalExpense) < 0 && totalExpense.compareTo(withMarginCalculatedBudget) <= 0
-                        ? ProjectStatusEnum.WITHIN_MARGIN
-                        : ProjectStatusEnum.MARGIN_EXCEEDED;
-            }
-
-            /**
-             * Returns total expense for the specified <code>orderElement</code>.
-             *
-             * @param orderElement
-             */
-            public BigDecimal getTotalExpense(OrderElement orderElement) {
-                BigDecimal total = BigDecimal.ZERO;
-                SumExpenses sumExpenses = orderElement.getSumExpenses();
-
-                if ( sumExpenses != null ) {
-                    BigDecimal directExpenes = sumExpenses.getTotalDirectExpenses();
-                    BigDecimal indirectExpense = sumExpenses.getTotalIndirectExpenses();
-
-                    if ( directExpenes != null ) {
-                        total = total.add(directExpenes);
-                    }
-
-                    if ( indirectExpense != null ) {
-                        total = total.add(indirectExpense);
-                    }
-                }
-
-                return total;
+                return taskElement.getOrderElement() != null
+                        ? getBarValuesOf(taskElement).getBudgetStatus()
+                        : ProjectStatusEnum.AS_PLANNED;
             }
 
             @Override
@@ -1236,7 +1120,7 @@ public class TaskElementAdapter {
                         addCurrencySymbol(orderElement.getBudget()),
                         addCurrencySymbol(orderElement.getWithMarginCalculatedBudget())));
 
-                BigDecimal totalExpense = getTotalExpense(orderElement);
+                BigDecimal totalExpense = GanttBarsData.getTotalExpense(orderElement);
 
                 result.append(_(". Already spent: {0}", addCurrencySymbol(totalExpense)));
 
@@ -18,6 +18,7 @@
  */
 package org.libreplan.web.planner.chart;
 
+import org.libreplan.business.planner.chart.EffortDurationDaysLine;
 import org.zkforge.timeplot.Plotinfo;
 import org.zkforge.timeplot.Timeplot;
 import org.zkforge.timeplot.geometry.TimeGeometry;
@@ -59,6 +60,10 @@ public abstract class LoadChartFiller extends ChartFiller {
     }
 
 
+    protected Plotinfo createPlotinfoFromDurations(EffortDurationDaysLine line, Interval interval) {
+        return createPlotinfoFromDurations(groupAsNeededByZoom(line.toSortedMap()), interval);
+    }
+
     protected abstract String getOptionalJavascriptCall();
 
     /**
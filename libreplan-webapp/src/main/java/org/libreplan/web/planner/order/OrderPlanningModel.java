@@ -36,7 +36,7 @@ import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
-import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.chart.EffortDurationDaysLine;
 import org.libreplan.business.planner.entities.IOrderEarnedValueCalculator;
 import org.libreplan.business.planner.entities.IOrderResourceLoadCalculator;
 import org.libreplan.business.planner.entities.TaskElement;
@@ -48,7 +48,6 @@ import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
-import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.web.calendars.BaseCalendarModel;
 import org.libreplan.web.common.ConfirmCloseUtil;
 import org.libreplan.web.common.FilterUtils;
@@ -131,9 +130,6 @@ import org.zkoss.zul.Tabpanels;
 import org.zkoss.zul.Tabs;
 import org.zkoss.zul.Vbox;
 
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.toSortedMap;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.min;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.sum;
 import static org.libreplan.web.I18nHelper._;
 
 /**
@@ -1135,33 +1131,27 @@ public class OrderPlanningModel implements IOrderPlanningModel {
         protected Plotinfo[] getPlotInfo(Interval interval) {
             resourceLoadCalculator.setOrder(order, planningState.getAssignmentsCalculator());
 
-            ContiguousDaysLine<EffortDuration> maxCapacityOnResources =
-                    resourceLoadCalculator.getMaxCapacityOnResources();
+            EffortDurationDaysLine maxCapacityOnResources = resourceLoadCalculator.getMaxCapacityOnResources();
 
-            ContiguousDaysLine<EffortDuration> orderLoad = resourceLoadCalculator.getOrderLoad();
-            ContiguousDaysLine<EffortDuration> allLoad = resourceLoadCalculator.getAllLoad();
-            ContiguousDaysLine<EffortDuration> orderOverload = resourceLoadCalculator.getOrderOverload();
-            ContiguousDaysLine<EffortDuration> allOverload = resourceLoadCalculator.getAllOverload();
+            /* The calculator keeps the lines, so they are copied before being modified */
+            EffortDurationDaysLine orderLoad = resourceLoadCalculator.getOrderLoad().copy();
+            EffortDurationDaysLine allLoad = resourceLoadCalculator.getAllLoad().copy();
+            EffortDurationDaysLine orderOverload = resourceLoadCalculator.getOrderOverload().copy();
+            EffortDurationDaysLine allOverload = resourceLoadCalculator.getAllOverload().copy();
 
-            Plotinfo plotOrderLoad = createPlotinfoFromDurations(
-                    groupAsNeededByZoom(toSortedMap(ContiguousDaysLine.min(orderLoad, maxCapacityOnResources))),
-                    interval);
+            Plotinfo plotOrderLoad =
+                    createPlotinfoFromDurations(orderLoad.min(maxCapacityOnResources), interval);
 
-            Plotinfo plotOtherLoad = createPlotinfoFromDurations(
-                    groupAsNeededByZoom(toSortedMap(min(allLoad, maxCapacityOnResources))),
-                    interval);
+            Plotinfo plotOtherLoad =
+                    createPlotinfoFromDurations(allLoad.min(maxCapacityOnResources), interval);
 
-            Plotinfo plotMaxCapacity = createPlotinfoFromDurations(
-                    groupAsNeededByZoom(toSortedMap(maxCapacityOnResources)),
-                    interval);
+            Plotinfo plotMaxCapacity = createPlotinfoFromDurations(maxCapacityOnResources, interval);
 
-            Plotinfo plotOrderOverload = createPlotinfoFromDurations(
-                    groupAsNeededByZoom(toSortedMap(sum(orderOverload, maxCapacityOnResources))),
-                    interval);
+            Plotinfo plotOrderOverload =
+                    createPlotinfoFromDurations(orderOverload.add(maxCapacityOnResources), interval);
 
-            Plotinfo plotOtherOverload = createPlotinfoFromDurations(
-                    groupAsNeededByZoom(toSortedMap(sum(allOverload, maxCapacityOnResources))),
-                    interval);
+            Plotinfo plotOtherOverload =
+                    createPlotinfoFromDurations(allOverload.add(maxCapacityOnResources), interval);
 
             plotOrderLoad.setFillColor(COLOR_ASSIGNED_LOAD);
             plotOrderLoad.setLineWidth(0);
@@ -24,11 +24,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
 import org.hibernate.Hibernate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
@@ -39,6 +43,7 @@ import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderFetchPlan;
 import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
@@ -84,6 +89,7 @@ import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserOrderAuthorization;
 import org.libreplan.web.UserUtil;
 import org.libreplan.web.calendars.BaseCalendarModel;
+import org.libreplan.web.planner.GanttBarsData;
 import org.libreplan.web.planner.TaskElementAdapter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -92,6 +98,7 @@ import org.springframework.stereotype.Component;
 import org.zkoss.ganttz.adapters.IAdapterToTaskFundamentalProperties;
 import org.zkoss.ganttz.adapters.IStructureNavigator;
 import org.zkoss.ganttz.adapters.PlannerConfiguration;
+import org.zkoss.ganttz.util.ProfilingLogFactory;
 import org.zkoss.zk.ui.Desktop;
 
 /**
@@ -106,6 +113,8 @@ import org.zkoss.zk.ui.Desktop;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class PlanningStateCreator {
 
+    private static final Log PROFILING_LOG = ProfilingLogFactory.getLog(PlanningStateCreator.class);
+
     private static final String ATTRIBUTE_NAME = PlanningState.class.getName();
 
     /**
@@ -178,6 +187,9 @@ public class PlanningStateCreator {
     @Autowired
     private IMoneyCostCalculator moneyCostCalculator;
 
+    @Autowired
+    private IOrderFetchPlan orderFetchPlan;
+
     private ISaveCommand cachedCommand;
 
     void synchronizeWithSchedule(Order order, IOptionalPersistence persistence) {
@@ -251,6 +263,7 @@ public class PlanningStateCreator {
 
     private Order reload(Order order) {
         ensureOrderVersionsAreNotProxies();
+        orderFetchPlan.loadOrderElements(order.getId());
         Order result = orderDAO.findExistingEntity(order.getId());
         Scenario current = scenarioManager.getCurrent();
         result.useSchedulingDataFor(current);
@@ -273,16 +286,27 @@ public class PlanningStateCreator {
         }
     }
 
+    /**
+     * The data of the order is loaded first with the batched queries of {@link IOrderFetchPlan}, so the walks over the
+     * order and task trees that come after it find almost everything already loaded. The time spent on each phase is
+     * logged to the profiling log.
+     */
     private PlanningState createPlanning(Order orderReloaded) {
+        Map<String, Long> msByPhase = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+
         final List<Resource> allResources = resourceDAO.list(Resource.class);
         criterionDAO.list(Criterion.class);
+        start = phaseFinished(msByPhase, "resources and criteria", start);
+
+        msByPhase.putAll(orderFetchPlan.loadPlanningData(orderReloaded));
+        start = System.currentTimeMillis();
 
         forceLoadOfOrderAssociatedData(orderReloaded);
         TaskGroup rootTask = orderReloaded.getAssociatedTaskElement();
 
         if (rootTask != null) {
-            forceLoadOf(rootTask);
-            forceLoadDayAssignments(orderReloaded.getResources(FilterType.KEEP_ALL));
+            forceLoadOf(rootTask, orderReloaded);
             forceLoadOfDepedenciesCollections(rootTask);
             forceLoadOfLabels(Collections.singletonList(rootTask));
         }
@@ -290,17 +314,48 @@ public class PlanningStateCreator {
         if (orderReloaded.getCalendar() != null) {
             BaseCalendarModel.forceLoadBaseCalendar(orderReloaded.getCalendar());
         }
+        start = phaseFinished(msByPhase, "remaining order and task data", start);
+
+        if (rootTask != null) {
+            forceLoadDayAssignments(orderReloaded.getResources(FilterType.KEEP_ALL));
+            start = phaseFinished(msByPhase, "day assignments of the assigned resources", start);
+        }
 
         PlanningState result = new PlanningState(orderReloaded, allResources
         );
+        start = phaseFinished(msByPhase, "planning state", start);
 
         forceLoadOfWorkingHours(result.getInitial());
 
         moneyCostCalculator.resetMoneyCostMap();
+        phaseFinished(msByPhase, "working hours", start);
+
+        if (PROFILING_LOG.isDebugEnabled()) {
+            PROFILING_LOG.debug("opening project " + orderReloaded.getCode() + " took: " + describe(msByPhase));
+        }
 
         return result;
     }
 
+    private static long phaseFinished(Map<String, Long> msByPhase, String phase, long start) {
+        long now = System.currentTimeMillis();
+        msByPhase.put(phase, now - start);
+
+        return now;
+    }
+
+    private static String describe(Map<String, Long> msByPhase) {
+        long total = 0;
+        StringBuilder phases = new StringBuilder();
+        for (Entry<String, Long> each : msByPhase.entrySet()) {
+            total += each.getValue();
+            phases.append(phases.length() == 0 ? "" : ", ").append(each.getKey()).append(" ")
+                    .append(each.getValue()).append(" ms");
+        }
+
+        return total + " ms (" + phases + ")";
+    }
+
     private void forceLoadOfOrderAssociatedData(Order order) {
         List<OrderElement> all = new ArrayList<>();
         all.add(order);
@@ -338,19 +393,23 @@ public class PlanningStateCreator {
         }
     }
 
-    private void forceLoadOf(TaskElement taskElement) {
-        forceLoadOfDataAssociatedTo(taskElement);
+    private void forceLoadOf(TaskElement taskElement, Order order) {
+        forceLoadOfDataAssociatedTo(taskElement, order);
 
         if (taskElement instanceof TaskGroup) {
             findChildrenWithQueryToAvoidProxies((TaskGroup) taskElement);
 
             for (TaskElement each : taskElement.getChildren()) {
-                forceLoadOf(each);
+                forceLoadOf(each, order);
             }
         }
     }
 
-    private void forceLoadOfDataAssociatedTo(TaskElement each) {
+    /**
+     * All the tasks belong to the given order, so its calendar is used for the tasks without their own one instead of
+     * looking for the order of each task.
+     */
+    private void forceLoadOfDataAssociatedTo(TaskElement each, Order order) {
         forceLoadOfResourceAllocationsResourcesAndAssignmentFunction(each);
         forceLoadOfCriterions(each);
         forceLoadOfSubcontractedTaskData(each);
@@ -358,7 +417,7 @@ public class PlanningStateCreator {
         BaseCalendar calendar = each.getOwnCalendar();
 
         if (calendar == null && each.getOrderElement() != null) {
-            calendar = orderDAO.loadOrderAvoidingProxyFor(each.getOrderElement()).getCalendar();
+            calendar = order.getCalendar();
         }
 
         if (calendar != null) {
@@ -737,6 +796,8 @@ public class PlanningStateCreator {
 
         private PlannerConfiguration<TaskElement> cachedConfiguration;
 
+        private GanttBarsData barsData;
+
         public PlanningState(Order order, Collection<? extends Resource> initialResources) {
             Validate.notNull(order);
             this.order = order;
@@ -770,6 +831,7 @@ public class PlanningStateCreator {
 
         void onRetrieval() {
             cachedConfiguration = null;
+            barsData = null;
             cachedCommand = null;
             synchronizeScheduling();
             generateOrderElementCodes();
@@ -965,6 +1027,22 @@ public class PlanningStateCreator {
             return order.getAssociatedTaskElement();
         }
 
+        /**
+         * The {@link GanttBarsData} of the tasks of the order, or null if it
+         * has not been calculated since it was retrieved or saved.
+         */
+        public GanttBarsData getBarsData() {
+            return barsData;
+        }
+
+        public void setBarsData(GanttBarsData barsData) {
+            this.barsData = barsData;
+        }
+
+        public void invalidateBarsData() {
+            barsData = null;
+        }
+
         public IScenarioInfo getScenarioInfo() {
             return scenarioInfo;
         }
@@ -297,6 +297,7 @@ public class SaveCommandBuilder {
                     if ( state.getOrder().isNeededToRecalculateSumExpenses() )
                         sumExpensesRecalculator.recalculate(state.getOrder().getId());
 
+                    state.invalidateBarsData();
 
                     fireAfterSave();
                     if ( afterSaveActions != null )
@@ -45,6 +45,7 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.ResourceCalendar;
 import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
@@ -62,10 +63,7 @@ import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.entities.Scenario;
-import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IUserDAO;
-import org.libreplan.business.users.entities.OrderAuthorization;
-import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
 import org.libreplan.web.calendars.BaseCalendarModel;
@@ -112,7 +110,7 @@ public class ResourceLoadModel implements IResourceLoadModel {
     private IUserDAO userDAO;
 
     @Autowired
-    private IOrderAuthorizationDAO orderAuthorizationDAO;
+    private PredefinedDatabaseSnapshots databaseSnapshots;
 
     @Autowired
     private IScenarioManager scenarioManager;
@@ -155,20 +153,7 @@ public class ResourceLoadModel implements IResourceLoadModel {
             return true;
         }
 
-        try {
-            User user = userDAO.findByLoginName(loginName);
-            for (OrderAuthorization authorization : orderAuthorizationDAO.listByOrderUserAndItsProfiles(order, user)) {
-                if ( authorization.getAuthorizationType() == OrderAuthorizationType.READ_AUTHORIZATION ||
-                        authorization.getAuthorizationType() == OrderAuthorizationType.WRITE_AUTHORIZATION ) {
-                    return true;
-                }
-            }
-        } catch (InstanceNotFoundException e) {
-            // This case shouldn't happen, because it would mean that there isn't a logged user,
-            // anyway, if it happenned we don't allow the user to pass.
-        }
-
-        return false;
+        return databaseSnapshots.snapshotOrderAuthorizationsIndex().canRead(loginName, order.getId());
     }
 
     public ResourceAllocationsFinder<?> create(ResourceLoadParameters parameters) {
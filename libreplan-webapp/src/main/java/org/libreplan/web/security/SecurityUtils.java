@@ -22,17 +22,12 @@
 package org.libreplan.web.security;
 
 import java.security.Principal;
-import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.jfree.util.Log;
 import org.libreplan.business.common.Registry;
-import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.users.entities.OrderAuthorization;
-import org.libreplan.business.users.entities.OrderAuthorizationType;
-import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
 import org.libreplan.web.users.services.CustomUser;
 import org.springframework.security.core.Authentication;
@@ -134,23 +129,14 @@ public final class SecurityUtils {
             return true;
         }
 
-        return Registry.getTransactionService().runOnReadOnlyTransaction(
-                () -> {
-                    try {
-                        CustomUser customUser = getLoggedUser();
-                        if (customUser == null) {
-                            return false;
-                        }
-                        String username = customUser.getUsername();
-
-                        return Registry
-                                .getOrderAuthorizationDAO()
-                                .userOrItsProfilesHaveAnyAuthorization(Registry.getUserDAO().findByLoginName(username));
-
-                    } catch (InstanceNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+        CustomUser customUser = getLoggedUser();
+        if (customUser == null) {
+            return false;
+        }
+
+        return Registry.getPredefinedDatabaseSnapshots()
+                .snapshotOrderAuthorizationsIndex()
+                .hasAnyAuthorization(customUser.getUsername());
     }
 
     public static boolean loggedUserCanWrite(Order order) {
@@ -162,27 +148,14 @@ public final class SecurityUtils {
             return true;
         }
 
-        User user;
-        try {
-            CustomUser loggedUser = getLoggedUser();
-            if (loggedUser == null) {
-                return false;
-            }
-            user = Registry.getUserDAO().findByLoginName(loggedUser.getUsername());
-        } catch (InstanceNotFoundException e) {
-            Log.warn("Logged user not found in database", e);
+        CustomUser loggedUser = getLoggedUser();
+        if (loggedUser == null) {
             return false;
         }
 
-        List<OrderAuthorization> orderAuthorizations =
-                Registry.getOrderAuthorizationDAO().listByOrderUserAndItsProfiles(order, user);
-
-        for (OrderAuthorization authorization : orderAuthorizations) {
-            if (authorization.getAuthorizationType().equals(OrderAuthorizationType.WRITE_AUTHORIZATION)) {
-                return true;
-            }
-        }
-        return false;
+        return Registry.getPredefinedDatabaseSnapshots()
+                .snapshotOrderAuthorizationsIndex()
+                .canWrite(loggedUser.getUsername(), order.getId());
     }
 
 }
@@ -35,6 +35,10 @@ public interface ICalendarExceptionTypeService {
 
     CalendarExceptionTypeListDTO getCalendarExceptionType();
 
+    CalendarExceptionTypeListDTO getCalendarExceptionType(String after, Integer limit);
+
+    Response streamCalendarExceptionTypes();
+
     InstanceConstraintViolationsListDTO addCalendarExceptionTypes(
             CalendarExceptionTypeListDTO calendarExceptionTypeListDTO);
 
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.calendars.daos.ICalendarExceptionTypeDAO;
@@ -84,10 +85,24 @@ public class CalendarExceptionTypeServiceREST extends
     }
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public CalendarExceptionTypeListDTO getCalendarExceptionType() {
-        return new CalendarExceptionTypeListDTO(findAll());
+        return getCalendarExceptionType(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public CalendarExceptionTypeListDTO getCalendarExceptionType(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new CalendarExceptionTypeListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamCalendarExceptionTypes() {
+        return streamAll(CalendarExceptionTypeListDTO.class);
     }
 
     @Override
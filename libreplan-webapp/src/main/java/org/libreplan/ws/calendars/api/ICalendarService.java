@@ -35,6 +35,10 @@ public interface ICalendarService {
 
     BaseCalendarListDTO getBaseCalendars();
 
+    BaseCalendarListDTO getBaseCalendars(String after, Integer limit);
+
+    Response streamBaseCalendars();
+
     InstanceConstraintViolationsListDTO addBaseCalendars(
             BaseCalendarListDTO BaseCalendraListDTO);
 
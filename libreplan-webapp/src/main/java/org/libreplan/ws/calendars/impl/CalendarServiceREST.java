@@ -29,6 +29,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
@@ -84,15 +85,34 @@ public class CalendarServiceREST extends
     }
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public BaseCalendarListDTO getBaseCalendars() {
+        return getBaseCalendars(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public BaseCalendarListDTO getBaseCalendars(
+            @QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        if (after != null || limit != null) {
+            // ResourceCalendar entities are excluded by the DAO
+            return new BaseCalendarListDTO(findAll(after, limit));
+        }
         // Avoid ResourceCalendar entities
         List<BaseCalendar> justBaseCalendars = getIntegrationEntityDAO()
                 .getBaseCalendars();
         return new BaseCalendarListDTO(toDTO(justBaseCalendars));
     }
 
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamBaseCalendars() {
+        return streamAll(BaseCalendarListDTO.class);
+    }
+
     @Override
     @POST
     @Consumes("application/xml")
@@ -21,12 +21,28 @@
 
 package org.libreplan.ws.common.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.IntegrationEntity;
@@ -34,6 +50,7 @@ import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
+import org.libreplan.ws.common.api.InstanceConstraintViolationsDTOId;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.common.api.IntegrationEntityDTO;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,6 +64,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class GenericRESTService<E extends IntegrationEntity,
     DTO extends IntegrationEntityDTO> {
 
+    /**
+     * Maximum number of entities returned in a page. Bigger limits are
+     * reduced to it.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Number of entities saved in the same transaction by
+     * {@link #saveInBatches(List)}.
+     */
+    public static final int IMPORT_CHUNK_SIZE = 100;
+
+    private static final Log LOG = LogFactory.getLog(GenericRESTService.class);
+
     @Autowired
     protected IAdHocTransactionService transactionService;
 
@@ -57,6 +88,67 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
         return toDTO(getIntegrationEntityDAO().findAll());
     }
 
+    /**
+     * It retrieves a page of entities ordered by code. If neither
+     * <code>afterCode</code> nor <code>limit</code> are specified it retrieves
+     * all entities like {@link #findAll()}.
+     *
+     * @param afterCode
+     *            code of the last entity of the previous page,
+     *            <code>null</code> for the first page
+     * @param limit
+     *            maximum number of entities, {@link #MAX_PAGE_SIZE} if it's
+     *            <code>null</code>
+     */
+    protected List<DTO> findAll(String afterCode, Integer limit) {
+        if (afterCode == null && limit == null) {
+            return findAll();
+        }
+
+        return toDTO(getIntegrationEntityDAO().findAfterCode(afterCode,
+                pageSize(limit)));
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null || limit > MAX_PAGE_SIZE) {
+            return MAX_PAGE_SIZE;
+        }
+        return Math.max(limit, 1);
+    }
+
+    /**
+     * It builds a response writing the entities ordered by code with the same
+     * format than <code>listDTOClass</code>. Inside a read only transaction,
+     * each entity is converted and written to the output stream as it's read
+     * from the database, so the memory used doesn't depend on the number of
+     * entities.
+     */
+    protected Response streamAll(Class<?> listDTOClass) {
+        final XmlListWriter writer = XmlListWriter.forListDTO(listDTOClass);
+
+        StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                transactionService.runOnReadOnlyTransaction(
+                        new IOnTransaction<Void>() {
+
+                            @Override
+                            public Void execute() {
+                                final XmlListWriter.Output xml = writer
+                                        .open(out);
+                                getIntegrationEntityDAO().scrollAll(
+                                        entity -> xml.write(toDTO(entity)));
+                                xml.close();
+                                return null;
+                            }
+                        });
+            }
+        };
+
+        return Response.ok(output).type("application/xml").build();
+    }
+
     /**
      * It saves (inserts or updates) a list of entities. Each entity is
      * saved in a separate transaction.
@@ -71,26 +163,7 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
         for (DTO entityDTO : entityDTOs) {
 
             InstanceConstraintViolationsDTO instanceConstraintViolationsDTO =
-                null;
-
-            try {
-                insertOrUpdate(entityDTO);
-            } catch (ValidationException e) {
-                instanceConstraintViolationsDTO =
-                    ConstraintViolationConverter.toDTO(
-                        Util.generateInstanceConstraintViolationsDTOId(
-                            numItem, entityDTO), e);
-            } catch (RecoverableErrorException e) {
-                instanceConstraintViolationsDTO =
-                    ConstraintViolationConverter.toDTO(
-                        Util.generateInstanceConstraintViolationsDTOId(
-                            numItem, entityDTO), e);
-            } catch (RuntimeException e) {
-                instanceConstraintViolationsDTO =
-                    ConstraintViolationConverter.toDTO(
-                        Util.generateInstanceConstraintViolationsDTOId(
-                            numItem, entityDTO), e);
-            }
+                saveOne(numItem, entityDTO);
 
             if (instanceConstraintViolationsDTO != null) {
                 instanceConstraintViolationsList.add(
@@ -106,6 +179,295 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
     }
 
+    /**
+     * It saves (inserts or updates) a list of entities, in batches if
+     * <code>batch</code> is <code>true</code> (see {@link #saveInBatches(List)})
+     * or each one in a separate transaction otherwise (see {@link #save(List)}).
+     */
+    protected InstanceConstraintViolationsListDTO save(
+        List<? extends DTO> entityDTOs, boolean batch) {
+
+        return batch ? saveInBatches(entityDTOs) : save(entityDTOs);
+
+    }
+
+    /**
+     * It saves (inserts or updates) a list of entities, returning the same
+     * report than {@link #save(List)}, but using a transaction for each chunk
+     * of {@link #IMPORT_CHUNK_SIZE} entities instead of a transaction for each
+     * entity.
+     *
+     * In the transaction of a chunk, the existing entities of the chunk are
+     * retrieved with one query and all the entities are converted and
+     * validated before saving any of them. The entities rejected are reported
+     * and the rest of the chunk is saved again in a new transaction. If a
+     * chunk can not be saved this way (e.g. a database error is raised while
+     * flushing, or some entities of the chunk share a value that must be
+     * unique, see {@link #getUniqueValues(IntegrationEntity)}), only the
+     * entities of that chunk are saved again each one in a separate
+     * transaction, so the failures are reported for the right entities.
+     */
+    protected InstanceConstraintViolationsListDTO saveInBatches(
+        List<? extends DTO> entityDTOs) {
+
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+            new ArrayList<InstanceConstraintViolationsDTO>();
+
+        for (int start = 0; start < entityDTOs.size();
+                start += IMPORT_CHUNK_SIZE) {
+
+            int end = Math.min(start + IMPORT_CHUNK_SIZE, entityDTOs.size());
+            instanceConstraintViolationsList.addAll(
+                saveChunk(entityDTOs.subList(start, end), start + 1));
+
+        }
+
+        return new InstanceConstraintViolationsListDTO(
+            instanceConstraintViolationsList);
+
+    }
+
+    private Collection<InstanceConstraintViolationsDTO> saveChunk(
+        List<? extends DTO> chunk, long firstNumItem) {
+
+        SortedMap<Long, InstanceConstraintViolationsDTO> violationsByNumItem =
+            new TreeMap<Long, InstanceConstraintViolationsDTO>();
+        Map<Long, DTO> pending = new LinkedHashMap<Long, DTO>();
+        for (int i = 0; i < chunk.size(); i++) {
+            pending.put(firstNumItem + i, chunk.get(i));
+        }
+
+        boolean saved = false;
+        try {
+            saveAllOrNothing(pending);
+            saved = true;
+        } catch (RejectedEntitiesException e) {
+            violationsByNumItem.putAll(e.violationsByNumItem);
+            pending.keySet().removeAll(e.violationsByNumItem.keySet());
+            saved = pending.isEmpty() || trySaveAllOrNothing(pending);
+        } catch (RuntimeException e) {
+            LOG.debug("chunk starting at item " + firstNumItem
+                    + " could not be saved at once", e);
+        }
+
+        if (!saved) {
+            saveOneByOne(pending, violationsByNumItem);
+        }
+
+        return violationsByNumItem.values();
+
+    }
+
+    private boolean trySaveAllOrNothing(Map<Long, DTO> entityDTOsByNumItem) {
+
+        try {
+            saveAllOrNothing(entityDTOsByNumItem);
+            return true;
+        } catch (RuntimeException e) {
+            LOG.debug("entities not rejected could not be saved at once", e);
+            return false;
+        }
+
+    }
+
+    private void saveOneByOne(Map<Long, DTO> entityDTOsByNumItem,
+        Map<Long, InstanceConstraintViolationsDTO> violationsByNumItem) {
+
+        for (Entry<Long, DTO> each : entityDTOsByNumItem.entrySet()) {
+            InstanceConstraintViolationsDTO instanceConstraintViolationsDTO =
+                saveOne(each.getKey(), each.getValue());
+            if (instanceConstraintViolationsDTO != null) {
+                violationsByNumItem.put(each.getKey(),
+                    instanceConstraintViolationsDTO);
+            }
+        }
+
+    }
+
+    /**
+     * It saves all the entities in a new transaction. If some of them is
+     * rejected, nothing is saved and a {@link RejectedEntitiesException} with
+     * all the rejected entities is thrown.
+     */
+    private void saveAllOrNothing(final Map<Long, DTO> entityDTOsByNumItem) {
+
+        IOnTransaction<Void> save = new IOnTransaction<Void>() {
+
+            @Override
+            public Void execute() {
+
+                IIntegrationEntityDAO<E> entityDAO = getIntegrationEntityDAO();
+                Map<String, E> existing = byCode(
+                    entityDAO.findByCodes(codesOf(entityDTOsByNumItem.values())));
+
+                Set<E> entities = Collections.newSetFromMap(
+                    new IdentityHashMap<E, Boolean>());
+                List<E> toSave = new ArrayList<E>();
+                Map<Long, InstanceConstraintViolationsDTO> rejected =
+                    new HashMap<Long, InstanceConstraintViolationsDTO>();
+
+                // The values stored before updating are taken too
+                Map<String, E> ownersByUniqueValue = new HashMap<String, E>();
+                for (E each : existing.values()) {
+                    checkUniqueValues(each, ownersByUniqueValue);
+                }
+
+                for (Entry<Long, DTO> each : entityDTOsByNumItem.entrySet()) {
+                    try {
+                        E entity = updateOrCreate(each.getValue(), existing);
+                        checkUniqueValues(entity, ownersByUniqueValue);
+                        entity.validate();
+                        if (entities.add(entity)) {
+                            toSave.add(entity);
+                        }
+                    } catch (ValidationException e) {
+                        rejected.put(each.getKey(), toViolations(each.getKey(),
+                            each.getValue(), e));
+                    } catch (RecoverableErrorException e) {
+                        rejected.put(each.getKey(), toViolations(each.getKey(),
+                            each.getValue(), e));
+                    }
+                }
+
+                if (!rejected.isEmpty()) {
+                    throw new RejectedEntitiesException(rejected);
+                }
+
+                for (E entity : toSave) {
+                    beforeSaving(entity);
+                    entityDAO.saveWithoutValidating(entity);
+                    afterSaving(entity);
+                }
+
+                return null;
+
+            }
+
+        };
+
+        transactionService.runOnAnotherTransaction(save);
+
+    }
+
+    private E updateOrCreate(DTO entityDTO, Map<String, E> existing) {
+
+        String key = normalizeCode(entityDTO.code);
+        E entity = key != null ? existing.get(key) : null;
+
+        if (entity != null) {
+            updateEntity(entity, entityDTO);
+        } else {
+            entity = toEntity(entityDTO);
+            if (key != null) {
+                // Next DTOs with the same code update it
+                existing.put(key, entity);
+            }
+        }
+
+        return entity;
+
+    }
+
+    /**
+     * The validations of these values query the database in another
+     * transaction, so they can not see the other entities of the chunk. If
+     * some value is shared with another entity of the chunk, the chunk is
+     * saved one by one like {@link #save(List)} does.
+     */
+    private void checkUniqueValues(E entity, Map<String, E> ownersByUniqueValue) {
+
+        for (String each : getUniqueValues(entity)) {
+            E owner = ownersByUniqueValue.get(each);
+            if (owner == null) {
+                ownersByUniqueValue.put(each, entity);
+            } else if (owner != entity) {
+                throw new SharedUniqueValueException(each);
+            }
+        }
+
+    }
+
+    private static List<String> codesOf(Collection<? extends IntegrationEntityDTO> entityDTOs) {
+        List<String> result = new ArrayList<String>();
+        for (IntegrationEntityDTO each : entityDTOs) {
+            result.add(each.code);
+        }
+        return result;
+    }
+
+    private Map<String, E> byCode(List<E> entities) {
+        Map<String, E> result = new HashMap<String, E>();
+        for (E each : entities) {
+            result.put(normalizeCode(each.getCode()), each);
+        }
+        return result;
+    }
+
+    /**
+     * Codes are searched ignoring case and surrounding whitespace, like
+     * {@link IIntegrationEntityDAO#findByCode(String)} does.
+     */
+    protected static String normalizeCode(String code) {
+        return StringUtils.isBlank(code) ? null : code.trim().toLowerCase();
+    }
+
+    private InstanceConstraintViolationsDTO saveOne(long numItem,
+        DTO entityDTO) {
+
+        try {
+            insertOrUpdate(entityDTO);
+            return null;
+        } catch (RuntimeException e) {
+            return toViolations(numItem, entityDTO, e);
+        }
+
+    }
+
+    private InstanceConstraintViolationsDTO toViolations(long numItem,
+        DTO entityDTO, RuntimeException e) {
+
+        InstanceConstraintViolationsDTOId instanceId =
+            Util.generateInstanceConstraintViolationsDTOId(numItem, entityDTO);
+
+        if (e instanceof ValidationException) {
+            return ConstraintViolationConverter.toDTO(instanceId,
+                (ValidationException) e);
+        }
+        if (e instanceof RecoverableErrorException) {
+            return ConstraintViolationConverter.toDTO(instanceId,
+                (RecoverableErrorException) e);
+        }
+        return ConstraintViolationConverter.toDTO(instanceId, e);
+
+    }
+
+    /**
+     * Thrown to roll back the transaction saving a chunk of entities when
+     * some of them are rejected.
+     */
+    private static class RejectedEntitiesException extends RuntimeException {
+
+        private final Map<Long, InstanceConstraintViolationsDTO> violationsByNumItem;
+
+        private RejectedEntitiesException(
+            Map<Long, InstanceConstraintViolationsDTO> violationsByNumItem) {
+            this.violationsByNumItem = violationsByNumItem;
+        }
+
+    }
+
+    /**
+     * Thrown to roll back the transaction saving a chunk of entities when
+     * some of them share a value that must be unique.
+     */
+    private static class SharedUniqueValueException extends RuntimeException {
+
+        private SharedUniqueValueException(String value) {
+            super("value shared by several entities of the chunk: " + value);
+        }
+
+    }
+
     /**
      * It saves (inserts or updates) an entity DTO by using a new transaction.
      *
@@ -155,6 +517,20 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
     }
 
+    /**
+     * It returns the values of the entity that must be unique and whose
+     * validations query the database in another transaction (e.g. a NIF or
+     * the codes of the children of the entity), so they are checked among the
+     * entities saved together by {@link #saveInBatches(List)}. Each value
+     * should be prefixed with its kind and normalized (e.g. in lower case) as
+     * the validation compares it, to be compared between entities.
+     *
+     * Default implementation returns an empty list.
+     */
+    protected List<String> getUniqueValues(E entity) {
+        return Collections.emptyList();
+    }
+
     /**
      * It allows to add operations that must be done before saving.
      *
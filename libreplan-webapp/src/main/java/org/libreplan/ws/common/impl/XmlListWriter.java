@@ -0,0 +1,185 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.ws.common.impl;
+
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElements;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSchema;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Writes the same XML document than a list DTO, like
+ * {@link org.libreplan.ws.workreports.api.WorkReportListDTO}, one element at a
+ * time. The root element and the names of the elements are taken from the
+ * JAXB annotations of the list DTO class.
+ */
+class XmlListWriter {
+
+    private static final String DEFAULT = "##default";
+
+    private static final ConcurrentMap<Class<?>, XmlListWriter> byListDTOClass = new ConcurrentHashMap<>();
+
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
+    static XmlListWriter forListDTO(Class<?> listDTOClass) {
+        XmlListWriter result = byListDTOClass.get(listDTOClass);
+        if (result == null) {
+            result = new XmlListWriter(listDTOClass);
+            byListDTOClass.putIfAbsent(listDTOClass, result);
+        }
+        return result;
+    }
+
+    private final JAXBContext context;
+
+    private final QName root;
+
+    /**
+     * The element name for each type of the elements of the list.
+     */
+    private final Map<Class<?>, QName> elements = new LinkedHashMap<>();
+
+    private XmlListWriter(Class<?> listDTOClass) {
+        XmlRootElement rootElement = listDTOClass.getAnnotation(XmlRootElement.class);
+        Validate.notNull(rootElement, "%s is not a root element", listDTOClass);
+
+        String namespace = namespaceOf(listDTOClass);
+        this.root = new QName(namespace, rootElement.name());
+
+        for (Field each : listDTOClass.getFields()) {
+            XmlElements xmlElements = each.getAnnotation(XmlElements.class);
+            if (xmlElements != null) {
+                for (XmlElement element : xmlElements.value()) {
+                    elements.put(element.type(), elementName(namespace, element, each));
+                }
+            }
+
+            XmlElement xmlElement = each.getAnnotation(XmlElement.class);
+            if (xmlElement != null) {
+                elements.put(elementType(xmlElement, each), elementName(namespace, xmlElement, each));
+            }
+        }
+        Validate.isTrue(!elements.isEmpty(), "%s has no list of elements", listDTOClass);
+
+        try {
+            this.context = JAXBContext.newInstance(listDTOClass);
+        } catch (JAXBException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String namespaceOf(Class<?> klass) {
+        XmlSchema schema = klass.getPackage().getAnnotation(XmlSchema.class);
+        return schema != null ? schema.namespace() : "";
+    }
+
+    private static QName elementName(String namespace, XmlElement element, Field field) {
+        String name = DEFAULT.equals(element.name()) ? field.getName() : element.name();
+        return new QName(DEFAULT.equals(element.namespace()) ? namespace : element.namespace(), name);
+    }
+
+    private static Class<?> elementType(XmlElement element, Field field) {
+        if (element.type() != XmlElement.DEFAULT.class) {
+            return element.type();
+        }
+        return (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+    }
+
+    Output open(OutputStream outputStream) {
+        try {
+            return new Output(outputStream);
+        } catch (JAXBException | XMLStreamException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The most specific of the types of the list the DTO belongs to.
+     */
+    private Entry<Class<?>, QName> elementFor(Object dto) {
+        Entry<Class<?>, QName> result = null;
+        for (Entry<Class<?>, QName> each : elements.entrySet()) {
+            if (each.getKey().isInstance(dto) && (result == null || result.getKey().isAssignableFrom(each.getKey()))) {
+                result = each;
+            }
+        }
+        Validate.notNull(result, "%s is not an element of %s", dto.getClass(), root);
+        return result;
+    }
+
+    class Output {
+
+        private final XMLStreamWriter writer;
+
+        private final Marshaller marshaller;
+
+        private Output(OutputStream outputStream) throws JAXBException, XMLStreamException {
+            this.marshaller = context.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+            this.writer = outputFactory.createXMLStreamWriter(outputStream, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.setDefaultNamespace(root.getNamespaceURI());
+            writer.writeStartElement(root.getNamespaceURI(), root.getLocalPart());
+            writer.writeDefaultNamespace(root.getNamespaceURI());
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void write(Object dto) {
+            Entry<Class<?>, QName> element = elementFor(dto);
+            try {
+                marshaller.marshal(new JAXBElement(element.getValue(), element.getKey(), dto), writer);
+            } catch (JAXBException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void close() {
+            try {
+                writer.writeEndElement();
+                writer.writeEndDocument();
+                writer.flush();
+                writer.close();
+            } catch (XMLStreamException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+}
@@ -36,5 +36,9 @@ public interface ICostCategoryService {
 
     public CostCategoryListDTO getCostCotegories();
 
+    public CostCategoryListDTO getCostCotegories(String after, Integer limit);
+
+    public Response streamCostCategories();
+
     Response getCostCategory(String code);
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -58,10 +59,24 @@ public class CostCategoryServiceREST extends
     private ICostCategoryDAO costCategoryDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public CostCategoryListDTO getCostCotegories() {
-        return new CostCategoryListDTO(findAll());
+        return getCostCotegories(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public CostCategoryListDTO getCostCotegories(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new CostCategoryListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamCostCategories() {
+        return streamAll(CostCategoryListDTO.class);
     }
 
     @Override
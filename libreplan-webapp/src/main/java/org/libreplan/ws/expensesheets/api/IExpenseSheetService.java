@@ -33,6 +33,10 @@ public interface IExpenseSheetService {
 
     ExpenseSheetListDTO getExpenseSheets();
 
+    ExpenseSheetListDTO getExpenseSheets(String after, Integer limit);
+
+    Response streamExpenseSheets();
+
     InstanceConstraintViolationsListDTO addExpenseSheets(
             ExpenseSheetListDTO expenseSheetListDTO);
 
@@ -35,6 +35,10 @@ public interface ILabelService {
 
     LabelTypeListDTO getLabelTypes();
 
+    LabelTypeListDTO getLabelTypes(String after, Integer limit);
+
+    Response streamLabelTypes();
+
     InstanceConstraintViolationsListDTO addLabelTypes(
             LabelTypeListDTO labelTypes);
 
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -58,10 +59,24 @@ public class LabelServiceREST extends
     private ILabelTypeDAO labelTypeDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public LabelTypeListDTO getLabelTypes() {
-        return new LabelTypeListDTO(findAll());
+        return getLabelTypes(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public LabelTypeListDTO getLabelTypes(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new LabelTypeListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamLabelTypes() {
+        return streamAll(LabelTypeListDTO.class);
     }
 
     @Override
@@ -33,6 +33,10 @@ public interface IMaterialService {
 
     public MaterialCategoryListDTO getMaterials();
 
+    public MaterialCategoryListDTO getMaterials(String after, Integer limit);
+
+    public Response streamMaterials();
+
     public InstanceConstraintViolationsListDTO addMaterials(
             MaterialCategoryListDTO materialCategoryListDTO);
 
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -57,10 +58,24 @@ public class MaterialServiceREST extends
     private IMaterialCategoryDAO materialCategoryDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public MaterialCategoryListDTO getMaterials() {
-        return new MaterialCategoryListDTO(findAll());
+        return getMaterials(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public MaterialCategoryListDTO getMaterials(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new MaterialCategoryListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamMaterials() {
+        return streamAll(MaterialCategoryListDTO.class);
     }
 
     @Override
@@ -35,8 +35,14 @@ public interface IOrderElementService {
 
     InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO);
 
+    InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO, boolean batch);
+
     OrderListDTO getOrders();
 
+    OrderListDTO getOrders(String after, Integer limit);
+
+    Response streamOrders();
+
     Response getOrderElement(String code);
 
     Response removeOrderElement(String code);
@@ -21,6 +21,8 @@
 
 package org.libreplan.ws.orders.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import javax.ws.rs.Consumes;
@@ -30,6 +32,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -77,17 +80,37 @@ public class OrderElementServiceREST
     private IOrderModel orderModel;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public OrderListDTO getOrders() {
-        return new OrderListDTO(findAll());
+        return getOrders(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public OrderListDTO getOrders(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new OrderListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamOrders() {
+        return streamAll(OrderListDTO.class);
+    }
+
+    @Override
+    public InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO) {
+        return addOrders(orderListDTO, false);
     }
 
     @Override
     @POST
     @Consumes("application/xml")
-    public InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO) {
-        return save(orderListDTO.orderDTOs);
+    public InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO,
+            @QueryParam("batch") boolean batch) {
+        return save(orderListDTO.orderDTOs, batch);
     }
 
     @Override
@@ -112,6 +135,31 @@ public class OrderElementServiceREST
             OrderElementConverter.update(entity, entityDTO, ConfigurationOrderElementConverter.all());
     }
 
+    @Override
+    protected List<String> getUniqueValues(Order entity) {
+        List<String> result = new ArrayList<>();
+
+        String name = normalizeCode(entity.getName());
+        if (name != null) {
+            result.add("name:" + name);
+        }
+
+        // The codes of the order elements must be unique among all the orders
+        addCode(result, entity);
+        for (OrderElement each : entity.getAllChildren()) {
+            addCode(result, each);
+        }
+
+        return result;
+    }
+
+    private static void addCode(List<String> result, OrderElement orderElement) {
+        String code = normalizeCode(orderElement.getCode());
+        if (code != null) {
+            result.add("code:" + code);
+        }
+    }
+
     @Override
     @GET
     @Path("/{code}/")
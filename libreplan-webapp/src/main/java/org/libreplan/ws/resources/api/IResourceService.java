@@ -41,8 +41,15 @@ public interface IResourceService {
     public InstanceConstraintViolationsListDTO addResources(
         ResourceListDTO resources);
 
+    public InstanceConstraintViolationsListDTO addResources(
+        ResourceListDTO resources, boolean batch);
+
     public ResourceListDTO getResources();
 
+    public ResourceListDTO getResources(String after, Integer limit);
+
+    public Response streamResources();
+
     Response getResource(String code);
 
 }
@@ -34,6 +34,10 @@ public interface ICriterionService {
 
     public CriterionTypeListDTO getCriterionTypes();
 
+    public CriterionTypeListDTO getCriterionTypes(String after, Integer limit);
+
+    public Response streamCriterionTypes();
+
     public InstanceConstraintViolationsListDTO addCriterionTypes(
         CriterionTypeListDTO criterionTypes);
 
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -58,10 +59,24 @@ public class CriterionServiceREST
     private ICriterionTypeDAO criterionTypeDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public CriterionTypeListDTO getCriterionTypes() {
-        return new CriterionTypeListDTO(findAll());
+        return getCriterionTypes(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public CriterionTypeListDTO getCriterionTypes(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new CriterionTypeListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamCriterionTypes() {
+        return streamAll(CriterionTypeListDTO.class);
     }
 
     @Override
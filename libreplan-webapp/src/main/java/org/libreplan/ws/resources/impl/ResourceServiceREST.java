@@ -31,12 +31,15 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
 import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
+import org.libreplan.business.common.entities.Configuration;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
@@ -45,6 +48,7 @@ import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.daos.IWorkerDAO;
 import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.common.impl.GenericRESTService;
 import org.libreplan.ws.common.impl.RecoverableErrorException;
@@ -73,13 +77,24 @@ public class ResourceServiceREST
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IConfigurationDAO configurationDAO;
+
+    @Override
+    public InstanceConstraintViolationsListDTO addResources(
+        ResourceListDTO resources) {
+
+        return addResources(resources, false);
+
+    }
+
     @Override
     @POST
     @Consumes("application/xml")
     public InstanceConstraintViolationsListDTO addResources(
-        ResourceListDTO resources) {
+        ResourceListDTO resources, @QueryParam("batch") boolean batch) {
 
-        return save(resources.resources);
+        return save(resources.resources, batch);
 
     }
 
@@ -98,6 +113,33 @@ public class ResourceServiceREST
 
     }
 
+    @Override
+    protected List<String> getUniqueValues(Resource entity) {
+
+        List<String> result = new ArrayList<String>();
+
+        if (entity instanceof Worker) {
+            String nif = normalizeCode(((Worker) entity).getNif());
+            if (nif != null) {
+                result.add("nif:" + nif);
+            }
+        }
+
+        // The new resources are counted against the maximum of resources
+        if (entity.isNewObject() && isMaxResourcesSet()) {
+            result.add("new resource");
+        }
+
+        return result;
+
+    }
+
+    private boolean isMaxResourcesSet() {
+        Configuration configuration = configurationDAO.getConfiguration();
+        return configuration != null && configuration.getMaxResources() != null
+            && configuration.getMaxResources() > 0;
+    }
+
     @Override
     protected ResourceDTO toDTO(Resource entity) {
         return ResourceConverter.toDTO(entity);
@@ -125,10 +167,24 @@ public class ResourceServiceREST
     private IMachineDAO machineDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public ResourceListDTO getResources() {
-        return new ResourceListDTO(findAll());
+        return getResources(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public ResourceListDTO getResources(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new ResourceListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamResources() {
+        return streamAll(ResourceListDTO.class);
     }
 
     @Override
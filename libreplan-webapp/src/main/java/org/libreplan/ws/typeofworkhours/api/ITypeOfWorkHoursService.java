@@ -36,5 +36,9 @@ public interface ITypeOfWorkHoursService {
 
     public TypeOfWorkHoursListDTO getTypeOfWorkHours();
 
+    public TypeOfWorkHoursListDTO getTypeOfWorkHours(String after, Integer limit);
+
+    public Response streamTypeOfWorkHours();
+
     Response getTypeOfWorkHours(String code);
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -58,10 +59,24 @@ public class TypeOfWorkHoursServiceREST extends
     private ITypeOfWorkHoursDAO typeOfWorkHoursDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public TypeOfWorkHoursListDTO getTypeOfWorkHours() {
-        return new TypeOfWorkHoursListDTO(findAll());
+        return getTypeOfWorkHours(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public TypeOfWorkHoursListDTO getTypeOfWorkHours(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new TypeOfWorkHoursListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamTypeOfWorkHours() {
+        return streamAll(TypeOfWorkHoursListDTO.class);
     }
 
     @Override
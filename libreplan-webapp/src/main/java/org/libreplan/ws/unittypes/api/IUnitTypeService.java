@@ -29,6 +29,10 @@ public interface IUnitTypeService {
 
     public UnitTypeListDTO getUnitTypes();
 
+    public UnitTypeListDTO getUnitTypes(String after, Integer limit);
+
+    public Response streamUnitTypes();
+
     public InstanceConstraintViolationsListDTO addUnitTypes(
             UnitTypeListDTO unitTypeListDTO);
 
@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -56,10 +57,24 @@ public class UnitTypeServiceREST extends
     private IUnitTypeDAO unitTypeDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public UnitTypeListDTO getUnitTypes() {
-        return new UnitTypeListDTO(findAll());
+        return getUnitTypes(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public UnitTypeListDTO getUnitTypes(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new UnitTypeListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamUnitTypes() {
+        return streamAll(UnitTypeListDTO.class);
     }
 
     @Override
@@ -34,9 +34,16 @@ public interface IWorkReportService {
 
     public WorkReportListDTO getWorkReports();
 
+    public WorkReportListDTO getWorkReports(String after, Integer limit);
+
+    public Response streamWorkReports();
+
     public InstanceConstraintViolationsListDTO addWorkReports(
             WorkReportListDTO workReportListDTO);
 
+    public InstanceConstraintViolationsListDTO addWorkReports(
+            WorkReportListDTO workReportListDTO, boolean batch);
+
     public Response getWorkReport(String code);
 
     Response removeWorkReport(String code);
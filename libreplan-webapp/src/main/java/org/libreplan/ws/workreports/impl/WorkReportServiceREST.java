@@ -21,8 +21,10 @@
 
 package org.libreplan.ws.workreports.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.ws.rs.Consumes;
@@ -32,6 +34,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -75,17 +78,37 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
     private ISumChargedEffortDAO sumChargedEffortDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public WorkReportListDTO getWorkReports() {
-        return new WorkReportListDTO(findAll());
+        return getWorkReports(null, null);
+    }
+
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public WorkReportListDTO getWorkReports(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new WorkReportListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamWorkReports() {
+        return streamAll(WorkReportListDTO.class);
+    }
+
+    @Override
+    public InstanceConstraintViolationsListDTO addWorkReports(WorkReportListDTO workReportListDTO) {
+        return addWorkReports(workReportListDTO, false);
     }
 
     @Override
     @POST
     @Consumes("application/xml")
-    public InstanceConstraintViolationsListDTO addWorkReports(WorkReportListDTO workReportListDTO) {
-        return save(workReportListDTO.workReports);
+    public InstanceConstraintViolationsListDTO addWorkReports(WorkReportListDTO workReportListDTO,
+            @QueryParam("batch") boolean batch) {
+        return save(workReportListDTO.workReports, batch);
     }
 
     @Override
@@ -115,6 +138,25 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
 
     }
 
+    @Override
+    protected List<String> getUniqueValues(WorkReport entity) {
+        List<String> result = new ArrayList<>();
+
+        for (WorkReportLine each : entity.getWorkReportLines()) {
+            String code = normalizeCode(each.getCode());
+            if (code != null) {
+                result.add("line:" + code);
+            }
+
+            // Only one line of all the work reports can mark a task as finished
+            if (Boolean.TRUE.equals(each.isFinished()) && each.getOrderElement() != null) {
+                result.add("finished:" + normalizeCode(each.getOrderElement().getCode()));
+            }
+        }
+
+        return result;
+    }
+
     @Override
     protected void beforeSaving(WorkReport entity) {
         orderElements = sumChargedEffortDAO
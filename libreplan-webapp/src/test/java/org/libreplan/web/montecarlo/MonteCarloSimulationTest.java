@@ -0,0 +1,146 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+
+/**
+ * Tests for {@link MonteCarloSimulation}.
+ */
+public class MonteCarloSimulationTest {
+
+    private static final LocalDate START = new LocalDate(2020, 1, 6);
+
+    private MonteCarloSimulation simulation;
+
+    private void givenSimulation(int tasks) {
+        simulation = MonteCarloSimulation.create(START, tasks);
+    }
+
+    private void givenCertainDuration(int task, LocalDate start, int days) {
+        simulation.setEstimations(task, start, days, days, days, 0, 100);
+    }
+
+    @Test
+    public void aChainEndsAfterTheSumOfItsDurations() {
+        givenSimulation(3);
+        givenCertainDuration(0, START, 3);
+        givenCertainDuration(1, START, 4);
+        givenCertainDuration(2, START, 1);
+        simulation.addDependency(0, 1);
+        simulation.addDependency(1, 2);
+
+        MonteCarloHistogram histogram = simulation.run(1000, null, null);
+
+        assertThat(histogram.getProbabilities(),
+                equalTo(Collections.singletonMap(START.plusDays(8), new BigDecimal("1.00000000"))));
+    }
+
+    @Test
+    public void aTaskStartsWhenAllItsPredecessorsHaveFinished() {
+        givenSimulation(3);
+        givenCertainDuration(0, START, 2);
+        givenCertainDuration(1, START, 5);
+        givenCertainDuration(2, START, 1);
+        simulation.addDependency(0, 2);
+        simulation.addDependency(1, 2);
+
+        MonteCarloHistogram histogram = simulation.run(1000, null, null);
+
+        assertThat(histogram.getTimesEndingAt(START.plusDays(6)), equalTo(1000L));
+    }
+
+    @Test
+    public void aTaskWithoutPredecessorsStartsAtItsOwnStart() {
+        givenSimulation(2);
+        givenCertainDuration(0, START, 3);
+        givenCertainDuration(1, START.plusDays(10), 1);
+
+        MonteCarloHistogram histogram = simulation.run(1000, null, null);
+
+        assertThat(histogram.getTimesEndingAt(START.plusDays(11)), equalTo(1000L));
+    }
+
+    @Test
+    public void thePercentilesFollowTheProbabilitiesOfTheDurations() {
+        givenSimulation(1);
+        simulation.setEstimations(0, START, 3, 6, 9, 30, 50);
+
+        MonteCarloHistogram histogram = simulation.run(200000, 1L, null);
+
+        assertThat(histogram.getPercentile(10), equalTo(START.plusDays(3)));
+        assertThat(histogram.getPercentile(50), equalTo(START.plusDays(6)));
+        assertThat(histogram.getPercentile(80), equalTo(START.plusDays(9)));
+        assertThat(histogram.getPercentile(95), equalTo(START.plusDays(9)));
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameResult() {
+        givenSimulation(4);
+        for (int i = 0; i < 4; i++) {
+            simulation.setEstimations(i, START, 1 + i, 3 + i, 7 + i, 30, 50);
+        }
+        simulation.addDependency(0, 2);
+        simulation.addDependency(1, 2);
+        simulation.addDependency(1, 3);
+
+        MonteCarloHistogram first = simulation.run(100000, 42L, null);
+        MonteCarloHistogram second = simulation.run(100000, 42L, null);
+
+        assertThat(first.getProbabilities(), equalTo(second.getProbabilities()));
+    }
+
+    @Test
+    public void theProgressReachesOneHundred() {
+        givenSimulation(1);
+        givenCertainDuration(0, START, 1);
+        final AtomicInteger maximum = new AtomicInteger();
+
+        simulation.run(100000, null, new IDesktopUpdatesEmitter<Integer>() {
+            @Override
+            public void doUpdate(Integer value) {
+                maximum.accumulateAndGet(value, Math::max);
+            }
+        });
+
+        assertThat(maximum.get(), equalTo(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cyclesAreNotAllowed() {
+        givenSimulation(2);
+        givenCertainDuration(0, START, 1);
+        givenCertainDuration(1, START, 1);
+        simulation.addDependency(0, 1);
+        simulation.addDependency(1, 0);
+
+        simulation.run(10, null, null);
+    }
+
+}
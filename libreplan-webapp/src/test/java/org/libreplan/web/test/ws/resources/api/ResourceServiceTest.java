@@ -73,6 +73,7 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.ResourceEnum;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
+import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.resources.api.CriterionSatisfactionDTO;
 import org.libreplan.ws.resources.api.IResourceService;
 import org.libreplan.ws.resources.api.MachineDTO;
@@ -208,6 +209,32 @@ public class ResourceServiceTest {
 
     }
 
+    @Test
+    @Transactional
+    public void testAddWorkersWithTheSameNifInBatchAndOneByOne() {
+
+        for (boolean batch : new boolean[] {false, true}) {
+
+            /* Create two worker DTOs with the same ID. */
+            String nif = getUniqueName();
+            WorkerDTO w1 = new WorkerDTO(getUniqueName(), "surname", nif);
+            WorkerDTO w2 = new WorkerDTO(getUniqueName(), "surname",
+                nif.toUpperCase());
+
+            /* Test. The second one is rejected in both modes. */
+            InstanceConstraintViolationsListDTO violations =
+                resourceService.addResources(createResourceListDTO(w1, w2),
+                    batch);
+            assertOneConstraintViolation(violations);
+            assertEquals(Long.valueOf(2),
+                violations.instanceConstraintViolationsList.get(0).numItem);
+            assertTrue(resourceDAO.existsByCode(w1.code));
+            assertFalse(resourceDAO.existsByCode(w2.code));
+
+        }
+
+    }
+
     @Test
     @Transactional
     public void testAddResourceWithCriterionSatisfactions() {